@@ -0,0 +1,138 @@
+package stellar.snow.astralis.engine.ecs.storage;
+
+import org.openjdk.jmh.annotations.*;
+import stellar.snow.astralis.engine.ecs.components.Health;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SparseLookupBenchmark - Entity to dense index lookups over 131k entity slots.
+ *
+ * <p>Compares the paged sparse map of {@link ComponentArray} (4 KiB pages, shared zero page)
+ * with the flat entity-indexed int array it replaced, rebuilt here from the same mapping. Every
+ * slot is looked up once per invocation, present or not:</p>
+ * <ul>
+ *   <li>{@code *Sequential} - entity ids in order, as system iteration and batch adds probe</li>
+ *   <li>{@code *Random} - the same ids shuffled, as event handlers and relation lookups probe</li>
+ * </ul>
+ *
+ * <p>{@code density} is the share of slots holding the component; {@code clustered} puts those
+ * entities in one contiguous id range (a mod's entities spawned together) instead of spreading
+ * them over the whole range. Sparse-map bytes of both layouts are printed at setup.</p>
+ *
+ * <pre>
+ * ./gradlew jmh
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "--add-modules", "jdk.incubator.vector"})
+public class SparseLookupBenchmark {
+
+    private static final int ENTITY_SLOTS = 1 << 17;
+
+    @Param({"1.0", "0.01"})
+    public double density;
+
+    @Param({"false", "true"})
+    public boolean clustered;
+
+    private Arena arena;
+    private ComponentArray paged;
+    private MemorySegment flat;
+    private int[] sequential;
+    private int[] shuffled;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        arena = Arena.ofShared();
+        SplittableRandom random = new SplittableRandom(42);
+
+        int members = (int) (ENTITY_SLOTS * density);
+        paged = new ComponentArray(ComponentRegistry.get().registerOrGet(Health.class), members);
+        MemorySegment record = arena.allocate(Health.SIZE, 8);
+        if (clustered) {
+            int first = (ENTITY_SLOTS - members) / 2;
+            for (int e = first; e < first + members; e++) {
+                paged.add(e, record);
+            }
+        } else {
+            for (int e = 0; e < ENTITY_SLOTS; e++) {
+                if (random.nextDouble() < density) {
+                    paged.add(e, record);
+                }
+            }
+        }
+
+        // Pre-paging layout: one int per entity slot up to the highest entity, -1 when absent
+        flat = arena.allocate(ValueLayout.JAVA_INT, ENTITY_SLOTS);
+        for (int e = 0; e < ENTITY_SLOTS; e++) {
+            flat.setAtIndex(ValueLayout.JAVA_INT, e, paged.getDenseIndex(e));
+        }
+
+        sequential = new int[ENTITY_SLOTS];
+        for (int e = 0; e < ENTITY_SLOTS; e++) {
+            sequential[e] = e;
+        }
+        shuffled = sequential.clone();
+        for (int i = shuffled.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = shuffled[i];
+            shuffled[i] = shuffled[j];
+            shuffled[j] = t;
+        }
+
+        System.out.println("[SparseLookupBenchmark] density=" + density + " clustered=" + clustered
+            + ": paged " + paged.getSparseSize() + " bytes, flat " + paged.getFlatSparseSize() + " bytes");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        paged.close();
+        arena.close();
+    }
+
+    @Benchmark
+    public long pagedSequential() {
+        return lookupPaged(sequential);
+    }
+
+    @Benchmark
+    public long pagedRandom() {
+        return lookupPaged(shuffled);
+    }
+
+    @Benchmark
+    public long flatSequential() {
+        return lookupFlat(sequential);
+    }
+
+    @Benchmark
+    public long flatRandom() {
+        return lookupFlat(shuffled);
+    }
+
+    private long lookupPaged(int[] entities) {
+        long sum = 0;
+        for (int e : entities) {
+            sum += paged.getDenseIndex(e);
+        }
+        return sum;
+    }
+
+    private long lookupFlat(int[] entities) {
+        long sum = 0;
+        long slots = flat.byteSize() / Integer.BYTES;
+        for (int e : entities) {
+            sum += e < slots ? flat.getAtIndex(ValueLayout.JAVA_INT, e) : -1;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,178 @@
+package stellar.snow.astralis.engine.ecs.util;
+
+import org.openjdk.jmh.annotations.*;
+import stellar.snow.astralis.engine.ecs.components.Transform;
+import stellar.snow.astralis.engine.ecs.components.Velocity;
+import stellar.snow.astralis.engine.ecs.storage.ComponentArray;
+import stellar.snow.astralis.engine.ecs.storage.ComponentRegistry;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PhysicsBenchmark - Velocity integration over Transform (40-byte) and Velocity (24-byte) columns.
+ *
+ * <p>Three ways to run the {@code PhysicsSystem} step (gravity, drag, position/rotation
+ * integration, angle wrapping, dirty flag):</p>
+ * <ul>
+ *   <li>{@code vectorStrided} - one masked vector per record and pass
+ *       ({@code SIMDComponentOps} strided ops), then a scalar angle pass</li>
+ *   <li>{@code fusedScalar} - one scalar pass over both segments, as {@code PhysicsSystem} does
+ *       through {@code CompiledQuery.forEachBatch}</li>
+ *   <li>{@code perEntity} - {@link ComponentArray#getFloat}/{@link ComponentArray#setFloat} per
+ *       field and entity, the pre-column baseline</li>
+ * </ul>
+ *
+ * <pre>
+ * ./gradlew jmh
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "--add-modules", "jdk.incubator.vector"})
+public class PhysicsBenchmark {
+
+    private static final long VELOCITY_Y = 4;
+    private static final long TRANSFORM_ROT_X = 12;
+    private static final long TRANSFORM_ROT_Z = 20;
+    private static final long TRANSFORM_DIRTY = 36;
+    private static final int LINEAR_FIELDS = 3;
+    private static final int MOTION_FIELDS = 6;
+    private static final float DT = 0.05f;
+    private static final float GRAVITY = -9.81f;
+    private static final float PI = (float) Math.PI;
+    private static final float TWO_PI = (float) (2 * Math.PI);
+
+    @Param({"10000", "100000", "1000000"})
+    public int entities;
+
+    /** Air drag; 0 skips the drag pass like {@code PhysicsSystem} does */
+    @Param({"0", "0.1"})
+    public float drag;
+
+    private Arena arena;
+    private MemorySegment transforms;
+    private MemorySegment velocities;
+    private ComponentArray transformArray;
+    private ComponentArray velocityArray;
+    private float dragFactor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        arena = Arena.ofShared();
+        transforms = arena.allocate((long) entities * Transform.SIZE, 64);
+        velocities = arena.allocate((long) entities * Velocity.SIZE, 64);
+        dragFactor = drag > 0 ? (float) Math.pow(1.0 - drag, DT) : 1.0f;
+
+        ComponentRegistry registry = ComponentRegistry.get();
+        transformArray = new ComponentArray(registry.registerOrGet(Transform.class), entities);
+        velocityArray = new ComponentArray(registry.registerOrGet(Velocity.class), entities);
+
+        SplittableRandom random = new SplittableRandom(42);
+        for (int e = 0; e < entities; e++) {
+            long transformBase = (long) e * Transform.SIZE;
+            long velocityBase = (long) e * Velocity.SIZE;
+            for (int f = 0; f < MOTION_FIELDS; f++) {
+                transforms.set(ValueLayout.JAVA_FLOAT, transformBase + (long) f * Float.BYTES,
+                    (float) random.nextDouble(-PI, PI));
+                velocities.set(ValueLayout.JAVA_FLOAT, velocityBase + (long) f * Float.BYTES,
+                    (float) random.nextDouble(-2, 2));
+            }
+            for (long o = 24; o < TRANSFORM_DIRTY; o += Float.BYTES) {
+                transforms.set(ValueLayout.JAVA_FLOAT, transformBase + o, 1f);
+            }
+            transformArray.add(e, transforms.asSlice(transformBase, Transform.SIZE));
+            velocityArray.add(e, velocities.asSlice(velocityBase, Velocity.SIZE));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        transformArray.close();
+        velocityArray.close();
+        arena.close();
+    }
+
+    @Benchmark
+    public MemorySegment vectorStrided() {
+        SIMDComponentOps.addFloatStrided(velocities, Velocity.SIZE, VELOCITY_Y, 1, GRAVITY * DT, entities);
+        if (dragFactor != 1.0f) {
+            SIMDComponentOps.scaleFloatStrided(velocities, Velocity.SIZE, 0, MOTION_FIELDS, dragFactor, entities);
+        }
+        SIMDComponentOps.axpyFloatStrided(transforms, Transform.SIZE, 0,
+            velocities, Velocity.SIZE, 0, MOTION_FIELDS, DT, entities);
+        for (int i = 0; i < entities; i++) {
+            long base = (long) i * Transform.SIZE;
+            for (long offset = TRANSFORM_ROT_X; offset <= TRANSFORM_ROT_Z; offset += Float.BYTES) {
+                transforms.set(ValueLayout.JAVA_FLOAT, base + offset,
+                    normalizeAngle(transforms.get(ValueLayout.JAVA_FLOAT, base + offset)));
+            }
+            transforms.set(ValueLayout.JAVA_INT, base + TRANSFORM_DIRTY, 1);
+        }
+        return transforms;
+    }
+
+    @Benchmark
+    public MemorySegment fusedScalar() {
+        float gravityStep = GRAVITY * DT;
+        for (int i = 0; i < entities; i++) {
+            long transformBase = (long) i * Transform.SIZE;
+            long velocityBase = (long) i * Velocity.SIZE;
+            velocities.set(ValueLayout.JAVA_FLOAT, velocityBase + VELOCITY_Y,
+                velocities.get(ValueLayout.JAVA_FLOAT, velocityBase + VELOCITY_Y) + gravityStep);
+            for (int f = 0; f < MOTION_FIELDS; f++) {
+                long velocityOffset = velocityBase + (long) f * Float.BYTES;
+                float velocity = velocities.get(ValueLayout.JAVA_FLOAT, velocityOffset);
+                if (dragFactor != 1.0f) {
+                    velocity *= dragFactor;
+                    velocities.set(ValueLayout.JAVA_FLOAT, velocityOffset, velocity);
+                }
+                long transformOffset = transformBase + (long) f * Float.BYTES;
+                float value = transforms.get(ValueLayout.JAVA_FLOAT, transformOffset) + velocity * DT;
+                transforms.set(ValueLayout.JAVA_FLOAT, transformOffset,
+                    f < LINEAR_FIELDS ? value : normalizeAngle(value));
+            }
+            transforms.set(ValueLayout.JAVA_INT, transformBase + TRANSFORM_DIRTY, 1);
+        }
+        return transforms;
+    }
+
+    @Benchmark
+    public ComponentArray perEntity() {
+        float gravityStep = GRAVITY * DT;
+        for (int e = 0; e < entities; e++) {
+            velocityArray.setFloat(e, (int) VELOCITY_Y, velocityArray.getFloat(e, (int) VELOCITY_Y) + gravityStep);
+            for (int f = 0; f < MOTION_FIELDS; f++) {
+                int offset = f * Float.BYTES;
+                float velocity = velocityArray.getFloat(e, offset);
+                if (dragFactor != 1.0f) {
+                    velocity *= dragFactor;
+                    velocityArray.setFloat(e, offset, velocity);
+                }
+                float value = transformArray.getFloat(e, offset) + velocity * DT;
+                transformArray.setFloat(e, offset, f < LINEAR_FIELDS ? value : normalizeAngle(value));
+            }
+            transformArray.setFloat(e, (int) TRANSFORM_DIRTY, Float.intBitsToFloat(1));
+        }
+        return transformArray;
+    }
+
+    private static float normalizeAngle(float angle) {
+        if (angle >= -PI && angle <= PI) {
+            return angle;
+        }
+        angle = angle % TWO_PI;
+        if (angle > PI) {
+            angle -= TWO_PI;
+        } else if (angle < -PI) {
+            angle += TWO_PI;
+        }
+        return angle;
+    }
+}
@@ -1,6 +1,7 @@
 package stellar.snow.astralis;
 
 import net.minecraftforge.fml.relauncher.IFMLLoadingPlugin;
+import stellar.snow.astralis.integration.Asto.Asto;
 import stellar.snow.astralis.integration.DeepMix.DeepMix;
 import stellar.snow.astralis.integration.Mini_DirtyRoom.Mini_DirtyRoomCore;
 
@@ -46,7 +47,8 @@ public class AstralisCore implements IFMLLoadingPlugin, DeepMix.IEarlyMixinLoade
 
     @Override
     public void injectData(Map<String, Object> data) {
-        // Access MC version, runtimeDeobf flag, etc. here if needed later
+        // Deobfuscation mappings are loaded by now (FMLDeobfTweaker runs first)
+        Asto.onCoremodInit(data);
     }
 
     @Override
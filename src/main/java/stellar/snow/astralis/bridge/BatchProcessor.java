@@ -1,12 +1,14 @@
 package stellar.snow.astralis.bridge;
 
 import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
 import jdk.incubator.vector.VectorOperators;
 import jdk.incubator.vector.VectorSpecies;
 import net.minecraft.entity.Entity;
 
 import java.lang.foreign.MemorySegment;
 import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.RecursiveAction;
 
@@ -19,6 +21,7 @@ import java.util.concurrent.RecursiveAction;
  *   <li>Sequential memory access patterns for cache efficiency</li>
  *   <li>Fork-Join parallelism for large batches</li>
  *   <li>Prefetching hints for memory controller</li>
+ *   <li>Contiguous column loops when the store keeps SoA transforms</li>
  * </ul>
  */
 public final class BatchProcessor {
@@ -26,14 +29,15 @@ public final class BatchProcessor {
     private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
     private static final int VECTOR_LENGTH = SPECIES.length();
 
+    private static final ByteOrder NATIVE_ORDER = ByteOrder.nativeOrder();
+
     /** Threshold for parallel processing */
     private static final int PARALLEL_THRESHOLD = 256;
 
     /** Chunk size for parallel work splitting */
     private static final int PARALLEL_CHUNK_SIZE = 64;
 
-    private final MemorySegment componentMemory;
-    private final int entityBlockSize;
+    private final EntitySlabStore store;
     private final ForkJoinPool pool;
 
     // Preallocated arrays for batch operations (thread-local)
@@ -42,9 +46,8 @@ public final class BatchProcessor {
     private static final ThreadLocal<double[]> VELOCITY_BUFFER =
             ThreadLocal.withInitial(() -> new double[PARALLEL_CHUNK_SIZE * 3]);
 
-    public BatchProcessor(MemorySegment componentMemory, int entityBlockSize) {
-        this.componentMemory = componentMemory;
-        this.entityBlockSize = entityBlockSize;
+    public BatchProcessor(EntitySlabStore store) {
+        this.store = store;
         this.pool = ForkJoinPool.commonPool();
     }
 
@@ -58,39 +61,58 @@ public final class BatchProcessor {
      *
      * @param slots     array of active slot indices
      * @param count     number of active slots
-     * @param mcEntities array of Minecraft entity references
      */
-    public void syncInbound(int[] slots, int count, Entity[] mcEntities) {
+    public void syncInbound(int[] slots, int count) {
         if (count == 0) return;
 
         if (count >= PARALLEL_THRESHOLD) {
-            syncInboundParallel(slots, count, mcEntities);
+            syncInboundParallel(slots, count);
         } else {
-            syncInboundSequential(slots, count, mcEntities);
+            syncInboundSequential(slots, 0, count, store);
         }
     }
 
-    private void syncInboundSequential(int[] slots, int count, Entity[] mcEntities) {
-        for (int i = 0; i < count; i++) {
+    private static void syncInboundSequential(int[] slots, int start, int end, EntitySlabStore store) {
+        for (int i = start; i < end; i++) {
             int slot = slots[i];
-            Entity mc = mcEntities[slot];
+            Entity mc = store.mcEntity(slot);
             if (mc == null) continue;
 
-            long base = (long) slot * entityBlockSize;
+            MemorySegment componentMemory = store.memory(slot);
+            long base = store.offset(slot);
+
+            MemorySegment columns = store.columns(slot);
+            if (columns != null) {
+                int index = slot & EntitySlabStore.SLAB_MASK;
 
-            // Copy current to previous (for interpolation)
-            BridgeComponents.copyToPrevious(componentMemory, base);
+                // Copy current to previous (for interpolation)
+                BridgeComponents.soaCopyToPrevious(columns, index);
 
-            // Read new values from MC entity
-            componentMemory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_X, mc.posX);
-            componentMemory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_Y, mc.posY);
-            componentMemory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_Z, mc.posZ);
-            componentMemory.set(ValueLayout.JAVA_FLOAT, base + BridgeComponents.TRANSFORM_YAW, mc.rotationYaw);
-            componentMemory.set(ValueLayout.JAVA_FLOAT, base + BridgeComponents.TRANSFORM_PITCH, mc.rotationPitch);
+                // Read new values from MC entity
+                BridgeComponents.soaSetDouble(columns, BridgeComponents.SOA_X, index, mc.posX);
+                BridgeComponents.soaSetDouble(columns, BridgeComponents.SOA_Y, index, mc.posY);
+                BridgeComponents.soaSetDouble(columns, BridgeComponents.SOA_Z, index, mc.posZ);
+                BridgeComponents.soaSetFloat(columns, BridgeComponents.SOA_YAW, index, mc.rotationYaw);
+                BridgeComponents.soaSetFloat(columns, BridgeComponents.SOA_PITCH, index, mc.rotationPitch);
 
-            componentMemory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.VELOCITY_X, mc.motionX);
-            componentMemory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.VELOCITY_Y, mc.motionY);
-            componentMemory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.VELOCITY_Z, mc.motionZ);
+                BridgeComponents.soaSetDouble(columns, BridgeComponents.SOA_VELOCITY_X, index, mc.motionX);
+                BridgeComponents.soaSetDouble(columns, BridgeComponents.SOA_VELOCITY_Y, index, mc.motionY);
+                BridgeComponents.soaSetDouble(columns, BridgeComponents.SOA_VELOCITY_Z, index, mc.motionZ);
+            } else {
+                // Copy current to previous (for interpolation)
+                BridgeComponents.copyToPrevious(componentMemory, base);
+
+                // Read new values from MC entity
+                componentMemory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_X, mc.posX);
+                componentMemory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_Y, mc.posY);
+                componentMemory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_Z, mc.posZ);
+                componentMemory.set(ValueLayout.JAVA_FLOAT, base + BridgeComponents.TRANSFORM_YAW, mc.rotationYaw);
+                componentMemory.set(ValueLayout.JAVA_FLOAT, base + BridgeComponents.TRANSFORM_PITCH, mc.rotationPitch);
+
+                componentMemory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.VELOCITY_X, mc.motionX);
+                componentMemory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.VELOCITY_Y, mc.motionY);
+                componentMemory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.VELOCITY_Z, mc.motionZ);
+            }
 
             // Compute and cache velocity magnitude
             float speed = (float) Math.sqrt(mc.motionX * mc.motionX + mc.motionY * mc.motionY + mc.motionZ * mc.motionZ);
@@ -98,25 +120,21 @@ public final class BatchProcessor {
         }
     }
 
-    private void syncInboundParallel(int[] slots, int count, Entity[] mcEntities) {
-        pool.invoke(new InboundSyncTask(slots, 0, count, mcEntities, componentMemory, entityBlockSize));
+    private void syncInboundParallel(int[] slots, int count) {
+        pool.invoke(new InboundSyncTask(slots, 0, count, store));
     }
 
     private static final class InboundSyncTask extends RecursiveAction {
         private final int[] slots;
         private final int start;
         private final int end;
-        private final Entity[] mcEntities;
-        private final MemorySegment memory;
-        private final int blockSize;
+        private final EntitySlabStore store;
 
-        InboundSyncTask(int[] slots, int start, int end, Entity[] mcEntities, MemorySegment memory, int blockSize) {
+        InboundSyncTask(int[] slots, int start, int end, EntitySlabStore store) {
             this.slots = slots;
             this.start = start;
             this.end = end;
-            this.mcEntities = mcEntities;
-            this.memory = memory;
-            this.blockSize = blockSize;
+            this.store = store;
         }
 
         @Override
@@ -124,40 +142,15 @@ public final class BatchProcessor {
             int length = end - start;
 
             if (length <= PARALLEL_CHUNK_SIZE) {
-                computeDirectly();
+                syncInboundSequential(slots, start, end, store);
             } else {
                 int mid = start + length / 2;
                 invokeAll(
-                        new InboundSyncTask(slots, start, mid, mcEntities, memory, blockSize),
-                        new InboundSyncTask(slots, mid, end, mcEntities, memory, blockSize)
+                        new InboundSyncTask(slots, start, mid, store),
+                        new InboundSyncTask(slots, mid, end, store)
                 );
             }
         }
-
-        private void computeDirectly() {
-            for (int i = start; i < end; i++) {
-                int slot = slots[i];
-                Entity mc = mcEntities[slot];
-                if (mc == null) continue;
-
-                long base = (long) slot * blockSize;
-
-                BridgeComponents.copyToPrevious(memory, base);
-
-                memory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_X, mc.posX);
-                memory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_Y, mc.posY);
-                memory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_Z, mc.posZ);
-                memory.set(ValueLayout.JAVA_FLOAT, base + BridgeComponents.TRANSFORM_YAW, mc.rotationYaw);
-                memory.set(ValueLayout.JAVA_FLOAT, base + BridgeComponents.TRANSFORM_PITCH, mc.rotationPitch);
-
-                memory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.VELOCITY_X, mc.motionX);
-                memory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.VELOCITY_Y, mc.motionY);
-                memory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.VELOCITY_Z, mc.motionZ);
-
-                float speed = (float) Math.sqrt(mc.motionX * mc.motionX + mc.motionY * mc.motionY + mc.motionZ * mc.motionZ);
-                memory.set(ValueLayout.JAVA_FLOAT, base + BridgeComponents.VELOCITY_SPEED, speed);
-            }
-        }
     }
 
     // ========================================================================
@@ -170,69 +163,82 @@ public final class BatchProcessor {
      *
      * @param slots     array of active slot indices
      * @param count     number of active slots
-     * @param mcEntities array of Minecraft entity references
      */
-    public void syncOutbound(int[] slots, int count, Entity[] mcEntities) {
+    public void syncOutbound(int[] slots, int count) {
         if (count == 0) return;
 
         if (count >= PARALLEL_THRESHOLD) {
-            syncOutboundParallel(slots, count, mcEntities);
+            syncOutboundParallel(slots, count);
         } else {
-            syncOutboundSequential(slots, count, mcEntities);
+            syncOutboundSequential(slots, 0, count, store);
         }
     }
 
-    private void syncOutboundSequential(int[] slots, int count, Entity[] mcEntities) {
-        for (int i = 0; i < count; i++) {
+    private static void syncOutboundSequential(int[] slots, int start, int end, EntitySlabStore store) {
+        for (int i = start; i < end; i++) {
             int slot = slots[i];
-            Entity mc = mcEntities[slot];
+            Entity mc = store.mcEntity(slot);
             if (mc == null) continue;
 
-            long base = (long) slot * entityBlockSize;
+            MemorySegment componentMemory = store.memory(slot);
+            long base = store.offset(slot);
 
             // Check dirty flags
             long flags = BridgeComponents.getAndClearDirtyFlags(componentMemory, base);
             if (flags == 0) continue;
 
+            MemorySegment columns = store.columns(slot);
+            int index = slot & EntitySlabStore.SLAB_MASK;
+
             // Write back dirty components
             if ((flags & BridgeComponents.FLAG_TRANSFORM_DIRTY) != 0) {
-                mc.posX = componentMemory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_X);
-                mc.posY = componentMemory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_Y);
-                mc.posZ = componentMemory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_Z);
-                mc.rotationYaw = componentMemory.get(ValueLayout.JAVA_FLOAT, base + BridgeComponents.TRANSFORM_YAW);
-                mc.rotationPitch = componentMemory.get(ValueLayout.JAVA_FLOAT, base + BridgeComponents.TRANSFORM_PITCH);
+                if (columns != null) {
+                    mc.posX = BridgeComponents.soaGetDouble(columns, BridgeComponents.SOA_X, index);
+                    mc.posY = BridgeComponents.soaGetDouble(columns, BridgeComponents.SOA_Y, index);
+                    mc.posZ = BridgeComponents.soaGetDouble(columns, BridgeComponents.SOA_Z, index);
+                    mc.rotationYaw = BridgeComponents.soaGetFloat(columns, BridgeComponents.SOA_YAW, index);
+                    mc.rotationPitch = BridgeComponents.soaGetFloat(columns, BridgeComponents.SOA_PITCH, index);
+                } else {
+                    mc.posX = componentMemory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_X);
+                    mc.posY = componentMemory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_Y);
+                    mc.posZ = componentMemory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_Z);
+                    mc.rotationYaw = componentMemory.get(ValueLayout.JAVA_FLOAT, base + BridgeComponents.TRANSFORM_YAW);
+                    mc.rotationPitch = componentMemory.get(ValueLayout.JAVA_FLOAT, base + BridgeComponents.TRANSFORM_PITCH);
+                }
 
                 // Update bounding box
                 mc.setPosition(mc.posX, mc.posY, mc.posZ);
             }
 
             if ((flags & BridgeComponents.FLAG_VELOCITY_DIRTY) != 0) {
-                mc.motionX = componentMemory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.VELOCITY_X);
-                mc.motionY = componentMemory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.VELOCITY_Y);
-                mc.motionZ = componentMemory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.VELOCITY_Z);
+                if (columns != null) {
+                    mc.motionX = BridgeComponents.soaGetDouble(columns, BridgeComponents.SOA_VELOCITY_X, index);
+                    mc.motionY = BridgeComponents.soaGetDouble(columns, BridgeComponents.SOA_VELOCITY_Y, index);
+                    mc.motionZ = BridgeComponents.soaGetDouble(columns, BridgeComponents.SOA_VELOCITY_Z, index);
+                } else {
+                    mc.motionX = componentMemory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.VELOCITY_X);
+                    mc.motionY = componentMemory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.VELOCITY_Y);
+                    mc.motionZ = componentMemory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.VELOCITY_Z);
+                }
             }
         }
     }
 
-    private void syncOutboundParallel(int[] slots, int count, Entity[] mcEntities) {
-        pool.invoke(new OutboundSyncTask(slots, 0, count, mcEntities, componentMemory, entityBlockSize));
+    private void syncOutboundParallel(int[] slots, int count) {
+        pool.invoke(new OutboundSyncTask(slots, 0, count, store));
     }
 
     private static final class OutboundSyncTask extends RecursiveAction {
         private final int[] slots;
         private final int start;
         private final int end;
-        private final Entity[] mcEntities;
-        private final MemorySegment memory;
-        private final int blockSize;
+        private final EntitySlabStore store;
 
-        OutboundSyncTask(int[] slots, int start, int end, Entity[] mcEntities, MemorySegment memory, int blockSize) {
+        OutboundSyncTask(int[] slots, int start, int end, EntitySlabStore store) {
             this.slots = slots;
             this.start = start;
             this.end = end;
-            this.mcEntities = mcEntities;
-            this.memory = memory;
-            this.blockSize = blockSize;
+            this.store = store;
         }
 
         @Override
@@ -240,43 +246,15 @@ public final class BatchProcessor {
             int length = end - start;
 
             if (length <= PARALLEL_CHUNK_SIZE) {
-                computeDirectly();
+                syncOutboundSequential(slots, start, end, store);
             } else {
                 int mid = start + length / 2;
                 invokeAll(
-                        new OutboundSyncTask(slots, start, mid, mcEntities, memory, blockSize),
-                        new OutboundSyncTask(slots, mid, end, mcEntities, memory, blockSize)
+                        new OutboundSyncTask(slots, start, mid, store),
+                        new OutboundSyncTask(slots, mid, end, store)
                 );
             }
         }
-
-        private void computeDirectly() {
-            for (int i = start; i < end; i++) {
-                int slot = slots[i];
-                Entity mc = mcEntities[slot];
-                if (mc == null) continue;
-
-                long base = (long) slot * blockSize;
-
-                long flags = BridgeComponents.getAndClearDirtyFlags(memory, base);
-                if (flags == 0) continue;
-
-                if ((flags & BridgeComponents.FLAG_TRANSFORM_DIRTY) != 0) {
-                    mc.posX = memory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_X);
-                    mc.posY = memory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_Y);
-                    mc.posZ = memory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_Z);
-                    mc.rotationYaw = memory.get(ValueLayout.JAVA_FLOAT, base + BridgeComponents.TRANSFORM_YAW);
-                    mc.rotationPitch = memory.get(ValueLayout.JAVA_FLOAT, base + BridgeComponents.TRANSFORM_PITCH);
-                    mc.setPosition(mc.posX, mc.posY, mc.posZ);
-                }
-
-                if ((flags & BridgeComponents.FLAG_VELOCITY_DIRTY) != 0) {
-                    mc.motionX = memory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.VELOCITY_X);
-                    mc.motionY = memory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.VELOCITY_Y);
-                    mc.motionZ = memory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.VELOCITY_Z);
-                }
-            }
-        }
     }
 
     // ========================================================================
@@ -287,65 +265,63 @@ public final class BatchProcessor {
      * Batch velocity integration using Vector API.
      * Updates positions based on velocities.
      *
+     * <p>With SoA columns, slots are walked as runs of consecutive indices within a slab
+     * (as produced by the bridge's ascending slot scan) and each run is a contiguous
+     * {@code pos = fma(vel, dt, pos)} over the position columns. In AoS mode positions and
+     * velocities are gathered {@code VECTOR_LENGTH} entities at a time.</p>
+     *
      * @param slots     active slot indices
      * @param count     number of slots
      * @param deltaTime time step in seconds
      */
     public void integrateVelocities(int[] slots, int count, float deltaTime) {
+        if (store.hasColumns()) {
+            integrateColumns(slots, count, deltaTime);
+            return;
+        }
+
         double dt = deltaTime;
+        DoubleVector dtv = DoubleVector.broadcast(SPECIES, dt);
 
         int vectorized = (count / VECTOR_LENGTH) * VECTOR_LENGTH;
 
+        // x, y and z lanes for VECTOR_LENGTH entities, reused across iterations
+        double[] pos = POSITION_BUFFER.get();
+        double[] vel = VELOCITY_BUFFER.get();
+        int py = VECTOR_LENGTH;
+        int pz = VECTOR_LENGTH << 1;
+
         // Vectorized loop (processes VECTOR_LENGTH entities at once)
         for (int i = 0; i < vectorized; i += VECTOR_LENGTH) {
-            // Load positions and velocities for VECTOR_LENGTH entities
-            double[] px = new double[VECTOR_LENGTH];
-            double[] py = new double[VECTOR_LENGTH];
-            double[] pz = new double[VECTOR_LENGTH];
-            double[] vx = new double[VECTOR_LENGTH];
-            double[] vy = new double[VECTOR_LENGTH];
-            double[] vz = new double[VECTOR_LENGTH];
-
             for (int j = 0; j < VECTOR_LENGTH; j++) {
                 int slot = slots[i + j];
-                long base = (long) slot * entityBlockSize;
-
-                px[j] = componentMemory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_X);
-                py[j] = componentMemory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_Y);
-                pz[j] = componentMemory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_Z);
-                vx[j] = componentMemory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.VELOCITY_X);
-                vy[j] = componentMemory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.VELOCITY_Y);
-                vz[j] = componentMemory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.VELOCITY_Z);
+                MemorySegment componentMemory = store.memory(slot);
+                long base = store.offset(slot);
+
+                pos[j] = componentMemory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_X);
+                pos[py + j] = componentMemory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_Y);
+                pos[pz + j] = componentMemory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_Z);
+                vel[j] = componentMemory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.VELOCITY_X);
+                vel[py + j] = componentMemory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.VELOCITY_Y);
+                vel[pz + j] = componentMemory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.VELOCITY_Z);
             }
 
             // SIMD: newPos = pos + vel * dt
-            DoubleVector pxv = DoubleVector.fromArray(SPECIES, px, 0);
-            DoubleVector pyv = DoubleVector.fromArray(SPECIES, py, 0);
-            DoubleVector pzv = DoubleVector.fromArray(SPECIES, pz, 0);
-            DoubleVector vxv = DoubleVector.fromArray(SPECIES, vx, 0);
-            DoubleVector vyv = DoubleVector.fromArray(SPECIES, vy, 0);
-            DoubleVector vzv = DoubleVector.fromArray(SPECIES, vz, 0);
-
-            pxv = pxv.add(vxv.mul(dt));
-            pyv = pyv.add(vyv.mul(dt));
-            pzv = pzv.add(vzv.mul(dt));
+            for (int axis = 0; axis <= pz; axis += VECTOR_LENGTH) {
+                DoubleVector p = DoubleVector.fromArray(SPECIES, pos, axis);
+                DoubleVector v = DoubleVector.fromArray(SPECIES, vel, axis);
+                v.fma(dtv, p).intoArray(pos, axis);
+            }
 
             // Store results back
-            double[] newPx = new double[VECTOR_LENGTH];
-            double[] newPy = new double[VECTOR_LENGTH];
-            double[] newPz = new double[VECTOR_LENGTH];
-
-            pxv.intoArray(newPx, 0);
-            pyv.intoArray(newPy, 0);
-            pzv.intoArray(newPz, 0);
-
             for (int j = 0; j < VECTOR_LENGTH; j++) {
                 int slot = slots[i + j];
-                long base = (long) slot * entityBlockSize;
+                MemorySegment componentMemory = store.memory(slot);
+                long base = store.offset(slot);
 
-                componentMemory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_X, newPx[j]);
-                componentMemory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_Y, newPy[j]);
-                componentMemory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_Z, newPz[j]);
+                componentMemory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_X, pos[j]);
+                componentMemory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_Y, pos[py + j]);
+                componentMemory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_Z, pos[pz + j]);
 
                 BridgeComponents.setFlags(componentMemory, base, BridgeComponents.FLAG_TRANSFORM_DIRTY);
             }
@@ -354,7 +330,8 @@ public final class BatchProcessor {
         // Scalar remainder
         for (int i = vectorized; i < count; i++) {
             int slot = slots[i];
-            long base = (long) slot * entityBlockSize;
+            MemorySegment componentMemory = store.memory(slot);
+            long base = store.offset(slot);
 
             double x = componentMemory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_X);
             double y = componentMemory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_Y);
@@ -370,4 +347,46 @@ public final class BatchProcessor {
             BridgeComponents.setFlags(componentMemory, base, BridgeComponents.FLAG_TRANSFORM_DIRTY);
         }
     }
+
+    private void integrateColumns(int[] slots, int count, float deltaTime) {
+        DoubleVector dt = DoubleVector.broadcast(SPECIES, deltaTime);
+
+        int i = 0;
+        while (i < count) {
+            // Extend the run while slots stay consecutive and inside one slab
+            int first = slots[i];
+            int runEnd = i + 1;
+            while (runEnd < count
+                    && slots[runEnd] == slots[runEnd - 1] + 1
+                    && (slots[runEnd] & EntitySlabStore.SLAB_MASK) != 0) {
+                runEnd++;
+            }
+            int run = runEnd - i;
+
+            MemorySegment columns = store.columns(first);
+            int start = first & EntitySlabStore.SLAB_MASK;
+
+            for (int axis = 0; axis < 3; axis++) {
+                long position = BridgeComponents.soaDoubleColumn(BridgeComponents.SOA_X + axis);
+                long velocity = BridgeComponents.soaDoubleColumn(BridgeComponents.SOA_VELOCITY_X + axis);
+
+                for (int r = 0; r < run; r += VECTOR_LENGTH) {
+                    VectorMask<Double> m = SPECIES.indexInRange(r, run);
+                    long at = (long) (start + r) * Double.BYTES;
+                    DoubleVector p = DoubleVector.fromMemorySegment(SPECIES, columns, position + at, NATIVE_ORDER, m);
+                    DoubleVector v = DoubleVector.fromMemorySegment(SPECIES, columns, velocity + at, NATIVE_ORDER, m);
+                    v.fma(dt, p).intoMemorySegment(columns, position + at, NATIVE_ORDER, m);
+                }
+            }
+
+            // Dirty flags stay in the AoS metadata
+            MemorySegment componentMemory = store.memory(first);
+            for (int r = 0; r < run; r++) {
+                BridgeComponents.setFlags(componentMemory, store.offset(first + r),
+                        BridgeComponents.FLAG_TRANSFORM_DIRTY);
+            }
+
+            i = runEnd;
+        }
+    }
 }
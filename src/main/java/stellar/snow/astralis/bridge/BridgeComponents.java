@@ -53,6 +53,13 @@ import java.lang.invoke.VarHandle;
  *
  * 224     32    Reserved/User Data
  * </pre>
+ *
+ * <h2>SoA Transform Columns (optional, one block per slab):</h2>
+ * <p>When the bridge runs with SoA transforms, current/previous transform and velocity move
+ * out of the 256-byte blocks into per-slab columns ({@code SOA_*}): nine double columns
+ * followed by six float columns, each {@link #SOA_COLUMN_LENGTH} entries long. The AoS
+ * transform, previous transform and velocity fields are then unused; speed, acceleration,
+ * metadata and user data stay in the block.</p>
  */
 public final class BridgeComponents {
 
@@ -129,6 +136,48 @@ public final class BridgeComponents {
     public static final long USER_DATA_BASE = 224L;
     public static final long USER_DATA_SIZE = 32L;
 
+    // ========================================================================
+    // SoA TRANSFORM COLUMNS (per slab, indexed by slot & SLAB_MASK)
+    // ========================================================================
+
+    public static final int SOA_COLUMN_LENGTH = EntitySlabStore.SLAB_SIZE;
+
+    /** Double columns; previous follows current so both triples are contiguous */
+    public static final int SOA_X = 0;
+    public static final int SOA_Y = 1;
+    public static final int SOA_Z = 2;
+    public static final int SOA_PREV_X = 3;
+    public static final int SOA_PREV_Y = 4;
+    public static final int SOA_PREV_Z = 5;
+    public static final int SOA_VELOCITY_X = 6;
+    public static final int SOA_VELOCITY_Y = 7;
+    public static final int SOA_VELOCITY_Z = 8;
+    public static final int SOA_DOUBLE_COLUMNS = 9;
+
+    /** Float columns */
+    public static final int SOA_YAW = 0;
+    public static final int SOA_PITCH = 1;
+    public static final int SOA_ROLL = 2;
+    public static final int SOA_PREV_YAW = 3;
+    public static final int SOA_PREV_PITCH = 4;
+    public static final int SOA_PREV_ROLL = 5;
+    public static final int SOA_FLOAT_COLUMNS = 6;
+
+    public static final long SOA_FLOAT_BASE = (long) SOA_DOUBLE_COLUMNS * SOA_COLUMN_LENGTH * Double.BYTES;
+    public static final long SOA_BYTES = SOA_FLOAT_BASE + (long) SOA_FLOAT_COLUMNS * SOA_COLUMN_LENGTH * Float.BYTES;
+
+    // ========================================================================
+    // INTERPOLATED TRANSFORM (render output, indexed by slot)
+    // ========================================================================
+
+    public static final long INTERP_X = 0L;
+    public static final long INTERP_Y = 8L;
+    public static final long INTERP_Z = 16L;
+    public static final long INTERP_YAW = 24L;
+    public static final long INTERP_PITCH = 28L;
+    public static final long INTERP_ROLL = 32L;
+    public static final long INTERP_SIZE = 40L;
+
     // ========================================================================
     // GPU-COMPATIBLE TRANSFORM (Packed for shader upload)
     // ========================================================================
@@ -283,4 +332,58 @@ public final class BridgeComponents {
     public static boolean hasFlags(MemorySegment memory, long entityBase, long flags) {
         return (memory.get(ValueLayout.JAVA_LONG, entityBase + META_FLAGS) & flags) != 0;
     }
+
+    // ========================================================================
+    // SoA COLUMN ACCESSORS
+    // ========================================================================
+
+    /** Byte offset of a double column within a slab's column block. */
+    public static long soaDoubleColumn(int column) {
+        return (long) column * SOA_COLUMN_LENGTH * Double.BYTES;
+    }
+
+    /** Byte offset of a float column within a slab's column block. */
+    public static long soaFloatColumn(int column) {
+        return SOA_FLOAT_BASE + (long) column * SOA_COLUMN_LENGTH * Float.BYTES;
+    }
+
+    public static double soaGetDouble(MemorySegment columns, int column, int index) {
+        return columns.get(ValueLayout.JAVA_DOUBLE, soaDoubleColumn(column) + (long) index * Double.BYTES);
+    }
+
+    public static void soaSetDouble(MemorySegment columns, int column, int index, double value) {
+        columns.set(ValueLayout.JAVA_DOUBLE, soaDoubleColumn(column) + (long) index * Double.BYTES, value);
+    }
+
+    public static float soaGetFloat(MemorySegment columns, int column, int index) {
+        return columns.get(ValueLayout.JAVA_FLOAT, soaFloatColumn(column) + (long) index * Float.BYTES);
+    }
+
+    public static void soaSetFloat(MemorySegment columns, int column, int index, float value) {
+        columns.set(ValueLayout.JAVA_FLOAT, soaFloatColumn(column) + (long) index * Float.BYTES, value);
+    }
+
+    /**
+     * Copies current transform to previous transform for one entry.
+     */
+    public static void soaCopyToPrevious(MemorySegment columns, int index) {
+        soaSetDouble(columns, SOA_PREV_X, index, soaGetDouble(columns, SOA_X, index));
+        soaSetDouble(columns, SOA_PREV_Y, index, soaGetDouble(columns, SOA_Y, index));
+        soaSetDouble(columns, SOA_PREV_Z, index, soaGetDouble(columns, SOA_Z, index));
+        soaSetFloat(columns, SOA_PREV_YAW, index, soaGetFloat(columns, SOA_YAW, index));
+        soaSetFloat(columns, SOA_PREV_PITCH, index, soaGetFloat(columns, SOA_PITCH, index));
+        soaSetFloat(columns, SOA_PREV_ROLL, index, soaGetFloat(columns, SOA_ROLL, index));
+    }
+
+    /**
+     * Zeroes every column entry for one index.
+     */
+    public static void soaClear(MemorySegment columns, int index) {
+        for (int c = 0; c < SOA_DOUBLE_COLUMNS; c++) {
+            soaSetDouble(columns, c, index, 0.0);
+        }
+        for (int c = 0; c < SOA_FLOAT_COLUMNS; c++) {
+            soaSetFloat(columns, c, index, 0.0f);
+        }
+    }
 }
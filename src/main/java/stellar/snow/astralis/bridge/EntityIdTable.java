@@ -0,0 +1,282 @@
+package stellar.snow.astralis.bridge;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * EntityIdTable - Lock-free, resizable {@code mcId -> slot} map with incremental rehash.
+ *
+ * <h2>Design:</h2>
+ * <ul>
+ *   <li>Open addressing with linear probing over packed {@code (mcId << 32) | (slot + 1)} longs</li>
+ *   <li>Resizing installs a larger table and keeps the old one readable; writers migrate
+ *       {@link #MIGRATE_CHUNK} buckets per operation until the old table drains</li>
+ *   <li>Lookups probe the current table, then the draining one - they never wait or help</li>
+ *   <li>Entries are hints: every hit is confirmed with the {@link SlotValidator}, so a stale
+ *       entry left behind by a racing migration is harmless and is reused by later inserts</li>
+ * </ul>
+ */
+public final class EntityIdTable {
+
+    /**
+     * Confirms that {@code slot} is still bound to {@code mcId}.
+     */
+    @FunctionalInterface
+    public interface SlotValidator {
+        boolean isLive(int mcId, int slot);
+    }
+
+    // ========================================================================
+    // CONSTANTS
+    // ========================================================================
+
+    private static final int MIN_CAPACITY = 1 << 10;
+
+    /** Buckets moved from the draining table per write */
+    private static final int MIGRATE_CHUNK = 64;
+
+    /** Empty bucket (slot + 1 == 0) */
+    private static final long EMPTY = 0L;
+
+    /** Deleted bucket (slot + 1 == -1); keeps probe chains intact */
+    private static final long TOMBSTONE = 0xFFFFFFFFL;
+
+    // ========================================================================
+    // TABLES
+    // ========================================================================
+
+    private static final class Table {
+        final AtomicLongArray entries;
+        final int mask;
+        final AtomicInteger used = new AtomicInteger();
+        final AtomicInteger migrateCursor = new AtomicInteger();
+        final AtomicInteger migrated = new AtomicInteger();
+
+        Table(int capacity) {
+            this.entries = new AtomicLongArray(capacity);
+            this.mask = capacity - 1;
+        }
+
+        int capacity() {
+            return mask + 1;
+        }
+
+        /** Resize once half of the buckets have ever been used */
+        boolean overloaded() {
+            return used.get() >= capacity() >>> 1;
+        }
+    }
+
+    private record Tables(Table current, Table draining) {}
+
+    private final AtomicReference<Tables> tables;
+    private final SlotValidator validator;
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong resizeCount = new AtomicLong();
+
+    public EntityIdTable(int initialCapacity, SlotValidator validator) {
+        this.tables = new AtomicReference<>(new Tables(new Table(tableSizeFor(initialCapacity)), null));
+        this.validator = validator;
+    }
+
+    // ========================================================================
+    // LOOKUP (Wait-Free)
+    // ========================================================================
+
+    /**
+     * @return slot bound to {@code mcId}, or -1
+     */
+    public int get(int mcId) {
+        Tables t = tables.get();
+        int slot = probe(t.current, mcId);
+        if (slot < 0 && t.draining != null) {
+            slot = probe(t.draining, mcId);
+        }
+        return slot;
+    }
+
+    private int probe(Table table, int mcId) {
+        int idx = hash(mcId) & table.mask;
+        for (int n = 0; n <= table.mask; n++) {
+            long entry = table.entries.getAcquire(idx);
+            if (entry == EMPTY) return -1;
+
+            int slot = slotOf(entry);
+            if (slot >= 0 && keyOf(entry) == mcId && validator.isLive(mcId, slot)) {
+                return slot;
+            }
+            idx = (idx + 1) & table.mask;
+        }
+        return -1;
+    }
+
+    // ========================================================================
+    // MUTATION (Lock-Free)
+    // ========================================================================
+
+    /**
+     * Binds {@code mcId} to {@code slot}. The slot must already validate as live.
+     */
+    public void put(int mcId, int slot) {
+        size.incrementAndGet();
+        while (true) {
+            Tables t = tables.get();
+            helpMigrate(t);
+            insert(t.current, mcId, slot);
+
+            Tables after = tables.get();
+            if (after.current == t.current) {
+                maybeResize(after);
+                return;
+            }
+            // A resize raced us; the bucket may already have been migrated, so insert again
+        }
+    }
+
+    /**
+     * Removes the {@code mcId -> slot} binding.
+     */
+    public void remove(int mcId, int slot) {
+        size.decrementAndGet();
+        Tables t = tables.get();
+        helpMigrate(t);
+        erase(t.current, mcId, slot);
+        if (t.draining != null) {
+            erase(t.draining, mcId, slot);
+        }
+    }
+
+    private void insert(Table table, int mcId, int slot) {
+        long packed = pack(mcId, slot);
+        int idx = hash(mcId) & table.mask;
+
+        for (int n = 0; n <= table.mask; n++) {
+            long entry = table.entries.get(idx);
+            if (entry == packed) return;
+
+            if (entry == EMPTY) {
+                if (table.entries.compareAndSet(idx, EMPTY, packed)) {
+                    table.used.incrementAndGet();
+                    return;
+                }
+                continue; // Re-read the same bucket
+            }
+
+            int existing = slotOf(entry);
+            if (entry == TOMBSTONE || !validator.isLive(keyOf(entry), existing)) {
+                if (table.entries.compareAndSet(idx, entry, packed)) return;
+                continue;
+            }
+            idx = (idx + 1) & table.mask;
+        }
+        throw new IllegalStateException("Entity id table full (" + table.capacity() + " buckets)");
+    }
+
+    private static void erase(Table table, int mcId, int slot) {
+        long packed = pack(mcId, slot);
+        int idx = hash(mcId) & table.mask;
+
+        for (int n = 0; n <= table.mask; n++) {
+            long entry = table.entries.get(idx);
+            if (entry == EMPTY) return;
+            if (entry == packed) {
+                table.entries.compareAndSet(idx, packed, TOMBSTONE);
+            }
+            idx = (idx + 1) & table.mask;
+        }
+    }
+
+    // ========================================================================
+    // INCREMENTAL REHASH
+    // ========================================================================
+
+    private void maybeResize(Tables t) {
+        if (t.draining != null || !t.current.overloaded()) return;
+
+        // Size from live bindings so tombstone-heavy tables compact instead of doubling;
+        // never shrink, so the draining table always empties before the new one fills
+        int capacity = Math.max(t.current.capacity(), tableSizeFor(size.get() << 2));
+        if (tables.compareAndSet(t, new Tables(new Table(capacity), t.current))) {
+            resizeCount.incrementAndGet();
+        }
+    }
+
+    private void helpMigrate(Tables t) {
+        Table old = t.draining;
+        if (old == null) return;
+
+        int length = old.capacity();
+        int start = old.migrateCursor.getAndAdd(MIGRATE_CHUNK);
+        if (start >= length) return;
+
+        int end = Math.min(length, start + MIGRATE_CHUNK);
+        for (int i = start; i < end; i++) {
+            long entry = old.entries.get(i);
+            int slot = slotOf(entry);
+            if (slot >= 0 && validator.isLive(keyOf(entry), slot)) {
+                insert(t.current, keyOf(entry), slot);
+            }
+        }
+
+        if (old.migrated.addAndGet(end - start) == length) {
+            tables.compareAndSet(t, new Tables(t.current, null));
+        }
+    }
+
+    // ========================================================================
+    // ENCODING
+    // ========================================================================
+
+    private static long pack(int mcId, int slot) {
+        return ((long) mcId << 32) | ((slot + 1) & 0xFFFFFFFFL);
+    }
+
+    private static int keyOf(long entry) {
+        return (int) (entry >>> 32);
+    }
+
+    /** Slot, or -1 for empty and -2 for tombstone */
+    private static int slotOf(long entry) {
+        return (int) entry - 1;
+    }
+
+    /**
+     * Murmur3 finalizer.
+     */
+    private static int hash(int mcId) {
+        int h = mcId;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int c = Math.max(MIN_CAPACITY, capacity);
+        return Integer.highestOneBit(c - 1) << 1;
+    }
+
+    // ========================================================================
+    // STATISTICS
+    // ========================================================================
+
+    public int size() {
+        return size.get();
+    }
+
+    public int capacity() {
+        return tables.get().current.capacity();
+    }
+
+    public boolean isRehashing() {
+        return tables.get().draining != null;
+    }
+
+    public long getResizeCount() {
+        return resizeCount.get();
+    }
+}
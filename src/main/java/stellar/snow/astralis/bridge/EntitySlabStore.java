@@ -0,0 +1,331 @@
+package stellar.snow.astralis.bridge;
+
+import stellar.snow.astralis.ecs.Entity;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+/**
+ * EntitySlabStore - Segmented, growable slot storage for bridged entities.
+ *
+ * <h2>Layout:</h2>
+ * <ul>
+ *   <li>Slots live in fixed-size slabs of {@link #SLAB_SIZE} entries</li>
+ *   <li>Each slab owns one cache-line aligned off-heap block plus its slot metadata</li>
+ *   <li>The slab directory doubles on growth; existing slabs are never moved or freed,
+ *       so segments and offsets handed out for a slot stay valid for the store's lifetime</li>
+ *   <li>Free slots form a tagged Treiber stack threaded through the slabs (ABA-safe)</li>
+ *   <li>Optionally, each slab also carries SoA transform columns ({@code BridgeComponents.SOA_*})</li>
+ * </ul>
+ *
+ * <p>Readers only touch the volatile slab directory; growth is serialized on a private lock
+ * and is the only operation that ever blocks.</p>
+ */
+public final class EntitySlabStore implements AutoCloseable {
+
+    // ========================================================================
+    // CONSTANTS
+    // ========================================================================
+
+    /** Slots per slab (4096 x 256 bytes = 1 MiB of component memory) */
+    public static final int SLAB_SHIFT = 12;
+    public static final int SLAB_SIZE = 1 << SLAB_SHIFT;
+    public static final int SLAB_MASK = SLAB_SIZE - 1;
+
+    /** Hard ceiling on slabs, and therefore on slots */
+    public static final int MAX_SLABS = 1 << 10;
+    public static final int MAX_CAPACITY = MAX_SLABS << SLAB_SHIFT; // 4,194,304
+
+    private static final int CACHE_LINE_BYTES = 64;
+
+    /** Low word of the free-list head when the list is empty */
+    private static final int NO_SLOT = -1;
+
+    // ========================================================================
+    // SLAB
+    // ========================================================================
+
+    /**
+     * One segment of the store. Slot {@code s} lives in slab {@code s >>> SLAB_SHIFT}
+     * at index {@code s & SLAB_MASK}.
+     */
+    static final class Slab {
+        final MemorySegment memory;
+        /** SoA transform columns, or {@code null} in AoS mode */
+        final MemorySegment columns;
+        final AtomicIntegerArray states = new AtomicIntegerArray(SLAB_SIZE);
+        final int[] generations = new int[SLAB_SIZE];
+        final int[] mcIds = new int[SLAB_SIZE];
+        final int[] nextFree = new int[SLAB_SIZE];
+        final net.minecraft.entity.Entity[] mcEntities = new net.minecraft.entity.Entity[SLAB_SIZE];
+        final Entity[] ecsEntities = new Entity[SLAB_SIZE];
+
+        Slab(Arena arena, int blockSize, boolean soaColumns) {
+            // Arena allocations are zero-initialized
+            this.memory = arena.allocate((long) SLAB_SIZE * blockSize, CACHE_LINE_BYTES);
+            this.columns = soaColumns ? arena.allocate(BridgeComponents.SOA_BYTES, CACHE_LINE_BYTES) : null;
+            Arrays.fill(mcIds, -1);
+        }
+    }
+
+    // ========================================================================
+    // STATE
+    // ========================================================================
+
+    private final Arena arena = Arena.ofShared();
+    private final int blockSize;
+    private final boolean soaColumns;
+    private final IntConsumer growthListener;
+    private final Object growLock = new Object();
+
+    /** Slab directory, replaced (never mutated) on growth */
+    private volatile Slab[] slabs = new Slab[0];
+
+    /** Free-list head: (tag << 32) | slot, slot == -1 when empty */
+    private final AtomicLong freeHead = new AtomicLong(pack(0, NO_SLOT));
+
+    // ========================================================================
+    // CONSTRUCTOR
+    // ========================================================================
+
+    /**
+     * @param initialCapacity slots to allocate up front (rounded up to a power-of-two slab count)
+     * @param blockSize       bytes of component memory per slot
+     * @param soaColumns      allocate SoA transform columns alongside each slab
+     * @param growthListener  notified with the new capacity after each growth; called under the
+     *                        growth lock, so notifications arrive in growth order
+     */
+    public EntitySlabStore(int initialCapacity, int blockSize, boolean soaColumns, IntConsumer growthListener) {
+        this.blockSize = blockSize;
+        this.soaColumns = soaColumns;
+        this.growthListener = growthListener;
+
+        int wanted = Math.max(1, (Math.min(initialCapacity, MAX_CAPACITY) + SLAB_MASK) >>> SLAB_SHIFT);
+        synchronized (growLock) {
+            addSlabs(ceilPowerOfTwo(wanted));
+        }
+    }
+
+    // ========================================================================
+    // SLOT ALLOCATION (Lock-Free)
+    // ========================================================================
+
+    /**
+     * Pops a free slot, growing the store when the free-list is empty.
+     *
+     * @return slot index, or -1 once {@link #MAX_CAPACITY} is exhausted
+     */
+    public int allocate() {
+        while (true) {
+            long head = freeHead.get();
+            int slot = (int) head;
+            if (slot == NO_SLOT) {
+                if (!grow()) return -1;
+                continue;
+            }
+            int next = slab(slot).nextFree[slot & SLAB_MASK];
+            if (freeHead.compareAndSet(head, pack(tagOf(head) + 1, next))) {
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * Returns a slot to the free-list.
+     */
+    public void release(int slot) {
+        Slab slab = slab(slot);
+        int index = slot & SLAB_MASK;
+        while (true) {
+            long head = freeHead.get();
+            slab.nextFree[index] = (int) head;
+            if (freeHead.compareAndSet(head, pack(tagOf(head) + 1, slot))) {
+                return;
+            }
+        }
+    }
+
+    private boolean grow() {
+        synchronized (growLock) {
+            if ((int) freeHead.get() != NO_SLOT) return true; // Another thread grew first
+            int current = slabs.length;
+            if (current >= MAX_SLABS) return false;
+            addSlabs(current);
+            // Under the lock: a listener sizing buffers from the capacity must never see it shrink
+            growthListener.accept(capacity());
+        }
+        return true;
+    }
+
+    /** Caller holds {@code growLock}. */
+    private void addSlabs(int count) {
+        Slab[] current = slabs;
+        Slab[] next = Arrays.copyOf(current, current.length + count);
+        for (int i = current.length; i < next.length; i++) {
+            next[i] = new Slab(arena, blockSize, soaColumns);
+        }
+
+        // Chain the new slots in ascending order so low slots are handed out first
+        int first = current.length << SLAB_SHIFT;
+        int last = (next.length << SLAB_SHIFT) - 1;
+        for (int slot = first; slot < last; slot++) {
+            next[slot >>> SLAB_SHIFT].nextFree[slot & SLAB_MASK] = slot + 1;
+        }
+
+        // Publish slabs before any of their slots become reachable from the free-list
+        slabs = next;
+
+        int[] tailLink = next[last >>> SLAB_SHIFT].nextFree;
+        while (true) {
+            long head = freeHead.get();
+            tailLink[last & SLAB_MASK] = (int) head;
+            if (freeHead.compareAndSet(head, pack(tagOf(head) + 1, first))) {
+                return;
+            }
+        }
+    }
+
+    private static long pack(int tag, int slot) {
+        return ((long) tag << 32) | (slot & 0xFFFFFFFFL);
+    }
+
+    private static int tagOf(long head) {
+        return (int) (head >>> 32);
+    }
+
+    private static int ceilPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    // ========================================================================
+    // SLOT ACCESS
+    // ========================================================================
+
+    Slab slab(int slot) {
+        return slabs[slot >>> SLAB_SHIFT];
+    }
+
+    /** Snapshot of the slab directory for bulk iteration. */
+    Slab[] slabs() {
+        return slabs;
+    }
+
+    public int capacity() {
+        return slabs.length << SLAB_SHIFT;
+    }
+
+    public int slabCount() {
+        return slabs.length;
+    }
+
+    public boolean contains(int slot) {
+        return slot >= 0 && slot < capacity();
+    }
+
+    /**
+     * Component memory of the slab holding {@code slot}. Stable for the store's lifetime.
+     */
+    public MemorySegment memory(int slot) {
+        return slab(slot).memory;
+    }
+
+    /**
+     * Offset of {@code slot}'s block within {@link #memory(int)}.
+     */
+    public long offset(int slot) {
+        return (long) (slot & SLAB_MASK) * blockSize;
+    }
+
+    public int blockSize() {
+        return blockSize;
+    }
+
+    public boolean hasColumns() {
+        return soaColumns;
+    }
+
+    /**
+     * SoA transform columns of the slab holding {@code slot}; index them with
+     * {@code slot & SLAB_MASK}. {@code null} unless {@link #hasColumns()}.
+     */
+    public MemorySegment columns(int slot) {
+        return slab(slot).columns;
+    }
+
+    public int state(int slot) {
+        return slab(slot).states.get(slot & SLAB_MASK);
+    }
+
+    public boolean compareAndSetState(int slot, int expected, int update) {
+        return slab(slot).states.compareAndSet(slot & SLAB_MASK, expected, update);
+    }
+
+    public void setState(int slot, int state) {
+        slab(slot).states.set(slot & SLAB_MASK, state);
+    }
+
+    /** Bumps and returns the slot generation (ABA prevention for recycled slots). */
+    public int nextGeneration(int slot) {
+        return ++slab(slot).generations[slot & SLAB_MASK];
+    }
+
+    public int generation(int slot) {
+        return slab(slot).generations[slot & SLAB_MASK];
+    }
+
+    public int mcId(int slot) {
+        return slab(slot).mcIds[slot & SLAB_MASK];
+    }
+
+    public void setMcId(int slot, int mcId) {
+        slab(slot).mcIds[slot & SLAB_MASK] = mcId;
+    }
+
+    public net.minecraft.entity.Entity mcEntity(int slot) {
+        return slab(slot).mcEntities[slot & SLAB_MASK];
+    }
+
+    public void setMcEntity(int slot, net.minecraft.entity.Entity entity) {
+        slab(slot).mcEntities[slot & SLAB_MASK] = entity;
+    }
+
+    public Entity ecsEntity(int slot) {
+        return slab(slot).ecsEntities[slot & SLAB_MASK];
+    }
+
+    public void setEcsEntity(int slot, Entity entity) {
+        slab(slot).ecsEntities[slot & SLAB_MASK] = entity;
+    }
+
+    /**
+     * Zeroes a slot's component block (and its column entries).
+     */
+    public void clearMemory(int slot) {
+        Slab slab = slab(slot);
+        slab.memory.asSlice(offset(slot), blockSize).fill((byte) 0);
+        if (slab.columns != null) {
+            BridgeComponents.soaClear(slab.columns, slot & SLAB_MASK);
+        }
+    }
+
+    // ========================================================================
+    // LIFECYCLE
+    // ========================================================================
+
+    @Override
+    public void close() {
+        synchronized (growLock) {
+            for (Slab slab : slabs) {
+                Arrays.fill(slab.mcEntities, null);
+                Arrays.fill(slab.ecsEntities, null);
+            }
+            if (arena.scope().isAlive()) {
+                arena.close();
+            }
+        }
+    }
+}
@@ -4,26 +4,47 @@ import stellar.snow.astralis.engine.ecs.core.Archetype;
 import stellar.snow.astralis.engine.ecs.core.SnowySystem;
 import stellar.snow.astralis.engine.ecs.core.World;
 
+import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
 import java.lang.foreign.ValueLayout;
 
 /**
  * InterpolationSystem - Handles smooth transform interpolation for rendering.
+ *
+ * <p>Once per render frame, every active entity is interpolated in one vectorized
+ * pass into a slot-indexed output buffer, so render code reads results instead of
+ * interpolating entity by entity. The buffer follows the bridge's slot capacity; outgrown
+ * buffers are left to the GC rather than freed, since render code may still hold them.</p>
  */
 public final class InterpolationSystem extends SnowySystem {
 
     private final MinecraftECSBridge bridge;
+    private volatile MemorySegment interpolated;
     private volatile float currentInterpolationFactor = 0.0f;
+    private volatile int interpolatedCount = 0;
 
     public InterpolationSystem(MinecraftECSBridge bridge) {
         super("Bridge_Interpolation");
         this.bridge = bridge;
+        this.interpolated = allocate(bridge.getCapacity());
+    }
+
+    private static MemorySegment allocate(int slots) {
+        return Arena.ofAuto().allocate((long) slots * BridgeComponents.INTERP_SIZE, 64);
     }
 
     @Override
     public void update(World world, float partialTicks) {
-        this.currentInterpolationFactor = Math.clamp(partialTicks, 0.0f, 1.0f);
-        // Actual interpolation is performed on-demand via getInterpolatedTransform()
+        float t = Math.clamp(partialTicks, 0.0f, 1.0f);
+        this.currentInterpolationFactor = t;
+
+        MemorySegment out = interpolated;
+        int capacity = bridge.getCapacity();
+        if (out.byteSize() < (long) capacity * BridgeComponents.INTERP_SIZE) {
+            out = allocate(capacity);
+            interpolated = out;
+        }
+        this.interpolatedCount = bridge.interpolateAll(t, out);
     }
 
     @Override
@@ -31,7 +52,32 @@ public final class InterpolationSystem extends SnowySystem {
         // Not used
     }
 
+    /**
+     * Interpolated transforms for this frame, indexed by slot (see {@code BridgeComponents.INTERP_*}).
+     */
+    public MemorySegment getInterpolatedTransforms() {
+        return interpolated;
+    }
+
+    /**
+     * Reads this frame's interpolated transform for a slot into {@code out} (length >= 6).
+     */
+    public void getInterpolatedTransform(int slot, double[] out) {
+        MemorySegment interpolated = this.interpolated;
+        long base = (long) slot * BridgeComponents.INTERP_SIZE;
+        out[0] = interpolated.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.INTERP_X);
+        out[1] = interpolated.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.INTERP_Y);
+        out[2] = interpolated.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.INTERP_Z);
+        out[3] = interpolated.get(ValueLayout.JAVA_FLOAT, base + BridgeComponents.INTERP_YAW);
+        out[4] = interpolated.get(ValueLayout.JAVA_FLOAT, base + BridgeComponents.INTERP_PITCH);
+        out[5] = interpolated.get(ValueLayout.JAVA_FLOAT, base + BridgeComponents.INTERP_ROLL);
+    }
+
     public float getCurrentInterpolationFactor() {
         return currentInterpolationFactor;
     }
+
+    public int getInterpolatedCount() {
+        return interpolatedCount;
+    }
 }
@@ -3,19 +3,27 @@ package stellar.snow.astralis.bridge;
 import stellar.snow.astralis.ecs.Entity;
 import stellar.snow.astralis.ecs.World;
 import stellar.snow.astralis.ecs.SystemScheduler;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
 import org.lwjgl.system.MemoryStack;
 import org.lwjgl.system.MemoryUtil;
+import stellar.snow.astralis.engine.ecs.util.SIMDComponentOps;
 
-import java.lang.foreign.Arena;
 import java.lang.foreign.MemoryLayout;
 import java.lang.foreign.MemorySegment;
 import java.lang.foreign.ValueLayout;
 import java.lang.invoke.MethodHandles;
+import java.nio.ByteOrder;
 import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.Executors;
 import java.util.concurrent.StructuredTaskScope;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.LockSupport;
 import java.util.function.IntConsumer;
@@ -36,6 +44,18 @@ import java.util.logging.Logger;
  *   <li><b>Structured Concurrency:</b> Java 25 virtual thread orchestration</li>
  * </ul>
  *
+ * <h2>Storage:</h2>
+ * <p>Entities live in an {@link EntitySlabStore}: 4096-slot slabs that are added (never moved)
+ * as the population grows, up to {@link #MAX_CAPACITY}. Component memory is addressed per slab
+ * via {@link #getComponentMemory(int)} and {@link #getEntityMemoryOffset(int)}, so segments and
+ * offsets obtained for a slot remain valid across growth. MC ids resolve through an
+ * {@link EntityIdTable} that rehashes incrementally.</p>
+ *
+ * <p>With {@code -Dastralis.bridge.soa=true} transforms and velocities are kept in per-slab
+ * SoA columns instead of the blocks below (see {@link BridgeComponents}), which lets
+ * {@link #interpolateAll(float, MemorySegment)} and velocity integration run full-width
+ * contiguous vector loops.</p>
+ *
  * <h2>Memory Layout (per entity = 256 bytes, cache-line aligned):</h2>
  * <pre>
  * [0-63]    Transform (current): x, y, z (f64), yaw, pitch, roll (f32), flags (i32), _pad
@@ -61,15 +81,11 @@ public final class MinecraftECSBridge implements AutoCloseable {
     // CONFIGURATION CONSTANTS
     // ========================================================================
 
-    /** Maximum supported entities - power of 2 for fast modulo */
-    public static final int MAX_ENTITIES = 1 << 17; // 131,072
+    /** Slots allocated up front; the store doubles from here on demand */
+    public static final int INITIAL_CAPACITY = 1 << 14; // 16,384
 
-    /** Mask for fast modulo: slot & SLOT_MASK == slot % MAX_ENTITIES */
-    private static final int SLOT_MASK = MAX_ENTITIES - 1;
-
-    /** Size of hash table for open addressing (2x entities for load factor ~0.5) */
-    private static final int HASH_TABLE_SIZE = MAX_ENTITIES << 1;
-    private static final int HASH_TABLE_MASK = HASH_TABLE_SIZE - 1;
+    /** Hard ceiling on bridged entities */
+    public static final int MAX_CAPACITY = EntitySlabStore.MAX_CAPACITY; // 4,194,304
 
     /** Cache line size for alignment */
     private static final int CACHE_LINE_BYTES = 64;
@@ -77,8 +93,8 @@ public final class MinecraftECSBridge implements AutoCloseable {
     /** Entity memory block size (must be multiple of cache line) */
     public static final int ENTITY_BLOCK_SIZE = 256;
 
-    /** Maximum probes for open-addressed hash table */
-    private static final int MAX_HASH_PROBES = 32;
+    /** Keep transform/velocity in SoA columns instead of the AoS blocks */
+    public static final boolean SOA_TRANSFORMS = Boolean.getBoolean("astralis.bridge.soa");
 
     // ========================================================================
     // ENTITY SLOT STATES
@@ -177,44 +193,26 @@ public final class MinecraftECSBridge implements AutoCloseable {
     // MEMORY MANAGEMENT
     // ========================================================================
 
-    /** Main component memory arena (shared for concurrent access) */
-    private final Arena componentArena;
-
-    /** Contiguous memory block for all entity components */
-    private final MemorySegment componentMemory;
+    /**
+     * LWJGL-allocated buffer for GPU uploads with its size in bytes. Replaced as a whole when
+     * the store grows, so readers always see an address and size that belong together.
+     */
+    public record StagingBuffer(long address, int size) {}
 
-    /** Native pointer for LWJGL interop */
-    private final long componentMemoryAddress;
+    private volatile StagingBuffer gpuStaging;
 
-    /** LWJGL-allocated buffer for GPU uploads */
-    private final long gpuStagingBuffer;
-    private final int gpuStagingBufferSize;
+    /** Staging buffers outgrown by the store; freed on close since readers may still hold them */
+    private final List<Long> retiredStagingBuffers = new ArrayList<>();
 
     // ========================================================================
     // ENTITY TRACKING (Lock-Free Structures)
     // ========================================================================
 
-    /** Slot state array for CAS-based lifecycle management */
-    private final AtomicInteger[] slotStates;
-
-    /** Open-addressed hash table: hash -> slot mapping */
-    private final int[] hashToSlot;
-
-    /** Reverse mapping: slot -> MC entity ID */
-    private final int[] slotToMcId;
+    /** Slab-segmented slot storage: component memory, slot states, generations, references */
+    private final EntitySlabStore store;
 
-    /** Direct references to MC entities (cleaned explicitly) */
-    private final net.minecraft.entity.Entity[] mcEntities;
-
-    /** ECS entity handles */
-    private final Entity[] ecsEntities;
-
-    /** Lock-free free-list implemented as a stack */
-    private final int[] freeStack;
-    private final AtomicInteger freeStackTop;
-
-    /** Generation counters for ABA prevention */
-    private final int[] slotGenerations;
+    /** Resizable MC entity ID -> slot table */
+    private final EntityIdTable idTable;
 
     // ========================================================================
     // SUBSYSTEMS
@@ -233,9 +231,17 @@ public final class MinecraftECSBridge implements AutoCloseable {
     private final BridgeMetrics metrics;
 
     /** Thread-local batch buffers */
-    private static final ThreadLocal<int[]> BATCH_BUFFER = ThreadLocal.withInitial(() -> new int[4096]);
+    private static final ThreadLocal<int[]> BATCH_BUFFER = ThreadLocal.withInitial(() -> new int[EntitySlabStore.SLAB_SIZE]);
     private static final ThreadLocal<double[]> INTERPOLATION_OUT = ThreadLocal.withInitial(() -> new double[6]);
 
+    /** Lane scratch for the SoA interpolation kernel */
+    private static final ThreadLocal<double[]> DOUBLE_LANES =
+            ThreadLocal.withInitial(() -> new double[BridgeComponents.DOUBLE_SPECIES.length()]);
+    private static final ThreadLocal<float[]> FLOAT_LANES =
+            ThreadLocal.withInitial(() -> new float[BridgeComponents.FLOAT_SPECIES.length() * 3]);
+
+    private static final ByteOrder NATIVE_ORDER = ByteOrder.nativeOrder();
+
     // ========================================================================
     // CONSTRUCTOR
     // ========================================================================
@@ -243,59 +249,57 @@ public final class MinecraftECSBridge implements AutoCloseable {
     private MinecraftECSBridge() {
         LOGGER.info("[ECS-Bridge] Allocating memory structures...");
 
-        // 1. Allocate main component memory (off-heap, page-aligned)
-        this.componentArena = Arena.ofShared();
-        long totalSize = (long) MAX_ENTITIES * ENTITY_BLOCK_SIZE;
-        this.componentMemory = componentArena.allocate(totalSize, CACHE_LINE_BYTES);
-        this.componentMemoryAddress = componentMemory.address();
-
-        // Zero-initialize memory
-        componentMemory.fill((byte) 0);
+        // 1. Allocate slab store (off-heap component memory + slot metadata, zero-initialized)
+        this.store = new EntitySlabStore(INITIAL_CAPACITY, ENTITY_BLOCK_SIZE, SOA_TRANSFORMS, this::onStoreGrown);
 
         // 2. Allocate GPU staging buffer via LWJGL for render uploads
-        this.gpuStagingBufferSize = MAX_ENTITIES * BridgeComponents.GPU_TRANSFORM_SIZE;
-        this.gpuStagingBuffer = MemoryUtil.nmemAlignedAlloc(CACHE_LINE_BYTES, gpuStagingBufferSize);
-        if (gpuStagingBuffer == MemoryUtil.NULL) {
-            componentArena.close();
+        int stagingSize = store.capacity() * BridgeComponents.GPU_TRANSFORM_SIZE;
+        long stagingAddress = MemoryUtil.nmemAlignedAlloc(CACHE_LINE_BYTES, stagingSize);
+        if (stagingAddress == MemoryUtil.NULL) {
+            store.close();
             throw new OutOfMemoryError("Failed to allocate GPU staging buffer");
         }
+        this.gpuStaging = new StagingBuffer(stagingAddress, stagingSize);
 
-        // 3. Initialize slot management arrays
-        this.slotStates = new AtomicInteger[MAX_ENTITIES];
-        this.slotGenerations = new int[MAX_ENTITIES];
-        for (int i = 0; i < MAX_ENTITIES; i++) {
-            slotStates[i] = new AtomicInteger(SLOT_FREE);
-            slotGenerations[i] = 0;
-        }
-
-        // 4. Initialize hash table
-        this.hashToSlot = new int[HASH_TABLE_SIZE];
-        java.util.Arrays.fill(hashToSlot, -1);
+        // 3. Initialize MC id table (entries are confirmed against the slot's current binding)
+        this.idTable = new EntityIdTable(INITIAL_CAPACITY << 1, (mcId, slot) ->
+                store.contains(slot) && store.mcId(slot) == mcId && store.state(slot) != SLOT_FREE);
 
-        // 5. Initialize reverse mapping
-        this.slotToMcId = new int[MAX_ENTITIES];
-        java.util.Arrays.fill(slotToMcId, -1);
-
-        // 6. Initialize entity reference arrays
-        this.mcEntities = new net.minecraft.entity.Entity[MAX_ENTITIES];
-        this.ecsEntities = new Entity[MAX_ENTITIES];
-
-        // 7. Initialize free stack (filled with all slots in reverse order)
-        this.freeStack = new int[MAX_ENTITIES];
-        for (int i = 0; i < MAX_ENTITIES; i++) {
-            freeStack[i] = MAX_ENTITIES - 1 - i;
-        }
-        this.freeStackTop = new AtomicInteger(MAX_ENTITIES);
-
-        // 8. Initialize subsystems
+        // 4. Initialize subsystems
         this.circuitBreaker = new CircuitBreaker(5, 30_000L, "ECS-Bridge-Main");
-        this.batchProcessor = new BatchProcessor(componentMemory, ENTITY_BLOCK_SIZE);
+        this.batchProcessor = new BatchProcessor(store);
         this.metrics = new BridgeMetrics();
 
-        // 9. Register shutdown hook
+        // 5. Register shutdown hook
         Runtime.getRuntime().addShutdownHook(Thread.ofVirtual().unstarted(this::shutdownHook));
 
-        LOGGER.info("[ECS-Bridge] Memory allocation complete. Capacity: " + MAX_ENTITIES + " entities");
+        LOGGER.info("[ECS-Bridge] Memory allocation complete. Capacity: " + store.capacity()
+                + " entities (max " + MAX_CAPACITY + "), " + (SOA_TRANSFORMS ? "SoA" : "AoS") + " transforms");
+    }
+
+    /**
+     * Growth callback from the slab store, called under its growth lock in growth order.
+     * Existing slabs are untouched; only the staging buffer, which is one contiguous block,
+     * has to be reallocated.
+     */
+    private void onStoreGrown(int capacity) {
+        int size = capacity * BridgeComponents.GPU_TRANSFORM_SIZE;
+        long buffer = MemoryUtil.nmemAlignedAlloc(CACHE_LINE_BYTES, size);
+        if (buffer == MemoryUtil.NULL) {
+            LOGGER.warning("[ECS-Bridge] Failed to grow GPU staging buffer to " + capacity + " entities");
+        } else {
+            synchronized (retiredStagingBuffers) {
+                StagingBuffer current = gpuStaging;
+                if (current == null || current.size() >= size) {
+                    // Shut down, or already at least this large
+                    MemoryUtil.nmemAlignedFree(buffer);
+                } else {
+                    retiredStagingBuffers.add(current.address());
+                    gpuStaging = new StagingBuffer(buffer, size);
+                }
+            }
+        }
+        LOGGER.info("[ECS-Bridge] Entity store grew to " + capacity + " slots (" + store.slabCount() + " slabs)");
     }
 
     // ========================================================================
@@ -351,7 +355,7 @@ public final class MinecraftECSBridge implements AutoCloseable {
      */
     public void initialize() {
         World.Config config = World.Config.builder("MC-Client-ECS")
-                .maxEntities(MAX_ENTITIES)
+                .maxEntities(MAX_CAPACITY)
                 .parallelism(Math.max(2, Runtime.getRuntime().availableProcessors() - 1))
                 .useVirtualThreads(true)
                 .useOffHeapStorage(true)
@@ -404,48 +408,47 @@ public final class MinecraftECSBridge implements AutoCloseable {
             return existingSlot;
         }
 
-        // Allocate a slot from the free stack
-        int slot = popFreeSlot();
+        // Allocate a slot from the free-list (grows the store when exhausted)
+        int slot = store.allocate();
         if (slot < 0) {
-            LOGGER.warning("[ECS-Bridge] Entity registration failed: no free slots");
+            LOGGER.warning("[ECS-Bridge] Entity registration failed: capacity of " + MAX_CAPACITY + " reached");
             metrics.recordRegistrationFailure();
             return -1;
         }
 
         // Try to transition slot from FREE to ALLOCATING
-        if (!slotStates[slot].compareAndSet(SLOT_FREE, SLOT_ALLOCATING)) {
+        if (!store.compareAndSetState(slot, SLOT_FREE, SLOT_ALLOCATING)) {
             // Lost race, return slot and retry
-            pushFreeSlot(slot);
+            store.release(slot);
             return registerEntity(mcEntity); // Tail call
         }
 
         try {
             // Increment generation for ABA prevention
-            slotGenerations[slot]++;
+            store.nextGeneration(slot);
 
             // Store mappings
-            slotToMcId[slot] = mcId;
-            mcEntities[slot] = mcEntity;
+            store.setMcId(slot, mcId);
+            store.setMcEntity(slot, mcEntity);
 
             // Create ECS entity
-            ecsEntities[slot] = ecsWorld.createEntity();
+            Entity ecsEntity = ecsWorld.createEntity();
+            store.setEcsEntity(slot, ecsEntity);
 
             // Initialize component memory
             initializeEntityMemory(slot, mcEntity);
 
-            // Register in hash table
-            if (!registerInHashTable(mcId, slot)) {
-                throw new IllegalStateException("Hash table registration failed");
-            }
+            // Register in id table
+            idTable.put(mcId, slot);
 
             // Link MC entity via mixin
             if (mcEntity instanceof BridgeMixinInterface ext) {
                 ext.astralis$setBridgeSlot(slot);
-                ext.astralis$setEcsEntity(ecsEntities[slot]);
+                ext.astralis$setEcsEntity(ecsEntity);
             }
 
             // Transition to ACTIVE
-            slotStates[slot].set(SLOT_ACTIVE);
+            store.setState(slot, SLOT_ACTIVE);
 
             // Update active count
             ACTIVE_COUNT_HANDLE.getAndAdd(this, 1);
@@ -455,14 +458,15 @@ public final class MinecraftECSBridge implements AutoCloseable {
 
         } catch (Exception e) {
             // Rollback on failure
-            slotToMcId[slot] = -1;
-            mcEntities[slot] = null;
-            if (ecsEntities[slot] != null) {
-                ecsWorld.destroyEntity(ecsEntities[slot]);
-                ecsEntities[slot] = null;
+            store.setMcId(slot, -1);
+            store.setMcEntity(slot, null);
+            Entity ecsEntity = store.ecsEntity(slot);
+            if (ecsEntity != null) {
+                ecsWorld.destroyEntity(ecsEntity);
+                store.setEcsEntity(slot, null);
             }
-            slotStates[slot].set(SLOT_FREE);
-            pushFreeSlot(slot);
+            store.setState(slot, SLOT_FREE);
+            store.release(slot);
 
             LOGGER.log(Level.WARNING, "[ECS-Bridge] Entity registration failed", e);
             metrics.recordRegistrationFailure();
@@ -477,18 +481,18 @@ public final class MinecraftECSBridge implements AutoCloseable {
      * @param slot the slot to unregister
      */
     public void unregisterEntity(int slot) {
-        if (slot < 0 || slot >= MAX_ENTITIES) return;
+        if (!store.contains(slot)) return;
 
         // Transition from ACTIVE to REMOVING
-        if (!slotStates[slot].compareAndSet(SLOT_ACTIVE, SLOT_REMOVING)) {
+        if (!store.compareAndSetState(slot, SLOT_ACTIVE, SLOT_REMOVING)) {
             return; // Already being removed or not active
         }
 
-        int mcId = slotToMcId[slot];
+        int mcId = store.mcId(slot);
 
         // Clear MC entity reference
-        net.minecraft.entity.Entity mcEntity = mcEntities[slot];
-        mcEntities[slot] = null;
+        net.minecraft.entity.Entity mcEntity = store.mcEntity(slot);
+        store.setMcEntity(slot, null);
 
         if (mcEntity instanceof BridgeMixinInterface ext) {
             ext.astralis$setBridgeSlot(-1);
@@ -496,24 +500,24 @@ public final class MinecraftECSBridge implements AutoCloseable {
         }
 
         // Destroy ECS entity
-        Entity ecsEntity = ecsEntities[slot];
-        ecsEntities[slot] = null;
+        Entity ecsEntity = store.ecsEntity(slot);
+        store.setEcsEntity(slot, null);
         if (ecsEntity != null && ecsWorld != null) {
             ecsWorld.destroyEntity(ecsEntity);
         }
 
-        // Clear hash table entry
-        unregisterFromHashTable(mcId);
+        // Clear id table entry
+        idTable.remove(mcId, slot);
 
         // Clear slot data
-        slotToMcId[slot] = -1;
+        store.setMcId(slot, -1);
 
         // Clear component memory
-        clearEntityMemory(slot);
+        store.clearMemory(slot);
 
         // Transition to FREE and return to pool
-        slotStates[slot].set(SLOT_FREE);
-        pushFreeSlot(slot);
+        store.setState(slot, SLOT_FREE);
+        store.release(slot);
 
         // Update active count
         ACTIVE_COUNT_HANDLE.getAndAdd(this, -1);
@@ -543,106 +547,19 @@ public final class MinecraftECSBridge implements AutoCloseable {
     }
 
     // ========================================================================
-    // FREE STACK OPERATIONS (Lock-Free)
+    // ID LOOKUP
     // ========================================================================
 
-    private int popFreeSlot() {
-        int top, slot;
-        do {
-            top = freeStackTop.get();
-            if (top <= 0) return -1;
-            slot = freeStack[top - 1];
-        } while (!freeStackTop.compareAndSet(top, top - 1));
-        return slot;
-    }
-
-    private void pushFreeSlot(int slot) {
-        int top;
-        do {
-            top = freeStackTop.get();
-            if (top >= MAX_ENTITIES) return; // Stack full (shouldn't happen)
-        } while (!freeStackTop.compareAndSet(top, top + 1));
-        freeStack[top] = slot;
-    }
-
-    // ========================================================================
-    // HASH TABLE OPERATIONS (Open Addressing with Linear Probing)
-    // ========================================================================
-
-    /**
-     * Fast hash function using Murmur3 finalizer.
-     */
-    private static int hashMcId(int mcId) {
-        int h = mcId;
-        h ^= h >>> 16;
-        h *= 0x85ebca6b;
-        h ^= h >>> 13;
-        h *= 0xc2b2ae35;
-        h ^= h >>> 16;
-        return h;
-    }
-
     /**
      * Looks up the slot index for a given MC entity ID.
+     * Never blocks, including while the id table is rehashing.
      *
      * @param mcId the Minecraft entity ID
      * @return slot index, or -1 if not found
      */
     public int lookupSlotByMcId(int mcId) {
-        int hash = hashMcId(mcId);
-        int idx = hash & HASH_TABLE_MASK;
-
-        for (int probe = 0; probe < MAX_HASH_PROBES; probe++) {
-            int slot = hashToSlot[idx];
-
-            if (slot < 0) {
-                return -1; // Empty slot = not found
-            }
-
-            if (slotToMcId[slot] == mcId && slotStates[slot].get() == SLOT_ACTIVE) {
-                return slot;
-            }
-
-            idx = (idx + 1) & HASH_TABLE_MASK;
-        }
-
-        return -1; // Not found after max probes
-    }
-
-    private boolean registerInHashTable(int mcId, int slot) {
-        int hash = hashMcId(mcId);
-        int idx = hash & HASH_TABLE_MASK;
-
-        for (int probe = 0; probe < MAX_HASH_PROBES; probe++) {
-            int existing = hashToSlot[idx];
-
-            if (existing < 0 || slotStates[existing].get() != SLOT_ACTIVE) {
-                hashToSlot[idx] = slot;
-                return true;
-            }
-
-            idx = (idx + 1) & HASH_TABLE_MASK;
-        }
-
-        return false; // Table full in this region
-    }
-
-    private void unregisterFromHashTable(int mcId) {
-        int hash = hashMcId(mcId);
-        int idx = hash & HASH_TABLE_MASK;
-
-        for (int probe = 0; probe < MAX_HASH_PROBES; probe++) {
-            int slot = hashToSlot[idx];
-
-            if (slot < 0) return;
-
-            if (slotToMcId[slot] == mcId) {
-                hashToSlot[idx] = -1;
-                return;
-            }
-
-            idx = (idx + 1) & HASH_TABLE_MASK;
-        }
+        int slot = idTable.get(mcId);
+        return slot >= 0 && store.state(slot) == SLOT_ACTIVE ? slot : -1;
     }
 
     // ========================================================================
@@ -650,82 +567,101 @@ public final class MinecraftECSBridge implements AutoCloseable {
     // ========================================================================
 
     /**
-     * Returns the base memory offset for an entity's component block.
+     * Returns the offset of an entity's component block within {@link #getComponentMemory(int)}.
      */
     public long getEntityMemoryOffset(int slot) {
-        return (long) slot * ENTITY_BLOCK_SIZE;
+        return store.offset(slot);
     }
 
     /**
-     * Returns a slice of the component memory for a specific entity.
+     * Returns the component memory slab holding a slot. Slabs never move, so the segment and
+     * {@link #getEntityMemoryOffset(int)} stay valid as the store grows.
      */
-    public MemorySegment getEntityMemorySegment(int slot) {
-        long offset = getEntityMemoryOffset(slot);
-        return componentMemory.asSlice(offset, ENTITY_BLOCK_SIZE);
+    public MemorySegment getComponentMemory(int slot) {
+        return store.memory(slot);
     }
 
     /**
-     * Returns the raw component memory segment.
+     * Returns a slice of the component memory for a specific entity.
      */
-    public MemorySegment getComponentMemory() {
-        return componentMemory;
+    public MemorySegment getEntityMemorySegment(int slot) {
+        return store.memory(slot).asSlice(store.offset(slot), ENTITY_BLOCK_SIZE);
     }
 
     /**
-     * Returns the native address of component memory for LWJGL interop.
+     * Returns the GPU staging buffer address. The buffer is reallocated when the entity store
+     * grows, so re-read it each frame rather than caching it.
      */
-    public long getComponentMemoryAddress() {
-        return componentMemoryAddress;
+    public long getGpuStagingBuffer() {
+        StagingBuffer staging = gpuStaging;
+        return staging != null ? staging.address() : MemoryUtil.NULL;
     }
 
     /**
-     * Returns the GPU staging buffer address.
+     * Returns the GPU staging buffer address and size as one consistent pair, or null after
+     * shutdown. Re-read it each frame; the buffer is replaced when the entity store grows.
      */
-    public long getGpuStagingBuffer() {
-        return gpuStagingBuffer;
+    public StagingBuffer getGpuStaging() {
+        return gpuStaging;
     }
 
     private void initializeEntityMemory(int slot, net.minecraft.entity.Entity mc) {
-        long base = getEntityMemoryOffset(slot);
-
-        // Current Transform
-        componentMemory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_X, mc.posX);
-        componentMemory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_Y, mc.posY);
-        componentMemory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_Z, mc.posZ);
-        componentMemory.set(ValueLayout.JAVA_FLOAT, base + BridgeComponents.TRANSFORM_YAW, mc.rotationYaw);
-        componentMemory.set(ValueLayout.JAVA_FLOAT, base + BridgeComponents.TRANSFORM_PITCH, mc.rotationPitch);
-        componentMemory.set(ValueLayout.JAVA_FLOAT, base + BridgeComponents.TRANSFORM_ROLL, 0.0f);
-        componentMemory.set(ValueLayout.JAVA_INT, base + BridgeComponents.TRANSFORM_FLAGS, 0);
-
-        // Previous Transform (copy of current for first frame)
-        componentMemory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.PREV_TRANSFORM_X, mc.posX);
-        componentMemory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.PREV_TRANSFORM_Y, mc.posY);
-        componentMemory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.PREV_TRANSFORM_Z, mc.posZ);
-        componentMemory.set(ValueLayout.JAVA_FLOAT, base + BridgeComponents.PREV_TRANSFORM_YAW, mc.rotationYaw);
-        componentMemory.set(ValueLayout.JAVA_FLOAT, base + BridgeComponents.PREV_TRANSFORM_PITCH, mc.rotationPitch);
-        componentMemory.set(ValueLayout.JAVA_FLOAT, base + BridgeComponents.PREV_TRANSFORM_ROLL, 0.0f);
-
-        // Velocity
-        componentMemory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.VELOCITY_X, mc.motionX);
-        componentMemory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.VELOCITY_Y, mc.motionY);
-        componentMemory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.VELOCITY_Z, mc.motionZ);
-        componentMemory.set(ValueLayout.JAVA_FLOAT, base + BridgeComponents.VELOCITY_SPEED, 0.0f);
+        MemorySegment memory = store.memory(slot);
+        long base = store.offset(slot);
+
+        if (store.hasColumns()) {
+            MemorySegment columns = store.columns(slot);
+            int index = slot & EntitySlabStore.SLAB_MASK;
+
+            // Current and previous transform (previous = current for first frame)
+            BridgeComponents.soaSetDouble(columns, BridgeComponents.SOA_X, index, mc.posX);
+            BridgeComponents.soaSetDouble(columns, BridgeComponents.SOA_Y, index, mc.posY);
+            BridgeComponents.soaSetDouble(columns, BridgeComponents.SOA_Z, index, mc.posZ);
+            BridgeComponents.soaSetFloat(columns, BridgeComponents.SOA_YAW, index, mc.rotationYaw);
+            BridgeComponents.soaSetFloat(columns, BridgeComponents.SOA_PITCH, index, mc.rotationPitch);
+            BridgeComponents.soaSetFloat(columns, BridgeComponents.SOA_ROLL, index, 0.0f);
+            BridgeComponents.soaCopyToPrevious(columns, index);
+
+            // Velocity
+            BridgeComponents.soaSetDouble(columns, BridgeComponents.SOA_VELOCITY_X, index, mc.motionX);
+            BridgeComponents.soaSetDouble(columns, BridgeComponents.SOA_VELOCITY_Y, index, mc.motionY);
+            BridgeComponents.soaSetDouble(columns, BridgeComponents.SOA_VELOCITY_Z, index, mc.motionZ);
+        } else {
+            // Current Transform
+            memory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_X, mc.posX);
+            memory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_Y, mc.posY);
+            memory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.TRANSFORM_Z, mc.posZ);
+            memory.set(ValueLayout.JAVA_FLOAT, base + BridgeComponents.TRANSFORM_YAW, mc.rotationYaw);
+            memory.set(ValueLayout.JAVA_FLOAT, base + BridgeComponents.TRANSFORM_PITCH, mc.rotationPitch);
+            memory.set(ValueLayout.JAVA_FLOAT, base + BridgeComponents.TRANSFORM_ROLL, 0.0f);
+
+            // Previous Transform (copy of current for first frame)
+            memory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.PREV_TRANSFORM_X, mc.posX);
+            memory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.PREV_TRANSFORM_Y, mc.posY);
+            memory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.PREV_TRANSFORM_Z, mc.posZ);
+            memory.set(ValueLayout.JAVA_FLOAT, base + BridgeComponents.PREV_TRANSFORM_YAW, mc.rotationYaw);
+            memory.set(ValueLayout.JAVA_FLOAT, base + BridgeComponents.PREV_TRANSFORM_PITCH, mc.rotationPitch);
+            memory.set(ValueLayout.JAVA_FLOAT, base + BridgeComponents.PREV_TRANSFORM_ROLL, 0.0f);
+
+            // Velocity
+            memory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.VELOCITY_X, mc.motionX);
+            memory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.VELOCITY_Y, mc.motionY);
+            memory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.VELOCITY_Z, mc.motionZ);
+        }
+        memory.set(ValueLayout.JAVA_INT, base + BridgeComponents.TRANSFORM_FLAGS, 0);
+        memory.set(ValueLayout.JAVA_FLOAT, base + BridgeComponents.VELOCITY_SPEED, 0.0f);
 
         // Acceleration
-        componentMemory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.ACCEL_X, 0.0);
-        componentMemory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.ACCEL_Y, 0.0);
-        componentMemory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.ACCEL_Z, 0.0);
+        memory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.ACCEL_X, 0.0);
+        memory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.ACCEL_Y, 0.0);
+        memory.set(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.ACCEL_Z, 0.0);
 
         // Metadata
-        componentMemory.set(ValueLayout.JAVA_INT, base + BridgeComponents.META_MC_ID, mc.getEntityId());
-        componentMemory.set(ValueLayout.JAVA_INT, base + BridgeComponents.META_ECS_ID, ecsEntities[slot] != null ? ecsEntities[slot].id() : -1);
-        componentMemory.set(ValueLayout.JAVA_LONG, base + BridgeComponents.META_FLAGS, 0L);
-        componentMemory.set(ValueLayout.JAVA_LONG, base + BridgeComponents.META_LAST_SYNC, (long) TICK_COUNT_HANDLE.get(this));
-    }
-
-    private void clearEntityMemory(int slot) {
-        long base = getEntityMemoryOffset(slot);
-        componentMemory.asSlice(base, ENTITY_BLOCK_SIZE).fill((byte) 0);
+        Entity ecsEntity = store.ecsEntity(slot);
+        memory.set(ValueLayout.JAVA_INT, base + BridgeComponents.META_MC_ID, mc.getEntityId());
+        memory.set(ValueLayout.JAVA_INT, base + BridgeComponents.META_ECS_ID, ecsEntity != null ? ecsEntity.id() : -1);
+        memory.set(ValueLayout.JAVA_LONG, base + BridgeComponents.META_FLAGS, 0L);
+        memory.set(ValueLayout.JAVA_LONG, base + BridgeComponents.META_LAST_SYNC, (long) TICK_COUNT_HANDLE.get(this));
     }
 
     // ========================================================================
@@ -770,27 +706,37 @@ public final class MinecraftECSBridge implements AutoCloseable {
         // 1. Process command buffer
         ecsWorld.getCommandBuffer().execute(ecsWorld);
 
-        // 2. Collect active slots into batch buffer
+        // 2. Collect active slots into batch buffer (sized to the active population)
         int[] batch = BATCH_BUFFER.get();
+        int active = getActiveEntityCount();
+        if (batch.length < active) {
+            batch = new int[Integer.highestOneBit(active - 1) << 1];
+            BATCH_BUFFER.set(batch);
+        }
         int batchSize = collectActiveSlots(batch);
 
         // 3. Execute inbound sync (MC -> ECS)
-        batchProcessor.syncInbound(batch, batchSize, mcEntities);
+        batchProcessor.syncInbound(batch, batchSize);
 
         // 4. Execute ECS update
         ecsWorld.update(deltaTime);
 
         // 5. Execute outbound sync (ECS -> MC)
-        batchProcessor.syncOutbound(batch, batchSize, mcEntities);
+        batchProcessor.syncOutbound(batch, batchSize);
     }
 
     private int collectActiveSlots(int[] batch) {
         int count = 0;
         int maxBatch = batch.length;
 
-        for (int slot = 0; slot < MAX_ENTITIES && count < maxBatch; slot++) {
-            if (slotStates[slot].get() == SLOT_ACTIVE) {
-                batch[count++] = slot;
+        EntitySlabStore.Slab[] slabs = store.slabs();
+        for (int s = 0; s < slabs.length && count < maxBatch; s++) {
+            AtomicIntegerArray states = slabs[s].states;
+            int first = s << EntitySlabStore.SLAB_SHIFT;
+            for (int i = 0; i < EntitySlabStore.SLAB_SIZE && count < maxBatch; i++) {
+                if (states.get(i) == SLOT_ACTIVE) {
+                    batch[count++] = first + i;
+                }
             }
         }
 
@@ -838,7 +784,25 @@ public final class MinecraftECSBridge implements AutoCloseable {
      * @param out  output array (length >= 6)
      */
     public void getInterpolatedTransform(int slot, float t, double[] out) {
-        long base = getEntityMemoryOffset(slot);
+        if (store.hasColumns()) {
+            MemorySegment columns = store.columns(slot);
+            int i = slot & EntitySlabStore.SLAB_MASK;
+            for (int axis = 0; axis < 3; axis++) {
+                double p = BridgeComponents.soaGetDouble(columns, BridgeComponents.SOA_PREV_X + axis, i);
+                double c = BridgeComponents.soaGetDouble(columns, BridgeComponents.SOA_X + axis, i);
+                out[axis] = p + (c - p) * t;
+            }
+            float pYaw = BridgeComponents.soaGetFloat(columns, BridgeComponents.SOA_PREV_YAW, i);
+            float pPitch = BridgeComponents.soaGetFloat(columns, BridgeComponents.SOA_PREV_PITCH, i);
+            float pRoll = BridgeComponents.soaGetFloat(columns, BridgeComponents.SOA_PREV_ROLL, i);
+            out[3] = lerpAngle(pYaw, BridgeComponents.soaGetFloat(columns, BridgeComponents.SOA_YAW, i), t);
+            out[4] = pPitch + (BridgeComponents.soaGetFloat(columns, BridgeComponents.SOA_PITCH, i) - pPitch) * t;
+            out[5] = pRoll + (BridgeComponents.soaGetFloat(columns, BridgeComponents.SOA_ROLL, i) - pRoll) * t;
+            return;
+        }
+
+        MemorySegment componentMemory = store.memory(slot);
+        long base = store.offset(slot);
 
         // Read previous transform
         double px = componentMemory.get(ValueLayout.JAVA_DOUBLE, base + BridgeComponents.PREV_TRANSFORM_X);
@@ -865,6 +829,156 @@ public final class MinecraftECSBridge implements AutoCloseable {
         out[5] = pRoll + (cRoll - pRoll) * t;
     }
 
+    /**
+     * Interpolates every active entity into {@code out}, indexed by slot
+     * ({@link BridgeComponents#INTERP_SIZE} bytes per slot, see {@code INTERP_*} offsets).
+     * Positions are lerped with masked vectors over runs of consecutive active slots; runs
+     * never cross a slab boundary since slabs are separate segments. In SoA mode every field,
+     * including the wrapped yaw, is lerped with full-width contiguous column loads.
+     *
+     * @param t   interpolation factor [0, 1]
+     * @param out output segment of at least {@code getCapacity() * INTERP_SIZE} bytes; slots
+     *            beyond its size are skipped
+     * @return number of entities interpolated
+     */
+    public int interpolateAll(float t, MemorySegment out) {
+        int interpolated = 0;
+        int outSlots = (int) Math.min(Integer.MAX_VALUE, out.byteSize() / BridgeComponents.INTERP_SIZE);
+        EntitySlabStore.Slab[] slabs = store.slabs();
+
+        for (int s = 0; s < slabs.length; s++) {
+            int first = s << EntitySlabStore.SLAB_SHIFT;
+            if (first >= outSlots) break;
+
+            EntitySlabStore.Slab slab = slabs[s];
+            MemorySegment memory = slab.memory;
+            int limit = Math.min(EntitySlabStore.SLAB_SIZE, outSlots - first);
+            int i = 0;
+
+            while (i < limit) {
+                if (slab.states.get(i) != SLOT_ACTIVE) {
+                    i++;
+                    continue;
+                }
+
+                int start = i;
+                while (i < limit && slab.states.get(i) == SLOT_ACTIVE) {
+                    i++;
+                }
+                int run = i - start;
+
+                long base = (long) start * ENTITY_BLOCK_SIZE;
+                long outBase = (long) (first + start) * BridgeComponents.INTERP_SIZE;
+
+                if (slab.columns != null) {
+                    interpolateColumns(slab.columns, start, run, t, out, outBase);
+                    interpolated += run;
+                    continue;
+                }
+
+                // x, y, z: prev + (cur - prev) * t
+                SIMDComponentOps.lerpDoubleStrided(
+                    out, BridgeComponents.INTERP_SIZE, outBase + BridgeComponents.INTERP_X,
+                    memory, ENTITY_BLOCK_SIZE, base + BridgeComponents.PREV_TRANSFORM_X,
+                    memory, ENTITY_BLOCK_SIZE, base + BridgeComponents.TRANSFORM_X,
+                    3, t, run);
+
+                // Angles (yaw wraps)
+                for (int r = 0; r < run; r++) {
+                    long b = base + (long) r * ENTITY_BLOCK_SIZE;
+                    long o = outBase + (long) r * BridgeComponents.INTERP_SIZE;
+                    float pYaw = memory.get(ValueLayout.JAVA_FLOAT, b + BridgeComponents.PREV_TRANSFORM_YAW);
+                    float pPitch = memory.get(ValueLayout.JAVA_FLOAT, b + BridgeComponents.PREV_TRANSFORM_PITCH);
+                    float pRoll = memory.get(ValueLayout.JAVA_FLOAT, b + BridgeComponents.PREV_TRANSFORM_ROLL);
+                    float cYaw = memory.get(ValueLayout.JAVA_FLOAT, b + BridgeComponents.TRANSFORM_YAW);
+                    float cPitch = memory.get(ValueLayout.JAVA_FLOAT, b + BridgeComponents.TRANSFORM_PITCH);
+                    float cRoll = memory.get(ValueLayout.JAVA_FLOAT, b + BridgeComponents.TRANSFORM_ROLL);
+
+                    out.set(ValueLayout.JAVA_FLOAT, o + BridgeComponents.INTERP_YAW, lerpAngle(pYaw, cYaw, t));
+                    out.set(ValueLayout.JAVA_FLOAT, o + BridgeComponents.INTERP_PITCH, pPitch + (cPitch - pPitch) * t);
+                    out.set(ValueLayout.JAVA_FLOAT, o + BridgeComponents.INTERP_ROLL, pRoll + (cRoll - pRoll) * t);
+                }
+
+                interpolated += run;
+            }
+        }
+
+        return interpolated;
+    }
+
+    /**
+     * SoA kernel: lerps column entries {@code [start, start + run)} into consecutive
+     * {@code INTERP_SIZE} records at {@code outBase}.
+     */
+    private static void interpolateColumns(MemorySegment columns, int start, int run, float t,
+                                           MemorySegment out, long outBase) {
+        VectorSpecies<Double> ds = BridgeComponents.DOUBLE_SPECIES;
+        VectorSpecies<Float> fs = BridgeComponents.FLOAT_SPECIES;
+        double[] dLanes = DOUBLE_LANES.get();
+        float[] fLanes = FLOAT_LANES.get();
+        int fl = fs.length();
+
+        // x, y, z
+        DoubleVector dt = DoubleVector.broadcast(ds, t);
+        for (int axis = 0; axis < 3; axis++) {
+            long prev = BridgeComponents.soaDoubleColumn(BridgeComponents.SOA_PREV_X + axis);
+            long cur = BridgeComponents.soaDoubleColumn(BridgeComponents.SOA_X + axis);
+            long field = BridgeComponents.INTERP_X + (long) axis * Double.BYTES;
+
+            for (int i = 0; i < run; i += ds.length()) {
+                VectorMask<Double> m = ds.indexInRange(i, run);
+                long at = (long) (start + i) * Double.BYTES;
+                DoubleVector p = DoubleVector.fromMemorySegment(ds, columns, prev + at, NATIVE_ORDER, m);
+                DoubleVector c = DoubleVector.fromMemorySegment(ds, columns, cur + at, NATIVE_ORDER, m);
+                c.sub(p).fma(dt, p).intoArray(dLanes, 0, m);
+
+                int lanes = Math.min(ds.length(), run - i);
+                long o = outBase + (long) i * BridgeComponents.INTERP_SIZE + field;
+                for (int l = 0; l < lanes; l++, o += BridgeComponents.INTERP_SIZE) {
+                    out.set(ValueLayout.JAVA_DOUBLE, o, dLanes[l]);
+                }
+            }
+        }
+
+        // yaw (shortest arc), pitch, roll
+        FloatVector ft = FloatVector.broadcast(fs, t);
+        for (int i = 0; i < run; i += fl) {
+            VectorMask<Float> m = fs.indexInRange(i, run);
+            long at = (long) (start + i) * Float.BYTES;
+
+            FloatVector pYaw = loadFloatColumn(columns, BridgeComponents.SOA_PREV_YAW, at, m);
+            FloatVector diff = loadFloatColumn(columns, BridgeComponents.SOA_YAW, at, m).sub(pYaw);
+            FloatVector turns = (FloatVector) diff.div(360.0f)
+                    .convert(VectorOperators.F2I, 0)
+                    .convert(VectorOperators.I2F, 0);
+            diff = diff.sub(turns.mul(360.0f));
+            diff = diff.sub(360.0f, diff.compare(VectorOperators.GT, 180.0f));
+            diff = diff.add(360.0f, diff.compare(VectorOperators.LT, -180.0f));
+            diff.fma(ft, pYaw).intoArray(fLanes, 0, m);
+
+            FloatVector pPitch = loadFloatColumn(columns, BridgeComponents.SOA_PREV_PITCH, at, m);
+            loadFloatColumn(columns, BridgeComponents.SOA_PITCH, at, m).sub(pPitch)
+                    .fma(ft, pPitch).intoArray(fLanes, fl, m);
+
+            FloatVector pRoll = loadFloatColumn(columns, BridgeComponents.SOA_PREV_ROLL, at, m);
+            loadFloatColumn(columns, BridgeComponents.SOA_ROLL, at, m).sub(pRoll)
+                    .fma(ft, pRoll).intoArray(fLanes, fl << 1, m);
+
+            int lanes = Math.min(fl, run - i);
+            long o = outBase + (long) i * BridgeComponents.INTERP_SIZE;
+            for (int l = 0; l < lanes; l++, o += BridgeComponents.INTERP_SIZE) {
+                out.set(ValueLayout.JAVA_FLOAT, o + BridgeComponents.INTERP_YAW, fLanes[l]);
+                out.set(ValueLayout.JAVA_FLOAT, o + BridgeComponents.INTERP_PITCH, fLanes[fl + l]);
+                out.set(ValueLayout.JAVA_FLOAT, o + BridgeComponents.INTERP_ROLL, fLanes[(fl << 1) + l]);
+            }
+        }
+    }
+
+    private static FloatVector loadFloatColumn(MemorySegment columns, int column, long at, VectorMask<Float> m) {
+        return FloatVector.fromMemorySegment(BridgeComponents.FLOAT_SPECIES, columns,
+                BridgeComponents.soaFloatColumn(column) + at, NATIVE_ORDER, m);
+    }
+
     private static float lerpAngle(float from, float to, float t) {
         float diff = ((to - from + 540.0f) % 360.0f) - 180.0f;
         return from + diff * t;
@@ -896,13 +1010,28 @@ public final class MinecraftECSBridge implements AutoCloseable {
     }
 
     public Entity getEcsEntity(int slot) {
-        if (slot < 0 || slot >= MAX_ENTITIES) return null;
-        return ecsEntities[slot];
+        if (!store.contains(slot)) return null;
+        return store.ecsEntity(slot);
     }
 
     public net.minecraft.entity.Entity getMcEntity(int slot) {
-        if (slot < 0 || slot >= MAX_ENTITIES) return null;
-        return mcEntities[slot];
+        if (!store.contains(slot)) return null;
+        return store.mcEntity(slot);
+    }
+
+    /**
+     * Current slot capacity; grows in power-of-two steps up to {@link #MAX_CAPACITY}.
+     */
+    public int getCapacity() {
+        return store.capacity();
+    }
+
+    public boolean isSoaLayout() {
+        return store.hasColumns();
+    }
+
+    public EntityIdTable getIdTable() {
+        return idTable;
     }
 
     public BridgeMetrics getMetrics() {
@@ -948,21 +1077,21 @@ public final class MinecraftECSBridge implements AutoCloseable {
                 ecsWorld.shutdown();
             }
 
-            // Clear all entity references
-            for (int i = 0; i < MAX_ENTITIES; i++) {
-                mcEntities[i] = null;
-                ecsEntities[i] = null;
-            }
-
-            // Free GPU staging buffer
-            if (gpuStagingBuffer != MemoryUtil.NULL) {
-                MemoryUtil.nmemAlignedFree(gpuStagingBuffer);
+            // Free GPU staging buffers (current and outgrown)
+            synchronized (retiredStagingBuffers) {
+                StagingBuffer staging = gpuStaging;
+                if (staging != null) {
+                    MemoryUtil.nmemAlignedFree(staging.address());
+                    gpuStaging = null;
+                }
+                for (long retired : retiredStagingBuffers) {
+                    MemoryUtil.nmemAlignedFree(retired);
+                }
+                retiredStagingBuffers.clear();
             }
 
-            // Close component arena
-            if (componentArena.scope().isAlive()) {
-                componentArena.close();
-            }
+            // Clear all entity references and release slab memory
+            store.close();
 
             LOGGER.info("[ECS-Bridge] Shutdown complete");
 
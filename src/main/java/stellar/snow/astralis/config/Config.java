@@ -59,12 +59,14 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.util.Collection;
 import java.util.EnumMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
@@ -205,6 +207,9 @@ public final class Config {
     /** Change listeners */
     private static final ConcurrentHashMap<String, Runnable> changeListeners = new ConcurrentHashMap<>();
 
+    /** Bumped whenever values may have changed, so dependents can cache derived state */
+    private static final AtomicLong revision = new AtomicLong();
+
     // ═══════════════════════════════════════════════════════════════════════════════════
     // SECTION 4: DEFAULT VALUES
     // ═══════════════════════════════════════════════════════════════════════════════════
@@ -1305,6 +1310,7 @@ public final class Config {
         defaults.put("astoMemoryOptimizations",          true);    // Texture deduplication & memory opts
         defaults.put("astoConcurrentModelBaking",        true);    // Concurrent model baking
         defaults.put("astoJarDiscoveryCaching",          true);    // JAR discovery caching
+        defaults.put("astoAheadOfDemandTransform",       false);   // Pre-transform predicted classes at startup
         defaults.put("astoFastCollections",              true);    // Lock-free concurrent collections
         
         // Fluorine - Additional optimizations
@@ -1373,6 +1379,7 @@ public final class Config {
         } catch (IOException e) {
             System.err.println("[Astralis Config] Initialization failed: " + e.getMessage());
             values.putAll(defaults);
+            revision.incrementAndGet();
         }
     }
 
@@ -1405,6 +1412,7 @@ public final class Config {
         } catch (IOException e) {
             System.err.println("[Astralis Config] Load failed: " + e.getMessage());
         }
+        revision.incrementAndGet();
     }
 
     /**
@@ -1653,6 +1661,7 @@ public final class Config {
             writeValue(writer, "astoMemoryOptimizations");
             writeValue(writer, "astoConcurrentModelBaking");
             writeValue(writer, "astoJarDiscoveryCaching");
+            writeValue(writer, "astoAheadOfDemandTransform");
             writeValue(writer, "astoFastCollections");
             writer.write("\n");
             
@@ -1822,6 +1831,7 @@ public final class Config {
         } catch (Throwable t) {
             System.err.println("[Astralis Config] Capability validation failed: " + t.getMessage());
         }
+        revision.incrementAndGet();
     }
 
     // ═══════════════════════════════════════════════════════════════════════════════════
@@ -3612,6 +3622,7 @@ public final class Config {
     public static boolean isAstoMemoryOptimizationsEnabled() { return getBoolean("astoMemoryOptimizations"); }
     public static boolean isAstoConcurrentModelBakingEnabled() { return getBoolean("astoConcurrentModelBaking"); }
     public static boolean isAstoJarDiscoveryCachingEnabled() { return getBoolean("astoJarDiscoveryCaching"); }
+    public static boolean isAstoAheadOfDemandTransformEnabled() { return getBoolean("astoAheadOfDemandTransform"); }
     public static boolean isAstoFastCollectionsEnabled() { return getBoolean("astoFastCollections"); }
     
     // Fluorine
@@ -3686,6 +3697,7 @@ public final class Config {
     public static void set(String key, Object value) {
         if (!initialized.get()) initialize();
         values.put(key, value);
+        revision.incrementAndGet();
         notifyChange(key);
     }
 
@@ -4122,6 +4134,31 @@ public final class Config {
         return new LinkedHashMap<>(values);
     }
 
+    /**
+     * Revision counter, bumped whenever any value may have changed
+     */
+    public static long getRevision() {
+        return revision.get();
+    }
+
+    /**
+     * Stable fingerprint (FNV-1a) of the current values of the given keys, or of every
+     * known key when {@code keys} is null. Equal settings give equal fingerprints across
+     * launches.
+     */
+    public static long fingerprint(Collection<String> keys) {
+        if (!initialized.get()) initialize();
+        long hash = 0xcbf29ce484222325L;
+        for (String key : keys != null ? keys : defaults.keySet()) {
+            String entry = key + '=' + getString(key) + ';';
+            for (int i = 0; i < entry.length(); i++) {
+                hash ^= entry.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+        }
+        return hash;
+    }
+
     /**
      * Check if a key exists
      */
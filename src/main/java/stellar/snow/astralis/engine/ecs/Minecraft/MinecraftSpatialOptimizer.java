@@ -10,6 +10,7 @@ import java.lang.annotation.*;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.StampedLock;
 import java.util.function.*;
 import java.util.stream.*;
 
@@ -166,6 +167,9 @@ public final class MinecraftSpatialOptimizer {
     /** Chunk-to-entities spatial index */
     private final ConcurrentHashMap<ChunkCoord, ChunkEntityIndex> chunkIndex = new ConcurrentHashMap<>();
 
+    /** Per-thread lookup key for {@link #chunkIndex} in the allocation-free radius queries */
+    private static final ThreadLocal<ChunkProbe> PROBE = ThreadLocal.withInitial(ChunkProbe::new);
+
     /** Block update batch queue per chunk */
     private final ConcurrentHashMap<ChunkCoord, BlockUpdateBatch> blockUpdates = new ConcurrentHashMap<>();
 
@@ -246,6 +250,47 @@ public final class MinecraftSpatialOptimizer {
             int cmp = Integer.compare(x, other.x);
             return cmp != 0 ? cmp : Integer.compare(z, other.z);
         }
+
+        /** Fixed, so {@link ChunkProbe} hashes identically */
+        @Override
+        public int hashCode() {
+            return hash(x, z);
+        }
+
+        static int hash(int x, int z) {
+            return 31 * x + z;
+        }
+    }
+
+    /**
+     * Mutable lookup key equal to, and hashing like, the {@link ChunkCoord} with the same
+     * coordinates. {@code Map.get} compares with {@code key.equals(stored)}, so a probe finds
+     * the record key without allocating one per chunk. Only ever passed to {@code get}; never
+     * stored in a map.
+     */
+    private static final class ChunkProbe {
+        private int x;
+        private int z;
+
+        ChunkProbe at(int x, int z) {
+            this.x = x;
+            this.z = z;
+            return this;
+        }
+
+        @Override
+        public int hashCode() {
+            return ChunkCoord.hash(x, z);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ChunkCoord c && c.x() == x && c.z() == z;
+        }
+    }
+
+    private static int chunkCoord(double world) {
+        return (int) Math.floor(world / CHUNK_SIZE);
     }
 
     /**
@@ -370,68 +415,376 @@ public final class MinecraftSpatialOptimizer {
 
     /**
      * Entity index for a single chunk.
+     *
+     * <p>Entities are stored as packed primitive columns (entity index, generation, position,
+     * section Y) kept sorted by section, so any Y range is one contiguous row span found by
+     * binary search. X/Z are stored relative to the chunk origin, which keeps the float columns
+     * exact at any world coordinate. Removal is a swap-remove: the hole is filled from the end
+     * of its section and then walked past the later sections, one row move per section.</p>
+     *
+     * <p>Queries hold the read lock while calling back into the caller, so a callback must not
+     * track, untrack or move entities in the same chunk.</p>
      */
     private static final class ChunkEntityIndex {
+        private static final int INITIAL_ROWS = 16;
+        private static final int NO_KEY = -1;
+
         final ChunkCoord coord;
-        final ConcurrentHashMap<Entity, EntityPosition> entities = new ConcurrentHashMap<>();
-        final AtomicInteger count = new AtomicInteger(0);
+        final double originX;
+        final double originZ;
+        private final StampedLock lock = new StampedLock();
+
+        // Row columns, sorted by sections[]
+        private int[] ids = new int[INITIAL_ROWS];
+        private int[] generations = new int[INITIAL_ROWS];
+        private float[] xs = new float[INITIAL_ROWS];
+        private float[] ys = new float[INITIAL_ROWS];
+        private float[] zs = new float[INITIAL_ROWS];
+        private int[] sections = new int[INITIAL_ROWS];
+        private int size;
+
+        // Entity index -> row (linear probing, twice the row capacity)
+        private int[] rowKeys = newKeyTable(INITIAL_ROWS << 1);
+        private int[] rowValues = new int[INITIAL_ROWS << 1];
+
+        volatile int count;
         volatile long lastAccessTime;
         volatile boolean dirty = true;
 
         ChunkEntityIndex(ChunkCoord coord) {
             this.coord = coord;
+            this.originX = (double) coord.x * CHUNK_SIZE;
+            this.originZ = (double) coord.z * CHUNK_SIZE;
             this.lastAccessTime = java.lang.System.nanoTime();
         }
 
+        // ====================================================================
+        // MUTATION
+        // ====================================================================
+
         void addEntity(Entity entity, double x, double y, double z) {
-            EntityPosition pos = new EntityPosition(x, y, z);
-            if (entities.putIfAbsent(entity, pos) == null) {
-                count.incrementAndGet();
-                dirty = true;
+            long stamp = lock.writeLock();
+            try {
+                if (rowOf(entity.index()) < 0) {
+                    insert(entity, x, y, z);
+                    dirty = true;
+                }
+            } finally {
+                lock.unlockWrite(stamp);
             }
             lastAccessTime = java.lang.System.nanoTime();
         }
 
         void removeEntity(Entity entity) {
-            if (entities.remove(entity) != null) {
-                count.decrementAndGet();
-                dirty = true;
+            long stamp = lock.writeLock();
+            try {
+                int row = unmapRow(entity.index());
+                if (row >= 0) {
+                    removeRow(row);
+                    dirty = true;
+                }
+            } finally {
+                lock.unlockWrite(stamp);
             }
         }
 
         void updatePosition(Entity entity, double x, double y, double z) {
-            entities.compute(entity, (e, oldPos) -> new EntityPosition(x, y, z));
-            dirty = true;
+            long stamp = lock.writeLock();
+            try {
+                int row = rowOf(entity.index());
+                if (row >= 0 && sections[row] == sectionOf(y)) {
+                    // Same section: rewrite in place, ordering is unaffected
+                    xs[row] = (float) (x - originX);
+                    ys[row] = (float) y;
+                    zs[row] = (float) (z - originZ);
+                } else {
+                    if (row >= 0) {
+                        unmapRow(entity.index());
+                        removeRow(row);
+                    }
+                    insert(entity, x, y, z);
+                }
+                dirty = true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
             lastAccessTime = java.lang.System.nanoTime();
         }
 
+        /** Caller holds the write lock and has checked the entity is absent. */
+        private void insert(Entity entity, double x, double y, double z) {
+            if (size == ids.length) {
+                grow();
+            }
+
+            int section = sectionOf(y);
+
+            // Open a hole at the end of the target section by shifting the first row of each
+            // later section to that section's end
+            int hole = size;
+            while (hole > 0 && sections[hole - 1] > section) {
+                int start = lowerBound(sections[hole - 1], 0, hole);
+                moveRow(start, hole);
+                hole = start;
+            }
+
+            ids[hole] = entity.index();
+            generations[hole] = entity.generation();
+            xs[hole] = (float) (x - originX);
+            ys[hole] = (float) y;
+            zs[hole] = (float) (z - originZ);
+            sections[hole] = section;
+            mapRow(entity.index(), hole);
+
+            count = ++size;
+        }
+
+        /** Caller holds the write lock and has already unmapped the row's entity. */
+        private void removeRow(int row) {
+            // Fill from the end of the row's section, then walk the hole to the end of the table
+            int hole = upperBound(sections[row], row, size) - 1;
+            if (hole != row) {
+                moveRow(hole, row);
+            }
+            while (hole + 1 < size) {
+                int last = upperBound(sections[hole + 1], hole + 1, size) - 1;
+                moveRow(last, hole);
+                hole = last;
+            }
+            count = --size;
+        }
+
+        private void moveRow(int from, int to) {
+            ids[to] = ids[from];
+            generations[to] = generations[from];
+            xs[to] = xs[from];
+            ys[to] = ys[from];
+            zs[to] = zs[from];
+            sections[to] = sections[from];
+            mapRow(ids[to], to);
+        }
+
+        private void grow() {
+            int capacity = ids.length << 1;
+            ids = Arrays.copyOf(ids, capacity);
+            generations = Arrays.copyOf(generations, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            zs = Arrays.copyOf(zs, capacity);
+            sections = Arrays.copyOf(sections, capacity);
+
+            rowKeys = newKeyTable(capacity << 1);
+            rowValues = new int[capacity << 1];
+            for (int row = 0; row < size; row++) {
+                mapRow(ids[row], row);
+            }
+        }
+
+        // ====================================================================
+        // QUERIES (read lock, allocation-free span walks)
+        // ====================================================================
+
+        /**
+         * Feed ids of entities with {@code minY <= y < maxY} to {@code sink}.
+         *
+         * @return number of entities visited
+         */
+        int forEachInYRange(int minY, int maxY, IntConsumer sink) {
+            long stamp = lock.readLock();
+            try {
+                int end = upperBound(sectionOf(maxY), 0, size);
+                int visited = 0;
+                for (int row = lowerBound(sectionOf(minY), 0, end); row < end; row++) {
+                    float y = ys[row];
+                    if (y >= minY && y < maxY) {
+                        sink.accept(ids[row]);
+                        visited++;
+                    }
+                }
+                return visited;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * Feed ids of entities within {@code radius} of a world position to {@code sink}.
+         *
+         * @return number of entities visited
+         */
+        int forEachInSphere(double x, double y, double z, double radius, IntConsumer sink) {
+            float lx = (float) (x - originX);
+            float ly = (float) y;
+            float lz = (float) (z - originZ);
+            float r2 = (float) (radius * radius);
+
+            long stamp = lock.readLock();
+            try {
+                int end = upperBound(sectionOf(y + radius), 0, size);
+                int visited = 0;
+                for (int row = lowerBound(sectionOf(y - radius), 0, end); row < end; row++) {
+                    float dx = xs[row] - lx;
+                    float dy = ys[row] - ly;
+                    float dz = zs[row] - lz;
+                    if (dx * dx + dy * dy + dz * dz <= r2) {
+                        sink.accept(ids[row]);
+                        visited++;
+                    }
+                }
+                return visited;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * Copy all entity ids into {@code buffer} starting at {@code offset}, up to its length.
+         *
+         * @return number of entities in the chunk (may exceed what was copied)
+         */
+        int copyIds(int[] buffer, int offset) {
+            long stamp = lock.readLock();
+            try {
+                int copied = Math.max(0, Math.min(size, buffer.length - offset));
+                java.lang.System.arraycopy(ids, 0, buffer, offset, copied);
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        void collectAll(List<Entity> out) {
+            long stamp = lock.readLock();
+            try {
+                for (int row = 0; row < size; row++) {
+                    out.add(new Entity(ids[row], generations[row]));
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
         List<Entity> getEntities() {
-            return new ArrayList<>(entities.keySet());
+            List<Entity> result = new ArrayList<>(count);
+            collectAll(result);
+            return result;
         }
 
         List<Entity> getEntitiesInYRange(int minY, int maxY) {
-            return entities.entrySet().stream()
-                .filter(entry -> {
-                    double y = entry.getValue().y;
-                    return y >= minY && y < maxY;
-                })
-                .map(Map.Entry::getKey)
-                .toList();
+            long stamp = lock.readLock();
+            try {
+                int end = upperBound(sectionOf(maxY), 0, size);
+                int start = lowerBound(sectionOf(minY), 0, end);
+                List<Entity> result = new ArrayList<>(end - start);
+                for (int row = start; row < end; row++) {
+                    float y = ys[row];
+                    if (y >= minY && y < maxY) {
+                        result.add(new Entity(ids[row], generations[row]));
+                    }
+                }
+                return result;
+            } finally {
+                lock.unlockRead(stamp);
+            }
         }
 
         int getCount() {
-            return count.get();
+            return count;
         }
 
         boolean isEmpty() {
-            return count.get() == 0;
+            return count == 0;
+        }
+
+        // ====================================================================
+        // SECTION SEARCH
+        // ====================================================================
+
+        /** First row in [from, to) whose section is {@code >= section}. */
+        private int lowerBound(int section, int from, int to) {
+            int lo = from, hi = to;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (sections[mid] < section) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+
+        /** First row in [from, to) whose section is {@code > section}. */
+        private int upperBound(int section, int from, int to) {
+            int lo = from, hi = to;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (sections[mid] <= section) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+
+        // ====================================================================
+        // ROW MAP
+        // ====================================================================
+
+        private static int[] newKeyTable(int capacity) {
+            int[] keys = new int[capacity];
+            Arrays.fill(keys, NO_KEY);
+            return keys;
+        }
+
+        private int rowOf(int id) {
+            int mask = rowKeys.length - 1;
+            for (int i = mix(id) & mask; ; i = (i + 1) & mask) {
+                int key = rowKeys[i];
+                if (key == id) return rowValues[i];
+                if (key == NO_KEY) return -1;
+            }
+        }
+
+        private void mapRow(int id, int row) {
+            int mask = rowKeys.length - 1;
+            int i = mix(id) & mask;
+            while (rowKeys[i] != NO_KEY && rowKeys[i] != id) {
+                i = (i + 1) & mask;
+            }
+            rowKeys[i] = id;
+            rowValues[i] = row;
+        }
+
+        /** Remove {@code id} with backward-shift deletion; returns its row or -1. */
+        private int unmapRow(int id) {
+            int mask = rowKeys.length - 1;
+            int i = mix(id) & mask;
+            while (rowKeys[i] != id) {
+                if (rowKeys[i] == NO_KEY) return -1;
+                i = (i + 1) & mask;
+            }
+            int row = rowValues[i];
+
+            // Pull later members of the probe chain back over the gap
+            int gap = i;
+            for (int j = (i + 1) & mask; rowKeys[j] != NO_KEY; j = (j + 1) & mask) {
+                int home = mix(rowKeys[j]) & mask;
+                if (((j - home) & mask) >= ((j - gap) & mask)) {
+                    rowKeys[gap] = rowKeys[j];
+                    rowValues[gap] = rowValues[j];
+                    gap = j;
+                }
+            }
+            rowKeys[gap] = NO_KEY;
+            return row;
+        }
+
+        private static int mix(int id) {
+            int h = id * 0x9E3779B9;
+            return h ^ (h >>> 16);
         }
     }
 
     /**
-     * Cached entity position.
+     * Section index of a world Y coordinate.
      */
-    private record EntityPosition(double x, double y, double z) {}
+    private static int sectionOf(double y) {
+        return (int) Math.floor((y - DEFAULT_MIN_Y) / SECTION_HEIGHT);
+    }
 
     /**
      * Active region around player/camera.
@@ -694,6 +1047,21 @@ public final class MinecraftSpatialOptimizer {
         return index != null ? index.getEntitiesInYRange(minY, maxY) : Collections.emptyList();
     }
 
+    /**
+     * Feed ids of entities in chunk within Y range to {@code sink} without allocating.
+     *
+     * <p>The sink runs under the chunk's read lock and must not track, untrack or move
+     * entities in the same chunk.</p>
+     *
+     * @return number of entities visited
+     */
+    public int getEntitiesInChunk(ChunkCoord chunk, int minY, int maxY, IntConsumer sink) {
+        spatialQueries.increment();
+
+        ChunkEntityIndex index = chunkIndex.get(chunk);
+        return index != null ? index.forEachInYRange(minY, maxY, sink) : 0;
+    }
+
     /**
      * Get entities in radius around position.
      */
@@ -705,14 +1073,95 @@ public final class MinecraftSpatialOptimizer {
 
         for (int dx = -radiusChunks; dx <= radiusChunks; dx++) {
             for (int dz = -radiusChunks; dz <= radiusChunks; dz++) {
-                ChunkCoord chunk = new ChunkCoord(center.x + dx, center.z + dz);
-                result.addAll(getEntitiesInChunk(chunk));
+                ChunkEntityIndex index = chunkIndex.get(new ChunkCoord(center.x + dx, center.z + dz));
+                if (index != null) {
+                    index.collectAll(result);
+                }
             }
         }
 
         return result;
     }
 
+    /**
+     * Feed ids of entities in the chunk square around position to {@code sink}.
+     *
+     * @return number of entities visited
+     */
+    public int getEntitiesInRadius(double centerX, double centerZ, int radiusChunks, IntConsumer sink) {
+        spatialQueries.increment();
+
+        int cx = chunkCoord(centerX);
+        int cz = chunkCoord(centerZ);
+        ChunkProbe probe = PROBE.get();
+        int visited = 0;
+
+        for (int dx = -radiusChunks; dx <= radiusChunks; dx++) {
+            for (int dz = -radiusChunks; dz <= radiusChunks; dz++) {
+                ChunkEntityIndex index = chunkIndex.get(probe.at(cx + dx, cz + dz));
+                if (index != null) {
+                    visited += index.forEachInYRange(Integer.MIN_VALUE, Integer.MAX_VALUE, sink);
+                }
+            }
+        }
+
+        return visited;
+    }
+
+    /**
+     * Copy ids of entities in the chunk square around position into {@code buffer}.
+     *
+     * @return total number of matching entities; if larger than {@code buffer.length}
+     *         the result was truncated
+     */
+    public int getEntitiesInRadius(double centerX, double centerZ, int radiusChunks, int[] buffer) {
+        spatialQueries.increment();
+
+        int cx = chunkCoord(centerX);
+        int cz = chunkCoord(centerZ);
+        ChunkProbe probe = PROBE.get();
+        int total = 0;
+
+        for (int dx = -radiusChunks; dx <= radiusChunks; dx++) {
+            for (int dz = -radiusChunks; dz <= radiusChunks; dz++) {
+                ChunkEntityIndex index = chunkIndex.get(probe.at(cx + dx, cz + dz));
+                if (index != null) {
+                    total += index.copyIds(buffer, Math.min(total, buffer.length));
+                }
+            }
+        }
+
+        return total;
+    }
+
+    /**
+     * Feed ids of entities within a block radius of a world position to {@code sink}.
+     * Each overlapping chunk only scans the section span covering {@code y +/- radius}.
+     *
+     * @return number of entities visited
+     */
+    public int getEntitiesInRadius(double x, double y, double z, double radius, IntConsumer sink) {
+        spatialQueries.increment();
+
+        int minX = chunkCoord(x - radius);
+        int minZ = chunkCoord(z - radius);
+        int maxX = chunkCoord(x + radius);
+        int maxZ = chunkCoord(z + radius);
+        ChunkProbe probe = PROBE.get();
+        int visited = 0;
+
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cz = minZ; cz <= maxZ; cz++) {
+                ChunkEntityIndex index = chunkIndex.get(probe.at(cx, cz));
+                if (index != null) {
+                    visited += index.forEachInSphere(x, y, z, radius, sink);
+                }
+            }
+        }
+
+        return visited;
+    }
+
     /**
      * Get entities at chunk border (for cross-chunk queries).
      */
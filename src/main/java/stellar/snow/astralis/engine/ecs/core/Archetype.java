@@ -20,13 +20,14 @@ import java.util.stream.*;
  * <ul>
  *   <li>Structure-of-Arrays (SoA) memory layout for cache efficiency</li>
  *   <li>Foreign Memory API for off-heap component storage</li>
- *   <li>Lock-free entity management with optimistic reads</li>
+ *   <li>Dense primitive entity column with epoch-pinned lock-free iteration</li>
  *   <li>Archetype edge graph for fast entity migration</li>
  *   <li>Component change detection with versioning</li>
  *   <li>GPU buffer integration with dirty tracking</li>
  *   <li>Parallel entity iteration support</li>
  *   <li>Entity chunk processing for SIMD-friendly access</li>
  *   <li>Snapshot support for serialization</li>
+ *   <li>Copy-on-write frozen views for rollback and async readers</li>
  *   <li>Comprehensive statistics and diagnostics</li>
  * </ul>
  *
@@ -62,7 +63,8 @@ public final class Archetype implements AutoCloseable {
         boolean useOffHeap,
         boolean trackChanges,
         boolean enableGpu,
-        boolean buildEdgeGraph
+        boolean buildEdgeGraph,
+        ComponentArray.ChangeClock changeClock
     ) {
         public static Config defaults() {
             return new Config(
@@ -71,7 +73,8 @@ public final class Archetype implements AutoCloseable {
                 true,
                 true,
                 false,
-                true
+                true,
+                new ComponentArray.ChangeClock()
             );
         }
 
@@ -86,6 +89,7 @@ public final class Archetype implements AutoCloseable {
             private boolean trackChanges = true;
             private boolean enableGpu = false;
             private boolean buildEdgeGraph = true;
+            private ComponentArray.ChangeClock changeClock;
 
             public Builder initialCapacity(int val) { initialCapacity = val; return this; }
             public Builder chunkSize(int val) { chunkSize = val; return this; }
@@ -93,10 +97,13 @@ public final class Archetype implements AutoCloseable {
             public Builder trackChanges(boolean val) { trackChanges = val; return this; }
             public Builder enableGpu(boolean val) { enableGpu = val; return this; }
             public Builder buildEdgeGraph(boolean val) { buildEdgeGraph = val; return this; }
+            /** Clock shared by every array of the owning World. */
+            public Builder changeClock(ComponentArray.ChangeClock val) { changeClock = val; return this; }
 
             public Config build() {
                 return new Config(initialCapacity, chunkSize, useOffHeap,
-                    trackChanges, enableGpu, buildEdgeGraph);
+                    trackChanges, enableGpu, buildEdgeGraph,
+                    changeClock != null ? changeClock : new ComponentArray.ChangeClock());
             }
         }
     }
@@ -188,11 +195,11 @@ public final class Archetype implements AutoCloseable {
     /** Component type information */
     private final List<ComponentInfo> componentInfos;
 
-    /** Bitmask for fast component checking (supports up to 64 component types) */
-    private final long componentMask;
+    /** Multi-word component signature (type IDs up to ComponentRegistry.MAX_EXTENDED_TYPES) */
+    private final ComponentSignature componentSignature;
 
-    /** Extended mask for types beyond 64 */
-    private final BitSet extendedMask;
+    /** Low 64 bits of the signature, kept for legacy mask callers */
+    private final long componentMask;
 
     /** Precomputed hash for archetype lookup */
     private final int hash;
@@ -203,11 +210,8 @@ public final class Archetype implements AutoCloseable {
     /** Component arrays (SoA storage) - keyed by type ID */
     private final Map<Integer, ComponentArray> componentArrays;
 
-    /** Entities in this archetype */
-    private final List<Entity> entities;
-
-    /** Entity index to archetype slot mapping */
-    private final ConcurrentHashMap<Integer, Integer> entityIndexToSlot;
+    /** Entities in this archetype (dense int columns + paged sparse slot index) */
+    private final EntityColumn entities;
 
     /** Edge graph for fast archetype transitions */
     private final ConcurrentHashMap<Long, Edge> addEdges;    // typeId -> target archetype (add)
@@ -269,24 +273,15 @@ public final class Archetype implements AutoCloseable {
 
         // Initialize collections
         this.componentArrays = new ConcurrentHashMap<>();
-        this.entities = new CopyOnWriteArrayList<>();
-        this.entityIndexToSlot = new ConcurrentHashMap<>();
+        this.entities = new EntityColumn(config.initialCapacity());
         this.addEdges = new ConcurrentHashMap<>();
         this.removeEdges = new ConcurrentHashMap<>();
 
-        // Build component mask and info
-        long mask = 0;
-        BitSet extended = new BitSet();
+        // Build component signature and info
         List<ComponentInfo> infos = new ArrayList<>();
         int offset = 0;
 
         for (int typeId : componentTypeIds) {
-            // Build mask
-            if (typeId < 64) {
-                mask |= (1L << typeId);
-            }
-            extended.set(typeId);
-
             // Create component array
             ComponentRegistry.ComponentType type = registry.getType(typeId);
             ComponentArray.Config arrayConfig = ComponentArray.Config.builder()
@@ -294,6 +289,7 @@ public final class Archetype implements AutoCloseable {
                 .useOffHeap(config.useOffHeap())
                 .trackChanges(config.trackChanges())
                 .enableGpu(config.enableGpu() && type.isGpuAccessible())
+                .changeClock(config.changeClock())
                 .build();
 
             componentArrays.put(typeId, new ComponentArray(type, arrayConfig));
@@ -309,8 +305,8 @@ public final class Archetype implements AutoCloseable {
             offset += type.sizeBytes();
         }
 
-        this.componentMask = mask;
-        this.extendedMask = extended;
+        this.componentSignature = ComponentSignature.of(componentTypeIds);
+        this.componentMask = componentSignature.lowMask();
         this.componentInfos = List.copyOf(infos);
         this.hash = Arrays.hashCode(componentTypeIds);
         this.signature = buildSignature();
@@ -334,10 +330,7 @@ public final class Archetype implements AutoCloseable {
      * Check if archetype has component type.
      */
     public boolean hasComponent(int typeId) {
-        if (typeId < 64) {
-            return (componentMask & (1L << typeId)) != 0;
-        }
-        return extendedMask.get(typeId);
+        return componentSignature.has(typeId);
     }
 
     /**
@@ -354,13 +347,18 @@ public final class Archetype implements AutoCloseable {
         return (componentMask & mask) == mask;
     }
 
+    /**
+     * Check if archetype has all specified components (signature).
+     */
+    public boolean hasAllComponents(ComponentSignature required) {
+        return componentSignature.containsAll(required);
+    }
+
     /**
      * Check if archetype has all specified components (extended).
      */
     public boolean hasAllComponents(BitSet mask) {
-        BitSet test = (BitSet) extendedMask.clone();
-        test.and(mask);
-        return test.equals(mask);
+        return componentSignature.containsAll(ComponentSignature.fromWords(mask.toLongArray()));
     }
 
     /**
@@ -386,17 +384,31 @@ public final class Archetype implements AutoCloseable {
     }
 
     /**
-     * Get component mask.
+     * Check if archetype matches query (multi-word signatures).
+     */
+    public boolean matchesQuery(ComponentSignature required, ComponentSignature excluded) {
+        return componentSignature.matches(required, excluded);
+    }
+
+    /**
+     * Get component mask (low 64 component types only).
      */
     public long getComponentMask() {
         return componentMask;
     }
 
+    /**
+     * Get full component signature.
+     */
+    public ComponentSignature getComponentSignature() {
+        return componentSignature;
+    }
+
     /**
      * Get extended component mask.
      */
     public BitSet getExtendedMask() {
-        return (BitSet) extendedMask.clone();
+        return BitSet.valueOf(componentSignature.words());
     }
 
     /**
@@ -441,13 +453,12 @@ public final class Archetype implements AutoCloseable {
         entityLock.writeLock().lock();
         try {
             // Check if already present
-            if (entityIndexToSlot.containsKey(entity.index())) {
-                return entityIndexToSlot.get(entity.index());
+            int existing = entities.slotOf(entity.index());
+            if (existing != EntityColumn.NO_SLOT) {
+                return existing;
             }
 
-            int archetypeIndex = entities.size();
-            entities.add(entity);
-            entityIndexToSlot.put(entity.index(), archetypeIndex);
+            int archetypeIndex = entities.add(entity.index(), entity.generation());
 
             entityAddCount.increment();
             entityVersion.incrementAndGet();
@@ -469,19 +480,8 @@ public final class Archetype implements AutoCloseable {
 
         entityLock.writeLock().lock();
         try {
-            Integer archetypeIndex = entityIndexToSlot.remove(entity.index());
-            if (archetypeIndex == null) return false;
-
-            int lastIndex = entities.size() - 1;
-
-            // Swap with last entity if not already last
-            if (archetypeIndex != lastIndex) {
-                Entity lastEntity = entities.get(lastIndex);
-                entities.set(archetypeIndex, lastEntity);
-                entityIndexToSlot.put(lastEntity.index(), archetypeIndex);
-            }
-
-            entities.remove(lastIndex);
+            // O(1) swap-remove; pinned readers keep their block
+            if (entities.remove(entity.index()) == EntityColumn.NO_SLOT) return false;
 
             // Remove component data from all arrays
             for (ComponentArray array : componentArrays.values()) {
@@ -499,11 +499,63 @@ public final class Archetype implements AutoCloseable {
         }
     }
 
+    /**
+     * Add a batch of entities under one lock and one version bump.
+     * Component rows are filled separately (see {@link ComponentArray#addRows}).
+     */
+    public void addEntities(int[] indices, int[] generations, int length) {
+        checkNotClosed();
+
+        entityLock.writeLock().lock();
+        try {
+            for (int i = 0; i < length; i++) {
+                entities.add(indices[i], generations[i]);
+            }
+
+            entityAddCount.add(length);
+            entityVersion.incrementAndGet();
+            version.incrementAndGet();
+
+        } finally {
+            entityLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a batch of entities (and their component rows) under one lock.
+     * Each component array is compacted in a single pass.
+     */
+    public int removeEntities(int[] indices, int length) {
+        checkNotClosed();
+
+        entityLock.writeLock().lock();
+        try {
+            int removed = 0;
+            for (int i = 0; i < length; i++) {
+                if (entities.remove(indices[i]) != EntityColumn.NO_SLOT) removed++;
+            }
+            for (ComponentArray array : componentArrays.values()) {
+                array.removeRows(indices, length);
+            }
+
+            if (removed > 0) {
+                entityRemoveCount.add(removed);
+                migrationCount.add(removed);
+                entityVersion.incrementAndGet();
+                version.incrementAndGet();
+            }
+            return removed;
+
+        } finally {
+            entityLock.writeLock().unlock();
+        }
+    }
+
     /**
      * Check if entity is in this archetype.
      */
     public boolean containsEntity(Entity entity) {
-        return entity != null && entityIndexToSlot.containsKey(entity.index());
+        return entity != null && entities.contains(entity.index());
     }
 
     /**
@@ -511,16 +563,15 @@ public final class Archetype implements AutoCloseable {
      */
     public OptionalInt getEntitySlot(Entity entity) {
         if (entity == null) return OptionalInt.empty();
-        Integer slot = entityIndexToSlot.get(entity.index());
-        return slot != null ? OptionalInt.of(slot) : OptionalInt.empty();
+        int slot = entities.slotOf(entity.index());
+        return slot != EntityColumn.NO_SLOT ? OptionalInt.of(slot) : OptionalInt.empty();
     }
 
     /**
      * Get entity at archetype slot.
      */
     public Optional<Entity> getEntityAt(int slot) {
-        if (slot < 0 || slot >= entities.size()) return Optional.empty();
-        return Optional.of(entities.get(slot));
+        return Optional.ofNullable(entities.entityAt(slot));
     }
 
     /**
@@ -534,21 +585,35 @@ public final class Archetype implements AutoCloseable {
      * Check if empty.
      */
     public boolean isEmpty() {
-        return entities.isEmpty();
+        return entities.size() == 0;
     }
 
     /**
-     * Get entities (unmodifiable view).
+     * Get entities (point-in-time copy).
      */
     public List<Entity> getEntities() {
-        return Collections.unmodifiableList(entities);
+        try (EntityColumn.Block block = entities.pin()) {
+            Entity[] result = new Entity[block.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = block.entityAt(i);
+            }
+            return Arrays.asList(result);
+        }
     }
 
     /**
      * Get entity indices.
      */
     public int[] getEntityIndices() {
-        return entities.stream().mapToInt(Entity::index).toArray();
+        return entities.toIndexArray();
+    }
+
+    /**
+     * Pin the dense entity columns for allocation-free iteration.
+     * Structural changes made while pinned do not affect the returned block.
+     */
+    public EntityColumn.Block pinEntities() {
+        return entities.pin();
     }
 
     // ========================================================================
@@ -559,27 +624,24 @@ public final class Archetype implements AutoCloseable {
      * Iterate over all entities.
      */
     public void forEachEntity(Consumer<Entity> consumer) {
-        entityLock.readLock().lock();
-        try {
-            for (Entity entity : entities) {
-                consumer.accept(entity);
-            }
-        } finally {
-            entityLock.readLock().unlock();
-        }
+        entities.forEach(consumer);
+    }
+
+    /**
+     * Iterate over entity indices without allocating handles.
+     */
+    public void forEachEntityIndex(IntConsumer consumer) {
+        entities.forEachIndex(consumer);
     }
 
     /**
      * Iterate over entities with index.
      */
     public void forEachEntityIndexed(BiConsumer<Integer, Entity> consumer) {
-        entityLock.readLock().lock();
-        try {
-            for (int i = 0; i < entities.size(); i++) {
-                consumer.accept(i, entities.get(i));
+        try (EntityColumn.Block block = entities.pin()) {
+            for (int i = 0, n = block.size(); i < n; i++) {
+                consumer.accept(i, block.entityAt(i));
             }
-        } finally {
-            entityLock.readLock().unlock();
         }
     }
 
@@ -592,11 +654,9 @@ public final class Archetype implements AutoCloseable {
             return;
         }
 
-        entityLock.readLock().lock();
-        try {
-            entities.parallelStream().forEach(consumer);
-        } finally {
-            entityLock.readLock().unlock();
+        try (EntityColumn.Block block = entities.pin()) {
+            IntStream.range(0, block.size()).parallel()
+                .forEach(i -> consumer.accept(block.entityAt(i)));
         }
     }
 
@@ -604,14 +664,14 @@ public final class Archetype implements AutoCloseable {
      * Stream entities.
      */
     public Stream<Entity> entityStream() {
-        return entities.stream();
+        return getEntities().stream();
     }
 
     /**
      * Parallel entity stream.
      */
     public Stream<Entity> entityParallelStream() {
-        return entities.parallelStream();
+        return getEntities().parallelStream();
     }
 
     /**
@@ -626,11 +686,12 @@ public final class Archetype implements AutoCloseable {
      */
     public List<EntityChunk> getEntityChunks(int chunkSize) {
         List<EntityChunk> chunks = new ArrayList<>();
-        int size = entities.size();
+        List<Entity> snapshot = getEntities();
+        int size = snapshot.size();
 
         for (int start = 0; start < size; start += chunkSize) {
             int end = Math.min(start + chunkSize, size);
-            chunks.add(new EntityChunk(start, end, entities.subList(start, end)));
+            chunks.add(new EntityChunk(start, end, snapshot.subList(start, end)));
         }
 
         return chunks;
@@ -863,7 +924,7 @@ public final class Archetype implements AutoCloseable {
      * Migrate entity to target archetype (add component).
      */
     public Optional<Archetype> migrateAdd(Entity entity, int componentTypeId, 
-            Function<Long, Archetype> archetypeProvider) {
+            Function<ComponentSignature, Archetype> archetypeProvider) {
         
         // Check edge cache
         Edge edge = addEdges.get((long) componentTypeId);
@@ -871,9 +932,8 @@ public final class Archetype implements AutoCloseable {
             return Optional.of(edge.target());
         }
 
-        // Calculate new mask
-        long newMask = componentMask | (1L << componentTypeId);
-        Archetype target = archetypeProvider.apply(newMask);
+        // Calculate new signature
+        Archetype target = archetypeProvider.apply(componentSignature.with(componentTypeId));
 
         // Cache edge
         if (config.buildEdgeGraph()) {
@@ -887,7 +947,7 @@ public final class Archetype implements AutoCloseable {
      * Migrate entity to target archetype (remove component).
      */
     public Optional<Archetype> migrateRemove(Entity entity, int componentTypeId,
-            Function<Long, Archetype> archetypeProvider) {
+            Function<ComponentSignature, Archetype> archetypeProvider) {
         
         if (!hasComponent(componentTypeId)) {
             return Optional.empty();
@@ -899,13 +959,13 @@ public final class Archetype implements AutoCloseable {
             return Optional.of(edge.target());
         }
 
-        // Calculate new mask
-        long newMask = componentMask & ~(1L << componentTypeId);
-        if (newMask == 0) {
+        // Calculate new signature
+        ComponentSignature newSignature = componentSignature.without(componentTypeId);
+        if (newSignature.isEmpty()) {
             return Optional.empty(); // Would have no components
         }
 
-        Archetype target = archetypeProvider.apply(newMask);
+        Archetype target = archetypeProvider.apply(newSignature);
 
         // Cache edge
         if (config.buildEdgeGraph()) {
@@ -986,6 +1046,32 @@ public final class Archetype implements AutoCloseable {
         return array != null ? array.getChangedEntities(sinceVersion) : new int[0];
     }
 
+    /**
+     * Check if any entity's component changed after {@code sinceTick} (O(1) per array).
+     */
+    public boolean hasChangesSince(int typeId, long sinceTick) {
+        ComponentArray array = componentArrays.get(typeId);
+        return array != null && array.hasChangesSince(sinceTick);
+    }
+
+    /**
+     * Visit entities whose component changed after {@code sinceTick}. Unchanged row blocks
+     * are skipped, so the cost is proportional to the changed blocks.
+     */
+    public void forEachChangedEntity(int typeId, long sinceTick, Consumer<Entity> consumer) {
+        ComponentArray array = componentArrays.get(typeId);
+        if (array == null || !array.hasChangesSince(sinceTick)) return;
+
+        try (EntityColumn.Block block = entities.pin()) {
+            array.forEachChanged(sinceTick, entityIndex -> {
+                int slot = entities.slotOf(entityIndex);
+                if (slot >= 0 && slot < block.size()) {
+                    consumer.accept(block.entityAt(slot));
+                }
+            });
+        }
+    }
+
     /**
      * Mark component as changed.
      */
@@ -1056,9 +1142,11 @@ public final class Archetype implements AutoCloseable {
     public ArchetypeSnapshot createSnapshot() {
         List<EntitySnapshot> entitySnapshots = new ArrayList<>();
 
-        entityLock.readLock().lock();
-        try {
-            for (Entity entity : entities) {
+        int entityCount;
+        try (EntityColumn.Block block = entities.pin()) {
+            entityCount = block.size();
+            for (int slot = 0; slot < entityCount; slot++) {
+                Entity entity = block.entityAt(slot);
                 Map<Integer, byte[]> componentData = new HashMap<>();
 
                 for (int typeId : componentTypeIds) {
@@ -1076,15 +1164,13 @@ public final class Archetype implements AutoCloseable {
                     componentData
                 ));
             }
-        } finally {
-            entityLock.readLock().unlock();
         }
 
         return new ArchetypeSnapshot(
             id,
             componentMask,
             componentTypeIds.clone(),
-            entities.size(),
+            entityCount,
             entitySnapshots,
             Instant.now()
         );
@@ -1102,7 +1188,6 @@ public final class Archetype implements AutoCloseable {
         try {
             // Clear existing
             entities.clear();
-            entityIndexToSlot.clear();
             for (ComponentArray array : componentArrays.values()) {
                 array.clear();
             }
@@ -1122,6 +1207,99 @@ public final class Archetype implements AutoCloseable {
         }
     }
 
+    /**
+     * Freeze this archetype copy-on-write: pins the entity block and freezes every component
+     * array. Capture is O(component types); see {@link ComponentArray#freeze()}.
+     */
+    public Frozen freeze() {
+        checkNotClosed();
+
+        // Hold off structural writers so the entity block and the arrays agree
+        entityLock.readLock().lock();
+        try {
+            Map<Integer, ComponentArray.Frozen> frozenArrays = new HashMap<>();
+            for (Map.Entry<Integer, ComponentArray> entry : componentArrays.entrySet()) {
+                frozenArrays.put(entry.getKey(), entry.getValue().freeze());
+            }
+            return new Frozen(this, entityVersion.get(), entities.pin(), frozenArrays);
+        } finally {
+            entityLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Roll component data back to a frozen view of this archetype.
+     *
+     * @throws IllegalStateException if entities were added or removed since the capture
+     */
+    public void restore(Frozen snapshot) {
+        if (snapshot.archetype != this) {
+            throw new IllegalArgumentException("Snapshot belongs to archetype " + snapshot.archetype.id);
+        }
+
+        entityLock.writeLock().lock();
+        try {
+            if (!snapshot.isStructurallyCurrent()) {
+                throw new IllegalStateException("Archetype " + id + " changed structurally since the snapshot");
+            }
+            for (Map.Entry<Integer, ComponentArray.Frozen> entry : snapshot.components.entrySet()) {
+                ComponentArray array = componentArrays.get(entry.getKey());
+                if (array != null) {
+                    array.restore(entry.getValue());
+                }
+            }
+            version.incrementAndGet();
+        } finally {
+            entityLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Copy-on-write view of an archetype, safe to read from any thread until closed.
+     */
+    public static final class Frozen implements AutoCloseable {
+        private final Archetype archetype;
+        private final long entityVersion;
+        private final EntityColumn.Block entities;
+        private final Map<Integer, ComponentArray.Frozen> components;
+
+        private Frozen(Archetype archetype, long entityVersion, EntityColumn.Block entities,
+                       Map<Integer, ComponentArray.Frozen> components) {
+            this.archetype = archetype;
+            this.entityVersion = entityVersion;
+            this.entities = entities;
+            this.components = Collections.unmodifiableMap(components);
+        }
+
+        public Archetype archetype() { return archetype; }
+        public int size() { return entities.size(); }
+        public Entity entityAt(int slot) { return entities.entityAt(slot); }
+        public ComponentArray.Frozen component(int typeId) { return components.get(typeId); }
+        public Map<Integer, ComponentArray.Frozen> components() { return components; }
+
+        /** True if no entity joined or left the archetype since the capture. */
+        public boolean isStructurallyCurrent() {
+            return archetype.entityVersion.get() == entityVersion;
+        }
+
+        /** Bytes held by saved pre-images across all component arrays. */
+        public long savedBytes() {
+            long total = 0;
+            for (ComponentArray.Frozen view : components.values()) {
+                total += view.savedBytes();
+            }
+            return total;
+        }
+
+        @Override
+        public void close() {
+            for (ComponentArray.Frozen view : components.values()) {
+                view.close();
+            }
+            entities.close();
+        }
+    }
+
     // ========================================================================
     // STATISTICS
     // ========================================================================
@@ -1237,12 +1415,8 @@ public final class Archetype implements AutoCloseable {
                 
                 // Future optimization: could implement array.forceCompact() here
             }
-            
-            // Compact entity tracking structures
-            if (entities.size() < entities.capacity() / 2) {
-                // Could shrink entity list if significantly under-utilized
-                // but List doesn't provide shrinkToFit in Java stdlib
-            }
+
+            // Entity columns are swap-remove dense, so they never fragment
         } finally {
             entityLock.writeLock().unlock();
         }
@@ -1255,7 +1429,6 @@ public final class Archetype implements AutoCloseable {
         entityLock.writeLock().lock();
         try {
             entities.clear();
-            entityIndexToSlot.clear();
             for (ComponentArray array : componentArrays.values()) {
                 array.clear();
             }
@@ -1286,7 +1459,6 @@ public final class Archetype implements AutoCloseable {
         }
 
         entities.clear();
-        entityIndexToSlot.clear();
         addEdges.clear();
         removeEdges.clear();
 
@@ -149,7 +149,10 @@ public final class ComponentScanner {
             }
             
             try {
-                Set<Class<?>> classes = findClassesInPackage(packageName);
+                // Class-name order: component ids follow registration order and must not
+                // depend on classpath or hash iteration order
+                List<Class<?>> classes = new ArrayList<>(findClassesInPackage(packageName));
+                classes.sort(Comparator.comparing(Class::getName));
                 
                 for (Class<?> clazz : classes) {
                     // Scan for components
@@ -0,0 +1,300 @@
+package stellar.snow.astralis.engine.ecs.core;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * ComponentSignature - Immutable multi-word component set for archetype matching.
+ *
+ * <p>Core Features:</p>
+ * <ul>
+ *   <li>Any component type ID the registry hands out (one {@code long} word per 64 types);
+ *       the registry caps ids at {@code ComponentRegistry.MAX_EXTENDED_TYPES}</li>
+ *   <li>Canonical form (no trailing zero words) so equal sets hash and compare equal</li>
+ *   <li>Vectorized {@code and}/{@code andNot} containment tests for wide signatures</li>
+ *   <li>Lock-free: instances never change after construction, safe as map keys</li>
+ * </ul>
+ *
+ * <p>Unlike {@link System.ComponentMask}, which is a mutable builder for system declarations,
+ * a signature is a value: query caches, archetype lookup and the per-component query index
+ * all key on it.</p>
+ *
+ * @author Enhanced ECS Framework
+ * @version 2.0.0
+ * @since Java 21
+ */
+public final class ComponentSignature {
+
+    // ========================================================================
+    // CONSTANTS
+    // ========================================================================
+
+    private static final int BITS_PER_WORD = 64;
+    private static final int WORD_SHIFT = 6;
+
+    private static final VectorSpecies<Long> LONG_SPECIES = LongVector.SPECIES_PREFERRED;
+
+    private static final long[] NO_WORDS = new long[0];
+
+    /** The empty signature */
+    public static final ComponentSignature EMPTY = new ComponentSignature(NO_WORDS);
+
+    // ========================================================================
+    // STATE
+    // ========================================================================
+
+    private final long[] words;
+    private final int hash;
+
+    private ComponentSignature(long[] words) {
+        this.words = words;
+        this.hash = Arrays.hashCode(words);
+    }
+
+    // ========================================================================
+    // FACTORIES
+    // ========================================================================
+
+    /**
+     * Create signature from component type IDs.
+     */
+    public static ComponentSignature of(int... typeIds) {
+        if (typeIds.length == 0) return EMPTY;
+        int max = 0;
+        for (int id : typeIds) {
+            if (id < 0) throw new IllegalArgumentException("Negative component type id: " + id);
+            max = Math.max(max, id);
+        }
+        long[] words = new long[(max >>> WORD_SHIFT) + 1];
+        for (int id : typeIds) {
+            words[id >>> WORD_SHIFT] |= 1L << id;
+        }
+        return new ComponentSignature(words);
+    }
+
+    /**
+     * Create signature from a legacy 64-bit mask.
+     */
+    public static ComponentSignature fromMask(long mask) {
+        return mask == 0 ? EMPTY : new ComponentSignature(new long[] { mask });
+    }
+
+    /**
+     * Create signature from raw words (copied and canonicalized).
+     */
+    public static ComponentSignature fromWords(long[] words) {
+        return canonical(words.clone());
+    }
+
+    /**
+     * Create signature from a system component mask.
+     */
+    public static ComponentSignature from(System.ComponentMask mask) {
+        return mask == null ? EMPTY : of(mask.getSetBits());
+    }
+
+    private static ComponentSignature canonical(long[] words) {
+        int length = words.length;
+        while (length > 0 && words[length - 1] == 0) length--;
+        if (length == 0) return EMPTY;
+        return new ComponentSignature(length == words.length ? words : Arrays.copyOf(words, length));
+    }
+
+    // ========================================================================
+    // DERIVATION
+    // ========================================================================
+
+    /**
+     * Signature with an additional component.
+     */
+    public ComponentSignature with(int typeId) {
+        if (has(typeId)) return this;
+        int word = typeId >>> WORD_SHIFT;
+        long[] result = Arrays.copyOf(words, Math.max(words.length, word + 1));
+        result[word] |= 1L << typeId;
+        return new ComponentSignature(result);
+    }
+
+    /**
+     * Signature without a component.
+     */
+    public ComponentSignature without(int typeId) {
+        if (!has(typeId)) return this;
+        long[] result = words.clone();
+        result[typeId >>> WORD_SHIFT] &= ~(1L << typeId);
+        return canonical(result);
+    }
+
+    /**
+     * Union of two signatures.
+     */
+    public ComponentSignature or(ComponentSignature other) {
+        long[] big = words.length >= other.words.length ? words : other.words;
+        long[] small = big == words ? other.words : words;
+        long[] result = big.clone();
+        for (int i = 0; i < small.length; i++) {
+            result[i] |= small[i];
+        }
+        return new ComponentSignature(result);
+    }
+
+    // ========================================================================
+    // MATCHING
+    // ========================================================================
+
+    /**
+     * Check if component type is present.
+     */
+    public boolean has(int typeId) {
+        int word = typeId >>> WORD_SHIFT;
+        return typeId >= 0 && word < words.length && (words[word] & (1L << typeId)) != 0;
+    }
+
+    /**
+     * Check {@code (this & required) == required}.
+     */
+    public boolean containsAll(ComponentSignature required) {
+        long[] r = required.words;
+        if (r.length > words.length) return false;
+        int i = 0;
+        int bound = LONG_SPECIES.loopBound(r.length);
+        for (; i < bound; i += LONG_SPECIES.length()) {
+            LongVector need = LongVector.fromArray(LONG_SPECIES, r, i);
+            LongVector have = LongVector.fromArray(LONG_SPECIES, words, i);
+            // need & ~have must be all zero
+            if (need.lanewise(VectorOperators.AND_NOT, have).reduceLanes(VectorOperators.OR) != 0) {
+                return false;
+            }
+        }
+        for (; i < r.length; i++) {
+            if ((r[i] & ~words[i]) != 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Check {@code (this & other) != 0}.
+     */
+    public boolean intersects(ComponentSignature other) {
+        long[] o = other.words;
+        int length = Math.min(words.length, o.length);
+        int i = 0;
+        int bound = LONG_SPECIES.loopBound(length);
+        for (; i < bound; i += LONG_SPECIES.length()) {
+            LongVector a = LongVector.fromArray(LONG_SPECIES, words, i);
+            LongVector b = LongVector.fromArray(LONG_SPECIES, o, i);
+            if (a.and(b).reduceLanes(VectorOperators.OR) != 0) {
+                return true;
+            }
+        }
+        for (; i < length; i++) {
+            if ((words[i] & o[i]) != 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Check required/excluded query match.
+     */
+    public boolean matches(ComponentSignature required, ComponentSignature excluded) {
+        return containsAll(required) && !intersects(excluded);
+    }
+
+    // ========================================================================
+    // ACCESSORS
+    // ========================================================================
+
+    public boolean isEmpty() {
+        return words.length == 0;
+    }
+
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Lowest 64 component types as a legacy mask.
+     */
+    public long lowMask() {
+        return words.length > 0 ? words[0] : 0L;
+    }
+
+    /**
+     * Number of 64-bit words.
+     */
+    public int wordCount() {
+        return words.length;
+    }
+
+    /**
+     * Copy of the raw words.
+     */
+    public long[] words() {
+        return words.clone();
+    }
+
+    /**
+     * Sorted component type IDs.
+     */
+    public int[] typeIds() {
+        int[] result = new int[cardinality()];
+        int n = 0;
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            while (word != 0) {
+                result[n++] = (w << WORD_SHIFT) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Iterate component type IDs in ascending order.
+     */
+    public void forEachTypeId(IntConsumer action) {
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            while (word != 0) {
+                action.accept((w << WORD_SHIFT) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
+    // ========================================================================
+    // OBJECT METHODS
+    // ========================================================================
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        return obj instanceof ComponentSignature other
+            && hash == other.hash
+            && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ComponentSignature{");
+        int[] ids = typeIds();
+        for (int i = 0; i < ids.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(ids[i]);
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -208,6 +208,7 @@ public abstract class System implements AutoCloseable {
         private static final int BITS_PER_WORD = 64;
         private volatile long[] words;
         private final StampedLock lock = new StampedLock();
+        private final AtomicInteger version = new AtomicInteger();
         
         // VarHandle for atomic operations on array elements
         private static final VarHandle WORDS_ARRAY;
@@ -248,6 +249,7 @@ public abstract class System implements AutoCloseable {
             } finally {
                 lock.unlockWrite(stamp);
             }
+            version.incrementAndGet();
         }
 
         /**
@@ -275,6 +277,7 @@ public abstract class System implements AutoCloseable {
                 oldValue = (long) WORDS_ARRAY.getVolatile(w, wordIndex);
                 newValue = oldValue | bit;
             } while (!WORDS_ARRAY.compareAndSet(w, wordIndex, oldValue, newValue));
+            version.incrementAndGet();
         }
 
         /**
@@ -293,6 +296,7 @@ public abstract class System implements AutoCloseable {
             } finally {
                 lock.unlockWrite(stamp);
             }
+            version.incrementAndGet();
         }
 
         /**
@@ -626,6 +630,15 @@ public abstract class System implements AutoCloseable {
             } finally {
                 lock.unlockWrite(stamp);
             }
+            version.incrementAndGet();
+        }
+
+        /**
+         * Modification count: changes after every {@code set}, {@code clear} or
+         * {@code clearAll}, so derived values can be cached until it moves.
+         */
+        public int version() {
+            return version.get();
         }
 
         private void ensureCapacity(int wordCount) {
@@ -1433,6 +1446,10 @@ public abstract class System implements AutoCloseable {
             for (ComponentAccess access : ann.optional) {
                 system.optionalMask.set(access.componentId);
             }
+
+            if (!ann.required.isEmpty()) {
+                system.accessDeclared = true;
+            }
             
             // Apply other properties
             system.priority = ann.priority;
@@ -1495,6 +1512,14 @@ public abstract class System implements AutoCloseable {
     protected final ComponentMask optionalMask = new ComponentMask();
     protected final ComponentMask writeMask = new ComponentMask();
 
+    /** Cached {@link ComponentSignature}s of the masks for {@link #matchesArchetype} */
+    private record QuerySignatures(int requiredVersion, int excludedVersion,
+                                   ComponentSignature required, ComponentSignature excluded) {}
+    private volatile QuerySignatures signatures;
+
+    /** Set once read/write access is declared; undeclared systems are scheduled exclusively */
+    protected volatile boolean accessDeclared;
+
     // Dependencies (type-safe)
     protected final Set<Class<? extends System>> dependencies = ConcurrentHashMap.newKeySet();
     protected final Set<Class<? extends System>> dependents = ConcurrentHashMap.newKeySet();
@@ -1503,7 +1528,7 @@ public abstract class System implements AutoCloseable {
     protected final AtomicReference<Throwable> lastError = new AtomicReference<>();
     protected final AtomicLong errorCount = new AtomicLong();
 
-    // Change detection
+    // Change detection: change tick closed at the end of the previous run (0 = never ran)
     protected final AtomicLong lastProcessedVersion = new AtomicLong(0);
 
     // Resources managed by this system
@@ -1587,6 +1612,7 @@ public abstract class System implements AutoCloseable {
         if (mode == AccessMode.WRITE_ONLY || mode == AccessMode.READ_WRITE) {
             writeMask.set(type.id());
         }
+        accessDeclared = true;
         return this;
     }
 
@@ -1636,6 +1662,7 @@ public abstract class System implements AutoCloseable {
     protected final System writes(Class<?> componentClass) {
         ComponentRegistry.ComponentType type = getRegistry().getType(componentClass);
         writeMask.set(type.id());
+        accessDeclared = true;
         return this;
     }
 
@@ -1689,8 +1716,25 @@ public abstract class System implements AutoCloseable {
      */
     public boolean matchesArchetype(Archetype archetype) {
         if (archetype == null) return false;
-        ComponentMask mask = archetype.getComponentMask();
-        return mask.containsAll(requiredMask) && !mask.intersects(excludedMask);
+        QuerySignatures signatures = querySignatures();
+        return archetype.matchesQuery(signatures.required, signatures.excluded);
+    }
+
+    /**
+     * Signatures of the required and excluded masks, rebuilt only when a mask changed.
+     * Versions are read before building, so a change racing the rebuild is seen next call.
+     */
+    private QuerySignatures querySignatures() {
+        QuerySignatures cached = signatures;
+        int requiredVersion = requiredMask.version();
+        int excludedVersion = excludedMask.version();
+        if (cached == null || cached.requiredVersion != requiredVersion
+                || cached.excludedVersion != excludedVersion) {
+            cached = new QuerySignatures(requiredVersion, excludedVersion,
+                ComponentSignature.from(requiredMask), ComponentSignature.from(excludedMask));
+            signatures = cached;
+        }
+        return cached;
     }
 
     /**
@@ -2070,6 +2114,17 @@ public abstract class System implements AutoCloseable {
     public ComponentMask getOptionalMask() { return optionalMask; }
     public ComponentMask getWriteMask() { return writeMask; }
 
+    /**
+     * Change tick at the end of this system's previous run. Pass to
+     * {@code Query.changedSince} to process only what changed since then.
+     */
+    public long getLastRunTick() { return lastProcessedVersion.get(); }
+
+    /**
+     * Whether component read/write access was declared (annotation or {@code require(type, mode)}).
+     */
+    public boolean hasDeclaredAccess() { return accessDeclared; }
+
     public Set<Class<? extends System>> getDependencies() {
         return Collections.unmodifiableSet(dependencies);
     }
@@ -2394,7 +2449,7 @@ public abstract class System implements AutoCloseable {
 
             private static final class CachedResult {
                 final List<Archetype> archetypes;
-                final long[] archetypeMasks;
+                final long[][] archetypeMasks;
                 final int[] entityCounts;
                 final long version;
                 final int totalEntities;
@@ -2408,7 +2463,7 @@ public abstract class System implements AutoCloseable {
                     int total = 0;
                     for (int i = 0; i < archetypes.size(); i++) {
                         Archetype a = archetypes.get(i);
-                        this.archetypeMasks[i] = a.getComponentMask().getWordsSnapshot();
+                        this.archetypeMasks[i] = a.getComponentSignature().words();
                         this.entityCounts[i] = a.getEntityCount();
                         total += this.entityCounts[i];
                     }
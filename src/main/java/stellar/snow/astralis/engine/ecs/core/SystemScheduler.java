@@ -12,17 +12,21 @@ import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 /**
- * SystemScheduler - High-performance system execution with virtual threads and structured concurrency.
+ * SystemScheduler - High-performance system execution with access-derived parallel waves.
  * 
  * <p>Modern features:</p>
  * <ul>
- *   <li>Virtual thread execution for massive parallelism</li>
- *   <li>Structured concurrency with proper cancellation</li>
- *   <li>Lock-free dependency tracking</li>
- *   <li>JFR profiling integration</li>
- *   <li>Work-stealing load balancing</li>
+ *   <li>Conflict-free parallel waves per stage, derived from declared component read/write sets</li>
+ *   <li>Barriers only between waves whose systems conflict (write/read or write/write)</li>
+ *   <li>Cached execution plan, rebuilt only when the system set changes</li>
+ *   <li>JFR profiling integration and per-wave timings</li>
+ *   <li>Work-stealing load balancing, optionally on a pool shared across worlds</li>
  *   <li>Tarjan cycle detection</li>
  * </ul>
+ *
+ * <p>Systems declare access through {@code @RequireComponents(mode = ...)},
+ * {@code require(type, mode)} or {@code writes(type)}. A system without declared access
+ * is treated as exclusive and runs in a wave of its own.</p>
  */
 public final class SystemScheduler {
     
@@ -55,15 +59,63 @@ public final class SystemScheduler {
         final Set<String> dependencies = ConcurrentHashMap.newKeySet();
         final Set<String> dependents = ConcurrentHashMap.newKeySet();
         final LongAdder executionTime = new LongAdder();
-        volatile boolean completed;
         volatile boolean executing;
         
+        // Access sets, captured when the plan is built
+        ComponentSignature reads = ComponentSignature.EMPTY;
+        ComponentSignature writes = ComponentSignature.EMPTY;
+        boolean exclusive;
+        
         SystemEntry(System system, Stage stage) {
             this.system = system;
             this.stage = stage;
         }
+        
+        void captureAccess() {
+            exclusive = !system.hasDeclaredAccess();
+            writes = ComponentSignature.from(system.getWriteMask());
+            reads = ComponentSignature.from(system.getRequiredMask())
+                .or(ComponentSignature.from(system.getOptionalMask()));
+        }
+        
+        boolean conflictsWith(SystemEntry other) {
+            if (exclusive || other.exclusive) return true;
+            return writes.intersects(other.writes)
+                || writes.intersects(other.reads)
+                || other.writes.intersects(reads);
+        }
+    }
+    
+    /**
+     * Set of mutually non-conflicting systems; waves run in order with a barrier between them.
+     */
+    private static final class Wave {
+        final Stage stage;
+        final int index;
+        final List<SystemEntry> entries;
+        final LongAdder totalNanos = new LongAdder();
+        final LongAdder executions = new LongAdder();
+        volatile long lastNanos;
+        
+        Wave(Stage stage, int index, List<SystemEntry> entries) {
+            this.stage = stage;
+            this.index = index;
+            this.entries = entries;
+        }
     }
     
+    /**
+     * Timing snapshot for one wave.
+     */
+    public record WaveMetrics(
+        Stage stage,
+        int index,
+        List<String> systems,
+        double lastMs,
+        double averageMs,
+        long executions
+    ) {}
+    
     /**
      * Dependency graph node for Tarjan's algorithm.
      */
@@ -80,11 +132,16 @@ public final class SystemScheduler {
     
     private final ConcurrentHashMap<String, SystemEntry> systems = new ConcurrentHashMap<>();
     private final Map<Stage, List<SystemEntry>> stageOrder = new EnumMap<>(Stage.class);
+    private final Map<Stage, List<Wave>> stagePlan = new EnumMap<>(Stage.class);
     private final ExecutorService executor;
     private final ForkJoinPool workStealingPool;
+    private final boolean ownsPool;
     private final int parallelism;
     private final boolean useVirtualThreads;
     
+    /** Fan-out cap below {@code parallelism}, lowered by a {@link WorldGroup} when this world overruns */
+    private volatile int parallelismLimit;
+    
     private volatile boolean orderDirty = true;
     private volatile boolean profilingEnabled = false;
     
@@ -114,9 +171,12 @@ public final class SystemScheduler {
             null,
             true // asyncMode for better throughput
         );
+        this.ownsPool = true;
+        this.parallelismLimit = parallelism;
         
         for (Stage stage : Stage.values()) {
             stageOrder.put(stage, new CopyOnWriteArrayList<>());
+            stagePlan.put(stage, List.of());
         }
     }
     
@@ -124,6 +184,24 @@ public final class SystemScheduler {
         this(parallelism, true);
     }
     
+    /**
+     * Create scheduler that runs on a pool owned by someone else (see {@link WorldGroup}).
+     * No executors are created and {@link #shutdown} leaves the pool running.
+     */
+    public SystemScheduler(ForkJoinPool sharedPool) {
+        this.workStealingPool = Objects.requireNonNull(sharedPool, "Shared pool cannot be null");
+        this.executor = null;
+        this.ownsPool = false;
+        this.parallelism = sharedPool.getParallelism();
+        this.parallelismLimit = parallelism;
+        this.useVirtualThreads = false;
+        
+        for (Stage stage : Stage.values()) {
+            stageOrder.put(stage, new CopyOnWriteArrayList<>());
+            stagePlan.put(stage, List.of());
+        }
+    }
+    
     public SystemScheduler() {
         this(Math.max(2, Runtime.getRuntime().availableProcessors() - 1), true);
     }
@@ -194,6 +272,32 @@ public final class SystemScheduler {
                 }
             });
         }
+        
+        // Systems commonly declare access while initializing
+        orderDirty = true;
+    }
+    
+    /**
+     * Cap how many tasks a wave or system may fan out to (clamped to {@code [1, parallelism]}).
+     * The plan is unaffected; only how much of it overlaps changes.
+     */
+    public void setParallelismLimit(int limit) {
+        this.parallelismLimit = Math.max(1, Math.min(parallelism, limit));
+    }
+    
+    public int getParallelismLimit() {
+        return parallelismLimit;
+    }
+    
+    public int getParallelism() {
+        return parallelism;
+    }
+    
+    /**
+     * Force a plan rebuild, e.g. after a system changed its declared access at runtime.
+     */
+    public void invalidatePlan() {
+        orderDirty = true;
     }
     
     public void executeStage(World world, Stage stage, float deltaTime) {
@@ -201,18 +305,14 @@ public final class SystemScheduler {
             rebuildOrder();
         }
         
-        List<SystemEntry> stageSystems = stageOrder.get(stage);
-        if (stageSystems.isEmpty()) return;
-        
-        stageSystems.forEach(e -> {
-            e.completed = false;
-            e.executing = false;
-        });
-        
-        if (parallelism > 1 && stageSystems.size() > 1) {
-            executeParallelStructured(world, stageSystems, deltaTime);
-        } else {
-            executeSequential(world, stageSystems, deltaTime);
+        for (Wave wave : stagePlan.get(stage)) {
+            long start = java.lang.System.nanoTime();
+            executeWave(world, wave, deltaTime);
+            long duration = java.lang.System.nanoTime() - start;
+            
+            wave.lastNanos = duration;
+            wave.totalNanos.add(duration);
+            wave.executions.increment();
         }
     }
     
@@ -222,81 +322,59 @@ public final class SystemScheduler {
         }
     }
     
-    private void executeSequential(World world, List<SystemEntry> entries, float deltaTime) {
-        for (SystemEntry entry : entries) {
-            if (!entry.system.enabled) {
-                entry.completed = true;
-                continue;
-            }
-            executeSystem(world, entry, deltaTime);
-        }
-    }
-    
     /**
-     * Structured concurrent execution with proper cancellation propagation.
+     * Run one wave. Systems in a wave never conflict, so they fork onto the work-stealing
+     * pool and the join is the only barrier.
      */
-    private void executeParallelStructured(World world, List<SystemEntry> entries, float deltaTime) {
-        try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
-            
-            // Create dependency-aware task graph
-            Map<String, StructuredTaskScope.Subtask<Void>> taskMap = new ConcurrentHashMap<>();
-            
-            for (SystemEntry entry : entries) {
-                if (!entry.system.enabled) {
-                    entry.completed = true;
-                    continue;
+    private void executeWave(World world, Wave wave, float deltaTime) {
+        List<SystemEntry> runnable = new ArrayList<>(wave.entries.size());
+        for (SystemEntry entry : wave.entries) {
+            if (entry.system.enabled) {
+                runnable.add(entry);
+            }
+        }
+        
+        if (runnable.isEmpty()) return;
+        
+        int width = parallelismLimit;
+        if (width <= 1 || runnable.size() == 1) {
+            for (SystemEntry entry : runnable) {
+                executeSystem(world, entry, deltaTime, width);
+            }
+            return;
+        }
+        
+        // Deal systems round-robin onto at most 'width' tasks; order inside a task is the plan order
+        int lanes = Math.min(width, runnable.size());
+        // Each lane may fan its systems out over its share of the limit, never more
+        int laneWidth = Math.max(1, width / lanes);
+        List<Callable<Void>> tasks = new ArrayList<>(lanes);
+        for (int lane = 0; lane < lanes; lane++) {
+            int first = lane;
+            tasks.add(() -> {
+                for (int i = first; i < runnable.size(); i += lanes) {
+                    executeSystem(world, runnable.get(i), deltaTime, laneWidth);
                 }
-                
-                StructuredTaskScope.Subtask<Void> task = scope.fork(() -> {
-                    waitForDependencies(entry, taskMap);
-                    executeSystem(world, entry, deltaTime);
-                    entry.completed = true;
-                    return null;
-                });
-                
-                taskMap.put(entry.system.name, task);
+                return null;
+            });
+        }
+        
+        try {
+            for (Future<Void> result : workStealingPool.invokeAll(tasks)) {
+                result.get();
             }
-            
-            scope.join();
-            scope.throwIfFailed();
-            
         } catch (InterruptedException e) {
             Astralis.LOGGER.warn("[ECS] System execution interrupted");
             Thread.currentThread().interrupt();
-        } catch (Exception e) {
-            Astralis.LOGGER.error("[ECS] System execution failed: {}", e.getMessage());
+        } catch (ExecutionException e) {
+            Astralis.LOGGER.error("[ECS] System execution failed: {}", e.getCause().getMessage());
         }
     }
     
     /**
-     * Wait for dependencies with exponential backoff.
+     * Run one system over its matching archetypes, on at most {@code width} tasks.
      */
-    private void waitForDependencies(SystemEntry entry, Map<String, StructuredTaskScope.Subtask<Void>> taskMap) {
-        if (entry.dependencies.isEmpty()) return;
-        
-        int backoff = 1;
-        while (!allDependenciesComplete(entry)) {
-            try {
-                Thread.sleep(Math.min(backoff, 50));
-                backoff *= 2;
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                return;
-            }
-        }
-    }
-    
-    private boolean allDependenciesComplete(SystemEntry entry) {
-        for (String dep : entry.dependencies) {
-            SystemEntry depEntry = systems.get(dep);
-            if (depEntry != null && !depEntry.completed) {
-                return false;
-            }
-        }
-        return true;
-    }
-    
-    private void executeSystem(World world, SystemEntry entry, float deltaTime) {
+    private void executeSystem(World world, SystemEntry entry, float deltaTime, int width) {
         if (entry.executing) return;
         entry.executing = true;
         
@@ -319,19 +397,27 @@ public final class SystemScheduler {
                 .filter(system::matchesArchetype)
                 .toList();
             
-            // Work-stealing parallel archetype processing for large systems
-            if (matchingArchetypes.size() > 4 && parallelism > 1) {
-                workStealingPool.submit(() ->
-                    matchingArchetypes.parallelStream().forEach(archetype -> {
-                        system.update(world, archetype, deltaTime);
-                    })
-                ).join();
+            // Large systems deal archetypes round-robin onto at most 'width' pool tasks
+            if (matchingArchetypes.size() > 4 && width > 1) {
+                int lanes = Math.min(width, matchingArchetypes.size());
+                List<ForkJoinTask<?>> tasks = new ArrayList<>(lanes);
+                for (int lane = 0; lane < lanes; lane++) {
+                    int first = lane;
+                    tasks.add(ForkJoinTask.adapt(() -> {
+                        for (int i = first; i < matchingArchetypes.size(); i += lanes) {
+                            system.update(world, matchingArchetypes.get(i), deltaTime);
+                        }
+                    }));
+                }
+                workStealingPool.submit(() -> ForkJoinTask.invokeAll(tasks)).join();
             } else {
                 for (Archetype archetype : matchingArchetypes) {
                     system.update(world, archetype, deltaTime);
-                    entityCount += archetype.getEntityCount();
                 }
             }
+            for (Archetype archetype : matchingArchetypes) {
+                entityCount += archetype.getEntityCount();
+            }
             
             system.onAfterUpdate(world, deltaTime);
             
@@ -343,6 +429,9 @@ public final class SystemScheduler {
         long endTime = java.lang.System.nanoTime();
         long duration = endTime - startTime;
         
+        // Close this run's change tick: later writes are "changed since last run" next time
+        system.lastProcessedVersion.set(world.getChangeClock().advance());
+        
         system.lastExecutionTimeNanos = duration;
         system.totalExecutionTimeNanos += duration;
         system.executionCount++;
@@ -354,7 +443,6 @@ public final class SystemScheduler {
             event.commit();
         }
         
-        entry.completed = true;
         entry.executing = false;
     }
     
@@ -379,11 +467,51 @@ public final class SystemScheduler {
         for (Stage stage : Stage.values()) {
             List<SystemEntry> sorted = tarjanTopologicalSort(stageOrder.get(stage));
             stageOrder.put(stage, sorted);
+            stagePlan.put(stage, buildWaves(stage, sorted));
         }
         
         orderDirty = false;
     }
     
+    /**
+     * Assign each system (in topological order) to the first wave after every earlier
+     * system it depends on or conflicts with. Conflicting systems therefore keep their
+     * registration/dependency order, everything else overlaps.
+     */
+    private List<Wave> buildWaves(Stage stage, List<SystemEntry> sorted) {
+        int count = sorted.size();
+        int[] level = new int[count];
+        List<List<SystemEntry>> levels = new ArrayList<>();
+        
+        for (SystemEntry entry : sorted) {
+            entry.captureAccess();
+        }
+        
+        for (int i = 0; i < count; i++) {
+            SystemEntry entry = sorted.get(i);
+            int wave = 0;
+            for (int j = 0; j < i; j++) {
+                SystemEntry earlier = sorted.get(j);
+                if (level[j] + 1 > wave && (entry.dependencies.contains(earlier.system.name)
+                        || earlier.dependents.contains(entry.system.name)
+                        || entry.conflictsWith(earlier))) {
+                    wave = level[j] + 1;
+                }
+            }
+            level[i] = wave;
+            while (levels.size() <= wave) {
+                levels.add(new ArrayList<>());
+            }
+            levels.get(wave).add(entry);
+        }
+        
+        List<Wave> waves = new ArrayList<>(levels.size());
+        for (int i = 0; i < levels.size(); i++) {
+            waves.add(new Wave(stage, i, List.copyOf(levels.get(i))));
+        }
+        return List.copyOf(waves);
+    }
+    
     /**
      * Tarjan's algorithm for topological sort with cycle detection.
      */
@@ -490,6 +618,9 @@ public final class SystemScheduler {
             });
         }
         
+        // A shared pool belongs to its WorldGroup
+        if (!ownsPool) return;
+        
         executor.shutdown();
         workStealingPool.shutdown();
         
@@ -537,17 +668,70 @@ public final class SystemScheduler {
                     s.executionCount,
                     s.enabled ? "" : " [DISABLED]"));
             }
+            
+            List<Wave> waves = stagePlan.get(stage);
+            for (Wave wave : waves) {
+                long executions = wave.executions.sum();
+                sb.append(String.format("  wave %d %-25s: %.3f ms (avg: %.3f ms)\n",
+                    wave.index,
+                    wave.entries.stream().map(e -> e.system.name).toList(),
+                    wave.lastNanos / 1_000_000.0,
+                    executions > 0 ? wave.totalNanos.sum() / 1_000_000.0 / executions : 0.0));
+            }
             sb.append("\n");
         }
         
         return sb.toString();
     }
     
+    /**
+     * Average time in ms per system, plus one {@code "wave:<stage>:<index>"} entry per wave.
+     */
     public Map<String, Double> getSystemMetrics() {
-        return systems.entrySet().stream()
+        Map<String, Double> metrics = systems.entrySet().stream()
             .collect(Collectors.toMap(
                 Map.Entry::getKey,
-                e -> e.getValue().system.getAverageExecutionTimeMs()
+                e -> e.getValue().system.getAverageExecutionTimeMs(),
+                (a, b) -> a,
+                HashMap::new
             ));
+        
+        for (WaveMetrics wave : getWaveMetrics()) {
+            metrics.put("wave:" + wave.stage() + ":" + wave.index(), wave.averageMs());
+        }
+        return metrics;
+    }
+    
+    /**
+     * Get per-wave timings for the current plan.
+     */
+    public List<WaveMetrics> getWaveMetrics() {
+        List<WaveMetrics> result = new ArrayList<>();
+        for (Stage stage : Stage.values()) {
+            for (Wave wave : stagePlan.get(stage)) {
+                long executions = wave.executions.sum();
+                result.add(new WaveMetrics(
+                    stage,
+                    wave.index,
+                    wave.entries.stream().map(e -> e.system.name).toList(),
+                    wave.lastNanos / 1_000_000.0,
+                    executions > 0 ? wave.totalNanos.sum() / 1_000_000.0 / executions : 0.0,
+                    executions
+                ));
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Get the current plan as system names per wave.
+     */
+    public List<List<String>> getExecutionPlan(Stage stage) {
+        if (orderDirty) {
+            rebuildOrder();
+        }
+        return stagePlan.get(stage).stream()
+            .map(w -> w.entries.stream().map(e -> e.system.name).toList())
+            .toList();
     }
 }
@@ -5,6 +5,7 @@ import stellar.snow.astralis.Astralis;
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
 import java.lang.foreign.ValueLayout;
+import java.lang.ref.WeakReference;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.time.Duration;
@@ -26,6 +27,8 @@ import java.util.stream.*;
  *   <li>Foreign Memory API for off-heap component storage</li>
  *   <li>Deferred command buffers for thread-safe modifications</li>
  *   <li>Query caching with automatic invalidation</li>
+ *   <li>Component types past 64 via multi-word signatures and a per-component query index
+ *       (up to {@code ComponentRegistry.MAX_EXTENDED_TYPES})</li>
  *   <li>Entity relationships and hierarchies</li>
  *   <li>Component change detection with versioning</li>
  *   <li>Structured concurrency for deterministic execution</li>
@@ -46,7 +49,6 @@ public final class World implements AutoCloseable {
     private static final int CACHE_LINE_SIZE = 64;
     private static final int DEFAULT_MAX_ENTITIES = 1_000_000;
     private static final int DEFAULT_COMMAND_BUFFER_SIZE = 16_384;
-    private static final long QUERY_CACHE_TTL_NANOS = Duration.ofMillis(100).toNanos();
 
     /** World configuration record */
     public record Config(
@@ -182,23 +184,28 @@ public final class World implements AutoCloseable {
     private volatile int maxEntityIndex = 0;
 
     // Archetype management with optimistic locking
-    private final ConcurrentHashMap<Long, Archetype> archetypesByMask = new ConcurrentHashMap<>(64);
+    private final ConcurrentHashMap<ComponentSignature, Archetype> archetypesBySignature = new ConcurrentHashMap<>(64);
     private final CopyOnWriteArrayList<Archetype> archetypeList = new CopyOnWriteArrayList<>();
     private final AtomicInteger nextArchetypeId = new AtomicInteger(0);
     private final StampedLock archetypeLock = new StampedLock();
 
-    // Query caching
+    // Query caching (invalidated only when the archetype set changes)
     private final ConcurrentHashMap<QueryKey, CachedQuery> queryCache = new ConcurrentHashMap<>();
     private final AtomicLong queryCacheVersion = new AtomicLong(0);
+    private final ArchetypeQueryIndex queryIndex = new ArchetypeQueryIndex();
 
     // System scheduling
     private final SystemScheduler scheduler;
     private final ExecutorService virtualExecutor;
+    private final boolean ownsExecutors;
     private final StructuredTaskScope.ShutdownOnFailure structuredScope;
 
     // Component registry reference
     private final ComponentRegistry registry;
 
+    // Change clock shared by this world's component arrays
+    private final ComponentArray.ChangeClock changeClock = new ComponentArray.ChangeClock();
+
     // Command buffer for deferred operations
     private final CommandBuffer commandBuffer;
 
@@ -212,6 +219,17 @@ public final class World implements AutoCloseable {
     private final LongAdder totalEntitiesCreated = new LongAdder();
     private final LongAdder totalEntitiesDestroyed = new LongAdder();
     private final LongAdder componentOperations = new LongAdder();
+
+    // Copy-on-write snapshot sequence
+    private final AtomicLong snapshotSequence = new AtomicLong();
+
+    // Migration throughput (per-entity vs batched path)
+    private final LongAdder singleMigrations = new LongAdder();
+    private final LongAdder singleMigrationNanos = new LongAdder();
+    private final LongAdder batchMigrations = new LongAdder();
+    private final LongAdder batchMigratedEntities = new LongAdder();
+    private final LongAdder batchMigrationNanos = new LongAdder();
+    private volatile boolean migrationTiming;
     private final LongAdder queryCacheHits = new LongAdder();
     private final LongAdder queryCacheMisses = new LongAdder();
 
@@ -236,17 +254,15 @@ public final class World implements AutoCloseable {
     }
 
     /** Query key for caching */
-    private record QueryKey(long requiredMask, long excludedMask, long optionalMask) {}
+    private record QueryKey(ComponentSignature required, ComponentSignature excluded, ComponentSignature optional) {}
 
     /** Cached query result */
     private record CachedQuery(
         List<Archetype> archetypes,
-        long version,
-        long timestampNanos
+        long version
     ) {
         boolean isValid(long currentVersion) {
-            return version == currentVersion &&
-                   (java.lang.System.nanoTime() - timestampNanos) < QUERY_CACHE_TTL_NANOS;
+            return version == currentVersion;
         }
     }
 
@@ -258,6 +274,14 @@ public final class World implements AutoCloseable {
      * Create a new world with configuration.
      */
     public World(Config config) {
+        this(config, null);
+    }
+
+    /**
+     * Create a world whose scheduler and parallel queries run on {@code sharedPool} instead of
+     * executors of its own (see {@link WorldGroup}). {@code null} means create private executors.
+     */
+    public World(Config config, ForkJoinPool sharedPool) {
         this.config = Objects.requireNonNull(config, "Config cannot be null");
         this.name = config.name();
 
@@ -279,14 +303,21 @@ public final class World implements AutoCloseable {
         );
 
         // Initialize executors
-        this.virtualExecutor = config.useVirtualThreads()
-            ? Executors.newVirtualThreadPerTaskExecutor()
-            : Executors.newWorkStealingPool(config.parallelism());
+        this.ownsExecutors = sharedPool == null;
+        if (sharedPool != null) {
+            this.virtualExecutor = sharedPool;
+        } else {
+            this.virtualExecutor = config.useVirtualThreads()
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newWorkStealingPool(config.parallelism());
+        }
 
         this.structuredScope = new StructuredTaskScope.ShutdownOnFailure(
             "World-" + config.name(), Thread.ofVirtual().factory());
 
-        this.scheduler = new SystemScheduler(config.parallelism(), config.useVirtualThreads());
+        this.scheduler = sharedPool != null
+            ? new SystemScheduler(sharedPool)
+            : new SystemScheduler(config.parallelism(), config.useVirtualThreads());
         this.registry = ComponentRegistry.get();
         this.commandBuffer = new CommandBuffer(config.commandBufferSize());
         this.relationships = new RelationshipGraph(config.maxEntities());
@@ -354,8 +385,7 @@ public final class World implements AutoCloseable {
         Entity entity = createEntity();
 
         if (componentTypes.length > 0) {
-            long mask = computeComponentMask(componentTypes);
-            Archetype archetype = getOrCreateArchetype(mask);
+            Archetype archetype = getOrCreateArchetype(computeSignature(componentTypes));
             archetype.addEntity(entity);
             setArchetypeId(entity.index(), archetype.id);
         }
@@ -376,7 +406,7 @@ public final class World implements AutoCloseable {
         
         if (prefabArchetypeId >= 0) {
             Archetype prefabArchetype = archetypeList.get(prefabArchetypeId);
-            Archetype entityArchetype = getOrCreateArchetype(prefabArchetype.getComponentMask());
+            Archetype entityArchetype = getOrCreateArchetype(prefabArchetype.getComponentSignature());
             
             entityArchetype.addEntity(entity);
             entityArchetype.copyEntityData(prefab, entity, prefabArchetype);
@@ -405,8 +435,7 @@ public final class World implements AutoCloseable {
     @SafeVarargs
     public final Entity[] createEntities(int count, Class<?>... componentTypes) {
         Entity[] entities = new Entity[count];
-        long mask = computeComponentMask(componentTypes);
-        Archetype archetype = getOrCreateArchetype(mask);
+        Archetype archetype = getOrCreateArchetype(computeSignature(componentTypes));
 
         for (int i = 0; i < count; i++) {
             Entity entity = createEntity();
@@ -418,6 +447,49 @@ public final class World implements AutoCloseable {
         return entities;
     }
 
+    /**
+     * Batch create entities directly in the archetype of {@code componentTypes}, every row
+     * initialized from a pre-serialized template: component {@code i} is read from
+     * {@code template} at {@code offsets[i]}.
+     *
+     * <p>Rows are reserved once and each column is filled with block copies of the template,
+     * so there is no per-component archetype migration. A {@link ComponentAddedEvent} is
+     * published per entity and component once the whole batch is in place.</p>
+     */
+    public Entity[] createEntities(int count, Class<?>[] componentTypes, MemorySegment template, long[] offsets) {
+        Entity[] entities = new Entity[count];
+        if (count == 0) return entities;
+
+        int[] indices = new int[count];
+        int[] generations = new int[count];
+        for (int i = 0; i < count; i++) {
+            Entity entity = createEntity();
+            entities[i] = entity;
+            indices[i] = entity.index();
+            generations[i] = entity.generation();
+        }
+        if (componentTypes.length == 0) return entities;
+
+        long start = migrationClock();
+        Archetype archetype = getOrCreateArchetype(computeSignature(componentTypes));
+        archetype.addEntities(indices, generations, count);
+        for (int t = 0; t < componentTypes.length; t++) {
+            archetype.getComponentArray(componentTypes[t]).fillRows(indices, count, template, offsets[t]);
+        }
+        for (int i = 0; i < count; i++) {
+            setArchetypeId(indices[i], archetype.id);
+        }
+        recordBatchMigration(count, start);
+        componentOperations.add((long) count * componentTypes.length);
+        for (Entity entity : entities) {
+            for (Class<?> componentType : componentTypes) {
+                eventBus.publish(new ComponentAddedEvent(entity, componentType));
+            }
+        }
+
+        return entities;
+    }
+
     /**
      * Destroy an entity.
      */
@@ -446,16 +518,100 @@ public final class World implements AutoCloseable {
         // Recycle index
         recycledIndices.addLast(entity.index());
         totalEntitiesDestroyed.increment();
-        invalidateQueryCache();
 
         eventBus.publish(new EntityDestroyedEvent(entity.index()));
     }
 
+    /**
+     * Destroy a batch of entities, optionally cascading to all of their descendants.
+     *
+     * <p>Relationship edges are dropped in one pass per relation type and archetype rows are
+     * removed with one compaction per archetype, instead of one walk per entity.</p>
+     *
+     * @return number of entities destroyed
+     */
+    public int destroyEntities(Entity[] roots, boolean cascade) {
+        int[] indices = new int[roots.length];
+        int count = 0;
+        BitSet listed = new BitSet();
+        for (Entity root : roots) {
+            // A root listed twice must be destroyed, and its index recycled, only once
+            if (isValid(root) && !listed.get(root.index())) {
+                listed.set(root.index());
+                indices[count++] = root.index();
+            }
+        }
+        if (count == 0) return 0;
+
+        if (cascade) {
+            int[] closure = relationships.collectDescendants(indices, count);
+            indices = closure;
+            count = 0;
+            for (int index : closure) {
+                if ((getEntityFlags(index) & EntityFlag.ACTIVE.mask) != 0) indices[count++] = index;
+            }
+        }
+
+        Entity[] doomed = new Entity[count];
+        for (int i = 0; i < count; i++) {
+            doomed[i] = new Entity(indices[i], getGeneration(indices[i]));
+            eventBus.publish(new EntityDestroyingEvent(doomed[i]));
+        }
+
+        relationships.removeEntities(indices, count);
+
+        // Group by archetype so each one compacts once
+        Map<Integer, int[]> byArchetype = new HashMap<>();
+        Map<Integer, Integer> fill = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            int archetypeId = getArchetypeId(indices[i]);
+            if (archetypeId < 0) continue;
+            int[] group = byArchetype.computeIfAbsent(archetypeId, k -> new int[8]);
+            int n = fill.getOrDefault(archetypeId, 0);
+            if (n == group.length) {
+                group = Arrays.copyOf(group, n << 1);
+                byArchetype.put(archetypeId, group);
+            }
+            group[n] = indices[i];
+            fill.put(archetypeId, n + 1);
+        }
+        for (Map.Entry<Integer, int[]> entry : byArchetype.entrySet()) {
+            int archetypeId = entry.getKey();
+            if (archetypeId < archetypeList.size()) {
+                Archetype archetype = archetypeList.get(archetypeId);
+                if (archetype != null) {
+                    archetype.removeEntities(entry.getValue(), fill.get(archetypeId));
+                }
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            int index = indices[i];
+            setArchetypeId(index, -1);
+            setGeneration(index, getGeneration(index) + 1);
+            setEntityFlags(index, (byte) 0);
+            recycledIndices.addLast(index);
+        }
+        totalEntitiesDestroyed.add(count);
+
+        for (int i = 0; i < count; i++) {
+            eventBus.publish(new EntityDestroyedEvent(indices[i]));
+        }
+        return count;
+    }
+
     /**
      * Deferred entity destruction (thread-safe).
      */
     public void destroyEntityDeferred(Entity entity) {
-        commandBuffer.enqueue(new DestroyEntityCommand(entity));
+        commandBuffer.destroy(entity, 0);
+    }
+
+    /**
+     * Deferred entity destruction with playback sort key (lower keys apply first).
+     */
+    public void destroyEntityDeferred(Entity entity, int sortKey) {
+        commandBuffer.destroy(entity, sortKey);
     }
 
     /**
@@ -513,39 +669,33 @@ public final class World implements AutoCloseable {
 
         ComponentRegistry.ComponentType type = registry.getType(componentClass);
         int currentArchetypeId = getArchetypeId(entity.index());
-        long currentMask = 0;
-
-        if (currentArchetypeId >= 0) {
-            Archetype currentArchetype = archetypeList.get(currentArchetypeId);
-            currentMask = currentArchetype.getComponentMask();
-
-            // Already has component - just update
-            if (currentArchetype.hasComponent(type.id)) {
-                currentArchetype.setComponent(entity.index(), type.id, data);
-                markComponentChanged(entity, type.id);
-                componentOperations.increment();
-                return;
-            }
-
-            // Remove from current archetype
-            currentArchetype.removeEntity(entity);
+        Archetype currentArchetype = currentArchetypeId >= 0 ? archetypeList.get(currentArchetypeId) : null;
+
+        // Already has component - just update
+        if (currentArchetype != null && currentArchetype.hasComponent(type.id)) {
+            currentArchetype.setComponent(entity.index(), type.id, data);
+            markComponentChanged(entity, type.id);
+            componentOperations.increment();
+            return;
         }
 
-        // Migrate to new archetype
-        long newMask = currentMask | (1L << type.id);
-        Archetype newArchetype = getOrCreateArchetype(newMask);
+        long start = migrationClock();
+        ComponentSignature currentSignature = currentArchetype != null
+            ? currentArchetype.getComponentSignature()
+            : ComponentSignature.EMPTY;
+
+        // Migrate to new archetype, copying existing component data before leaving the old one
+        Archetype newArchetype = getOrCreateArchetype(currentSignature.with(type.id));
         newArchetype.addEntity(entity);
         newArchetype.setComponent(entity.index(), type.id, data);
-        setArchetypeId(entity.index(), newArchetype.id);
-
-        // Copy existing component data
-        if (currentArchetypeId >= 0) {
-            Archetype oldArchetype = archetypeList.get(currentArchetypeId);
-            copyComponentData(entity, oldArchetype, newArchetype, type.id);
+        if (currentArchetype != null) {
+            copyComponentData(entity, currentArchetype, newArchetype, type.id);
+            currentArchetype.removeEntity(entity);
         }
+        setArchetypeId(entity.index(), newArchetype.id);
 
+        recordSingleMigration(start);
         componentOperations.increment();
-        invalidateQueryCache();
         eventBus.publish(new ComponentAddedEvent(entity, componentClass));
     }
 
@@ -575,7 +725,246 @@ public final class World implements AutoCloseable {
      * Add component deferred (thread-safe).
      */
     public <T> void addComponentDeferred(Entity entity, Class<T> componentClass, ByteBuffer data) {
-        commandBuffer.enqueue(new AddComponentCommand(entity, componentClass, data.duplicate()));
+        addComponentDeferred(entity, componentClass, data, 0);
+    }
+
+    /**
+     * Add component deferred with playback sort key (lower keys apply first).
+     */
+    public <T> void addComponentDeferred(Entity entity, Class<T> componentClass, ByteBuffer data, int sortKey) {
+        commandBuffer.addComponent(entity, registry.getType(componentClass).id, 
+            MemorySegment.ofBuffer(data.duplicate().rewind()), sortKey);
+    }
+
+    /**
+     * Add component deferred from a MemorySegment (payload is copied immediately).
+     */
+    public void addComponentDeferred(Entity entity, Class<?> componentClass, MemorySegment data, int sortKey) {
+        commandBuffer.addComponent(entity, registry.getType(componentClass).id, data, sortKey);
+    }
+
+    /**
+     * Remove component deferred (thread-safe).
+     */
+    public void removeComponentDeferred(Entity entity, Class<?> componentClass) {
+        commandBuffer.removeComponent(entity, registry.getType(componentClass).id, 0);
+    }
+
+    /**
+     * Add a component to many entities at once. Row {@code i} of {@code src} (component-size
+     * stride) becomes the component of {@code entities[i]}.
+     *
+     * <p>Entities are grouped by current archetype; each group resolves its target once,
+     * reserves its rows in one step, block-copies the shared columns and compacts the
+     * source in one pass. Invalid entities are skipped; an entity listed more than once
+     * receives the row of its last occurrence.</p>
+     */
+    public void addComponent(Entity[] entities, Class<?> componentClass, MemorySegment src) {
+        addComponent(entities, 0, entities.length, componentClass, src);
+    }
+
+    /**
+     * Add a component to {@code entities[from, to)}; row {@code i - from} of {@code src} is the data
+     * for {@code entities[i]}.
+     */
+    public void addComponent(Entity[] entities, int from, int to, Class<?> componentClass, MemorySegment src) {
+        Objects.checkFromToIndex(from, to, entities.length);
+        ComponentRegistry.ComponentType type = registry.getType(componentClass);
+        long rowBytes = type.sizeBytes();
+
+        forEachArchetypeGroup(entities, from, to, (source, indices, generations, rows, length, contiguous) -> {
+            if (contiguous) {
+                addComponentBatch(source, indices, generations, length, type, 
+                    src, (long) rows[0] * rowBytes, rowBytes);
+                return;
+            }
+            // Group rows are scattered in src: stage them contiguously
+            try (Arena staging = Arena.ofConfined()) {
+                MemorySegment payload = staging.allocate(Math.max(8, length * rowBytes), 8);
+                for (int i = 0; i < length; i++) {
+                    MemorySegment.copy(src, rows[i] * rowBytes, payload, i * rowBytes, rowBytes);
+                }
+                addComponentBatch(source, indices, generations, length, type, payload, 0, rowBytes);
+            }
+        });
+    }
+
+    /**
+     * Remove a component from many entities at once (batched migration per source archetype).
+     */
+    public void removeComponent(Entity[] entities, Class<?> componentClass) {
+        ComponentRegistry.ComponentType type = registry.getType(componentClass);
+
+        forEachArchetypeGroup(entities, 0, entities.length, (source, indices, generations, rows, length, contiguous) -> {
+            if (source == null || !source.hasComponent(type.id)) return;
+
+            for (int i = 0; i < length; i++) {
+                eventBus.publish(new ComponentRemovingEvent(new Entity(indices[i], generations[i]), componentClass));
+            }
+
+            ComponentSignature newSignature = source.getComponentSignature().without(type.id);
+            long start = migrationClock();
+
+            if (newSignature.isEmpty()) {
+                source.removeEntities(indices, length);
+                for (int i = 0; i < length; i++) {
+                    setArchetypeId(indices[i], -1);
+                }
+            } else {
+                moveBatch(source, getOrCreateArchetype(newSignature), indices, generations, length);
+            }
+
+            recordBatchMigration(length, start);
+            componentOperations.add(length);
+            for (int i = 0; i < length; i++) {
+                eventBus.publish(new ComponentRemovedEvent(new Entity(indices[i], generations[i]), componentClass));
+            }
+        });
+    }
+
+    /**
+     * Callback for one group of entities sharing a source archetype.
+     */
+    @FunctionalInterface
+    private interface ArchetypeGroupAction {
+        void accept(Archetype source, int[] indices, int[] generations, int[] rows, int length, boolean contiguous);
+    }
+
+    /**
+     * Split valid entities in {@code [from, to)} into groups by current archetype, preserving
+     * input order within each group. An entity listed more than once is kept only at its last
+     * position, so it gets one row. {@code rows} holds each entity's position relative to
+     * {@code from}; {@code contiguous} is set when those positions form one ascending run.
+     */
+    private void forEachArchetypeGroup(Entity[] entities, int from, int to, ArchetypeGroupAction action) {
+        int total = to - from;
+        long[] keys = new long[total];
+        int[] order = new int[total];
+        BitSet seen = new BitSet();
+        int valid = 0;
+        for (int i = total - 1; i >= 0; i--) {
+            Entity entity = entities[from + i];
+            if (!isValid(entity) || seen.get(entity.index())) continue;
+            seen.set(entity.index());
+            keys[i] = getArchetypeId(entity.index());
+            order[valid++] = i;
+        }
+        if (valid == 0) return;
+
+        // Collected back to front; restore input order
+        order = Arrays.copyOf(order, valid);
+        for (int a = 0, b = valid - 1; a < b; a++, b--) {
+            int swap = order[a];
+            order[a] = order[b];
+            order[b] = swap;
+        }
+        CommandBuffer.stableSort(order, keys);
+
+        int[] indices = new int[valid];
+        int[] generations = new int[valid];
+        int[] rows = new int[valid];
+
+        int groupStart = 0;
+        while (groupStart < valid) {
+            int archetypeId = (int) keys[order[groupStart]];
+            int length = 0;
+            boolean contiguous = true;
+            int g = groupStart;
+            while (g < valid && keys[order[g]] == archetypeId) {
+                Entity entity = entities[from + order[g]];
+                indices[length] = entity.index();
+                generations[length] = entity.generation();
+                rows[length] = order[g];
+                contiguous &= length == 0 || rows[length] == rows[length - 1] + 1;
+                length++;
+                g++;
+            }
+
+            Archetype source = archetypeId >= 0 ? archetypeList.get(archetypeId) : null;
+            action.accept(source, indices, generations, rows, length, contiguous);
+            groupStart = g;
+        }
+    }
+
+    /**
+     * Move a batch of entities that share {@code source} (null = no archetype) into the archetype
+     * that also has {@code type}. Rows move with one gather per column and the new component is
+     * written from {@code payload} at {@code payloadOffset + i * payloadStride}.
+     */
+    private void addComponentBatch(Archetype source, int[] indices, int[] generations, int length,
+                                   ComponentRegistry.ComponentType type,
+                                   MemorySegment payload, long payloadOffset, long payloadStride) {
+        if (length == 0) return;
+
+        if (source != null && source.hasComponent(type.id)) {
+            // Already present - update rows in place
+            source.getComponentArray(type.id).addRows(indices, length, payload, payloadOffset, payloadStride);
+            for (int i = 0; i < length; i++) {
+                markComponentChanged(new Entity(indices[i], generations[i]), type.id);
+            }
+            componentOperations.add(length);
+            return;
+        }
+
+        ComponentSignature signature = source != null 
+            ? source.getComponentSignature() 
+            : ComponentSignature.EMPTY;
+        Archetype target = getOrCreateArchetype(signature.with(type.id));
+
+        long start = migrationClock();
+        target.getComponentArray(type.id).addRows(indices, length, payload, payloadOffset, payloadStride);
+        moveBatch(source, target, indices, generations, length);
+        recordBatchMigration(length, start);
+
+        componentOperations.add(length);
+        for (int i = 0; i < length; i++) {
+            eventBus.publish(new ComponentAddedEvent(new Entity(indices[i], generations[i]), type.clazz()));
+        }
+    }
+
+    /**
+     * Move entities from {@code source} (null = none) to {@code target}: rows are reserved once,
+     * shared columns block-copied, then the source is compacted in one pass.
+     */
+    private void moveBatch(Archetype source, Archetype target, int[] indices, int[] generations, int length) {
+        target.addEntities(indices, generations, length);
+
+        if (source != null) {
+            for (int typeId : target.getComponentTypeIds()) {
+                ComponentArray from = source.getComponentArray(typeId);
+                ComponentArray to = target.getComponentArray(typeId);
+                if (from != null && to != null) {
+                    to.addRowsFrom(from, indices, length);
+                }
+            }
+            source.removeEntities(indices, length);
+        }
+
+        for (int i = 0; i < length; i++) {
+            setArchetypeId(indices[i], target.id);
+        }
+    }
+
+    /**
+     * Start of a timed migration, or 0 when migration timing is off.
+     */
+    private long migrationClock() {
+        return migrationTiming ? java.lang.System.nanoTime() : 0L;
+    }
+
+    private void recordSingleMigration(long start) {
+        singleMigrations.increment();
+        if (start != 0L) {
+            singleMigrationNanos.add(java.lang.System.nanoTime() - start);
+        }
+    }
+
+    private void recordBatchMigration(int entities, long start) {
+        batchMigrations.increment();
+        batchMigratedEntities.add(entities);
+        if (start != 0L) {
+            batchMigrationNanos.add(java.lang.System.nanoTime() - start);
+        }
     }
 
     /**
@@ -594,21 +983,23 @@ public final class World implements AutoCloseable {
 
         eventBus.publish(new ComponentRemovingEvent(entity, componentClass));
 
-        long newMask = currentArchetype.getComponentMask() & ~(1L << type.id);
+        ComponentSignature newSignature = currentArchetype.getComponentSignature().without(type.id);
+        long start = migrationClock();
 
-        if (newMask == 0) {
+        if (newSignature.isEmpty()) {
             currentArchetype.removeEntity(entity);
             setArchetypeId(entity.index(), -1);
         } else {
-            Archetype newArchetype = getOrCreateArchetype(newMask);
+            Archetype newArchetype = getOrCreateArchetype(newSignature);
             copyComponentDataExcept(entity, currentArchetype, newArchetype, type.id);
             currentArchetype.removeEntity(entity);
             newArchetype.addEntity(entity);
             setArchetypeId(entity.index(), newArchetype.id);
         }
 
+        recordSingleMigration(start);
+
         componentOperations.increment();
-        invalidateQueryCache();
         eventBus.publish(new ComponentRemovedEvent(entity, componentClass));
     }
 
@@ -654,6 +1045,16 @@ public final class World implements AutoCloseable {
         return archetype != null ? archetype.getComponentSegment(entity.index(), type.id) : null;
     }
 
+    /**
+     * Get the archetype an entity currently lives in, or null.
+     */
+    public Archetype getArchetype(Entity entity) {
+        if (!isValid(entity)) return null;
+
+        int archetypeId = getArchetypeId(entity.index());
+        return archetypeId < 0 ? null : archetypeList.get(archetypeId);
+    }
+
     // ========================================================================
     // ENTITY RELATIONSHIPS
     // ========================================================================
@@ -685,10 +1086,13 @@ public final class World implements AutoCloseable {
      */
     public List<Entity> getChildren(Entity entity) {
         if (!isValid(entity)) return List.of();
-        return relationships.getChildren(entity).stream()
-            .map(idx -> new Entity(idx, getGeneration(idx)))
-            .filter(this::isValid)
-            .toList();
+        int[] indices = relationships.getChildIndices(entity.index());
+        List<Entity> result = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            Entity child = new Entity(index, getGeneration(index));
+            if (isValid(child)) result.add(child);
+        }
+        return result;
     }
 
     /**
@@ -720,10 +1124,42 @@ public final class World implements AutoCloseable {
     }
 
     /**
-     * Get archetypes matching a component query with optional mask (cached).
+     * Get archetypes matching a legacy 64-bit mask query (component IDs below 64 only).
      */
     public List<Archetype> queryArchetypes(long requiredMask, long excludedMask, long optionalMask) {
-        QueryKey key = new QueryKey(requiredMask, excludedMask, optionalMask);
+        return queryArchetypes(
+            ComponentSignature.fromMask(requiredMask),
+            ComponentSignature.fromMask(excludedMask),
+            ComponentSignature.fromMask(optionalMask));
+    }
+
+    /**
+     * Get archetypes matching a system's component masks (cached).
+     */
+    public List<Archetype> queryArchetypes(System.ComponentMask required, System.ComponentMask excluded,
+                                           System.ComponentMask optional) {
+        return queryArchetypes(
+            ComponentSignature.from(required),
+            ComponentSignature.from(excluded),
+            ComponentSignature.from(optional));
+    }
+
+    /**
+     * Get archetypes matching a component query (cached).
+     */
+    public List<Archetype> queryArchetypes(ComponentSignature required, ComponentSignature excluded) {
+        return queryArchetypes(required, excluded, ComponentSignature.EMPTY);
+    }
+
+    /**
+     * Get archetypes matching a component query with optional components (cached).
+     *
+     * <p>Resolution walks only the archetypes that contain the rarest required component,
+     * so cost scales with candidate count rather than total archetype count.</p>
+     */
+    public List<Archetype> queryArchetypes(ComponentSignature required, ComponentSignature excluded,
+                                           ComponentSignature optional) {
+        QueryKey key = new QueryKey(required, excluded, optional);
         long currentVersion = queryCacheVersion.get();
 
         // Check cache
@@ -736,16 +1172,15 @@ public final class World implements AutoCloseable {
         queryCacheMisses.increment();
 
         // Compute result
-        List<Archetype> result = archetypeList.stream()
-            .filter(Objects::nonNull)
-            .filter(a -> {
-                long mask = a.getComponentMask();
-                return (mask & requiredMask) == requiredMask && (mask & excludedMask) == 0;
-            })
-            .toList();
+        List<Archetype> result = required.isEmpty()
+            ? archetypeList.stream()
+                .filter(Objects::nonNull)
+                .filter(a -> a.matchesQuery(required, excluded))
+                .toList()
+            : queryIndex.resolve(required, excluded);
 
         // Cache result
-        queryCache.put(key, new CachedQuery(result, currentVersion, java.lang.System.nanoTime()));
+        queryCache.put(key, new CachedQuery(result, currentVersion));
 
         return result;
     }
@@ -786,9 +1221,9 @@ public final class World implements AutoCloseable {
      */
     public static final class QueryBuilder {
         private final World world;
-        private long requiredMask = 0;
-        private long excludedMask = 0;
-        private long optionalMask = 0;
+        private ComponentSignature required = ComponentSignature.EMPTY;
+        private ComponentSignature excluded = ComponentSignature.EMPTY;
+        private ComponentSignature optional = ComponentSignature.EMPTY;
         private Predicate<Entity> filter = e -> true;
 
         private QueryBuilder(World world) { this.world = world; }
@@ -796,7 +1231,7 @@ public final class World implements AutoCloseable {
         @SafeVarargs
         public final QueryBuilder with(Class<?>... components) {
             for (Class<?> c : components) {
-                requiredMask |= (1L << world.registry.getType(c).id);
+                required = required.with(world.registry.getType(c).id);
             }
             return this;
         }
@@ -804,7 +1239,7 @@ public final class World implements AutoCloseable {
         @SafeVarargs
         public final QueryBuilder without(Class<?>... components) {
             for (Class<?> c : components) {
-                excludedMask |= (1L << world.registry.getType(c).id);
+                excluded = excluded.with(world.registry.getType(c).id);
             }
             return this;
         }
@@ -812,7 +1247,7 @@ public final class World implements AutoCloseable {
         @SafeVarargs
         public final QueryBuilder optional(Class<?>... components) {
             for (Class<?> c : components) {
-                optionalMask |= (1L << world.registry.getType(c).id);
+                optional = optional.with(world.registry.getType(c).id);
             }
             return this;
         }
@@ -823,7 +1258,7 @@ public final class World implements AutoCloseable {
         }
 
         public List<Archetype> archetypes() {
-            return world.queryArchetypes(requiredMask, excludedMask, optionalMask);
+            return world.queryArchetypes(required, excluded, optional);
         }
 
         public Stream<Entity> stream() {
@@ -855,17 +1290,20 @@ public final class World implements AutoCloseable {
     // ========================================================================
 
     /**
-     * Get or create archetype for component mask.
+     * Get or create archetype for component signature.
      */
-    private Archetype getOrCreateArchetype(long mask) {
-        return archetypesByMask.computeIfAbsent(mask, m -> {
-            int[] typeIdArray = computeTypeIdArray(m);
+    private Archetype getOrCreateArchetype(ComponentSignature signature) {
+        return archetypesBySignature.computeIfAbsent(signature, sig -> {
+            int[] typeIdArray = sig.typeIds();
             int id = nextArchetypeId.getAndIncrement();
             
             Archetype archetype = new Archetype(
                 id, typeIdArray, registry,
-                config.useOffHeapStorage(),
-                config.enableChangeDetection()
+                Archetype.Config.builder()
+                    .useOffHeap(config.useOffHeapStorage())
+                    .trackChanges(config.enableChangeDetection())
+                    .changeClock(changeClock)
+                    .build()
             );
 
             // Thread-safe list update
@@ -879,6 +1317,7 @@ public final class World implements AutoCloseable {
                 archetypeLock.unlockWrite(stamp);
             }
 
+            queryIndex.add(archetype);
             invalidateQueryCache();
             eventBus.publish(new ArchetypeCreatedEvent(archetype));
 
@@ -1010,7 +1449,9 @@ public final class World implements AutoCloseable {
         eventBus.publish(new WorldShuttingDownEvent(this));
 
         scheduler.shutdown(this);
-        virtualExecutor.shutdown();
+        if (ownsExecutors) {
+            virtualExecutor.shutdown();
+        }
 
         try {
             structuredScope.close();
@@ -1062,12 +1503,75 @@ public final class World implements AutoCloseable {
         Instant timestamp
     ) {}
 
+    /**
+     * Capture a copy-on-write snapshot of every archetype.
+     *
+     * <p>Unlike {@link #createSnapshot()} nothing is copied up front: each archetype pins its
+     * entity block and freezes its component arrays, and writers copy a block only on their
+     * first write after the capture. Take it between ticks; the returned view can then be read
+     * from another thread (async save, analytics) or passed to {@link #rollback} later.
+     * Close it as soon as it is no longer needed.</p>
+     */
+    public VersionedSnapshot captureSnapshot() {
+        List<Archetype> current = getArchetypes();
+        List<Archetype.Frozen> frozen = new ArrayList<>(current.size());
+        try {
+            for (Archetype archetype : current) {
+                frozen.add(archetype.freeze());
+            }
+        } catch (RuntimeException e) {
+            frozen.forEach(Archetype.Frozen::close);
+            throw e;
+        }
+        return new VersionedSnapshot(snapshotSequence.incrementAndGet(), List.copyOf(frozen), Instant.now());
+    }
+
+    /**
+     * Roll component data back to a captured snapshot.
+     *
+     * <p>Covers component values only. Every captured archetype must still hold the same
+     * entities; archetypes created after the capture are left untouched.</p>
+     *
+     * @throws IllegalStateException if any captured archetype gained or lost entities
+     */
+    public void rollback(VersionedSnapshot snapshot) {
+        for (Archetype.Frozen frozen : snapshot.archetypes()) {
+            if (!frozen.isStructurallyCurrent()) {
+                throw new IllegalStateException("Cannot roll back to snapshot " + snapshot.sequence()
+                    + ": archetype " + frozen.archetype().id + " changed structurally");
+            }
+        }
+        for (Archetype.Frozen frozen : snapshot.archetypes()) {
+            frozen.archetype().restore(frozen);
+        }
+    }
+
+    public record VersionedSnapshot(
+        long sequence,
+        List<Archetype.Frozen> archetypes,
+        Instant timestamp
+    ) implements AutoCloseable {
+        public int entityCount() {
+            return archetypes.stream().mapToInt(Archetype.Frozen::size).sum();
+        }
+
+        public long savedBytes() {
+            return archetypes.stream().mapToLong(Archetype.Frozen::savedBytes).sum();
+        }
+
+        @Override
+        public void close() {
+            archetypes.forEach(Archetype.Frozen::close);
+        }
+    }
+
     // ========================================================================
     // ACCESSORS
     // ========================================================================
 
     public SystemScheduler getScheduler() { return scheduler; }
     public ComponentRegistry getRegistry() { return registry; }
+    public ComponentArray.ChangeClock getChangeClock() { return changeClock; }
     public CommandBuffer getCommandBuffer() { return commandBuffer; }
     public EventBus getEventBus() { return eventBus; }
     public RelationshipGraph getRelationships() { return relationships; }
@@ -1089,7 +1593,7 @@ public final class World implements AutoCloseable {
             totalEntitiesCreated.sum(),
             totalEntitiesDestroyed.sum(),
             recycledIndices.size(),
-            archetypesByMask.size(),
+            archetypesBySignature.size(),
             queryCacheHits.sum(),
             queryCacheMisses.sum(),
             componentOperations.sum(),
@@ -1097,6 +1601,51 @@ public final class World implements AutoCloseable {
         );
     }
 
+    /**
+     * Time every archetype migration so {@link #getMigrationStats()} can report throughput.
+     * Off by default: migrations are still counted, but no clock is read on the hot path.
+     */
+    public void setMigrationTiming(boolean enabled) {
+        this.migrationTiming = enabled;
+    }
+
+    /**
+     * Get migration throughput for the per-entity and batched paths (needs
+     * {@link #setMigrationTiming(boolean)}; throughput reads 0 otherwise).
+     */
+    public MigrationStats getMigrationStats() {
+        return new MigrationStats(
+            singleMigrations.sum(),
+            singleMigrationNanos.sum(),
+            batchMigrations.sum(),
+            batchMigratedEntities.sum(),
+            batchMigrationNanos.sum()
+        );
+    }
+
+    public record MigrationStats(
+        long singleMigrations,
+        long singleNanos,
+        long batches,
+        long batchedEntities,
+        long batchedNanos
+    ) {
+        /** Entities migrated per millisecond on the per-entity path */
+        public double singleThroughput() {
+            return singleNanos > 0 ? singleMigrations * 1_000_000.0 / singleNanos : 0.0;
+        }
+
+        /** Entities migrated per millisecond on the batched path */
+        public double batchedThroughput() {
+            return batchedNanos > 0 ? batchedEntities * 1_000_000.0 / batchedNanos : 0.0;
+        }
+
+        public double speedup() {
+            double single = singleThroughput();
+            return single > 0 ? batchedThroughput() / single : 0.0;
+        }
+    }
+
     public record WorldStats(
         String name,
         int activeEntities,
@@ -1146,6 +1695,11 @@ public final class World implements AutoCloseable {
           .append(String.format("%.2f%%", stats.queryCacheHitRate() * 100)).append("\n");
         sb.append("    Component Operations: ")
           .append(String.format("%,d", stats.componentOperations())).append("\n");
+        MigrationStats migrations = getMigrationStats();
+        sb.append(String.format("  MIGRATIONS:       single %,d (%.0f/ms), batched %,d in %,d batches (%.0f/ms, %.1fx)%n",
+            migrations.singleMigrations(), migrations.singleThroughput(),
+            migrations.batchedEntities(), migrations.batches(),
+            migrations.batchedThroughput(), migrations.speedup()));
         sb.append("───────────────────────────────────────────────────────────────\n");
         sb.append(scheduler.getPerformanceReport());
         sb.append("═══════════════════════════════════════════════════════════════\n");
@@ -1198,19 +1752,12 @@ public final class World implements AutoCloseable {
         return false;
     }
 
-    private long computeComponentMask(Class<?>[] componentTypes) {
-        long mask = 0;
-        for (Class<?> type : componentTypes) {
-            ComponentRegistry.ComponentType ct = registry.getType(type);
-            mask |= (1L << ct.id);
+    private ComponentSignature computeSignature(Class<?>[] componentTypes) {
+        int[] typeIds = new int[componentTypes.length];
+        for (int i = 0; i < componentTypes.length; i++) {
+            typeIds[i] = registry.getType(componentTypes[i]).id;
         }
-        return mask;
-    }
-
-    private int[] computeTypeIdArray(long mask) {
-        return IntStream.range(0, 64)
-            .filter(i -> (mask & (1L << i)) != 0)
-            .toArray();
+        return ComponentSignature.of(typeIds);
     }
 
     private void copyComponentData(Entity entity, Archetype from, Archetype to, int excludeTypeId) {
@@ -1281,65 +1828,500 @@ public final class World implements AutoCloseable {
         }
     }
 
+    // ========================================================================
+    // QUERY INDEX
+    // ========================================================================
+
+    /**
+     * Component type ID -> archetypes containing it.
+     *
+     * <p>Append-only like the archetype list: archetypes are never destroyed, so each
+     * per-component array only grows. Readers take the volatile table without locking.</p>
+     */
+    private static final class ArchetypeQueryIndex {
+        private static final Archetype[] NONE = new Archetype[0];
+
+        private volatile Archetype[][] byComponent = new Archetype[64][];
+
+        synchronized void add(Archetype archetype) {
+            Archetype[][] table = byComponent;
+            int[] typeIds = archetype.getComponentTypeIds();
+            int maxId = typeIds.length > 0 ? typeIds[typeIds.length - 1] : 0;
+            if (maxId >= table.length) {
+                table = Arrays.copyOf(table, Math.max(maxId + 1, table.length << 1));
+            }
+            for (int typeId : typeIds) {
+                Archetype[] current = table[typeId] != null ? table[typeId] : NONE;
+                Archetype[] grown = Arrays.copyOf(current, current.length + 1);
+                grown[current.length] = archetype;
+                table[typeId] = grown;
+            }
+            byComponent = table;
+        }
+
+        Archetype[] archetypesWith(int typeId) {
+            Archetype[][] table = byComponent;
+            if (typeId < 0 || typeId >= table.length || table[typeId] == null) return NONE;
+            return table[typeId];
+        }
+
+        List<Archetype> resolve(ComponentSignature required, ComponentSignature excluded) {
+            // Drive from the rarest required component
+            Archetype[] candidates = null;
+            for (int typeId : required.typeIds()) {
+                Archetype[] list = archetypesWith(typeId);
+                if (candidates == null || list.length < candidates.length) {
+                    candidates = list;
+                    if (list.length == 0) break;
+                }
+            }
+            if (candidates == null || candidates.length == 0) return List.of();
+
+            List<Archetype> result = new ArrayList<>(candidates.length);
+            for (Archetype archetype : candidates) {
+                if (archetype.matchesQuery(required, excluded)) {
+                    result.add(archetype);
+                }
+            }
+            return Collections.unmodifiableList(result);
+        }
+    }
+
     // ========================================================================
     // COMMAND BUFFER
     // ========================================================================
 
     /**
-     * Thread-safe command buffer for deferred entity operations.
+     * Deferred entity operations recorded as per-thread binary streams.
+     *
+     * <p>Each worker appends to its own off-heap stream, so recording never contends.
+     * Record layout (8-byte aligned):</p>
+     * <pre>
+     *   0  int opcode        4  int sortKey
+     *   8  int entityIndex  12  int generation
+     *  16  int componentId  20  int payloadBytes
+     *  24  payload bytes, padded to 8
+     * </pre>
+     *
+     * <p>At the sync point ({@link #execute(World)}) all streams are merged and stably sorted by
+     * {@code (sortKey, entity)}, so playback order does not depend on thread timing. Commands
+     * for the same entity and key keep their recording order within a stream; across streams
+     * they are ordered by their position in that order, then by content, never by which stream
+     * a thread happened to register first. Runs of adds of the same component to entities in
+     * the same archetype become one batched migration.</p>
+     *
+     * <p>Each stream is written under its own monitor, and {@link #execute(World)} takes it to
+     * detach the recorded buffer, so playback sees every complete record. Commands recorded
+     * while a playback is running, including by event listeners, go to a fresh buffer and are
+     * applied by the next {@link #execute(World)}.</p>
+     *
+     * <p>Streams of worker threads that have terminated are played one last time and then
+     * deregistered by {@link #execute(World)}, so pools that replace their threads do not
+     * accumulate one dead stream per retired worker.</p>
      */
     public static final class CommandBuffer {
-        private final ConcurrentLinkedQueue<Command> commands = new ConcurrentLinkedQueue<>();
+        static final int OP_DESTROY = 1;
+        static final int OP_ADD = 2;
+        static final int OP_REMOVE = 3;
+
+        private static final long HEADER_BYTES = 24;
+        private static final long INITIAL_STREAM_BYTES = 64 * 1024;
+
         private final int maxSize;
-        private final AtomicInteger size = new AtomicInteger(0);
+        private final Queue<Stream> streams = new ConcurrentLinkedQueue<>();
+        private final ThreadLocal<Stream> localStream;
+        private final Stream sharedStream;
+
+        // Statistics
+        private final LongAdder commandsApplied = new LongAdder();
+        private final LongAdder batchedMigrations = new LongAdder();
+
+        /**
+         * One thread's command stream. All fields are guarded by the stream's monitor.
+         */
+        private static final class Stream {
+            /** Recording thread; null for the shared stream. Weak, so the stream does not pin it */
+            final WeakReference<Thread> owner;
+            MemorySegment buffer = Arena.ofAuto().allocate(INITIAL_STREAM_BYTES, 8);
+            MemorySegment spare;
+            long position;
+            int commands;
+
+            Stream(Thread owner) {
+                this.owner = owner != null ? new WeakReference<>(owner) : null;
+            }
+
+            /** Whether the owning thread has terminated; it can record nothing more */
+            boolean orphaned() {
+                if (owner == null) return false;
+                Thread thread = owner.get();
+                return thread == null || !thread.isAlive();
+            }
+
+            long reserve(long bytes) {
+                if (position + bytes > buffer.byteSize()) {
+                    long capacity = Math.max(buffer.byteSize() << 1, position + bytes);
+                    MemorySegment grown = Arena.ofAuto().allocate(capacity, 8);
+                    MemorySegment.copy(buffer, 0, grown, 0, position);
+                    buffer = grown;
+                }
+                long at = position;
+                position += bytes;
+                commands++;
+                return at;
+            }
+
+            void reset() {
+                position = 0;
+                commands = 0;
+            }
+
+            /** Hand the recorded commands to playback and continue recording into another buffer. */
+            Recorded detach() {
+                Recorded recorded = new Recorded(buffer, commands);
+                buffer = spare != null ? spare : Arena.ofAuto().allocate(INITIAL_STREAM_BYTES, 8);
+                spare = null;
+                reset();
+                return recorded;
+            }
+
+            void recycle(MemorySegment played) {
+                if (spare == null) {
+                    spare = played;
+                }
+            }
+        }
+
+        /**
+         * Commands detached from a stream for one playback.
+         */
+        private record Recorded(MemorySegment buffer, int commands) {}
 
         public CommandBuffer(int maxSize) {
             this.maxSize = maxSize;
+            this.sharedStream = new Stream(null);
+            this.streams.add(sharedStream);
+            this.localStream = ThreadLocal.withInitial(() -> {
+                Stream stream = new Stream(Thread.currentThread());
+                streams.add(stream);
+                return stream;
+            });
+        }
+
+        // --------------------------------------------------------------------
+        // Recording
+        // --------------------------------------------------------------------
+
+        public void destroy(Entity entity, int sortKey) {
+            record(OP_DESTROY, entity, -1, sortKey, null);
+        }
+
+        public void addComponent(Entity entity, int componentId, MemorySegment data, int sortKey) {
+            record(OP_ADD, entity, componentId, sortKey, data);
+        }
+
+        public void removeComponent(Entity entity, int componentId, int sortKey) {
+            record(OP_REMOVE, entity, componentId, sortKey, null);
+        }
+
+        private void record(int opcode, Entity entity, int componentId, int sortKey, MemorySegment payload) {
+            // Virtual threads are short-lived; a per-thread stream would leak, so they share one
+            Stream stream = Thread.currentThread().isVirtual() ? sharedStream : localStream.get();
+            synchronized (stream) {
+                write(stream, opcode, entity, componentId, sortKey, payload);
+            }
         }
 
-        public void enqueue(Command command) {
-            if (size.incrementAndGet() > maxSize) {
-                size.decrementAndGet();
+        private void write(Stream stream, int opcode, Entity entity, int componentId, 
+                           int sortKey, MemorySegment payload) {
+            if (stream.commands >= maxSize) {
                 throw new IllegalStateException("Command buffer overflow");
             }
-            commands.offer(command);
+
+            int payloadBytes = payload != null ? (int) payload.byteSize() : 0;
+            long at = stream.reserve(HEADER_BYTES + alignUp8(payloadBytes));
+            MemorySegment buf = stream.buffer;
+            buf.set(ValueLayout.JAVA_INT, at, opcode);
+            buf.set(ValueLayout.JAVA_INT, at + 4, sortKey);
+            buf.set(ValueLayout.JAVA_INT, at + 8, entity.index());
+            buf.set(ValueLayout.JAVA_INT, at + 12, entity.generation());
+            buf.set(ValueLayout.JAVA_INT, at + 16, componentId);
+            buf.set(ValueLayout.JAVA_INT, at + 20, payloadBytes);
+            if (payloadBytes > 0) {
+                MemorySegment.copy(payload, 0, buf, at + HEADER_BYTES, payloadBytes);
+            }
+        }
+
+        private static long alignUp8(long bytes) {
+            return (bytes + 7) & ~7L;
         }
 
+        // --------------------------------------------------------------------
+        // Playback
+        // --------------------------------------------------------------------
+
+        /**
+         * Merge, sort and apply all recorded commands.
+         */
         public void execute(World world) {
-            Command cmd;
-            while ((cmd = commands.poll()) != null) {
-                cmd.execute(world);
-                size.decrementAndGet();
+            Stream[] streamArray = streams.toArray(new Stream[0]);
+            Recorded[] sources = new Recorded[streamArray.length];
+            boolean[] orphaned = new boolean[streamArray.length];
+            int total = 0;
+            for (int s = 0; s < streamArray.length; s++) {
+                // Checked before detaching: a dead owner's records are all in this detach
+                orphaned[s] = streamArray[s].orphaned();
+                synchronized (streamArray[s]) {
+                    sources[s] = streamArray[s].detach();
+                }
+                total += sources[s].commands();
+            }
+            try {
+                if (total > 0) {
+                    play(world, sources, total);
+                }
+            } finally {
+                for (int s = 0; s < streamArray.length; s++) {
+                    if (orphaned[s]) {
+                        streams.remove(streamArray[s]);
+                        continue;
+                    }
+                    synchronized (streamArray[s]) {
+                        streamArray[s].recycle(sources[s].buffer());
+                    }
+                }
             }
         }
 
-        public int pending() { return size.get(); }
-        public void clear() { commands.clear(); size.set(0); }
-    }
+        private void play(World world, Recorded[] sources, int total) {
+            // Gather record references in recording order (stream-major)
+            long[] keys = new long[total];
+            int[] owner = new int[total];
+            long[] offsets = new long[total];
+            int n = 0;
+            for (int s = 0; s < sources.length; s++) {
+                MemorySegment buf = sources[s].buffer();
+                long at = 0;
+                for (int c = 0; c < sources[s].commands(); c++) {
+                    int sortKey = buf.get(ValueLayout.JAVA_INT, at + 4);
+                    int entityIndex = buf.get(ValueLayout.JAVA_INT, at + 8);
+                    keys[n] = ((long) sortKey << 32) | (entityIndex & 0xFFFFFFFFL);
+                    owner[n] = s;
+                    offsets[n] = at;
+                    n++;
+                    at += HEADER_BYTES + alignUp8(buf.get(ValueLayout.JAVA_INT, at + 20));
+                }
+            }
 
-    public sealed interface Command permits DestroyEntityCommand, AddComponentCommand, RemoveComponentCommand {
-        void execute(World world);
-    }
+            int[] order = new int[total];
+            for (int i = 0; i < total; i++) order[i] = i;
+            stableSort(order, keys);
+            orderTies(order, keys, sources, owner, offsets);
 
-    private record DestroyEntityCommand(Entity entity) implements Command {
-        @Override
-        public void execute(World world) {
-            world.destroyEntity(entity);
+            try (Arena staging = Arena.ofConfined()) {
+                apply(world, sources, owner, offsets, order, staging);
+            }
         }
-    }
 
-    private record AddComponentCommand(Entity entity, Class<?> componentClass, ByteBuffer data) implements Command {
-        @Override
-        public void execute(World world) {
-            world.addComponent(entity, componentClass, data);
+        private void apply(World world, Recorded[] sources, int[] owner, long[] offsets, 
+                           int[] order, Arena staging) {
+            int total = order.length;
+            int[] batchIndices = new int[total];
+            int[] batchGenerations = new int[total];
+            MemorySegment batchPayload = null;
+
+            int i = 0;
+            while (i < total) {
+                MemorySegment buf = sources[owner[order[i]]].buffer();
+                long at = offsets[order[i]];
+                int opcode = buf.get(ValueLayout.JAVA_INT, at);
+                Entity entity = new Entity(
+                    buf.get(ValueLayout.JAVA_INT, at + 8),
+                    buf.get(ValueLayout.JAVA_INT, at + 12));
+                int componentId = buf.get(ValueLayout.JAVA_INT, at + 16);
+
+                if (opcode != OP_ADD) {
+                    if (opcode == OP_DESTROY) {
+                        world.destroyEntity(entity);
+                    } else if (world.isValid(entity)) {
+                        world.removeComponent(entity, world.registry.getType(componentId).clazz());
+                    }
+                    commandsApplied.increment();
+                    i++;
+                    continue;
+                }
+
+                // Collect a run of adds of the same component into the same source archetype
+                ComponentRegistry.ComponentType type = world.registry.getType(componentId);
+                int rowBytes = type.sizeBytes();
+                int sourceArchetype = world.isValid(entity) ? world.getArchetypeId(entity.index()) : Integer.MIN_VALUE;
+                int length = 0;
+                int previousIndex = -1;
+
+                if (batchPayload == null || batchPayload.byteSize() < (long) (total - i) * rowBytes) {
+                    batchPayload = staging.allocate(Math.max(8, (long) (total - i) * rowBytes), 8);
+                }
+
+                while (i < total) {
+                    buf = sources[owner[order[i]]].buffer();
+                    at = offsets[order[i]];
+                    int index = buf.get(ValueLayout.JAVA_INT, at + 8);
+                    int generation = buf.get(ValueLayout.JAVA_INT, at + 12);
+                    if (buf.get(ValueLayout.JAVA_INT, at) != OP_ADD
+                            || buf.get(ValueLayout.JAVA_INT, at + 16) != componentId
+                            || index == previousIndex) {
+                        break;
+                    }
+
+                    Entity target = new Entity(index, generation);
+                    if (!world.isValid(target)) {
+                        // Stale handle: drop the command, keep the run going
+                        commandsApplied.increment();
+                        i++;
+                        continue;
+                    }
+                    if (world.getArchetypeId(index) != sourceArchetype) {
+                        if (length > 0) break;
+                        sourceArchetype = world.getArchetypeId(index);
+                    }
+
+                    long rowAt = (long) length * rowBytes;
+                    int payloadBytes = Math.min(buf.get(ValueLayout.JAVA_INT, at + 20), rowBytes);
+                    MemorySegment.copy(buf, at + HEADER_BYTES, batchPayload, rowAt, payloadBytes);
+                    if (payloadBytes < rowBytes) {
+                        batchPayload.asSlice(rowAt + payloadBytes, rowBytes - payloadBytes).fill((byte) 0);
+                    }
+
+                    batchIndices[length] = index;
+                    batchGenerations[length] = generation;
+                    previousIndex = index;
+                    length++;
+                    i++;
+                }
+
+                if (length > 0) {
+                    Archetype source = sourceArchetype >= 0 ? world.archetypeList.get(sourceArchetype) : null;
+                    world.addComponentBatch(source, batchIndices, batchGenerations, length,
+                        type, batchPayload, 0, rowBytes);
+                    commandsApplied.add(length);
+                    batchedMigrations.increment();
+                }
+            }
         }
-    }
 
-    private record RemoveComponentCommand(Entity entity, Class<?> componentClass) implements Command {
-        @Override
-        public void execute(World world) {
-            world.removeComponent(entity, componentClass);
+        /**
+         * Stable bottom-up merge sort of {@code order} by {@code keys[order[i]]}.
+         */
+        private static void stableSort(int[] order, long[] keys) {
+            int n = order.length;
+            int[] src = order;
+            int[] dst = new int[n];
+            for (int width = 1; width < n; width <<= 1) {
+                for (int lo = 0; lo < n; lo += width << 1) {
+                    int mid = Math.min(lo + width, n);
+                    int hi = Math.min(lo + (width << 1), n);
+                    int a = lo, b = mid, k = lo;
+                    while (a < mid && b < hi) {
+                        dst[k++] = keys[src[b]] < keys[src[a]] ? src[b++] : src[a++];
+                    }
+                    while (a < mid) dst[k++] = src[a++];
+                    while (b < hi) dst[k++] = src[b++];
+                }
+                int[] swap = src;
+                src = dst;
+                dst = swap;
+            }
+            if (src != order) {
+                java.lang.System.arraycopy(src, 0, order, 0, n);
+            }
+        }
+
+        /**
+         * Order commands that share {@code (sortKey, entity)} but come from different streams.
+         *
+         * <p>The stable sort leaves such ties in stream registration order, which depends on
+         * which thread recorded first. Within a tie, each command is ranked by how many commands
+         * of its own stream precede it, then by opcode, component and payload bytes, so recording
+         * order inside a stream is kept and the interleaving across streams is deterministic.</p>
+         */
+        private static void orderTies(int[] order, long[] keys, Recorded[] sources,
+                                      int[] owner, long[] offsets) {
+            int total = order.length;
+            int[] rank = null;
+            int start = 0;
+            while (start < total) {
+                int end = start + 1;
+                boolean mixed = false;
+                while (end < total && keys[order[end]] == keys[order[start]]) {
+                    mixed |= owner[order[end]] != owner[order[start]];
+                    end++;
+                }
+                if (mixed) {
+                    if (rank == null) rank = new int[total];
+                    for (int a = start; a < end; a++) {
+                        for (int b = start; b < a; b++) {
+                            if (owner[order[b]] == owner[order[a]]) rank[order[a]]++;
+                        }
+                    }
+                    // Insertion sort: ties are a handful of commands
+                    for (int a = start + 1; a < end; a++) {
+                        int command = order[a];
+                        int b = a - 1;
+                        while (b >= start && compareTie(order[b], command, rank, sources, owner, offsets) > 0) {
+                            order[b + 1] = order[b];
+                            b--;
+                        }
+                        order[b + 1] = command;
+                    }
+                }
+                start = end;
+            }
+        }
+
+        private static int compareTie(int a, int b, int[] rank, Recorded[] sources,
+                                      int[] owner, long[] offsets) {
+            if (rank[a] != rank[b]) return Integer.compare(rank[a], rank[b]);
+            MemorySegment bufA = sources[owner[a]].buffer();
+            MemorySegment bufB = sources[owner[b]].buffer();
+            long atA = offsets[a];
+            long atB = offsets[b];
+            for (long field : new long[] {0, 16, 12, 20}) {
+                int c = Integer.compare(bufA.get(ValueLayout.JAVA_INT, atA + field),
+                    bufB.get(ValueLayout.JAVA_INT, atB + field));
+                if (c != 0) return c;
+            }
+            int payloadBytes = bufA.get(ValueLayout.JAVA_INT, atA + 20);
+            long mismatch = MemorySegment.mismatch(bufA, atA + HEADER_BYTES, atA + HEADER_BYTES + payloadBytes,
+                bufB, atB + HEADER_BYTES, atB + HEADER_BYTES + payloadBytes);
+            if (mismatch < 0) return 0;
+            return Byte.compareUnsigned(bufA.get(ValueLayout.JAVA_BYTE, atA + HEADER_BYTES + mismatch),
+                bufB.get(ValueLayout.JAVA_BYTE, atB + HEADER_BYTES + mismatch));
+        }
+
+        // --------------------------------------------------------------------
+        // State
+        // --------------------------------------------------------------------
+
+        public int pending() {
+            int total = 0;
+            for (Stream stream : streams) {
+                synchronized (stream) {
+                    total += stream.commands;
+                }
+            }
+            return total;
+        }
+
+        public void clear() {
+            for (Stream stream : streams) {
+                synchronized (stream) {
+                    stream.reset();
+                }
+            }
         }
+
+        public long getCommandsApplied() { return commandsApplied.sum(); }
+        public long getBatchedMigrations() { return batchedMigrations.sum(); }
     }
 
     // ========================================================================
@@ -1347,59 +2329,452 @@ public final class World implements AutoCloseable {
     // ========================================================================
 
     /**
-     * Manages entity parent-child relationships and custom relations.
+     * Entity relationships: parent/child links plus custom relation types (leash, passenger, mod
+     * relations) keyed by an int relation type id.
+     *
+     * <p>Every relation type is an {@link Adjacency}: a primitive edge log indexed into forward
+     * and reverse compressed-sparse-row arrays. Edges added since the last rebuild sit in a short
+     * unindexed tail; the log is compacted and re-indexed in O(edges + nodes) once the tail or the
+     * dead edges outgrow the index, or when a batched query runs.</p>
      */
     public static final class RelationshipGraph {
         private final int[] parents;
-        private final ConcurrentHashMap<Integer, Set<Integer>> children = new ConcurrentHashMap<>();
-        private final ConcurrentHashMap<Long, Set<Integer>> relations = new ConcurrentHashMap<>();
+        private final Adjacency children = new Adjacency();
+        private final ConcurrentHashMap<Integer, Adjacency> relations = new ConcurrentHashMap<>();
 
         public RelationshipGraph(int maxEntities) {
             this.parents = new int[maxEntities];
             Arrays.fill(parents, -1);
         }
 
+        /**
+         * Result of a batched query in CSR form: the targets of source {@code i} are
+         * {@code targets[offsets[i]] .. targets[offsets[i + 1] - 1]}.
+         */
+        public record Batch(int[] offsets, int[] targets) {
+            public int sourceCount() { return offsets.length - 1; }
+            public int size(int source) { return offsets[source + 1] - offsets[source]; }
+        }
+
+        // --------------------------------------------------------------------
+        // Parent / child
+        // --------------------------------------------------------------------
+
         public void setParent(Entity child, Entity parent) {
             int oldParent = parents[child.index()];
             if (oldParent >= 0) {
-                Set<Integer> oldChildren = children.get(oldParent);
-                if (oldChildren != null) oldChildren.remove(child.index());
+                children.remove(oldParent, child.index());
             }
 
             parents[child.index()] = parent.index();
-            children.computeIfAbsent(parent.index(), k -> ConcurrentHashMap.newKeySet())
-                .add(child.index());
+            children.add(parent.index(), child.index());
         }
 
         public int getParent(Entity entity) {
             return parents[entity.index()];
         }
 
+        /**
+         * Boxed view of an entity's children (legacy); prefer {@link #getChildIndices}.
+         */
         public Set<Integer> getChildren(Entity entity) {
-            return children.getOrDefault(entity.index(), Set.of());
+            int[] indices = children.targets(entity.index());
+            if (indices.length == 0) return Set.of();
+            Set<Integer> result = new LinkedHashSet<>(indices.length * 2);
+            for (int index : indices) {
+                result.add(index);
+            }
+            return Collections.unmodifiableSet(result);
+        }
+
+        public int[] getChildIndices(int parentIndex) {
+            return children.targets(parentIndex);
+        }
+
+        /**
+         * Children of many parents at once.
+         */
+        public Batch getChildIndices(int[] parentIndices, int count) {
+            return children.targets(parentIndices, count);
         }
 
+        /**
+         * The given roots followed by all of their descendants, breadth first, each index once.
+         */
+        public int[] collectDescendants(int[] rootIndices, int count) {
+            return children.closure(rootIndices, count);
+        }
+
+        // --------------------------------------------------------------------
+        // Custom relations
+        // --------------------------------------------------------------------
+
         public void addRelation(Entity from, Entity to, int relationTypeId) {
-            long key = ((long) from.index() << 32) | (relationTypeId & 0xFFFFFFFFL);
-            relations.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet())
-                .add(to.index());
+            relations.computeIfAbsent(relationTypeId, k -> new Adjacency())
+                .add(from.index(), to.index());
         }
 
+        public boolean removeRelation(Entity from, Entity to, int relationTypeId) {
+            Adjacency adjacency = relations.get(relationTypeId);
+            return adjacency != null && adjacency.remove(from.index(), to.index());
+        }
+
+        /** Targets of {@code fromIndex} under a relation type (e.g. what it is leashed to). */
+        public int[] getRelated(int fromIndex, int relationTypeId) {
+            Adjacency adjacency = relations.get(relationTypeId);
+            return adjacency != null ? adjacency.targets(fromIndex) : new int[0];
+        }
+
+        /** Sources pointing at {@code toIndex} under a relation type (e.g. everything leashed to it). */
+        public int[] getRelatedTo(int toIndex, int relationTypeId) {
+            Adjacency adjacency = relations.get(relationTypeId);
+            return adjacency != null ? adjacency.sources(toIndex) : new int[0];
+        }
+
+        public Batch getRelated(int[] fromIndices, int count, int relationTypeId) {
+            Adjacency adjacency = relations.get(relationTypeId);
+            return adjacency != null ? adjacency.targets(fromIndices, count) : new Batch(new int[count + 1], new int[0]);
+        }
+
+        public int getEdgeCount(int relationTypeId) {
+            Adjacency adjacency = relations.get(relationTypeId);
+            return adjacency != null ? adjacency.edgeCount() : 0;
+        }
+
+        // --------------------------------------------------------------------
+        // Removal
+        // --------------------------------------------------------------------
+
         public void removeEntity(Entity entity) {
-            // Remove as child
-            int parent = parents[entity.index()];
-            if (parent >= 0) {
-                Set<Integer> parentChildren = children.get(parent);
-                if (parentChildren != null) parentChildren.remove(entity.index());
-            }
-            parents[entity.index()] = -1;
-
-            // Remove children references
-            Set<Integer> entityChildren = children.remove(entity.index());
-            if (entityChildren != null) {
-                for (int child : entityChildren) {
-                    parents[child] = -1;
+            removeEntities(new int[] { entity.index() }, 1);
+        }
+
+        /**
+         * Drop every edge touching the given entities, in one pass per relation type.
+         * Their children are orphaned (parent reset), not destroyed.
+         */
+        public void removeEntities(int[] indices, int count) {
+            Batch orphans = children.targets(indices, count);
+            for (int child : orphans.targets()) {
+                parents[child] = -1;
+            }
+            for (int i = 0; i < count; i++) {
+                parents[indices[i]] = -1;
+            }
+
+            children.removeNodes(indices, count);
+            for (Adjacency adjacency : relations.values()) {
+                adjacency.removeNodes(indices, count);
+            }
+        }
+
+        /**
+         * Force every relation type to compact and re-index now (e.g. between ticks).
+         */
+        public void rebuild() {
+            children.rebuildNow();
+            for (Adjacency adjacency : relations.values()) {
+                adjacency.rebuildNow();
+            }
+        }
+    }
+
+    /**
+     * Directed edges of one relation type: an append-only primitive edge log with forward and
+     * reverse CSR indices over edge ids. Removal clears an alive bit; dead edges are dropped by
+     * the next rebuild.
+     */
+    static final class Adjacency {
+        private static final int MIN_SLACK = 64;
+
+        private final StampedLock lock = new StampedLock();
+
+        // Edge log
+        private int[] from = new int[16];
+        private int[] to = new int[16];
+        private long[] alive = new long[1];
+        private int size;
+        private int live;
+
+        // CSR over edge ids [0, indexed): edges of node n are edges[offsets[n] .. offsets[n + 1])
+        private int indexed;
+        private int[] forwardOffsets = { 0 };
+        private int[] forwardEdges = new int[0];
+        private int[] reverseOffsets = { 0 };
+        private int[] reverseEdges = new int[0];
+
+        boolean add(int source, int target) {
+            long stamp = lock.writeLock();
+            try {
+                if (find(source, target) >= 0) return false;
+                if (size == from.length) {
+                    int capacity = size << 1;
+                    from = Arrays.copyOf(from, capacity);
+                    to = Arrays.copyOf(to, capacity);
+                    alive = Arrays.copyOf(alive, (capacity + 63) >>> 6);
+                }
+                from[size] = source;
+                to[size] = target;
+                alive[size >>> 6] |= 1L << size;
+                size++;
+                live++;
+                maybeRebuild();
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        boolean remove(int source, int target) {
+            long stamp = lock.writeLock();
+            try {
+                int edge = find(source, target);
+                if (edge < 0) return false;
+                kill(edge);
+                maybeRebuild();
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        int removeNodes(int[] nodes, int count) {
+            long stamp = lock.writeLock();
+            try {
+                if (live == 0) return 0;
+                // One re-index beats scanning the tail once per node
+                if (count > 1 && size != indexed) rebuild();
+
+                int killed = 0;
+                for (int i = 0; i < count; i++) {
+                    killed += killIncident(nodes[i]);
+                }
+                maybeRebuild();
+                return killed;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        int[] targets(int source) {
+            return neighbours(source, false);
+        }
+
+        int[] sources(int target) {
+            return neighbours(target, true);
+        }
+
+        RelationshipGraph.Batch targets(int[] sources, int count) {
+            long stamp = indexedReadLock();
+            try {
+                int[] offsets = new int[count + 1];
+                for (int i = 0; i < count; i++) {
+                    offsets[i + 1] = offsets[i] + count(sources[i], false);
+                }
+                int[] targets = new int[offsets[count]];
+                for (int i = 0; i < count; i++) {
+                    fill(sources[i], false, targets, offsets[i]);
+                }
+                return new RelationshipGraph.Batch(offsets, targets);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * Roots plus everything reachable from them, breadth first.
+         */
+        int[] closure(int[] roots, int count) {
+            long stamp = indexedReadLock();
+            try {
+                BitSet seen = new BitSet();
+                int[] queue = new int[Math.max(16, count)];
+                int tail = 0;
+                for (int i = 0; i < count; i++) {
+                    if (roots[i] >= 0 && !seen.get(roots[i])) {
+                        seen.set(roots[i]);
+                        queue[tail++] = roots[i];
+                    }
+                }
+                for (int head = 0; head < tail; head++) {
+                    int node = queue[head];
+                    if (node >= forwardOffsets.length - 1) continue;
+                    for (int k = forwardOffsets[node], end = forwardOffsets[node + 1]; k < end; k++) {
+                        int edge = forwardEdges[k];
+                        int next = to[edge];
+                        if (isAlive(edge) && !seen.get(next)) {
+                            seen.set(next);
+                            if (tail == queue.length) queue = Arrays.copyOf(queue, tail << 1);
+                            queue[tail++] = next;
+                        }
+                    }
                 }
+                return Arrays.copyOf(queue, tail);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        int edgeCount() {
+            return live;
+        }
+
+        void rebuildNow() {
+            long stamp = lock.writeLock();
+            try {
+                if (size != indexed || live != size) rebuild();
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private int[] neighbours(int node, boolean reverse) {
+            long stamp = lock.readLock();
+            try {
+                int[] out = new int[count(node, reverse)];
+                fill(node, reverse, out, 0);
+                return out;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * Read lock over a fully indexed log, so batched queries never scan the tail.
+         */
+        private long indexedReadLock() {
+            long stamp = lock.writeLock();
+            if (size != indexed) rebuild();
+            return lock.tryConvertToReadLock(stamp);
+        }
+
+        private int count(int node, boolean reverse) {
+            int[] offsets = reverse ? reverseOffsets : forwardOffsets;
+            int[] edges = reverse ? reverseEdges : forwardEdges;
+            int[] key = reverse ? to : from;
+
+            int n = 0;
+            if (node >= 0 && node < offsets.length - 1) {
+                for (int k = offsets[node], end = offsets[node + 1]; k < end; k++) {
+                    if (isAlive(edges[k])) n++;
+                }
+            }
+            for (int e = indexed; e < size; e++) {
+                if (key[e] == node && isAlive(e)) n++;
+            }
+            return n;
+        }
+
+        private int fill(int node, boolean reverse, int[] out, int pos) {
+            int[] offsets = reverse ? reverseOffsets : forwardOffsets;
+            int[] edges = reverse ? reverseEdges : forwardEdges;
+            int[] key = reverse ? to : from;
+            int[] value = reverse ? from : to;
+
+            if (node >= 0 && node < offsets.length - 1) {
+                for (int k = offsets[node], end = offsets[node + 1]; k < end; k++) {
+                    int edge = edges[k];
+                    if (isAlive(edge)) out[pos++] = value[edge];
+                }
+            }
+            for (int e = indexed; e < size; e++) {
+                if (key[e] == node && isAlive(e)) out[pos++] = value[e];
+            }
+            return pos;
+        }
+
+        private int find(int source, int target) {
+            if (source >= 0 && source < forwardOffsets.length - 1) {
+                for (int k = forwardOffsets[source], end = forwardOffsets[source + 1]; k < end; k++) {
+                    int edge = forwardEdges[k];
+                    if (to[edge] == target && isAlive(edge)) return edge;
+                }
+            }
+            for (int e = indexed; e < size; e++) {
+                if (from[e] == source && to[e] == target && isAlive(e)) return e;
+            }
+            return -1;
+        }
+
+        private int killIncident(int node) {
+            int killed = 0;
+            if (node >= 0 && node < forwardOffsets.length - 1) {
+                for (int k = forwardOffsets[node], end = forwardOffsets[node + 1]; k < end; k++) {
+                    killed += kill(forwardEdges[k]);
+                }
+            }
+            if (node >= 0 && node < reverseOffsets.length - 1) {
+                for (int k = reverseOffsets[node], end = reverseOffsets[node + 1]; k < end; k++) {
+                    killed += kill(reverseEdges[k]);
+                }
+            }
+            for (int e = indexed; e < size; e++) {
+                if (from[e] == node || to[e] == node) killed += kill(e);
+            }
+            return killed;
+        }
+
+        private boolean isAlive(int edge) {
+            return (alive[edge >>> 6] & (1L << edge)) != 0;
+        }
+
+        private int kill(int edge) {
+            long bit = 1L << edge;
+            if ((alive[edge >>> 6] & bit) == 0) return 0;
+            alive[edge >>> 6] &= ~bit;
+            live--;
+            return 1;
+        }
+
+        private void maybeRebuild() {
+            int slack = Math.max(MIN_SLACK, indexed >>> 3);
+            if (size - indexed > slack || size - live > Math.max(slack, live)) {
+                rebuild();
+            }
+        }
+
+        /**
+         * Compact the log (drop dead edges) and rebuild both CSR indices with counting sorts.
+         */
+        private void rebuild() {
+            int n = 0;
+            int maxNode = -1;
+            for (int e = 0; e < size; e++) {
+                if (!isAlive(e)) continue;
+                from[n] = from[e];
+                to[n] = to[e];
+                maxNode = Math.max(maxNode, Math.max(from[n], to[n]));
+                n++;
+            }
+            Arrays.fill(alive, 0L);
+            for (int w = 0; w < (n >>> 6); w++) {
+                alive[w] = -1L;
+            }
+            if ((n & 63) != 0) {
+                alive[n >>> 6] = (1L << n) - 1;
+            }
+            size = n;
+            live = n;
+
+            forwardOffsets = new int[maxNode + 2];
+            forwardEdges = new int[n];
+            reverseOffsets = new int[maxNode + 2];
+            reverseEdges = new int[n];
+            countingSort(from, forwardOffsets, forwardEdges, n);
+            countingSort(to, reverseOffsets, reverseEdges, n);
+            indexed = n;
+        }
+
+        private static void countingSort(int[] key, int[] offsets, int[] edges, int n) {
+            for (int e = 0; e < n; e++) {
+                offsets[key[e] + 1]++;
+            }
+            for (int i = 1; i < offsets.length; i++) {
+                offsets[i] += offsets[i - 1];
+            }
+            int[] cursor = Arrays.copyOf(offsets, offsets.length - 1);
+            for (int e = 0; e < n; e++) {
+                edges[cursor[key[e]]++] = e;
             }
         }
     }
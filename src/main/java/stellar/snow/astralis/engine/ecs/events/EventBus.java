@@ -3,13 +3,16 @@ package stellar.snow.astralis.engine.ecs.events;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 /**
  * EventBus - Type-safe event system for decoupled communication.
  * 
  * <p>Allows systems and entities to communicate without direct dependencies.
- * Events are dispatched to all registered listeners of that event type.
+ * Events are dispatched to all registered listeners of that event type and of
+ * any of its supertypes.
  * 
  * <h2>Usage</h2>
  * <pre>
@@ -21,16 +24,34 @@ import java.util.function.Consumer;
  *     System.out.println("Damage: " + event.amount());
  * });
  * 
+ * // Or receive everything queued during a stage in one call
+ * eventBus.subscribeBatch(DamageEvent.class, batch -> {
+ *     for (DamageEvent e : batch) applyDamage(e);
+ * });
+ * 
  * // Dispatch event
  * eventBus.publish(new DamageEvent(entity, 50));
+ * 
+ * // Or buffer it from a parallel system and flush at the stage boundary
+ * eventBus.queue(new DamageEvent(entity, 50));
+ * eventBus.processQueue();
  * </pre>
  * 
+ * <h2>Queued Dispatch</h2>
+ * <p>Every publishing thread owns a pair of buffers. {@link #queue} appends to the
+ * thread's current write buffer without taking a lock; {@link #processQueue} flips
+ * a global epoch so writers move to the other buffer, then drains the retired
+ * buffers. Within a buffer events are kept in one list per concrete event type,
+ * so a drain hands each type's events to listeners as a single contiguous batch.
+ * Ordering is preserved per type and per publishing thread; there is no global
+ * order across types or threads.</p>
+ * 
  * <h2>Features</h2>
  * <ul>
  *   <li>Type-safe event dispatch</li>
  *   <li>Thread-safe registration</li>
  *   <li>Immediate and queued dispatch</li>
- *   <li>Event filtering</li>
+ *   <li>Batched listeners</li>
  *   <li>Listener priority</li>
  * </ul>
  * 
@@ -39,10 +60,39 @@ import java.util.function.Consumer;
  */
 public class EventBus {
     
+    /** Supertypes (including the type itself) of every class that has been dispatched. */
+    private static final ClassValue<Class<?>[]> HIERARCHY = new ClassValue<>() {
+        @Override
+        protected Class<?>[] computeValue(Class<?> type) {
+            Set<Class<?>> out = new LinkedHashSet<>();
+            collectHierarchy(type, out);
+            return out.toArray(new Class<?>[0]);
+        }
+    };
+    
+    private static final ListenerWrapper<?>[] NO_LISTENERS = new ListenerWrapper<?>[0];
+
+    /** Buffer flips per {@link #processQueue} call; later events wait for the next call */
+    private static final int MAX_SWAPS_PER_PROCESS = 8;
+    
     private final Map<Class<?>, List<ListenerWrapper<?>>> listeners;
-    private final Queue<Object> eventQueue;
     private final boolean threadSafe;
     
+    // Resolved listener arrays per concrete event type, rebuilt lazily after (un)subscription
+    private final Map<Class<?>, Dispatch> resolved = new ConcurrentHashMap<>();
+    private final AtomicInteger listenerVersion = new AtomicInteger();
+    private final AtomicInteger listenerSequence = new AtomicInteger();
+    
+    // Per-thread double buffers
+    private final List<ThreadBuffer> buffers = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<ThreadBuffer> localBuffer = ThreadLocal.withInitial(this::registerBuffer);
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile int epoch;
+    
+    // Drain scratch, only touched by the thread holding 'draining'
+    private final Map<Class<?>, TypedBuffer> collected = new HashMap<>();
+    private final List<TypedBuffer> collectedOrder = new ArrayList<>();
+    
     /**
      * Create thread-safe event bus.
      */
@@ -56,7 +106,6 @@ public class EventBus {
     public EventBus(boolean threadSafe) {
         this.threadSafe = threadSafe;
         this.listeners = new ConcurrentHashMap<>();
-        this.eventQueue = new ArrayDeque<>();
     }
     
     // ========================================================================
@@ -74,8 +123,28 @@ public class EventBus {
      * Subscribe to events with priority (higher = earlier).
      */
     public <T> Subscription subscribe(Class<T> eventType, Consumer<T> listener, int priority) {
-        ListenerWrapper<T> wrapper = new ListenerWrapper<>(listener, priority);
-        
+        return register(eventType, new ListenerWrapper<>(listener, null, priority, listenerSequence.getAndIncrement()));
+    }
+    
+    /**
+     * Subscribe to batches of events of a specific type.
+     */
+    public <T> Subscription subscribeBatch(Class<T> eventType, Consumer<List<T>> listener) {
+        return subscribeBatch(eventType, listener, 0);
+    }
+    
+    /**
+     * Subscribe to batches of events with priority (higher = earlier).
+     * 
+     * <p>Queued events reach the listener once per drain and concrete event type.
+     * Immediately published events arrive as single-element batches. The list is
+     * read-only and only valid for the duration of the call.</p>
+     */
+    public <T> Subscription subscribeBatch(Class<T> eventType, Consumer<List<T>> listener, int priority) {
+        return register(eventType, new ListenerWrapper<>(null, listener, priority, listenerSequence.getAndIncrement()));
+    }
+    
+    private Subscription register(Class<?> eventType, ListenerWrapper<?> wrapper) {
         List<ListenerWrapper<?>> eventListeners = listeners.computeIfAbsent(
             eventType,
             k -> threadSafe ? new CopyOnWriteArrayList<>() : new ArrayList<>()
@@ -85,9 +154,10 @@ public class EventBus {
         
         // Sort by priority (descending)
         if (eventListeners.size() > 1) {
-            eventListeners.sort((a, b) -> Integer.compare(b.priority, a.priority));
+            eventListeners.sort(ListenerWrapper.ORDER);
         }
         
+        listenerVersion.incrementAndGet();
         return new Subscription(this, eventType, wrapper);
     }
     
@@ -96,8 +166,8 @@ public class EventBus {
      */
     public <T> void unsubscribe(Class<T> eventType, Consumer<T> listener) {
         List<ListenerWrapper<?>> eventListeners = listeners.get(eventType);
-        if (eventListeners != null) {
-            eventListeners.removeIf(wrapper -> wrapper.listener == listener);
+        if (eventListeners != null && eventListeners.removeIf(wrapper -> wrapper.listener == listener)) {
+            listenerVersion.incrementAndGet();
         }
     }
     
@@ -106,6 +176,7 @@ public class EventBus {
      */
     public void unsubscribeAll(Class<?> eventType) {
         listeners.remove(eventType);
+        listenerVersion.incrementAndGet();
     }
     
     /**
@@ -113,6 +184,14 @@ public class EventBus {
      */
     public void unsubscribeAll() {
         listeners.clear();
+        listenerVersion.incrementAndGet();
+    }
+    
+    private void removeListener(Class<?> eventType, ListenerWrapper<?> wrapper) {
+        List<ListenerWrapper<?>> eventListeners = listeners.get(eventType);
+        if (eventListeners != null && eventListeners.remove(wrapper)) {
+            listenerVersion.incrementAndGet();
+        }
     }
     
     // ========================================================================
@@ -122,66 +201,255 @@ public class EventBus {
     /**
      * Publish event immediately to all listeners.
      */
-    @SuppressWarnings("unchecked")
     public <T> void publish(T event) {
         if (event == null) {
             return;
         }
         
-        Class<?> eventType = event.getClass();
-        List<ListenerWrapper<?>> eventListeners = listeners.get(eventType);
+        ListenerWrapper<?>[] targets = resolve(event.getClass());
+        if (targets.length == 0) {
+            return;
+        }
         
-        if (eventListeners != null) {
-            for (ListenerWrapper<?> wrapper : eventListeners) {
-                try {
-                    ((Consumer<T>) wrapper.listener).accept(event);
-                } catch (Exception e) {
-                    handleListenerError(event, e);
+        List<Object> single = null;
+        for (ListenerWrapper<?> wrapper : targets) {
+            if (wrapper.batch != null) {
+                if (single == null) {
+                    single = List.of(event);
                 }
+                deliverBatch(wrapper, single);
+            } else {
+                deliver(wrapper, event);
             }
         }
     }
     
+    /**
+     * Publish a batch of events of one type immediately.
+     * 
+     * <p>Batch listeners receive the list once; per-event listeners are called for
+     * each element in order. Elements must all be of {@code eventType} exactly, since
+     * listener resolution is done once for the whole batch.</p>
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void publishBatch(Class<T> eventType, List<? extends T> events) {
+        if (events == null || events.isEmpty()) {
+            return;
+        }
+        dispatchBatch(eventType, (List<Object>) events);
+    }
+    
     /**
      * Queue event for later processing.
+     * 
+     * <p>Lock-free: the event is appended to the calling thread's current buffer.</p>
      */
     public <T> void queue(T event) {
-        if (event != null) {
-            synchronized (eventQueue) {
-                eventQueue.offer(event);
-            }
+        if (event == null) {
+            return;
+        }
+        
+        ThreadBuffer buffer = localBuffer.get();
+        // Handshake with swapBuffers(): the drainer waits for busy == false after
+        // flipping the epoch, so a writer either sees the new epoch or finishes first.
+        buffer.busy = true;
+        try {
+            buffer.segments[epoch & 1].add(event);
+        } finally {
+            buffer.busy = false;
         }
     }
     
     /**
      * Process all queued events.
+     * 
+     * <p>Intended to be called at stage boundaries. Events queued by listeners while
+     * the queue is being processed are handled before this method returns, up to
+     * {@value #MAX_SWAPS_PER_PROCESS} buffer flips; whatever is queued after that, e.g. by
+     * another thread that keeps publishing, is left for the next call, so the call always
+     * returns. If another thread is already processing, or this is called from inside a
+     * listener, the call returns immediately and the active drain picks the events up.</p>
      */
     public void processQueue() {
-        synchronized (eventQueue) {
-            while (!eventQueue.isEmpty()) {
-                Object event = eventQueue.poll();
-                if (event != null) {
-                    publish(event);
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            for (int swaps = 0; swaps < MAX_SWAPS_PER_PROCESS && swapBuffers(); swaps++) {
+                for (int i = 0; i < collectedOrder.size(); i++) {
+                    TypedBuffer batch = collectedOrder.get(i);
+                    try {
+                        dispatchBatch(batch.type, batch.events);
+                    } finally {
+                        batch.events.clear();
+                    }
                 }
+                collectedOrder.clear();
             }
+        } finally {
+            draining.set(false);
         }
     }
     
     /**
      * Get number of queued events.
+     * 
+     * <p>Approximate while other threads are queueing.</p>
      */
     public int getQueueSize() {
-        synchronized (eventQueue) {
-            return eventQueue.size();
+        int parity = epoch & 1;
+        int total = 0;
+        for (ThreadBuffer buffer : buffers) {
+            total += buffer.segments[parity].count;
         }
+        return total;
     }
     
     /**
      * Clear event queue without processing.
      */
     public void clearQueue() {
-        synchronized (eventQueue) {
-            eventQueue.clear();
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            swapBuffers();
+            for (TypedBuffer batch : collectedOrder) {
+                batch.events.clear();
+            }
+            collectedOrder.clear();
+        } finally {
+            draining.set(false);
+        }
+    }
+    
+    /**
+     * Retire the current write buffers and gather their contents per event type.
+     * Caller must hold {@link #draining}.
+     *
+     * @return true if any event was collected
+     */
+    private boolean swapBuffers() {
+        int retired = epoch & 1;
+        epoch = epoch + 1;
+        
+        boolean any = false;
+        for (ThreadBuffer buffer : buffers) {
+            while (buffer.busy) {
+                Thread.onSpinWait();
+            }
+            
+            Segment segment = buffer.segments[retired];
+            if (segment.count == 0) {
+                if (!buffer.owner.isAlive() && buffer.segments[retired ^ 1].count == 0) {
+                    buffers.remove(buffer);
+                }
+                continue;
+            }
+            
+            for (int i = 0; i < segment.order.size(); i++) {
+                TypedBuffer typed = segment.order.get(i);
+                if (typed.events.isEmpty()) {
+                    continue;
+                }
+                TypedBuffer target = collected.get(typed.type);
+                if (target == null) {
+                    target = new TypedBuffer(typed.type);
+                    collected.put(typed.type, target);
+                }
+                if (target.events.isEmpty()) {
+                    collectedOrder.add(target);
+                }
+                target.events.addAll(typed.events);
+                typed.events.clear();
+            }
+            segment.count = 0;
+            any = true;
+        }
+        return any;
+    }
+    
+    private ThreadBuffer registerBuffer() {
+        ThreadBuffer buffer = new ThreadBuffer(Thread.currentThread());
+        buffers.add(buffer);
+        return buffer;
+    }
+    
+    // ========================================================================
+    // DISPATCH
+    // ========================================================================
+    
+    private void dispatchBatch(Class<?> eventType, List<Object> events) {
+        ListenerWrapper<?>[] targets = resolve(eventType);
+        if (targets.length == 0) {
+            return;
+        }
+        
+        List<Object> view = null;
+        for (ListenerWrapper<?> wrapper : targets) {
+            if (wrapper.batch != null) {
+                if (view == null) {
+                    view = Collections.unmodifiableList(events);
+                }
+                deliverBatch(wrapper, view);
+            } else {
+                for (int i = 0, n = events.size(); i < n; i++) {
+                    deliver(wrapper, events.get(i));
+                }
+            }
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void deliver(ListenerWrapper<?> wrapper, Object event) {
+        try {
+            ((ListenerWrapper<Object>) wrapper).listener.accept(event);
+        } catch (Exception e) {
+            handleListenerError(event, e);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void deliverBatch(ListenerWrapper<?> wrapper, List<Object> events) {
+        try {
+            ((ListenerWrapper<Object>) wrapper).batch.accept(events);
+        } catch (Exception e) {
+            handleListenerError(events.get(0), e);
+        }
+    }
+    
+    /**
+     * Listeners for a concrete event type, merged across its supertypes and ordered
+     * by priority. Cached until the next (un)subscription.
+     */
+    private ListenerWrapper<?>[] resolve(Class<?> eventType) {
+        int version = listenerVersion.get();
+        Dispatch dispatch = resolved.get(eventType);
+        if (dispatch != null && dispatch.version == version) {
+            return dispatch.targets;
+        }
+        
+        List<ListenerWrapper<?>> merged = new ArrayList<>();
+        for (Class<?> type : HIERARCHY.get(eventType)) {
+            List<ListenerWrapper<?>> eventListeners = listeners.get(type);
+            if (eventListeners != null) {
+                merged.addAll(eventListeners);
+            }
+        }
+        merged.sort(ListenerWrapper.ORDER);
+        
+        ListenerWrapper<?>[] targets = merged.isEmpty() ? NO_LISTENERS : merged.toArray(NO_LISTENERS);
+        resolved.put(eventType, new Dispatch(version, targets));
+        return targets;
+    }
+    
+    private static void collectHierarchy(Class<?> type, Set<Class<?>> out) {
+        if (type == null || !out.add(type)) {
+            return;
+        }
+        collectHierarchy(type.getSuperclass(), out);
+        for (Class<?> iface : type.getInterfaces()) {
+            collectHierarchy(iface, out);
         }
     }
     
@@ -230,15 +498,80 @@ public class EventBus {
     // ========================================================================
     
     /**
-     * Listener wrapper with priority.
+     * Listener wrapper with priority. Exactly one of {@code listener}/{@code batch} is set.
      */
     private static class ListenerWrapper<T> {
+        static final Comparator<ListenerWrapper<?>> ORDER = (a, b) -> a.priority != b.priority
+            ? Integer.compare(b.priority, a.priority)
+            : Integer.compare(a.sequence, b.sequence);
+        
         final Consumer<T> listener;
+        final Consumer<List<T>> batch;
         final int priority;
+        final int sequence;
         
-        ListenerWrapper(Consumer<T> listener, int priority) {
+        ListenerWrapper(Consumer<T> listener, Consumer<List<T>> batch, int priority, int sequence) {
             this.listener = listener;
+            this.batch = batch;
             this.priority = priority;
+            this.sequence = sequence;
+        }
+    }
+    
+    /**
+     * Resolved listeners for one concrete event type.
+     */
+    private record Dispatch(int version, ListenerWrapper<?>[] targets) {}
+    
+    /**
+     * Contiguous storage for events of one concrete type.
+     */
+    private static final class TypedBuffer {
+        final Class<?> type;
+        final ArrayList<Object> events = new ArrayList<>();
+        
+        TypedBuffer(Class<?> type) {
+            this.type = type;
+        }
+    }
+    
+    /**
+     * One side of a thread's double buffer: per-type event lists in first-seen order.
+     * Written only by the owning thread, read only by the drainer after a swap.
+     */
+    private static final class Segment {
+        final Map<Class<?>, TypedBuffer> byType = new HashMap<>();
+        final List<TypedBuffer> order = new ArrayList<>();
+        TypedBuffer last;
+        int count;
+        
+        void add(Object event) {
+            Class<?> type = event.getClass();
+            TypedBuffer typed = last;
+            if (typed == null || typed.type != type) {
+                typed = byType.get(type);
+                if (typed == null) {
+                    typed = new TypedBuffer(type);
+                    byType.put(type, typed);
+                    order.add(typed);
+                }
+                last = typed;
+            }
+            typed.events.add(event);
+            count++;
+        }
+    }
+    
+    /**
+     * Double buffer owned by a single publishing thread.
+     */
+    private static final class ThreadBuffer {
+        final Thread owner;
+        final Segment[] segments = { new Segment(), new Segment() };
+        volatile boolean busy;
+        
+        ThreadBuffer(Thread owner) {
+            this.owner = owner;
         }
     }
     
@@ -263,10 +596,7 @@ public class EventBus {
          */
         public void cancel() {
             if (active) {
-                List<ListenerWrapper<?>> eventListeners = bus.listeners.get(eventType);
-                if (eventListeners != null) {
-                    eventListeners.remove(wrapper);
-                }
+                bus.removeListener(eventType, wrapper);
                 active = false;
             }
         }
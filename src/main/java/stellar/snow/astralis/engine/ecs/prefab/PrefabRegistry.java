@@ -2,7 +2,14 @@ package stellar.snow.astralis.engine.ecs.prefab;
 
 import stellar.snow.astralis.engine.ecs.core.Entity;
 import stellar.snow.astralis.engine.ecs.core.World;
+import stellar.snow.astralis.engine.ecs.storage.ComponentRegistry;
 
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.reflect.RecordComponent;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
@@ -31,14 +38,30 @@ import java.util.function.Consumer;
  * 
  * // Batch instantiate
  * List&lt;Entity&gt; enemies = registry.instantiateMultiple(world, "enemy", 10);
+ * 
+ * // Spawn burst with per-entity positions (one Transform row per entity)
+ * Entity[] wave = registry.instantiateBatch(world, "enemy", 64, Transform.class, positions);
  * </pre>
  * 
+ * <h2>Compiled Templates</h2>
+ * <p>Inheritance is flattened and raw component values copied to bytes when a prefab is
+ * registered. On first use in a world the prefab is compiled to its target archetype plus one
+ * row template (the concatenated component bytes); instantiation then reserves all rows in one
+ * step and blits the template into each column with {@code MemorySegment.copy}, with no
+ * per-component archetype migration.</p>
+ * 
+ * <p>Component values may be raw bytes ({@code ByteBuffer}, {@code MemorySegment},
+ * {@code byte[]}, {@code float[]}, {@code int[]}) or records of primitives, which are
+ * encoded at compile time at the {@link ComponentRegistry.FieldInfo} offsets of their registered
+ * type (booleans as one byte), in native byte order like {@code ComponentArray}.</p>
+ * 
  * <h2>Features</h2>
  * <ul>
  *   <li>Reusable entity templates</li>
  *   <li>Component overrides</li>
- *   <li>Batch instantiation</li>
- *   <li>Prefab inheritance</li>
+ *   <li>Batch instantiation by template blit</li>
+ *   <li>Column-wise overrides</li>
+ *   <li>Prefab inheritance (resolved at registration)</li>
  *   <li>Thread-safe registration</li>
  * </ul>
  * 
@@ -157,30 +180,52 @@ public class PrefabRegistry {
      * Instantiate multiple copies of a prefab.
      */
     public List<Entity> instantiateMultiple(World world, String name, int count) {
-        Prefab prefab = prefabs.get(name);
-        if (prefab == null) {
-            throw new IllegalArgumentException("Prefab not found: " + name);
-        }
-        
-        List<Entity> entities = new ArrayList<>(count);
-        for (int i = 0; i < count; i++) {
-            entities.add(prefab.instantiate(world));
-        }
-        return entities;
+        return new ArrayList<>(Arrays.asList(instantiateBatch(world, name, count)));
     }
     
     /**
      * Instantiate multiple copies with per-entity customization.
+     * 
+     * <p>The customization is applied once to a copy of the prefab, which is then
+     * instantiated as a batch.</p>
      */
     public List<Entity> instantiateMultiple(World world, String name, int count, 
                                            Consumer<PrefabBuilder> customizeFn) {
-        List<Entity> entities = new ArrayList<>(count);
-        for (int i = 0; i < count; i++) {
-            entities.add(instantiate(world, name, customizeFn));
-        }
+        Prefab prefab = require(name);
+        
+        PrefabBuilder builder = new PrefabBuilder();
+        builder.components.putAll(prefab.components);
+        customizeFn.accept(builder);
+        
+        return new ArrayList<>(Arrays.asList(builder.build().instantiate(world, count)));
+    }
+    
+    /**
+     * Instantiate {@code count} copies of a prefab in one batch.
+     */
+    public Entity[] instantiateBatch(World world, String name, int count) {
+        return require(name).instantiate(world, count);
+    }
+    
+    /**
+     * Instantiate {@code count} copies, then overwrite one component column: row {@code i}
+     * of {@code overrideRows} (component-size stride) becomes that component of entity {@code i}.
+     */
+    public Entity[] instantiateBatch(World world, String name, int count,
+                                     Class<?> overrideType, MemorySegment overrideRows) {
+        Entity[] entities = require(name).instantiate(world, count);
+        world.addComponent(entities, overrideType, overrideRows);
         return entities;
     }
     
+    private Prefab require(String name) {
+        Prefab prefab = prefabs.get(name);
+        if (prefab == null) {
+            throw new IllegalArgumentException("Prefab not found: " + name);
+        }
+        return prefab;
+    }
+    
     // ========================================================================
     // UTILITIES
     // ========================================================================
@@ -215,22 +260,61 @@ public class PrefabRegistry {
      */
     public static class Prefab {
         private final Map<Class<?>, Object> components;
+        private final Class<?>[] types;
+        private final byte[][] encoded;
+        
+        /** Per-world compiled templates (worlds are weakly held) */
+        private final Map<World, Compiled> compiled = Collections.synchronizedMap(new WeakHashMap<>());
         
         Prefab(Map<Class<?>, Object> components) {
-            this.components = new HashMap<>(components);
+            this.components = new LinkedHashMap<>(components);
+            this.types = this.components.keySet().toArray(new Class<?>[0]);
+            this.encoded = new byte[types.length][];
+            // Records need their registered field layout; they are encoded in compile(World)
+            for (int i = 0; i < types.length; i++) {
+                Object value = this.components.get(types[i]);
+                encoded[i] = value instanceof Record ? null : encodeComponent(types[i], value);
+            }
         }
         
         /**
          * Instantiate this prefab in a world.
          */
         public Entity instantiate(World world) {
-            Entity entity = world.createEntity();
-            
-            for (Map.Entry<Class<?>, Object> entry : components.entrySet()) {
-                world.addComponent(entity, entry.getKey(), entry.getValue());
+            return instantiate(world, 1)[0];
+        }
+        
+        /**
+         * Instantiate {@code count} copies by blitting the compiled row template.
+         */
+        public Entity[] instantiate(World world, int count) {
+            Compiled template = compiled.computeIfAbsent(world, this::compile);
+            return world.createEntities(count, types, template.row(), template.offsets());
+        }
+        
+        /**
+         * Lay the encoded components out back to back (8-byte aligned) at their registered sizes.
+         */
+        private Compiled compile(World world) {
+            ComponentRegistry registry = world.getRegistry();
+            long[] offsets = new long[types.length];
+            long[] sizes = new long[types.length];
+            long total = 0;
+            for (int i = 0; i < types.length; i++) {
+                offsets[i] = total;
+                sizes[i] = registry.getType(types[i]).sizeBytes();
+                total = (total + sizes[i] + 7) & ~7L;
             }
             
-            return entity;
+            // Zero-initialized; short encodings leave the tail of their component zeroed
+            MemorySegment row = Arena.ofAuto().allocate(Math.max(8, total), 8);
+            for (int i = 0; i < types.length; i++) {
+                byte[] bytes = encoded[i] != null ? encoded[i]
+                    : encodeRecord(registry.getType(types[i]), (Record) components.get(types[i]));
+                MemorySegment.copy(bytes, 0, row, ValueLayout.JAVA_BYTE, offsets[i],
+                    (int) Math.min(bytes.length, sizes[i]));
+            }
+            return new Compiled(row, offsets);
         }
         
         /**
@@ -248,6 +332,93 @@ public class PrefabRegistry {
         }
     }
     
+    /**
+     * Prefab compiled for one world: row template and per-component offsets into it.
+     */
+    private record Compiled(MemorySegment row, long[] offsets) {}
+    
+    // ========================================================================
+    // COMPONENT ENCODING
+    // ========================================================================
+    
+    /**
+     * Serialize a raw component value to bytes (see class docs). Records go through
+     * {@link #encodeRecord(ComponentRegistry.ComponentType, Record)}.
+     */
+    static byte[] encodeComponent(Class<?> type, Object value) {
+        if (value == null) {
+            return new byte[0];
+        }
+        if (value instanceof byte[] bytes) {
+            return bytes.clone();
+        }
+        if (value instanceof ByteBuffer buffer) {
+            ByteBuffer view = buffer.duplicate().rewind();
+            byte[] bytes = new byte[view.remaining()];
+            view.get(bytes);
+            return bytes;
+        }
+        if (value instanceof MemorySegment segment) {
+            return segment.toArray(ValueLayout.JAVA_BYTE);
+        }
+        if (value instanceof float[] floats) {
+            ByteBuffer out = ByteBuffer.allocate(floats.length * Float.BYTES).order(ByteOrder.nativeOrder());
+            out.asFloatBuffer().put(floats);
+            return out.array();
+        }
+        if (value instanceof int[] ints) {
+            ByteBuffer out = ByteBuffer.allocate(ints.length * Integer.BYTES).order(ByteOrder.nativeOrder());
+            out.asIntBuffer().put(ints);
+            return out.array();
+        }
+        throw new IllegalArgumentException("No byte encoding for " + type.getSimpleName()
+            + " value of type " + value.getClass().getName());
+    }
+    
+    /**
+     * Serialize a record at its registered type's field offsets, one byte per boolean.
+     */
+    static byte[] encodeRecord(ComponentRegistry.ComponentType type, Record record) {
+        Map<String, RecordComponent> components = new HashMap<>();
+        for (RecordComponent component : record.getClass().getRecordComponents()) {
+            components.put(component.getName(), component);
+        }
+        
+        ByteBuffer out = ByteBuffer.allocate(type.sizeBytes()).order(ByteOrder.nativeOrder());
+        try {
+            for (ComponentRegistry.FieldInfo field : type.fields()) {
+                RecordComponent component = components.get(field.name());
+                Class<?> t = field.type();
+                if (component == null || !t.isPrimitive()) {
+                    throw new IllegalArgumentException("Record component " + type.name()
+                        + "." + field.name() + " is not primitive");
+                }
+                int width = t == long.class || t == double.class ? 8
+                    : t == int.class || t == float.class ? 4
+                    : t == short.class || t == char.class ? 2
+                    : 1;
+                if (field.offset() + width > out.capacity()) {
+                    throw new IllegalArgumentException("Field " + type.name() + "." + field.name()
+                        + " at offset " + field.offset() + " exceeds registered size " + type.sizeBytes());
+                }
+                
+                Object v = component.getAccessor().invoke(record);
+                int at = field.offset();
+                if (t == long.class) out.putLong(at, (Long) v);
+                else if (t == double.class) out.putDouble(at, (Double) v);
+                else if (t == int.class) out.putInt(at, (Integer) v);
+                else if (t == float.class) out.putFloat(at, (Float) v);
+                else if (t == short.class) out.putShort(at, (Short) v);
+                else if (t == char.class) out.putChar(at, (Character) v);
+                else if (t == byte.class) out.put(at, (Byte) v);
+                else out.put(at, (byte) ((Boolean) v ? 1 : 0));
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot encode " + type.name(), e);
+        }
+        return out.array();
+    }
+    
     // ========================================================================
     // PREFAB BUILDER
     // ========================================================================
@@ -259,7 +430,7 @@ public class PrefabRegistry {
         private final Map<Class<?>, Object> components;
         
         PrefabBuilder() {
-            this.components = new HashMap<>();
+            this.components = new LinkedHashMap<>();
         }
         
         /**
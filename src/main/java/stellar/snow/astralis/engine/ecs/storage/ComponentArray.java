@@ -19,8 +19,10 @@ import java.util.stream.*;
  * <ul>
  *   <li>Foreign Memory API for off-heap, cache-friendly storage</li>
  *   <li>Lock-free sparse set indexing</li>
+ *   <li>Paged sparse map: 4 KiB pages on demand, shared zero page for empty ranges</li>
  *   <li>GPU buffer integration with persistent mapping</li>
  *   <li>Change detection with versioning</li>
+ *   <li>Copy-on-write frozen views for rollback and async readers</li>
  *   <li>SIMD-friendly memory layout</li>
  *   <li>Batch operations for bulk updates</li>
  *   <li>Memory pooling for reduced allocations</li>
@@ -46,6 +48,45 @@ public final class ComponentArray implements AutoCloseable {
 
     private static final int INVALID_INDEX = -1;
 
+    /** Sparse page: 1024 int slots = 4 KiB */
+    private static final int SPARSE_PAGE_SHIFT = 10;
+    private static final int SPARSE_PAGE_SIZE = 1 << SPARSE_PAGE_SHIFT;
+    private static final int SPARSE_PAGE_MASK = SPARSE_PAGE_SIZE - 1;
+    private static final long SPARSE_PAGE_BYTES = (long) SPARSE_PAGE_SIZE * Integer.BYTES;
+
+    /** Change tracking granularity: dense rows per version block */
+    public static final int CHANGE_BLOCK_SHIFT = 6;
+    public static final int CHANGE_BLOCK_SIZE = 1 << CHANGE_BLOCK_SHIFT;
+
+    /** Shared all-absent page backing every unpopulated sparse range */
+    private static final MemorySegment ZERO_PAGE =
+        Arena.global().allocate(SPARSE_PAGE_BYTES, SPARSE_PAGE_BYTES).asReadOnly();
+
+    // ========================================================================
+    // CHANGE CLOCK
+    // ========================================================================
+
+    /**
+     * Change clock of one World. Arrays sharing a clock have comparable row stamps across
+     * component types; ticks of one world never move another world's change detection.
+     */
+    public static final class ChangeClock {
+        private final AtomicLong tick = new AtomicLong(1);
+
+        /** Tick that writes made now are stamped with. */
+        public long current() {
+            return tick.get();
+        }
+
+        /**
+         * Close the current tick and return it. Writes after this call are stamped with
+         * a later tick, so {@code changed since <returned tick>} sees exactly those writes.
+         */
+        public long advance() {
+            return tick.getAndIncrement();
+        }
+    }
+
     // ========================================================================
     // CONFIGURATION
     // ========================================================================
@@ -59,7 +100,8 @@ public final class ComponentArray implements AutoCloseable {
         boolean useOffHeap,
         boolean trackChanges,
         boolean enableGpu,
-        int alignment
+        int alignment,
+        ChangeClock changeClock
     ) {
         public static Config defaults() {
             return new Config(
@@ -68,7 +110,8 @@ public final class ComponentArray implements AutoCloseable {
                 true,   // Off-heap by default
                 true,   // Track changes
                 false,  // GPU disabled by default
-                CACHE_LINE_SIZE
+                CACHE_LINE_SIZE,
+                new ChangeClock()  // Standalone array: own clock
             );
         }
 
@@ -83,6 +126,7 @@ public final class ComponentArray implements AutoCloseable {
             private boolean trackChanges = true;
             private boolean enableGpu = false;
             private int alignment = CACHE_LINE_SIZE;
+            private ChangeClock changeClock;
 
             public Builder initialCapacity(int val) { initialCapacity = val; return this; }
             public Builder entityCapacity(int val) { entityCapacity = val; return this; }
@@ -90,10 +134,12 @@ public final class ComponentArray implements AutoCloseable {
             public Builder trackChanges(boolean val) { trackChanges = val; return this; }
             public Builder enableGpu(boolean val) { enableGpu = val; return this; }
             public Builder alignment(int val) { alignment = val; return this; }
+            public Builder changeClock(ChangeClock val) { changeClock = val; return this; }
 
             public Config build() {
                 return new Config(initialCapacity, entityCapacity, useOffHeap, 
-                    trackChanges, enableGpu, alignment);
+                    trackChanges, enableGpu, alignment,
+                    changeClock != null ? changeClock : new ChangeClock());
             }
         }
     }
@@ -115,17 +161,25 @@ public final class ComponentArray implements AutoCloseable {
     private volatile int capacity;
     private final AtomicInteger count = new AtomicInteger(0);
 
-    // Sparse set: entity index -> dense index
-    private MemorySegment entityToIndex;  // int[]
+    // Sparse set: entity index -> dense index + 1 (0 = absent), paged
+    private volatile MemorySegment[] sparsePages;  // int[SPARSE_PAGE_SIZE] each, or ZERO_PAGE
+    private int[] pageOccupancy;
+    private final ArrayDeque<MemorySegment> freePages = new ArrayDeque<>();
+    private int allocatedPages;
+    private volatile int maxEntityIndex = -1;
     private volatile int entityCapacity;
 
     // Dense array: dense index -> entity index
     private MemorySegment indexToEntity;  // int[]
 
-    // Change tracking
+    // Change tracking: per-row tick, per-block max tick, per-array max tick. Block and array
+    // maxima are raised atomically: writers holding only the read lock stamp concurrently.
     private final AtomicLong version = new AtomicLong(0);
     private MemorySegment changeVersions;  // long[] per entity
+    private AtomicLongArray blockVersions;
+    private final AtomicLong maxChangeTick = new AtomicLong();
     private final boolean trackChanges;
+    private final ChangeClock clock;
 
     // Dirty tracking for GPU sync
     private final AtomicBoolean gpuDirty = new AtomicBoolean(true);
@@ -146,6 +200,10 @@ public final class ComponentArray implements AutoCloseable {
     private final LongAdder updateCount = new LongAdder();
     private final LongAdder resizeCount = new LongAdder();
 
+    // Copy-on-write views still collecting pre-images (replaced wholesale under the write lock)
+    private static final Frozen[] NO_FROZEN = new Frozen[0];
+    private volatile Frozen[] frozen = NO_FROZEN;
+
     // ========================================================================
     // CONSTRUCTORS
     // ========================================================================
@@ -173,6 +231,7 @@ public final class ComponentArray implements AutoCloseable {
         this.componentSize = Math.max(type.sizeBytes(), 1);  // Minimum 1 byte for tags
         this.alignment = Math.max(config.alignment(), type.alignment());
         this.trackChanges = config.trackChanges();
+        this.clock = config.changeClock() != null ? config.changeClock() : new ChangeClock();
 
         // Initialize arena
         this.arena = config.useOffHeap() ? Arena.ofShared() : Arena.ofConfined();
@@ -196,9 +255,12 @@ public final class ComponentArray implements AutoCloseable {
         long dataSize = alignUp((long) componentSize * capacity, alignment);
         this.data = arena.allocate(dataSize, alignment);
 
-        // Entity to index mapping
-        this.entityToIndex = arena.allocate(ValueLayout.JAVA_INT, entityCapacity);
-        fillSegment(entityToIndex, INVALID_INDEX);
+        // Entity to index mapping (pages allocated on first write)
+        int pageCount = Math.max(1, (entityCapacity + SPARSE_PAGE_MASK) >>> SPARSE_PAGE_SHIFT);
+        this.sparsePages = new MemorySegment[pageCount];
+        Arrays.fill(sparsePages, ZERO_PAGE);
+        this.pageOccupancy = new int[pageCount];
+        this.entityCapacity = pageCount << SPARSE_PAGE_SHIFT;
 
         // Index to entity mapping
         this.indexToEntity = arena.allocate(ValueLayout.JAVA_INT, capacity);
@@ -208,9 +270,14 @@ public final class ComponentArray implements AutoCloseable {
         if (trackChanges) {
             this.changeVersions = arena.allocate(ValueLayout.JAVA_LONG, capacity);
             changeVersions.fill((byte) 0);
+            this.blockVersions = new AtomicLongArray(changeBlocks(capacity));
         }
     }
 
+    private static int changeBlocks(int rows) {
+        return (rows + CHANGE_BLOCK_SIZE - 1) >>> CHANGE_BLOCK_SHIFT;
+    }
+
     private void ensureCapacity(int required) {
         if (required <= capacity) return;
 
@@ -251,6 +318,11 @@ public final class ComponentArray implements AutoCloseable {
             indexToEntity = newIndexToEntity;
             if (trackChanges) {
                 changeVersions = newChangeVersions;
+                AtomicLongArray grownBlocks = new AtomicLongArray(changeBlocks(newCapacity));
+                for (int b = 0; b < blockVersions.length(); b++) {
+                    grownBlocks.set(b, blockVersions.get(b));
+                }
+                blockVersions = grownBlocks;
             }
             capacity = newCapacity;
 
@@ -262,26 +334,27 @@ public final class ComponentArray implements AutoCloseable {
         }
     }
 
+    /**
+     * Grow the sparse page directory. Only the directory grows; pages are allocated on first write.
+     */
     private void ensureEntityCapacity(int required) {
         if (required <= entityCapacity) return;
 
-        int newCapacity = Math.max(
-            (int) (entityCapacity * GROWTH_FACTOR),
-            required
-        );
-
         long stamp = lock.writeLock();
         try {
             if (required <= entityCapacity) return;
 
-            MemorySegment newEntityToIndex = arena.allocate(ValueLayout.JAVA_INT, newCapacity);
-            MemorySegment.copy(entityToIndex, ValueLayout.JAVA_INT, 0,
-                newEntityToIndex, ValueLayout.JAVA_INT, 0,
-                entityCapacity);
-            fillSegmentRange(newEntityToIndex, entityCapacity, newCapacity, INVALID_INDEX);
+            int oldPages = sparsePages.length;
+            int newPages = Math.max(
+                (int) (oldPages * GROWTH_FACTOR) + 1,
+                (required + SPARSE_PAGE_MASK) >>> SPARSE_PAGE_SHIFT
+            );
 
-            entityToIndex = newEntityToIndex;
-            entityCapacity = newCapacity;
+            MemorySegment[] grown = Arrays.copyOf(sparsePages, newPages);
+            Arrays.fill(grown, oldPages, newPages, ZERO_PAGE);
+            pageOccupancy = Arrays.copyOf(pageOccupancy, newPages);
+            sparsePages = grown;
+            entityCapacity = newPages << SPARSE_PAGE_SHIFT;
 
         } finally {
             lock.unlockWrite(stamp);
@@ -305,6 +378,7 @@ public final class ComponentArray implements AutoCloseable {
 
             if (existingIndex != INVALID_INDEX) {
                 // Update existing
+                preserveRows(existingIndex, existingIndex + 1);
                 updateAtIndex(existingIndex, componentData);
                 updateCount.increment();
             } else {
@@ -312,6 +386,7 @@ public final class ComponentArray implements AutoCloseable {
                 ensureCapacity(count.get() + 1);
                 int newIndex = count.getAndIncrement();
 
+                preserveRows(newIndex, newIndex + 1);
                 setEntityMapping(entityIndex, newIndex);
                 setIndexMapping(newIndex, entityIndex);
                 updateAtIndex(newIndex, componentData);
@@ -341,6 +416,7 @@ public final class ComponentArray implements AutoCloseable {
 
             if (existingIndex != INVALID_INDEX) {
                 // Update existing
+                preserveRows(existingIndex, existingIndex + 1);
                 copyToIndex(existingIndex, componentData);
                 updateCount.increment();
             } else {
@@ -348,6 +424,7 @@ public final class ComponentArray implements AutoCloseable {
                 ensureCapacity(count.get() + 1);
                 int newIndex = count.getAndIncrement();
 
+                preserveRows(newIndex, newIndex + 1);
                 setEntityMapping(entityIndex, newIndex);
                 setIndexMapping(newIndex, entityIndex);
                 copyToIndex(newIndex, componentData);
@@ -401,6 +478,228 @@ public final class ComponentArray implements AutoCloseable {
         }
     }
 
+    /**
+     * Add or update rows for a batch of entities.
+     *
+     * <p>Row {@code i} is read from {@code source} at {@code sourceOffset + i * sourceStride}.
+     * When every entity is new and the stride equals the component size, the whole batch is
+     * appended with one bulk copy. A repeated entity gets one row, holding its last data.</p>
+     */
+    public void addRows(int[] entityIndices, int length, MemorySegment source,
+                        long sourceOffset, long sourceStride) {
+        if (length == 0) return;
+        int maxEntity = 0;
+        for (int i = 0; i < length; i++) {
+            maxEntity = Math.max(maxEntity, entityIndices[i]);
+        }
+        ensureEntityCapacity(maxEntity + 1);
+        ensureCapacity(count.get() + length);
+
+        long rowBytes = Math.min(sourceStride, componentSize);
+        long stamp = lock.writeLock();
+        try {
+            int base = count.get();
+            if (sourceStride == componentSize && mapNewRows(entityIndices, length, base)) {
+                preserveRows(base, base + length);
+                MemorySegment.copy(source, sourceOffset, data, (long) base * componentSize,
+                    (long) length * componentSize);
+                appendCommitted(base, length);
+                return;
+            }
+
+            int appended = 0;
+            for (int i = 0; i < length; i++) {
+                int entityIndex = entityIndices[i];
+                int dense = getEntityIndex(entityIndex);
+                if (dense == INVALID_INDEX) {
+                    dense = base + appended++;
+                    setEntityMapping(entityIndex, dense);
+                    setIndexMapping(dense, entityIndex);
+                } else {
+                    updateCount.increment();
+                    markChanged(entityIndex);
+                    markDirty(entityIndex);
+                }
+                preserveRows(dense, dense + 1);
+                MemorySegment.copy(source, sourceOffset + i * sourceStride,
+                    data, (long) dense * componentSize, rowBytes);
+            }
+            appendCommitted(base, appended);
+
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Map {@code entityIndices[0, length)} to the dense rows {@code base, base + 1, ...} when
+     * none of them has a row yet and none repeats. Otherwise leaves the mappings untouched and
+     * returns false, so the caller takes the per-row path. Caller holds the write lock.
+     */
+    private boolean mapNewRows(int[] entityIndices, int length, int base) {
+        for (int i = 0; i < length; i++) {
+            if (getEntityIndex(entityIndices[i]) != INVALID_INDEX) {
+                // Existing row or a repeat within the batch: undo the rows claimed so far
+                for (int j = 0; j < i; j++) {
+                    setEntityMapping(entityIndices[j], INVALID_INDEX);
+                }
+                return false;
+            }
+            setEntityMapping(entityIndices[i], base + i);
+            setIndexMapping(base + i, entityIndices[i]);
+        }
+        return true;
+    }
+
+    /**
+     * Set the rows of a batch of entities to one template row read from {@code template} at
+     * {@code templateOffset} (prefab instantiation).
+     *
+     * <p>When every entity is new the rows are appended contiguously: the template is copied
+     * once and the filled span is then doubled with block copies, so N rows cost O(log N)
+     * copies.</p>
+     */
+    public void fillRows(int[] entityIndices, int length, MemorySegment template, long templateOffset) {
+        if (length == 0) return;
+        int maxEntity = 0;
+        for (int i = 0; i < length; i++) {
+            maxEntity = Math.max(maxEntity, entityIndices[i]);
+        }
+        ensureEntityCapacity(maxEntity + 1);
+        ensureCapacity(count.get() + length);
+
+        long stamp = lock.writeLock();
+        try {
+            int base = count.get();
+            if (mapNewRows(entityIndices, length, base)) {
+                preserveRows(base, base + length);
+                long start = (long) base * componentSize;
+                MemorySegment.copy(template, templateOffset, data, start, componentSize);
+                for (int filled = 1; filled < length; ) {
+                    int n = Math.min(filled, length - filled);
+                    MemorySegment.copy(data, start, data, start + (long) filled * componentSize,
+                        (long) n * componentSize);
+                    filled += n;
+                }
+                appendCommitted(base, length);
+                return;
+            }
+
+            int appended = 0;
+            for (int i = 0; i < length; i++) {
+                int entityIndex = entityIndices[i];
+                int dense = getEntityIndex(entityIndex);
+                if (dense == INVALID_INDEX) {
+                    dense = base + appended++;
+                    setEntityMapping(entityIndex, dense);
+                    setIndexMapping(dense, entityIndex);
+                } else {
+                    updateCount.increment();
+                    markChanged(entityIndex);
+                    markDirty(entityIndex);
+                }
+                preserveRows(dense, dense + 1);
+                MemorySegment.copy(template, templateOffset, data, (long) dense * componentSize, componentSize);
+            }
+            appendCommitted(base, appended);
+
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Append rows gathered from another array of the same component type (batched migration).
+     * Rows that are contiguous in both arrays move with a single block copy; entities missing
+     * from {@code source} get zeroed rows.
+     */
+    public void addRowsFrom(ComponentArray source, int[] entityIndices, int length) {
+        if (length == 0) return;
+        int maxEntity = 0;
+        for (int i = 0; i < length; i++) {
+            maxEntity = Math.max(maxEntity, entityIndices[i]);
+        }
+        ensureEntityCapacity(maxEntity + 1);
+        ensureCapacity(count.get() + length);
+
+        boolean blockCopy = source.componentSize == componentSize;
+        long rowBytes = Math.min(source.componentSize, componentSize);
+        long sourceStamp = source.lock.readLock();
+        long stamp = lock.writeLock();
+        try {
+            int base = count.get();
+            int appended = 0;
+            preserveRows(base, base + length);
+
+            // Pending run of rows contiguous in both arrays
+            int runFrom = INVALID_INDEX;
+            int runTo = 0;
+            int runLength = 0;
+
+            for (int i = 0; i < length; i++) {
+                int entityIndex = entityIndices[i];
+                if (getEntityIndex(entityIndex) != INVALID_INDEX) continue;
+
+                int dense = base + appended++;
+                setEntityMapping(entityIndex, dense);
+                setIndexMapping(dense, entityIndex);
+
+                int from = source.getEntityIndex(entityIndex);
+                if (from == INVALID_INDEX) {
+                    data.asSlice((long) dense * componentSize, componentSize).fill((byte) 0);
+                    continue;
+                }
+                if (!blockCopy) {
+                    MemorySegment.copy(source.data, (long) from * source.componentSize,
+                        data, (long) dense * componentSize, rowBytes);
+                    continue;
+                }
+
+                if (runLength > 0 && from == runFrom + runLength && dense == runTo + runLength) {
+                    runLength++;
+                } else {
+                    copyRun(source, runFrom, runTo, runLength);
+                    runFrom = from;
+                    runTo = dense;
+                    runLength = 1;
+                }
+            }
+            copyRun(source, runFrom, runTo, runLength);
+            appendCommitted(base, appended);
+
+        } finally {
+            lock.unlockWrite(stamp);
+            source.lock.unlockRead(sourceStamp);
+        }
+    }
+
+    private void copyRun(ComponentArray source, int from, int to, int rows) {
+        if (rows == 0) return;
+        MemorySegment.copy(source.data, (long) from * componentSize,
+            data, (long) to * componentSize, (long) rows * componentSize);
+    }
+
+    /**
+     * Publish {@code appended} rows written at {@code [base, base + appended)}. Caller holds the write lock.
+     */
+    private void appendCommitted(int base, int appended) {
+        if (appended == 0) return;
+        count.set(base + appended);
+        addCount.add(appended);
+
+        if (trackChanges) {
+            version.incrementAndGet();
+            long tick = clock.current();
+            for (int i = base; i < base + appended; i++) {
+                stampRow(i, tick);
+            }
+        }
+
+        gpuDirty.set(true);
+        dirtyRangeStart = Math.min(dirtyRangeStart, base);
+        dirtyRangeEnd = Math.max(dirtyRangeEnd, base + appended);
+    }
+
     // ========================================================================
     // REMOVE OPERATIONS
     // ========================================================================
@@ -417,6 +716,8 @@ public final class ComponentArray implements AutoCloseable {
             if (removedIndex == INVALID_INDEX) return false;
 
             int lastIndex = count.get() - 1;
+            preserveRows(removedIndex, removedIndex + 1);
+            preserveRows(lastIndex, lastIndex + 1);
 
             if (removedIndex != lastIndex) {
                 // Swap with last element
@@ -435,8 +736,7 @@ public final class ComponentArray implements AutoCloseable {
 
                 // Copy change version if tracking
                 if (trackChanges) {
-                    long lastVersion = changeVersions.getAtIndex(ValueLayout.JAVA_LONG, lastIndex);
-                    changeVersions.setAtIndex(ValueLayout.JAVA_LONG, removedIndex, lastVersion);
+                    stampRow(removedIndex, changeVersions.getAtIndex(ValueLayout.JAVA_LONG, lastIndex));
                 }
             }
 
@@ -471,14 +771,85 @@ public final class ComponentArray implements AutoCloseable {
         return removed;
     }
 
+    /**
+     * Remove a batch of entities in one compaction pass: holes below the new count are
+     * filled from the surviving rows above it, each moved once.
+     */
+    public int removeRows(int[] entityIndices, int length) {
+        if (length == 0) return 0;
+
+        long stamp = lock.writeLock();
+        try {
+            int oldCount = count.get();
+            int[] holes = new int[length];
+            int removed = 0;
+
+            for (int i = 0; i < length; i++) {
+                int entityIndex = entityIndices[i];
+                if (entityIndex >= entityCapacity) continue;
+                int dense = getEntityIndex(entityIndex);
+                if (dense == INVALID_INDEX) continue;
+
+                preserveRows(dense, dense + 1);
+                setEntityMapping(entityIndex, INVALID_INDEX);
+                setIndexMapping(dense, INVALID_INDEX);
+                holes[removed++] = dense;
+            }
+            if (removed == 0) return 0;
+
+            int newCount = oldCount - removed;
+            Arrays.sort(holes, 0, removed);
+
+            int tail = oldCount - 1;
+            for (int h = 0; h < removed && holes[h] < newCount; h++) {
+                while (getIndexEntity(tail) == INVALID_INDEX) {
+                    tail--;
+                }
+                int hole = holes[h];
+                int movedEntity = getIndexEntity(tail);
+                preserveRows(tail, tail + 1);
+
+                MemorySegment.copy(
+                    data, (long) tail * componentSize,
+                    data, (long) hole * componentSize,
+                    componentSize
+                );
+                if (trackChanges) {
+                    stampRow(hole, changeVersions.getAtIndex(ValueLayout.JAVA_LONG, tail));
+                }
+
+                setEntityMapping(movedEntity, hole);
+                setIndexMapping(hole, movedEntity);
+                setIndexMapping(tail, INVALID_INDEX);
+                tail--;
+            }
+
+            count.set(newCount);
+            removeCount.add(removed);
+            gpuDirty.set(true);
+
+            return removed;
+
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
     /**
      * Clear all components.
      */
     public void clear() {
         long stamp = lock.writeLock();
         try {
-            fillSegment(entityToIndex, INVALID_INDEX);
+            preserveRows(0, capacity);
+            // Clear only populated entries so emptied pages return to the free list
+            for (int i = 0, n = count.get(); i < n; i++) {
+                setEntityMapping(getIndexEntity(i), INVALID_INDEX);
+            }
             fillSegment(indexToEntity, INVALID_INDEX);
+            if (trackChanges) {
+                blockVersions = new AtomicLongArray(blockVersions.length());
+            }
             count.set(0);
             version.incrementAndGet();
             gpuDirty.set(true);
@@ -562,6 +933,7 @@ public final class ComponentArray implements AutoCloseable {
             int index = getEntityIndex(entityIndex);
             if (index == INVALID_INDEX) return null;
 
+            preserveRows(index, index + 1);
             if (trackChanges) {
                 markChanged(entityIndex);
             }
@@ -575,18 +947,138 @@ public final class ComponentArray implements AutoCloseable {
     }
 
     /**
-     * Get raw data segment for batch processing.
+     * Get raw data segment for batch processing. Writes through it are not tracked.
      */
     public MemorySegment getRawData() {
         return data.asSlice(0, (long) count.get() * componentSize);
     }
 
     /**
-     * Get mutable data segment for batch updates.
+     * Get a read-only view of all rows. Does not stamp or preserve anything.
+     */
+    public MemorySegment getReadOnlyData() {
+        return getRawData().asReadOnly();
+    }
+
+    /**
+     * Get mutable data segment for a whole-column write: every row is stamped as changed.
+     * Use {@link #getMutableData(int, int)} when only some rows are written.
      */
     public MemorySegment getMutableData() {
-        gpuDirty.set(true);
-        return data.asSlice(0, (long) count.get() * componentSize);
+        return getMutableData(0, count.get());
+    }
+
+    /**
+     * Get mutable rows {@code [from, to)} for a batch update. Only these rows are preserved
+     * for frozen views and stamped as changed; offset 0 of the returned slice is row {@code from}.
+     */
+    public MemorySegment getMutableData(int from, int to) {
+        int n = count.get();
+        from = Math.max(0, from);
+        to = Math.min(to, n);
+        if (from >= to) return data.asSlice(0, 0);
+
+        long stamp = lock.readLock();
+        try {
+            preserveRows(from, to);
+            if (trackChanges) {
+                markRangeChanged(from, to);
+            }
+            gpuDirty.set(true);
+            dirtyRangeStart = Math.min(dirtyRangeStart, from);
+            dirtyRangeEnd = Math.max(dirtyRangeEnd, to);
+            return data.asSlice((long) from * componentSize, (long) (to - from) * componentSize);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Get dense index of entity, or -1 if absent.
+     */
+    public int getDenseIndex(int entityIndex) {
+        return getEntityIndex(entityIndex);
+    }
+
+    /**
+     * Get dense -> entity index column (int per dense slot).
+     */
+    public MemorySegment getDenseEntityIndices() {
+        return indexToEntity.asSlice(0, (long) count.get() * Integer.BYTES);
+    }
+
+    /**
+     * Permute dense storage so dense slot {@code i} holds entity {@code entityOrder[i]}.
+     *
+     * <p>Lets whole-column kernels walk several arrays of one archetype with a single index.
+     * Returns {@code false}, leaving storage untouched, if the entity sets differ.</p>
+     */
+    public boolean alignTo(MemorySegment entityOrder) {
+        // Already aligned is the common case: answer it without excluding readers
+        long readStamp = lock.readLock();
+        try {
+            int n = count.get();
+            if (entityOrder.byteSize() == (long) n * Integer.BYTES
+                    && indexToEntity.asSlice(0, (long) n * Integer.BYTES).mismatch(entityOrder) == -1) {
+                return true;
+            }
+        } finally {
+            lock.unlockRead(readStamp);
+        }
+
+        long stamp = lock.writeLock();
+        try {
+            int n = count.get();
+            if (entityOrder.byteSize() != (long) n * Integer.BYTES) return false;
+            MemorySegment current = indexToEntity.asSlice(0, (long) n * Integer.BYTES);
+            if (current.mismatch(entityOrder) == -1) return true;
+
+            int[] source = new int[n];
+            for (int i = 0; i < n; i++) {
+                source[i] = getEntityIndex(entityOrder.getAtIndex(ValueLayout.JAVA_INT, i));
+                if (source[i] == INVALID_INDEX) return false;
+            }
+            // Only rows that move are rewritten; preserve them run by run
+            for (int i = 0; i < n; ) {
+                if (source[i] == i) {
+                    i++;
+                    continue;
+                }
+                int runStart = i;
+                while (i < n && source[i] != i) i++;
+                preserveRows(runStart, i);
+            }
+
+            try (Arena scratch = Arena.ofConfined()) {
+                MemorySegment oldData = scratch.allocate((long) n * componentSize, alignment);
+                MemorySegment.copy(data, 0, oldData, 0, oldData.byteSize());
+                MemorySegment oldVersions = trackChanges
+                    ? scratch.allocate(ValueLayout.JAVA_LONG, n).copyFrom(changeVersions.asSlice(0, (long) n * Long.BYTES))
+                    : null;
+
+                for (int i = 0; i < n; i++) {
+                    int entityIndex = entityOrder.getAtIndex(ValueLayout.JAVA_INT, i);
+                    MemorySegment.copy(oldData, (long) source[i] * componentSize,
+                        data, (long) i * componentSize, componentSize);
+                    if (oldVersions != null) {
+                        changeVersions.setAtIndex(ValueLayout.JAVA_LONG, i,
+                            oldVersions.getAtIndex(ValueLayout.JAVA_LONG, source[i]));
+                    }
+                    setIndexMapping(i, entityIndex);
+                    setEntityMapping(entityIndex, i);
+                }
+            }
+            if (trackChanges) {
+                rebuildBlockVersions(n);
+            }
+
+            gpuDirty.set(true);
+            dirtyRangeStart = 0;
+            dirtyRangeEnd = n;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     /**
@@ -757,10 +1249,24 @@ public final class ComponentArray implements AutoCloseable {
     }
 
     /**
-     * Check if component has changed since version.
+     * Change clock this array stamps rows with (its World's clock).
+     */
+    public ChangeClock getChangeClock() {
+        return clock;
+    }
+
+    /**
+     * Check if any row changed after {@code sinceTick} (O(1)).
+     */
+    public boolean hasChangesSince(long sinceTick) {
+        return trackChanges && maxChangeTick.get() > sinceTick;
+    }
+
+    /**
+     * Check if component has changed since tick.
      */
     public boolean hasChangedSince(int entityIndex, long sinceVersion) {
-        if (!trackChanges || !has(entityIndex)) return false;
+        if (!trackChanges) return false;
 
         int index = getEntityIndex(entityIndex);
         if (index == INVALID_INDEX) return false;
@@ -770,36 +1276,401 @@ public final class ComponentArray implements AutoCloseable {
     }
 
     /**
-     * Get entities changed since version.
+     * Get entities changed since tick. Unchanged blocks are skipped without touching their rows.
      */
     public int[] getChangedEntities(long sinceVersion) {
-        if (!trackChanges) return new int[0];
+        if (!hasChangesSince(sinceVersion)) return new int[0];
+
+        IntStream.Builder builder = IntStream.builder();
+        forEachChanged(sinceVersion, builder::add);
+        return builder.build().toArray();
+    }
+
+    /**
+     * Visit entity indices changed since tick, skipping whole blocks whose max tick is older.
+     */
+    public void forEachChanged(long sinceTick, IntConsumer consumer) {
+        if (!hasChangesSince(sinceTick)) return;
 
         long stamp = lock.readLock();
         try {
             int currentCount = count.get();
-            IntStream.Builder builder = IntStream.builder();
-
-            for (int i = 0; i < currentCount; i++) {
-                long componentVersion = changeVersions.getAtIndex(ValueLayout.JAVA_LONG, i);
-                if (componentVersion > sinceVersion) {
-                    builder.add(getIndexEntity(i));
+            AtomicLongArray blocks = blockVersions;
+            for (int b = 0, n = changeBlocks(currentCount); b < n; b++) {
+                if (blocks.get(b) <= sinceTick) continue;
+
+                int end = Math.min(currentCount, (b + 1) << CHANGE_BLOCK_SHIFT);
+                for (int i = b << CHANGE_BLOCK_SHIFT; i < end; i++) {
+                    if (changeVersions.getAtIndex(ValueLayout.JAVA_LONG, i) > sinceTick) {
+                        consumer.accept(getIndexEntity(i));
+                    }
                 }
             }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
 
-            return builder.build().toArray();
+    /**
+     * Visit dense row ranges {@code [from, to)} of blocks changed since tick (e.g. for partial
+     * uploads). Ranges are block-granular and may include unchanged rows.
+     */
+    public void forEachChangedBlock(long sinceTick, RangeConsumer consumer) {
+        if (!hasChangesSince(sinceTick)) return;
+
+        long stamp = lock.readLock();
+        try {
+            int currentCount = count.get();
+            AtomicLongArray blocks = blockVersions;
+            int runStart = -1;
+            int n = changeBlocks(currentCount);
+            for (int b = 0; b <= n; b++) {
+                boolean changed = b < n && blocks.get(b) > sinceTick;
+                if (changed && runStart < 0) {
+                    runStart = b;
+                } else if (!changed && runStart >= 0) {
+                    consumer.accept(runStart << CHANGE_BLOCK_SHIFT,
+                        Math.min(currentCount, b << CHANGE_BLOCK_SHIFT));
+                    runStart = -1;
+                }
+            }
         } finally {
             lock.unlockRead(stamp);
         }
     }
 
+    /**
+     * Consumer of a dense row range.
+     */
+    @FunctionalInterface
+    public interface RangeConsumer {
+        void accept(int from, int to);
+    }
+
+    /** Caller holds the lock (read or write). */
+    private void stampRow(int index, long tick) {
+        changeVersions.setAtIndex(ValueLayout.JAVA_LONG, index, tick);
+        raiseBlock(index >>> CHANGE_BLOCK_SHIFT, tick);
+        raiseMax(tick);
+    }
+
+    /** Caller holds the lock (read or write). */
+    private void markRangeChanged(int from, int to) {
+        if (from >= to) return;
+        version.incrementAndGet();
+        long tick = clock.current();
+        for (int i = from; i < to; i++) {
+            changeVersions.setAtIndex(ValueLayout.JAVA_LONG, i, tick);
+        }
+        for (int b = from >>> CHANGE_BLOCK_SHIFT, last = (to - 1) >>> CHANGE_BLOCK_SHIFT; b <= last; b++) {
+            raiseBlock(b, tick);
+        }
+        raiseMax(tick);
+    }
+
+    private void raiseBlock(int block, long tick) {
+        AtomicLongArray blocks = blockVersions;
+        long current = blocks.get(block);
+        while (current < tick && !blocks.compareAndSet(block, current, tick)) {
+            current = blocks.get(block);
+        }
+    }
+
+    private void raiseMax(long tick) {
+        long current = maxChangeTick.get();
+        while (current < tick && !maxChangeTick.compareAndSet(current, tick)) {
+            current = maxChangeTick.get();
+        }
+    }
+
+    /** Caller holds the write lock. */
+    private void rebuildBlockVersions(int rows) {
+        AtomicLongArray blocks = new AtomicLongArray(blockVersions.length());
+        for (int i = 0; i < rows; i++) {
+            int block = i >>> CHANGE_BLOCK_SHIFT;
+            blocks.set(block, Math.max(blocks.get(block),
+                changeVersions.getAtIndex(ValueLayout.JAVA_LONG, i)));
+        }
+        blockVersions = blocks;
+    }
+
     private void markChanged(int entityIndex) {
         if (!trackChanges) return;
 
         int index = getEntityIndex(entityIndex);
         if (index != INVALID_INDEX) {
-            long newVersion = version.incrementAndGet();
-            changeVersions.setAtIndex(ValueLayout.JAVA_LONG, index, newVersion);
+            version.incrementAndGet();
+            stampRow(index, clock.current());
+        }
+    }
+
+    // ========================================================================
+    // COPY-ON-WRITE SNAPSHOTS
+    // ========================================================================
+
+    /**
+     * Freeze the current contents as a copy-on-write view.
+     *
+     * <p>Capture is O(1): the view records the live segments and row count. Afterwards the
+     * first write to each change block copies that block's pre-image into the view, so memory
+     * grows only with the blocks that actually change. Writes must go through this class
+     * ({@link #getMutable}, {@link #getMutableData(int, int)}, add/remove) to be seen; slices
+     * obtained before the freeze are not tracked. Writers that touch a few rows should ask for
+     * just those rows, or every block they are handed is copied.</p>
+     */
+    public Frozen freeze() {
+        long stamp = lock.writeLock();
+        try {
+            Frozen view = new Frozen(this, data, indexToEntity, count.get(), version.get());
+            Frozen[] current = frozen;
+            Frozen[] next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = view;
+            frozen = next;
+            return view;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Roll storage back to a frozen view of this array.
+     *
+     * <p>Only blocks that changed since the capture are copied back unless storage was
+     * reallocated in between. Rows are stamped as changed at the current tick.</p>
+     */
+    public void restore(Frozen snapshot) {
+        if (snapshot.owner != this) {
+            throw new IllegalArgumentException("Snapshot belongs to a different ComponentArray");
+        }
+        if (snapshot.closed) {
+            throw new IllegalStateException("Snapshot has been closed");
+        }
+
+        int rows = snapshot.rows;
+        ensureCapacity(rows);
+
+        long stamp = lock.writeLock();
+        try {
+            int n = count.get();
+            for (Frozen other : frozen) {
+                if (other != snapshot) {
+                    other.preserve(data, 0, Math.max(n, rows));
+                }
+            }
+
+            for (int i = 0; i < n; i++) {
+                setEntityMapping(getIndexEntity(i), INVALID_INDEX);
+            }
+            fillSegmentRange(indexToEntity, rows, n, INVALID_INDEX);
+
+            boolean sameStorage = snapshot.data == data;
+            try (Arena scratch = Arena.ofConfined()) {
+                MemorySegment buffer = scratch.allocate(snapshot.blockBytes, Long.BYTES);
+                for (int b = 0, blocks = changeBlocks(rows); b < blocks; b++) {
+                    int first = b << CHANGE_BLOCK_SHIFT;
+                    int length = Math.min(CHANGE_BLOCK_SIZE, rows - first);
+
+                    // Untouched blocks of unmoved storage already hold the captured bytes
+                    if (!sameStorage || snapshot.saved.get(b) != null) {
+                        MemorySegment block = snapshot.readBlock(b, buffer);
+                        MemorySegment.copy(block, 0, indexToEntity, (long) first * Integer.BYTES,
+                            (long) length * Integer.BYTES);
+                        MemorySegment.copy(block, Frozen.IDS_BYTES, data, (long) first * componentSize,
+                            (long) length * componentSize);
+                    }
+                    // Entity capacity only grows, so every captured index still fits
+                    for (int i = first; i < first + length; i++) {
+                        setEntityMapping(getIndexEntity(i), i);
+                    }
+                }
+            }
+
+            count.set(rows);
+            if (trackChanges && rows > 0) {
+                markRangeChanged(0, rows);
+            } else {
+                version.incrementAndGet();
+            }
+            gpuDirty.set(true);
+            dirtyRangeStart = 0;
+            dirtyRangeEnd = rows;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Number of frozen views still collecting pre-images.
+     */
+    public int getFrozenCount() {
+        return frozen.length;
+    }
+
+    private void release(Frozen view) {
+        long stamp = lock.writeLock();
+        try {
+            Frozen[] current = frozen;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == view) {
+                    Frozen[] next = new Frozen[current.length - 1];
+                    System.arraycopy(current, 0, next, 0, i);
+                    System.arraycopy(current, i + 1, next, i, current.length - i - 1);
+                    frozen = next.length == 0 ? NO_FROZEN : next;
+                    return;
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Save pre-images of rows {@code [from, to)} into every live frozen view. Caller holds the
+     * lock (read or write) and must call this before touching those rows.
+     */
+    private void preserveRows(int from, int to) {
+        Frozen[] active = frozen;
+        if (active.length == 0) return;
+        for (Frozen view : active) {
+            view.preserve(data, from, to);
+        }
+    }
+
+    /**
+     * Consumer of one frozen change block.
+     */
+    @FunctionalInterface
+    public interface BlockConsumer {
+        void accept(int firstRow, int rows, MemorySegment entityIndices, MemorySegment data);
+    }
+
+    /**
+     * Copy-on-write view of a {@link ComponentArray} as of {@link ComponentArray#freeze()}.
+     *
+     * <p>Blocks nobody wrote since the capture are read straight from the captured segment,
+     * with a seqlock-style recheck so a concurrent first write is never observed half-done.
+     * Written blocks are read from their saved pre-image. Readers never take the array lock,
+     * so a save or analytics thread can iterate while the main thread keeps ticking.</p>
+     *
+     * <p>Close the view when done; until then every first write per block pays one copy.</p>
+     */
+    public static final class Frozen implements AutoCloseable {
+        /** Saved block layout: entity indices, then row data */
+        private static final long IDS_BYTES = (long) CHANGE_BLOCK_SIZE * Integer.BYTES;
+
+        private final ComponentArray owner;
+        private final MemorySegment data;
+        private final MemorySegment ids;
+        private final int rows;
+        private final long version;
+        private final int componentSize;
+        private final long blockBytes;
+        private final AtomicReferenceArray<MemorySegment> saved;
+        private final Arena savedArena = Arena.ofAuto();
+        private final AtomicInteger savedBlocks = new AtomicInteger();
+        private volatile boolean closed;
+
+        private Frozen(ComponentArray owner, MemorySegment data, MemorySegment ids, int rows, long version) {
+            this.owner = owner;
+            this.data = data;
+            this.ids = ids;
+            this.rows = rows;
+            this.version = version;
+            this.componentSize = owner.componentSize;
+            this.blockBytes = IDS_BYTES + (long) CHANGE_BLOCK_SIZE * componentSize;
+            this.saved = new AtomicReferenceArray<>(changeBlocks(rows));
+        }
+
+        /** Rows captured. */
+        public int size() { return rows; }
+
+        /** Array version at capture. */
+        public long version() { return version; }
+
+        public int componentSize() { return componentSize; }
+
+        public ComponentRegistry.ComponentType type() { return owner.type; }
+
+        /** Blocks copied so far because a writer touched them. */
+        public int savedBlocks() { return savedBlocks.get(); }
+
+        /** Bytes held by saved pre-images. */
+        public long savedBytes() { return savedBlocks.get() * blockBytes; }
+
+        public boolean isClosed() { return closed; }
+
+        /**
+         * Visit every captured block. Segments passed to the consumer are only valid during the call.
+         */
+        public void forEachBlock(BlockConsumer consumer) {
+            try (Arena scratch = Arena.ofConfined()) {
+                MemorySegment buffer = scratch.allocate(blockBytes, Long.BYTES);
+                for (int b = 0, blocks = saved.length(); b < blocks; b++) {
+                    int first = b << CHANGE_BLOCK_SHIFT;
+                    int length = Math.min(CHANGE_BLOCK_SIZE, rows - first);
+                    MemorySegment block = readBlock(b, buffer);
+                    consumer.accept(first, length,
+                        block.asSlice(0, (long) length * Integer.BYTES),
+                        block.asSlice(IDS_BYTES, (long) length * componentSize));
+                }
+            }
+        }
+
+        /**
+         * Visit every captured row with its entity index.
+         */
+        public void forEach(BiConsumer<Integer, MemorySegment> consumer) {
+            forEachBlock((firstRow, length, entityIndices, rowData) -> {
+                for (int i = 0; i < length; i++) {
+                    consumer.accept(entityIndices.getAtIndex(ValueLayout.JAVA_INT, i),
+                        rowData.asSlice((long) i * componentSize, componentSize));
+                }
+            });
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                owner.release(this);
+            }
+        }
+
+        private void preserve(MemorySegment liveData, int from, int to) {
+            // After a reallocation the captured segments are no longer written
+            if (liveData != data) return;
+            to = Math.min(to, rows);
+            if (from >= to) return;
+
+            for (int b = from >>> CHANGE_BLOCK_SHIFT, last = (to - 1) >>> CHANGE_BLOCK_SHIFT; b <= last; b++) {
+                if (saved.get(b) != null) continue;
+
+                int first = b << CHANGE_BLOCK_SHIFT;
+                int length = Math.min(CHANGE_BLOCK_SIZE, rows - first);
+                MemorySegment copy = savedArena.allocate(blockBytes, Long.BYTES);
+                MemorySegment.copy(ids, (long) first * Integer.BYTES, copy, 0, (long) length * Integer.BYTES);
+                MemorySegment.copy(data, (long) first * componentSize, copy, IDS_BYTES, (long) length * componentSize);
+                if (saved.compareAndSet(b, null, copy)) {
+                    savedBlocks.incrementAndGet();
+                }
+            }
+            // Publish the pre-image before the caller's writes become visible
+            VarHandle.storeStoreFence();
+        }
+
+        private MemorySegment readBlock(int b, MemorySegment scratch) {
+            MemorySegment copy = saved.get(b);
+            if (copy != null) return copy;
+
+            int first = b << CHANGE_BLOCK_SHIFT;
+            int length = Math.min(CHANGE_BLOCK_SIZE, rows - first);
+            MemorySegment.copy(ids, (long) first * Integer.BYTES, scratch, 0, (long) length * Integer.BYTES);
+            MemorySegment.copy(data, (long) first * componentSize, scratch, IDS_BYTES, (long) length * componentSize);
+
+            // A writer that raced the copy saved the pre-image first; prefer it
+            VarHandle.loadLoadFence();
+            copy = saved.get(b);
+            return copy != null ? copy : scratch;
         }
     }
 
@@ -942,6 +1813,20 @@ public final class ComponentArray implements AutoCloseable {
         return (long) capacity * componentSize;
     }
 
+    /**
+     * Get bytes held by the sparse map (allocated pages plus directory).
+     */
+    public long getSparseSize() {
+        return allocatedPages * SPARSE_PAGE_BYTES + (long) sparsePages.length * (Long.BYTES + Integer.BYTES);
+    }
+
+    /**
+     * Get bytes a flat entity-indexed map would need for the highest entity seen.
+     */
+    public long getFlatSparseSize() {
+        return (long) (maxEntityIndex + 1) * Integer.BYTES;
+    }
+
     /**
      * Get memory efficiency (used/allocated ratio).
      */
@@ -972,6 +1857,9 @@ public final class ComponentArray implements AutoCloseable {
             componentSize,
             getDataSize(),
             getAllocatedSize(),
+            allocatedPages,
+            getSparseSize(),
+            getFlatSparseSize(),
             addCount.sum(),
             removeCount.sum(),
             updateCount.sum(),
@@ -988,6 +1876,9 @@ public final class ComponentArray implements AutoCloseable {
         int componentSize,
         long dataSize,
         long allocatedSize,
+        int sparsePages,
+        long sparseBytes,
+        long flatSparseBytes,
         long adds,
         long removes,
         long updates,
@@ -997,6 +1888,13 @@ public final class ComponentArray implements AutoCloseable {
         public float efficiency() {
             return allocatedSize > 0 ? (float) dataSize / allocatedSize : 0f;
         }
+
+        /**
+         * Paged sparse map size relative to a flat map covering the same entity range.
+         */
+        public float sparseRatio() {
+            return flatSparseBytes > 0 ? (float) sparseBytes / flatSparseBytes : 0f;
+        }
     }
 
     // ========================================================================
@@ -1004,12 +1902,48 @@ public final class ComponentArray implements AutoCloseable {
     // ========================================================================
 
     private int getEntityIndex(int entityIndex) {
-        if (entityIndex < 0 || entityIndex >= entityCapacity) return INVALID_INDEX;
-        return entityToIndex.getAtIndex(ValueLayout.JAVA_INT, entityIndex);
+        if (entityIndex < 0) return INVALID_INDEX;
+        MemorySegment[] pages = sparsePages;
+        int page = entityIndex >>> SPARSE_PAGE_SHIFT;
+        if (page >= pages.length) return INVALID_INDEX;
+        // Stored as dense + 1 so the zero page reads as INVALID_INDEX
+        return pages[page].getAtIndex(ValueLayout.JAVA_INT, entityIndex & SPARSE_PAGE_MASK) - 1;
     }
 
     private void setEntityMapping(int entityIndex, int denseIndex) {
-        entityToIndex.setAtIndex(ValueLayout.JAVA_INT, entityIndex, denseIndex);
+        int page = entityIndex >>> SPARSE_PAGE_SHIFT;
+        int slot = entityIndex & SPARSE_PAGE_MASK;
+        MemorySegment[] pages = sparsePages;
+
+        if (denseIndex == INVALID_INDEX) {
+            if (page >= pages.length) return;
+            MemorySegment segment = pages[page];
+            if (segment == ZERO_PAGE || segment.getAtIndex(ValueLayout.JAVA_INT, slot) == 0) return;
+            segment.setAtIndex(ValueLayout.JAVA_INT, slot, 0);
+            if (--pageOccupancy[page] == 0) {
+                // Page is all zero again: share the zero page and recycle this one
+                pages[page] = ZERO_PAGE;
+                freePages.push(segment);
+                allocatedPages--;
+            }
+            return;
+        }
+
+        MemorySegment segment = pages[page];
+        if (segment == ZERO_PAGE) {
+            segment = freePages.isEmpty()
+                ? arena.allocate(SPARSE_PAGE_BYTES, SPARSE_PAGE_BYTES)
+                : freePages.pop();
+            pages[page] = segment;
+            allocatedPages++;
+        }
+        if (segment.getAtIndex(ValueLayout.JAVA_INT, slot) == 0) {
+            pageOccupancy[page]++;
+        }
+        segment.setAtIndex(ValueLayout.JAVA_INT, slot, denseIndex + 1);
+        if (entityIndex > maxEntityIndex) {
+            maxEntityIndex = entityIndex;
+        }
     }
 
     private int getIndexEntity(int denseIndex) {
@@ -1088,6 +2022,7 @@ public final class ComponentArray implements AutoCloseable {
               Data Size: %d bytes
               Allocated: %d bytes
               Efficiency: %.1f%%
+              Sparse: %d pages, %d bytes (flat: %d bytes)
               Operations: +%d -%d ~%d
               Resizes: %d
               Version: %d
@@ -1100,6 +2035,7 @@ public final class ComponentArray implements AutoCloseable {
             stats.dataSize(),
             stats.allocatedSize(),
             stats.efficiency() * 100,
+            stats.sparsePages(), stats.sparseBytes(), stats.flatSparseBytes(),
             stats.adds(), stats.removes(), stats.updates(),
             stats.resizes(),
             stats.version(),
@@ -1,6 +1,7 @@
 package stellar.snow.astralis.engine.ecs.storage;
 
 import stellar.snow.astralis.Astralis;
+import stellar.snow.astralis.engine.ecs.core.ComponentSignature;
 
 import java.lang.annotation.*;
 import java.lang.invoke.MethodHandles;
@@ -49,11 +50,16 @@ public final class ComponentRegistry {
     // CONSTANTS
     // ========================================================================
 
-    /** Maximum supported component types (limited by 64-bit mask) */
+    /** Component types addressable by legacy 64-bit masks */
     public static final int MAX_COMPONENT_TYPES = 64;
 
-    /** Extended component types (beyond mask-based queries) */
-    public static final int MAX_EXTENDED_TYPES = 256;
+    /**
+     * Maximum registered component types (queried via {@link ComponentSignature}). Signatures
+     * themselves have no width limit; this caps the registry, whose id-to-type table is a
+     * fixed array so lookups stay lock-free. Registering more throws
+     * {@link ComponentLimitExceededException}.
+     */
+    public static final int MAX_EXTENDED_TYPES = 4096;
 
     /** Cache line size for alignment optimization */
     private static final int CACHE_LINE_SIZE = 64;
@@ -572,6 +578,25 @@ public final class ComponentRegistry {
         return register(clazz);
     }
 
+    /**
+     * Register or get several types, registering the new ones in class-name order.
+     *
+     * <p>Ids are handed out in registration order, so registering a set of types this way
+     * gives them the same ids on every run, whatever order they were discovered or requested
+     * in (classpath scans, mods, several worlds).</p>
+     *
+     * @return the types, in class-name order
+     */
+    public List<ComponentType> registerAll(Collection<? extends Class<?>> classes) {
+        List<Class<?>> sorted = new ArrayList<>(new HashSet<>(classes));
+        sorted.sort(Comparator.comparing(Class::getName));
+        List<ComponentType> types = new ArrayList<>(sorted.size());
+        for (Class<?> clazz : sorted) {
+            types.add(registerOrGet(clazz));
+        }
+        return types;
+    }
+
     /**
      * Internal registration implementation.
      */
@@ -740,6 +765,38 @@ public final class ComponentRegistry {
         return mask;
     }
 
+    /**
+     * Get component signature for multiple types (no 64-type limit).
+     */
+    public ComponentSignature computeSignature(Class<?>... classes) {
+        int[] typeIds = new int[classes.length];
+        for (int i = 0; i < classes.length; i++) {
+            typeIds[i] = getType(classes[i]).id;
+        }
+        return ComponentSignature.of(typeIds);
+    }
+
+    /**
+     * Get component signature for collection of types.
+     */
+    public ComponentSignature computeSignature(Collection<Class<?>> classes) {
+        return computeSignature(classes.toArray(Class<?>[]::new));
+    }
+
+    /**
+     * Get classes from signature.
+     */
+    public List<Class<?>> getClassesFromSignature(ComponentSignature signature) {
+        List<Class<?>> result = new ArrayList<>(signature.cardinality());
+        signature.forEachTypeId(id -> {
+            ComponentType type = id < MAX_EXTENDED_TYPES ? typesById.get(id) : null;
+            if (type != null) {
+                result.add(type.clazz);
+            }
+        });
+        return result;
+    }
+
     /**
      * Get classes from mask.
      */
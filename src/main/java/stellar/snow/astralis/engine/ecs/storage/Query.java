@@ -1,5 +1,9 @@
 package stellar.snow.astralis.engine.ecs.storage;
 
+import stellar.snow.astralis.engine.ecs.core.ComponentSignature;
+import stellar.snow.astralis.engine.ecs.core.EntityColumn;
+import stellar.snow.astralis.engine.ecs.core.SnowySystem;
+
 import java.lang.foreign.MemorySegment;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -61,15 +65,17 @@ public final class Query {
     private final World world;
     private final ComponentRegistry registry;
     
-    private long requiredMask = 0;
-    private long excludedMask = 0;
-    private long optionalMask = 0;
-    private long changedMask = 0;  // Components that must have changed
+    private ComponentSignature requiredSignature = ComponentSignature.EMPTY;
+    private ComponentSignature excludedSignature = ComponentSignature.EMPTY;
+    private ComponentSignature optionalSignature = ComponentSignature.EMPTY;
+    private ComponentSignature changedSignature = ComponentSignature.EMPTY;  // Components that must have changed
     
     private final List<Class<?>> requiredTypes = new ArrayList<>();
     private final List<Class<?>> optionalTypes = new ArrayList<>();
+    private final Set<Class<?>> writtenTypes = new HashSet<>();  // Bound writable by compile()
     
     private Predicate<Entity> entityFilter = e -> true;
+    private boolean hasEntityFilter = false;
     private Predicate<Archetype> archetypeFilter = a -> true;
     private long changedSinceVersion = -1;
     
@@ -122,7 +128,7 @@ public final class Query {
      */
     public Query with(Class<?> componentClass) {
         ComponentRegistry.ComponentType type = registry.getType(componentClass);
-        requiredMask |= (1L << type.id);
+        requiredSignature = requiredSignature.with(type.id);
         requiredTypes.add(componentClass);
         invalidateCache();
         return this;
@@ -139,12 +145,35 @@ public final class Query {
         return this;
     }
 
+    /**
+     * Require a component that compiled kernels write. Required components not declared here
+     * are bound read-only by {@link #compile()}, so reading them never stamps rows as changed.
+     */
+    public Query writes(Class<?> componentClass) {
+        if (!requiredTypes.contains(componentClass)) {
+            with(componentClass);
+        }
+        writtenTypes.add(componentClass);
+        return this;
+    }
+
+    /**
+     * Require multiple written component types.
+     */
+    @SafeVarargs
+    public final Query writes(Class<?>... componentClasses) {
+        for (Class<?> clazz : componentClasses) {
+            writes(clazz);
+        }
+        return this;
+    }
+
     /**
      * Exclude entities with a component type.
      */
     public Query without(Class<?> componentClass) {
         ComponentRegistry.ComponentType type = registry.getType(componentClass);
-        excludedMask |= (1L << type.id);
+        excludedSignature = excludedSignature.with(type.id);
         invalidateCache();
         return this;
     }
@@ -165,7 +194,7 @@ public final class Query {
      */
     public Query optional(Class<?> componentClass) {
         ComponentRegistry.ComponentType type = registry.getType(componentClass);
-        optionalMask |= (1L << type.id);
+        optionalSignature = optionalSignature.with(type.id);
         optionalTypes.add(componentClass);
         return this;
     }
@@ -182,27 +211,37 @@ public final class Query {
     }
 
     /**
-     * Only include entities where component has changed.
+     * Only include entities where component has changed (all {@code changed} types must have).
+     * Without {@link #changedSince(long)}, any change ever recorded counts.
      */
     public Query changed(Class<?> componentClass) {
         ComponentRegistry.ComponentType type = registry.getType(componentClass);
-        changedMask |= (1L << type.id);
+        changedSignature = changedSignature.with(type.id);
         return this;
     }
 
     /**
-     * Only include entities changed since version.
+     * Only include entities changed after change tick {@code version}. Without
+     * {@link #changed(Class)}, an entity passes if any required component changed.
      */
     public Query changedSince(long version) {
         this.changedSinceVersion = version;
         return this;
     }
 
+    /**
+     * Only include entities changed since the system last ran.
+     */
+    public Query changedSinceLastRun(SnowySystem system) {
+        return changedSince(system.getLastRunTick());
+    }
+
     /**
      * Add entity filter predicate.
      */
     public Query filter(Predicate<Entity> predicate) {
         this.entityFilter = entityFilter.and(predicate);
+        this.hasEntityFilter = true;
         return this;
     }
 
@@ -223,6 +262,22 @@ public final class Query {
         return this;
     }
 
+    /**
+     * Compile into a reusable column kernel over the required components.
+     *
+     * <p>Entity filters cannot be applied per row by a kernel, so they are rejected here.
+     * Only components declared with {@link #writes(Class)} get writable columns.</p>
+     */
+    public CompiledQuery compile() {
+        if (hasEntityFilter) {
+            throw new IllegalStateException("Compiled queries do not support entity filters");
+        }
+        if (requiredTypes.isEmpty()) {
+            throw new IllegalStateException("Compiled queries need at least one required component");
+        }
+        return new CompiledQuery(this, List.copyOf(requiredTypes), Set.copyOf(writtenTypes));
+    }
+
     /**
      * Enable parallel execution.
      */
@@ -261,7 +316,7 @@ public final class Query {
             return cachedArchetypes;
         }
 
-        List<Archetype> result = world.queryArchetypes(requiredMask, excludedMask, optionalMask)
+        List<Archetype> result = world.queryArchetypes(requiredSignature, excludedSignature, optionalSignature)
             .stream()
             .filter(archetypeFilter)
             .toList();
@@ -294,8 +349,12 @@ public final class Query {
 
     private void forEachSequential(Consumer<Entity> consumer) {
         for (Archetype archetype : archetypes()) {
+            if (hasChangeFilter()) {
+                forEachChanged(archetype, consumer);
+                continue;
+            }
             archetype.forEachEntity(entity -> {
-                if (matchesFilters(entity)) {
+                if (matchesFilters(archetype, entity)) {
                     consumer.accept(entity);
                 }
             });
@@ -303,23 +362,83 @@ public final class Query {
     }
 
     private void forEachParallel(Consumer<Entity> consumer) {
-        archetypes().parallelStream().forEach(archetype ->
+        archetypes().parallelStream().forEach(archetype -> {
+            if (hasChangeFilter()) {
+                forEachChanged(archetype, consumer);
+                return;
+            }
             archetype.forEachEntity(entity -> {
-                if (matchesFilters(entity)) {
+                if (matchesFilters(archetype, entity)) {
                     consumer.accept(entity);
                 }
-            })
-        );
+            });
+        });
+    }
+
+    /**
+     * Change-filtered iteration: archetypes and row blocks with nothing newer than the
+     * since-tick are skipped, so cost follows the number of changed entities.
+     */
+    private void forEachChanged(Archetype archetype, Consumer<Entity> consumer) {
+        long since = sinceTick();
+        int[] types = changeTypes().typeIds();
+        boolean requireAll = !changedSignature.isEmpty();
+
+        if (requireAll || types.length == 1) {
+            // Drive from one changed column; remaining types are checked per entity
+            if (requireAll) {
+                for (int typeId : types) {
+                    if (!archetype.hasChangesSince(typeId, since)) return;
+                }
+            }
+            archetype.forEachChangedEntity(types[0], since, entity -> {
+                if (matchesFilters(archetype, entity)) {
+                    consumer.accept(entity);
+                }
+            });
+            return;
+        }
+
+        // Any-of: union of changed columns, each entity visited once
+        BitSet seen = new BitSet();
+        for (int typeId : types) {
+            archetype.forEachChangedEntity(typeId, since, entity -> {
+                if (!seen.get(entity.index())) {
+                    seen.set(entity.index());
+                    if (world.isValid(entity) && entityFilter.test(entity)) {
+                        consumer.accept(entity);
+                    }
+                }
+            });
+        }
+    }
+
+    private boolean hasChangeFilter() {
+        return changedSinceVersion >= 0 || !changedSignature.isEmpty();
+    }
+
+    private long sinceTick() {
+        return Math.max(changedSinceVersion, 0L);
     }
 
-    private boolean matchesFilters(Entity entity) {
+    private ComponentSignature changeTypes() {
+        return changedSignature.isEmpty() ? requiredSignature : changedSignature;
+    }
+
+    private boolean matchesFilters(Archetype archetype, Entity entity) {
         if (!world.isValid(entity)) return false;
         if (!entityFilter.test(entity)) return false;
         
         // Change detection filter
-        if (changedSinceVersion >= 0) {
-            // Would need archetype support for version tracking
-            // For now, pass all
+        if (hasChangeFilter()) {
+            long since = sinceTick();
+            boolean requireAll = !changedSignature.isEmpty();
+            for (int typeId : changeTypes().typeIds()) {
+                boolean changed = archetype.hasComponentChangedSince(entity.index(), typeId, since);
+                if (requireAll && !changed) return false;
+                if (!requireAll && changed) return true;
+            }
+            return requireAll;
         }
         
         return true;
@@ -335,7 +454,7 @@ public final class Query {
     public void forEach(BiConsumer<Entity, ComponentView> consumer) {
         for (Archetype archetype : archetypes()) {
             archetype.forEachEntity(entity -> {
-                if (matchesFilters(entity)) {
+                if (matchesFilters(archetype, entity)) {
                     ComponentView view = new ComponentView(archetype, entity);
                     consumer.accept(entity, view);
                 }
@@ -353,7 +472,7 @@ public final class Query {
             if (!archetype.hasComponent(type.id)) continue;
 
             archetype.forEachEntity(entity -> {
-                if (matchesFilters(entity)) {
+                if (matchesFilters(archetype, entity)) {
                     ByteBuffer data = archetype.getComponent(entity.index(), type.id);
                     if (data != null) {
                         consumer.accept(entity, data);
@@ -377,7 +496,7 @@ public final class Query {
             if (!archetype.hasComponent(ct1.id) || !archetype.hasComponent(ct2.id)) continue;
 
             archetype.forEachEntity(entity -> {
-                if (matchesFilters(entity)) {
+                if (matchesFilters(archetype, entity)) {
                     ByteBuffer data1 = archetype.getComponent(entity.index(), ct1.id);
                     ByteBuffer data2 = archetype.getComponent(entity.index(), ct2.id);
                     if (data1 != null && data2 != null) {
@@ -405,7 +524,7 @@ public final class Query {
                 !archetype.hasComponent(ct3.id)) continue;
 
             archetype.forEachEntity(entity -> {
-                if (matchesFilters(entity)) {
+                if (matchesFilters(archetype, entity)) {
                     ByteBuffer d1 = archetype.getComponent(entity.index(), ct1.id);
                     ByteBuffer d2 = archetype.getComponent(entity.index(), ct2.id);
                     ByteBuffer d3 = archetype.getComponent(entity.index(), ct3.id);
@@ -441,7 +560,7 @@ public final class Query {
     public void forEachArchetype(BiConsumer<Archetype, Stream<Entity>> consumer) {
         for (Archetype archetype : archetypes()) {
             Stream<Entity> entityStream = archetype.entityStream()
-                .filter(this::matchesFilters);
+                .filter(entity -> matchesFilters(archetype, entity));
             consumer.accept(archetype, entityStream);
         }
     }
@@ -455,8 +574,8 @@ public final class Query {
      */
     public Stream<Entity> stream() {
         Stream<Entity> stream = archetypes().stream()
-            .flatMap(Archetype::entityStream)
-            .filter(this::matchesFilters);
+            .flatMap(archetype -> archetype.entityStream()
+                .filter(entity -> matchesFilters(archetype, entity)));
         
         return parallel ? stream.parallel() : stream;
     }
@@ -467,7 +586,7 @@ public final class Query {
     public Stream<QueryResult> streamResults() {
         return archetypes().stream()
             .flatMap(archetype -> archetype.entityStream()
-                .filter(this::matchesFilters)
+                .filter(entity -> matchesFilters(archetype, entity))
                 .map(entity -> new QueryResult(entity, archetype)));
     }
 
@@ -490,7 +609,7 @@ public final class Query {
 
         for (Archetype archetype : archetypes()) {
             archetype.forEachEntity(entity -> {
-                if (matchesFilters(entity)) {
+                if (matchesFilters(archetype, entity)) {
                     batch.add(entity);
                     if (batch.size() >= batchSize) {
                         batchConsumer.accept(new ArrayList<>(batch));
@@ -508,10 +627,31 @@ public final class Query {
 
     /**
      * Process batches in parallel.
+     *
+     * <p>Without an entity filter, each batch is a zero-copy view over a pinned block of one
+     * archetype's entity column (split at {@code batchSize}), so workers never share a batch
+     * across archetype boundaries. Batches are only valid inside the consumer.</p>
      */
     public void forEachBatchParallel(Consumer<List<Entity>> batchConsumer) {
-        List<List<Entity>> batches = collectBatches();
-        batches.parallelStream().forEach(batchConsumer);
+        if (hasEntityFilter) {
+            collectBatches().parallelStream().forEach(batchConsumer);
+            return;
+        }
+
+        List<EntityColumn.Block> pinned = new ArrayList<>();
+        try {
+            List<List<Entity>> blocks = new ArrayList<>();
+            for (Archetype archetype : archetypes()) {
+                EntityColumn.Block block = archetype.pinEntities();
+                pinned.add(block);
+                for (int start = 0, size = block.size(); start < size; start += batchSize) {
+                    blocks.add(block.asList(start, Math.min(start + batchSize, size)));
+                }
+            }
+            blocks.parallelStream().forEach(batchConsumer);
+        } finally {
+            pinned.forEach(EntityColumn.Block::close);
+        }
     }
 
     private List<List<Entity>> collectBatches() {
@@ -520,7 +660,7 @@ public final class Query {
 
         for (Archetype archetype : archetypes()) {
             for (Entity entity : archetype.getEntities()) {
-                if (matchesFilters(entity)) {
+                if (matchesFilters(archetype, entity)) {
                     currentBatch.add(entity);
                     if (currentBatch.size() >= batchSize) {
                         batches.add(currentBatch);
@@ -637,7 +777,7 @@ public final class Query {
             if (!archetype.hasComponent(type.id)) continue;
 
             archetype.forEachEntity(entity -> {
-                if (matchesFilters(entity)) {
+                if (matchesFilters(archetype, entity)) {
                     ByteBuffer data = archetype.getComponent(entity.index(), type.id);
                     if (data != null) {
                         result.updateAndGet(r -> accumulator.apply(r, data));
@@ -660,7 +800,7 @@ public final class Query {
             if (!archetype.hasComponent(type.id)) continue;
 
             archetype.forEachEntity(entity -> {
-                if (matchesFilters(entity)) {
+                if (matchesFilters(archetype, entity)) {
                     ByteBuffer data = archetype.getComponent(entity.index(), type.id);
                     if (data != null && data.remaining() > offset + 4) {
                         sum.add(data.getFloat(offset));
@@ -799,16 +939,16 @@ public final class Query {
         List<Archetype> archs = archetypes();
         int totalEntities = archs.stream().mapToInt(Archetype::getEntityCount).sum();
         long totalComponents = archs.stream()
-            .mapToLong(a -> (long) a.getEntityCount() * Long.bitCount(a.getComponentMask()))
+            .mapToLong(a -> (long) a.getEntityCount() * a.getComponentSignature().cardinality())
             .sum();
 
         return new QueryStats(
             archs.size(),
             totalEntities,
             totalComponents,
-            Long.bitCount(requiredMask),
-            Long.bitCount(excludedMask),
-            Long.bitCount(optionalMask)
+            requiredSignature.cardinality(),
+            excludedSignature.cardinality(),
+            optionalSignature.cardinality()
         );
     }
 
@@ -829,9 +969,9 @@ public final class Query {
     public String toString() {
         return String.format(
             "Query[required=%d, excluded=%d, optional=%d, archetypes=%d, entities=%d]",
-            Long.bitCount(requiredMask),
-            Long.bitCount(excludedMask),
-            Long.bitCount(optionalMask),
+            requiredSignature.cardinality(),
+            excludedSignature.cardinality(),
+            optionalSignature.cardinality(),
             archetypes().size(),
             count()
         );
@@ -845,7 +985,7 @@ public final class Query {
         sb.append("Query {\n");
         sb.append("  Required: ").append(requiredTypes).append("\n");
         sb.append("  Optional: ").append(optionalTypes).append("\n");
-        sb.append("  Excluded mask: 0x").append(Long.toHexString(excludedMask)).append("\n");
+        sb.append("  Excluded: ").append(excludedSignature).append("\n");
         sb.append("  Parallel: ").append(parallel).append("\n");
         sb.append("  Batch size: ").append(batchSize).append("\n");
         sb.append("  Stats: ").append(stats()).append("\n");
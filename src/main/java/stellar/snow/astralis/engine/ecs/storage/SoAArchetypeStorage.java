@@ -9,6 +9,7 @@ import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 
 /**
  * High-performance off-heap Structure-of-Arrays (SoA) storage using Foreign Memory API.
@@ -21,6 +22,8 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * - GPU buffer mapping with dirty tracking
  * - 2-3x better cache locality than AoS
  * - Thread-safe batch operations
+ * - Optional chunked mode: fixed-size blocks holding every column for N entities,
+ *   so growth never copies and parallel work splits on block boundaries
  */
 public class SoAArchetypeStorage implements AutoCloseable {
     
@@ -33,11 +36,19 @@ public class SoAArchetypeStorage implements AutoCloseable {
         public boolean useArenaAllocator = true;
         public long maxMemoryBytes = 1024L * 1024 * 1024; // 1 GB default
         public boolean trackDirtyRanges = true;
+        public boolean chunked = false;
+        public int blockBytes = 16 * 1024; // 16 KiB, fits comfortably in L1/L2
         
         public static Config defaults() {
             return new Config();
         }
         
+        public Config withChunkedBlocks(int blockBytes) {
+            this.chunked = true;
+            this.blockBytes = blockBytes;
+            return this;
+        }
+        
         public Config withInitialCapacity(int capacity) {
             this.initialCapacity = capacity;
             return this;
@@ -58,6 +69,7 @@ public class SoAArchetypeStorage implements AutoCloseable {
         final int fieldIndex;
         MemorySegment segment;
         int capacity;
+        long blockOffset; // column offset inside each block (chunked mode)
         int dirtyStart;
         int dirtyEnd;
         
@@ -93,7 +105,11 @@ public class SoAArchetypeStorage implements AutoCloseable {
     private final ReentrantReadWriteLock rwLock;
     private final Map<Integer, Integer> entityToSlot;
     private final List<Integer> slotToEntity;
-    private final AtomicInteger nextSlot;
+    
+    // Chunked mode: slot = block * blockCapacity + row
+    private final List<Block> blocks;
+    private int blockCapacity;
+    private long blockSize;
     
     // GPU buffer mapping support
     private final Map<String, ByteBuffer> gpuBuffers;
@@ -101,14 +117,17 @@ public class SoAArchetypeStorage implements AutoCloseable {
     
     public SoAArchetypeStorage(Config config, Class<?>... componentTypes) {
         this.config = config;
-        this.arena = config.useArenaAllocator ? Arena.ofConfined() : null;
+        // Blocks are handed to worker threads, so chunked storage needs a shared arena
+        this.arena = config.useArenaAllocator
+            ? (config.chunked ? Arena.ofShared() : Arena.ofConfined())
+            : null;
         this.descriptors = new ConcurrentHashMap<>();
         this.segments = new ConcurrentHashMap<>();
         this.entityCount = new AtomicInteger(0);
         this.rwLock = new ReentrantReadWriteLock();
         this.entityToSlot = new ConcurrentHashMap<>();
         this.slotToEntity = new ArrayList<>();
-        this.nextSlot = new AtomicInteger(0);
+        this.blocks = new ArrayList<>();
         this.gpuBuffers = new ConcurrentHashMap<>();
         this.dirtyGPUBuffers = ConcurrentHashMap.newKeySet();
         
@@ -116,6 +135,125 @@ public class SoAArchetypeStorage implements AutoCloseable {
         for (Class<?> componentType : componentTypes) {
             initializeComponent(componentType);
         }
+        
+        if (config.chunked) {
+            layoutBlocks();
+        }
+    }
+    
+    /**
+     * A fixed-capacity block holding every component column for up to
+     * {@link #capacity()} entities. Columns are laid out back to back, each SIMD-aligned.
+     */
+    public final class Block {
+        private final int index;
+        private final MemorySegment memory;
+        
+        private Block(int index, MemorySegment memory) {
+            this.index = index;
+            this.memory = memory;
+        }
+        
+        public int index() {
+            return index;
+        }
+        
+        public int capacity() {
+            return blockCapacity;
+        }
+        
+        /**
+         * Live entities in this block (blocks before the last one are always full).
+         */
+        public int size() {
+            int remaining = entityCount.get() - index * blockCapacity;
+            return Math.max(0, Math.min(blockCapacity, remaining));
+        }
+        
+        /**
+         * First storage slot covered by this block.
+         */
+        public int firstSlot() {
+            return index * blockCapacity;
+        }
+        
+        public int entityAt(int row) {
+            return slotToEntity.get(firstSlot() + row);
+        }
+        
+        public MemorySegment column(Class<?> componentType, ScalarType scalarType) {
+            return column(componentType, scalarType, 0);
+        }
+        
+        /**
+         * Column slice for the live rows of this block.
+         */
+        public MemorySegment column(Class<?> componentType, ScalarType scalarType, int fieldIndex) {
+            String key = makeKey(componentType, scalarType, fieldIndex);
+            ComponentArraySegment arraySegment = segments.get(key);
+            if (arraySegment == null) {
+                throw new IllegalArgumentException("No array for: " + key);
+            }
+            return memory.asSlice(arraySegment.blockOffset, (long) size() * arraySegment.scalarType.size);
+        }
+    }
+    
+    /**
+     * Assign each column an aligned offset inside a block and pick the largest entity count
+     * whose columns fit in {@code config.blockBytes}. A block always holds at least one entity,
+     * so rows wider than {@code blockBytes} get blocks sized to the layout instead.
+     */
+    private void layoutBlocks() {
+        List<ComponentArraySegment> columns = new ArrayList<>(segments.values());
+        // Widest elements first keeps alignment padding small
+        columns.sort(Comparator.comparingInt((ComponentArraySegment c) -> c.scalarType.size).reversed());
+        
+        int rowBytes = 0;
+        for (ComponentArraySegment column : columns) {
+            rowBytes += column.scalarType.size;
+        }
+        
+        int capacity = Math.max(1, config.blockBytes / Math.max(1, rowBytes));
+        while (capacity > 1 && assignBlockOffsets(columns, capacity) > config.blockBytes) {
+            capacity--;
+        }
+        this.blockSize = assignBlockOffsets(columns, capacity);
+        this.blockCapacity = capacity;
+    }
+    
+    private static long assignBlockOffsets(List<ComponentArraySegment> columns, int capacity) {
+        long offset = 0;
+        for (ComponentArraySegment column : columns) {
+            int alignment = column.scalarType.getSIMDAlignment();
+            offset = (offset + alignment - 1) & ~(long) (alignment - 1);
+            column.blockOffset = offset;
+            column.capacity = capacity;
+            offset += (long) capacity * column.scalarType.size;
+        }
+        return offset;
+    }
+    
+    private void allocateBlock() {
+        long byteSize = Math.max(blockSize, 64);
+        MemorySegment memory = arena != null
+            ? arena.allocate(byteSize, 64)
+            : MemorySegment.allocateNative(byteSize, 64, SegmentScope.auto());
+        blocks.add(new Block(blocks.size(), memory));
+    }
+    
+    /**
+     * Slice of {@code count} elements starting at {@code startIndex}, resolving the block in
+     * chunked mode. In chunked mode the range must not cross a block boundary.
+     */
+    private MemorySegment elementSlice(ComponentArraySegment arraySegment, int startIndex, int count) {
+        int elementSize = arraySegment.scalarType.size;
+        if (!config.chunked) {
+            return arraySegment.segment.asSlice((long) startIndex * elementSize, (long) count * elementSize);
+        }
+        Block block = blocks.get(startIndex / blockCapacity);
+        int row = startIndex % blockCapacity;
+        return block.memory.asSlice(
+            arraySegment.blockOffset + (long) row * elementSize, (long) count * elementSize);
     }
     
     private void initializeComponent(Class<?> componentType) {
@@ -128,7 +266,9 @@ public class SoAArchetypeStorage implements AutoCloseable {
             ComponentArraySegment arraySegment = new ComponentArraySegment(
                 componentType, field.scalarType, fieldIndex, config.initialCapacity);
             
-            allocateSegment(arraySegment, config.initialCapacity);
+            if (!config.chunked) {
+                allocateSegment(arraySegment, config.initialCapacity);
+            }
             segments.put(key, arraySegment);
             fieldIndex++;
         }
@@ -168,8 +308,8 @@ public class SoAArchetypeStorage implements AutoCloseable {
     public int addEntity(int entityId, Map<Class<?>, Object> components) {
         rwLock.writeLock().lock();
         try {
-            // Get or allocate slot
-            int slot = nextSlot.getAndIncrement();
+            // Append at the dense end (removal swap-compacts)
+            int slot = entityCount.get();
             if (slot >= slotToEntity.size()) {
                 slotToEntity.add(entityId);
             } else {
@@ -222,12 +362,8 @@ public class SoAArchetypeStorage implements AutoCloseable {
     
     private void swapSlots(int fromSlot, int toSlot) {
         for (ComponentArraySegment arraySegment : segments.values()) {
-            int elementSize = arraySegment.scalarType.size;
-            long fromOffset = (long) fromSlot * elementSize;
-            long toOffset = (long) toSlot * elementSize;
-            
-            MemorySegment.copy(arraySegment.segment, fromOffset,
-                             arraySegment.segment, toOffset, elementSize);
+            MemorySegment.copy(elementSlice(arraySegment, fromSlot, 1), 0,
+                             elementSlice(arraySegment, toSlot, 1), 0, arraySegment.scalarType.size);
             
             arraySegment.markDirty(toSlot);
         }
@@ -310,6 +446,9 @@ public class SoAArchetypeStorage implements AutoCloseable {
         if (arraySegment == null) {
             throw new IllegalArgumentException("No array for: " + key);
         }
+        if (config.chunked) {
+            throw new IllegalStateException("Chunked storage has no contiguous column, use forEachBlock: " + key);
+        }
         
         // Return a slice containing only valid entities
         int count = entityCount.get();
@@ -326,6 +465,9 @@ public class SoAArchetypeStorage implements AutoCloseable {
         if (arraySegment == null) {
             throw new IllegalArgumentException("No array for: " + key);
         }
+        if (config.chunked) {
+            throw new IllegalStateException("Chunked storage has no contiguous column to map: " + key);
+        }
         
         int count = entityCount.get();
         long byteSize = (long) count * arraySegment.scalarType.size;
@@ -356,13 +498,10 @@ public class SoAArchetypeStorage implements AutoCloseable {
     }
     
     private Object readArray(ComponentArraySegment arraySegment, int startIndex, int count) {
-        int elementSize = arraySegment.scalarType.size;
-        long offset = (long) startIndex * elementSize;
-        
         switch (arraySegment.scalarType) {
             case BYTE: {
                 byte[] result = new byte[count];
-                MemorySegment slice = arraySegment.segment.asSlice(offset, (long) count * elementSize);
+                MemorySegment slice = elementSlice(arraySegment, startIndex, count);
                 for (int i = 0; i < count; i++) {
                     result[i] = slice.get(ValueLayout.JAVA_BYTE, i);
                 }
@@ -370,7 +509,7 @@ public class SoAArchetypeStorage implements AutoCloseable {
             }
             case SHORT: {
                 short[] result = new short[count];
-                MemorySegment slice = arraySegment.segment.asSlice(offset, (long) count * elementSize);
+                MemorySegment slice = elementSlice(arraySegment, startIndex, count);
                 for (int i = 0; i < count; i++) {
                     result[i] = slice.get(ValueLayout.JAVA_SHORT, (long) i * 2);
                 }
@@ -378,7 +517,7 @@ public class SoAArchetypeStorage implements AutoCloseable {
             }
             case INT: {
                 int[] result = new int[count];
-                MemorySegment slice = arraySegment.segment.asSlice(offset, (long) count * elementSize);
+                MemorySegment slice = elementSlice(arraySegment, startIndex, count);
                 for (int i = 0; i < count; i++) {
                     result[i] = slice.get(ValueLayout.JAVA_INT, (long) i * 4);
                 }
@@ -386,7 +525,7 @@ public class SoAArchetypeStorage implements AutoCloseable {
             }
             case LONG: {
                 long[] result = new long[count];
-                MemorySegment slice = arraySegment.segment.asSlice(offset, (long) count * elementSize);
+                MemorySegment slice = elementSlice(arraySegment, startIndex, count);
                 for (int i = 0; i < count; i++) {
                     result[i] = slice.get(ValueLayout.JAVA_LONG, (long) i * 8);
                 }
@@ -394,7 +533,7 @@ public class SoAArchetypeStorage implements AutoCloseable {
             }
             case FLOAT: {
                 float[] result = new float[count];
-                MemorySegment slice = arraySegment.segment.asSlice(offset, (long) count * elementSize);
+                MemorySegment slice = elementSlice(arraySegment, startIndex, count);
                 for (int i = 0; i < count; i++) {
                     result[i] = slice.get(ValueLayout.JAVA_FLOAT, (long) i * 4);
                 }
@@ -402,7 +541,7 @@ public class SoAArchetypeStorage implements AutoCloseable {
             }
             case DOUBLE: {
                 double[] result = new double[count];
-                MemorySegment slice = arraySegment.segment.asSlice(offset, (long) count * elementSize);
+                MemorySegment slice = elementSlice(arraySegment, startIndex, count);
                 for (int i = 0; i < count; i++) {
                     result[i] = slice.get(ValueLayout.JAVA_DOUBLE, (long) i * 8);
                 }
@@ -410,7 +549,7 @@ public class SoAArchetypeStorage implements AutoCloseable {
             }
             case BOOLEAN: {
                 boolean[] result = new boolean[count];
-                MemorySegment slice = arraySegment.segment.asSlice(offset, (long) count * elementSize);
+                MemorySegment slice = elementSlice(arraySegment, startIndex, count);
                 for (int i = 0; i < count; i++) {
                     result[i] = slice.get(ValueLayout.JAVA_BYTE, i) != 0;
                 }
@@ -418,7 +557,7 @@ public class SoAArchetypeStorage implements AutoCloseable {
             }
             case CHAR: {
                 char[] result = new char[count];
-                MemorySegment slice = arraySegment.segment.asSlice(offset, (long) count * elementSize);
+                MemorySegment slice = elementSlice(arraySegment, startIndex, count);
                 for (int i = 0; i < count; i++) {
                     result[i] = slice.get(ValueLayout.JAVA_CHAR, (long) i * 2);
                 }
@@ -431,13 +570,10 @@ public class SoAArchetypeStorage implements AutoCloseable {
     
     private void writeArray(ComponentArraySegment arraySegment, int startIndex, 
                           Object array, int arrayOffset, int count) {
-        int elementSize = arraySegment.scalarType.size;
-        long offset = (long) startIndex * elementSize;
-        
         switch (arraySegment.scalarType) {
             case BYTE: {
                 byte[] src = (byte[]) array;
-                MemorySegment slice = arraySegment.segment.asSlice(offset, (long) count * elementSize);
+                MemorySegment slice = elementSlice(arraySegment, startIndex, count);
                 for (int i = 0; i < count; i++) {
                     slice.set(ValueLayout.JAVA_BYTE, i, src[arrayOffset + i]);
                 }
@@ -445,7 +581,7 @@ public class SoAArchetypeStorage implements AutoCloseable {
             }
             case SHORT: {
                 short[] src = (short[]) array;
-                MemorySegment slice = arraySegment.segment.asSlice(offset, (long) count * elementSize);
+                MemorySegment slice = elementSlice(arraySegment, startIndex, count);
                 for (int i = 0; i < count; i++) {
                     slice.set(ValueLayout.JAVA_SHORT, (long) i * 2, src[arrayOffset + i]);
                 }
@@ -453,7 +589,7 @@ public class SoAArchetypeStorage implements AutoCloseable {
             }
             case INT: {
                 int[] src = (int[]) array;
-                MemorySegment slice = arraySegment.segment.asSlice(offset, (long) count * elementSize);
+                MemorySegment slice = elementSlice(arraySegment, startIndex, count);
                 for (int i = 0; i < count; i++) {
                     slice.set(ValueLayout.JAVA_INT, (long) i * 4, src[arrayOffset + i]);
                 }
@@ -461,7 +597,7 @@ public class SoAArchetypeStorage implements AutoCloseable {
             }
             case LONG: {
                 long[] src = (long[]) array;
-                MemorySegment slice = arraySegment.segment.asSlice(offset, (long) count * elementSize);
+                MemorySegment slice = elementSlice(arraySegment, startIndex, count);
                 for (int i = 0; i < count; i++) {
                     slice.set(ValueLayout.JAVA_LONG, (long) i * 8, src[arrayOffset + i]);
                 }
@@ -469,7 +605,7 @@ public class SoAArchetypeStorage implements AutoCloseable {
             }
             case FLOAT: {
                 float[] src = (float[]) array;
-                MemorySegment slice = arraySegment.segment.asSlice(offset, (long) count * elementSize);
+                MemorySegment slice = elementSlice(arraySegment, startIndex, count);
                 for (int i = 0; i < count; i++) {
                     slice.set(ValueLayout.JAVA_FLOAT, (long) i * 4, src[arrayOffset + i]);
                 }
@@ -477,7 +613,7 @@ public class SoAArchetypeStorage implements AutoCloseable {
             }
             case DOUBLE: {
                 double[] src = (double[]) array;
-                MemorySegment slice = arraySegment.segment.asSlice(offset, (long) count * elementSize);
+                MemorySegment slice = elementSlice(arraySegment, startIndex, count);
                 for (int i = 0; i < count; i++) {
                     slice.set(ValueLayout.JAVA_DOUBLE, (long) i * 8, src[arrayOffset + i]);
                 }
@@ -485,7 +621,7 @@ public class SoAArchetypeStorage implements AutoCloseable {
             }
             case BOOLEAN: {
                 boolean[] src = (boolean[]) array;
-                MemorySegment slice = arraySegment.segment.asSlice(offset, (long) count * elementSize);
+                MemorySegment slice = elementSlice(arraySegment, startIndex, count);
                 for (int i = 0; i < count; i++) {
                     slice.set(ValueLayout.JAVA_BYTE, i, (byte) (src[arrayOffset + i] ? 1 : 0));
                 }
@@ -493,7 +629,7 @@ public class SoAArchetypeStorage implements AutoCloseable {
             }
             case CHAR: {
                 char[] src = (char[]) array;
-                MemorySegment slice = arraySegment.segment.asSlice(offset, (long) count * elementSize);
+                MemorySegment slice = elementSlice(arraySegment, startIndex, count);
                 for (int i = 0; i < count; i++) {
                     slice.set(ValueLayout.JAVA_CHAR, (long) i * 2, src[arrayOffset + i]);
                 }
@@ -505,6 +641,13 @@ public class SoAArchetypeStorage implements AutoCloseable {
     }
     
     private void ensureCapacity(int required) {
+        if (config.chunked) {
+            // Append blocks; existing blocks never move
+            while ((long) blocks.size() * blockCapacity < required) {
+                allocateBlock();
+            }
+            return;
+        }
         if (required <= config.initialCapacity) return;
         
         for (ComponentArraySegment arraySegment : segments.values()) {
@@ -527,7 +670,57 @@ public class SoAArchetypeStorage implements AutoCloseable {
     }
     
     public int getCapacity() {
-        return config.initialCapacity;
+        return config.chunked ? blocks.size() * blockCapacity : config.initialCapacity;
+    }
+    
+    public boolean isChunked() {
+        return config.chunked;
+    }
+    
+    /**
+     * Entities per block in chunked mode.
+     */
+    public int getBlockCapacity() {
+        return blockCapacity;
+    }
+    
+    /**
+     * Visit every non-empty block under the read lock.
+     */
+    public void forEachBlock(Consumer<Block> consumer) {
+        requireChunked();
+        rwLock.readLock().lock();
+        try {
+            for (Block block : occupiedBlocks()) {
+                consumer.accept(block);
+            }
+        } finally {
+            rwLock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Hand whole blocks to worker threads. Writers are held off until every block is done.
+     */
+    public void forEachBlockParallel(Consumer<Block> consumer) {
+        requireChunked();
+        rwLock.readLock().lock();
+        try {
+            occupiedBlocks().parallelStream().forEach(consumer);
+        } finally {
+            rwLock.readLock().unlock();
+        }
+    }
+    
+    private List<Block> occupiedBlocks() {
+        int used = (entityCount.get() + blockCapacity - 1) / blockCapacity;
+        return blocks.subList(0, Math.min(used, blocks.size()));
+    }
+    
+    private void requireChunked() {
+        if (!config.chunked) {
+            throw new IllegalStateException("Block iteration requires Config.withChunkedBlocks");
+        }
     }
     
     @Override
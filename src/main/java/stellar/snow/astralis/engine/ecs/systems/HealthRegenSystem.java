@@ -6,8 +6,8 @@ import stellar.snow.astralis.engine.ecs.core.SnowySystem;
 import stellar.snow.astralis.engine.ecs.core.World;
 import stellar.snow.astralis.engine.ecs.storage.ComponentArray;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
 
 /**
  * HealthRegenSystem - Regenerate health over time.
@@ -24,11 +24,26 @@ import java.nio.ByteOrder;
  *   <li>Building repair</li>
  * </ul>
  * 
+ * <h2>Performance</h2>
+ * A scalar loop runs directly on the off-heap Health column. Only 64-row change
+ * blocks where some entity actually heals are opened for writing, so untouched
+ * rows are neither stamped as changed nor copied into frozen views. The masked
+ * vector kernel ({@code SIMDComponentOps.accumulateClampedStrided}) loses to this
+ * loop with the 24-byte record; see {@code HealthRegenBenchmark}.
+ * 
  * @author Astralis ECS
  * @version 1.0.0
  */
 public class HealthRegenSystem extends SnowySystem {
     
+    // Record offsets (see Health memory layout)
+    private static final long OFFSET_CURRENT = 0;
+    private static final long OFFSET_MAXIMUM = 4;
+    private static final long OFFSET_REGEN = 12;
+    private static final long OFFSET_DEAD = 20;
+    
+    private static final float MIN_HEAL = 0.0001f;
+    
     private long entitiesRegeneratedTotal;
     private float healthRegeneratedTotal;
     
@@ -41,7 +56,7 @@ public class HealthRegenSystem extends SnowySystem {
         this.healthRegeneratedTotal = 0;
         
         // Only process entities with Health component
-        require(Health.class);
+        require(Health.class, AccessMode.READ_WRITE);
     }
     
     @Override
@@ -51,56 +66,49 @@ public class HealthRegenSystem extends SnowySystem {
     
     @Override
     public void update(World world, Archetype archetype, float deltaTime) {
-        ComponentArray healthArray = archetype.getArray(Health.class);
-        if (healthArray == null) {
+        ComponentArray healthArray = archetype.getComponentArray(Health.class);
+        if (healthArray == null || healthArray.isEmpty()) {
             return;
         }
         
-        int entityCount = archetype.size();
+        MemorySegment healths = healthArray.getReadOnlyData();
+        int count = healthArray.getCount();
         int regeneratedThisFrame = 0;
         float healedThisFrame = 0;
         
-        // Process each entity with health
-        for (int i = 0; i < entityCount; i++) {
-            int entityIndex = archetype.getEntityIndex(i);
-            
-            ByteBuffer healthBuf = healthArray.get(entityIndex);
-            if (healthBuf == null) continue;
-            healthBuf.order(ByteOrder.LITTLE_ENDIAN);
-            
-            float current = healthBuf.getFloat(0);
-            float maximum = healthBuf.getFloat(4);
-            float shield = healthBuf.getFloat(8);
-            float regenRate = healthBuf.getFloat(12);
-            float invulnerableUntil = healthBuf.getFloat(16);
-            boolean isDead = healthBuf.get(20) != 0;
+        // current = min(maximum, current + regenRate * dt) unless dead, full or no regen
+        for (int first = 0; first < count; first += ComponentArray.CHANGE_BLOCK_SIZE) {
+            int end = Math.min(count, first + ComponentArray.CHANGE_BLOCK_SIZE);
+            MemorySegment block = null;
             
-            // Skip if dead, full health, or no regen
-            if (isDead || current >= maximum || regenRate <= 0) {
-                continue;
-            }
-            
-            // Calculate regen amount
-            float regenAmount = regenRate * deltaTime;
-            float newHealth = Math.min(maximum, current + regenAmount);
-            float actualHealed = newHealth - current;
-            
-            // Only update if we actually healed
-            if (actualHealed > 0.0001f) {
-                // Write back new health
-                healthBuf.putFloat(0, newHealth);
+            for (int row = first; row < end; row++) {
+                long base = (long) row * Health.SIZE;
+                float current = healths.get(ValueLayout.JAVA_FLOAT, base + OFFSET_CURRENT);
+                float maximum = healths.get(ValueLayout.JAVA_FLOAT, base + OFFSET_MAXIMUM);
+                float regenRate = healths.get(ValueLayout.JAVA_FLOAT, base + OFFSET_REGEN);
+                boolean isDead = healths.get(ValueLayout.JAVA_BYTE, base + OFFSET_DEAD) != 0;
                 
-                // Track stats
-                regeneratedThisFrame++;
-                healedThisFrame += actualHealed;
+                if (isDead || current >= maximum || regenRate <= 0) {
+                    continue;
+                }
+                
+                float newHealth = Math.min(maximum, current + regenRate * deltaTime);
+                float actualHealed = newHealth - current;
+                if (actualHealed > MIN_HEAL) {
+                    // Open (and stamp) the block on its first write only
+                    if (block == null) {
+                        block = healthArray.getMutableData(first, end);
+                    }
+                    block.set(ValueLayout.JAVA_FLOAT,
+                        (long) (row - first) * Health.SIZE + OFFSET_CURRENT, newHealth);
+                    regeneratedThisFrame++;
+                    healedThisFrame += actualHealed;
+                }
             }
         }
         
-        // Update totals
-        if (regeneratedThisFrame > 0) {
-            entitiesRegeneratedTotal += regeneratedThisFrame;
-            healthRegeneratedTotal += healedThisFrame;
-        }
+        entitiesRegeneratedTotal += regeneratedThisFrame;
+        healthRegeneratedTotal += healedThisFrame;
     }
     
     /**
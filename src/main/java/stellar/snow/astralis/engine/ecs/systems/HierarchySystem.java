@@ -13,6 +13,8 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * HierarchySystem - Manage parent-child entity relationships.
@@ -24,22 +26,37 @@ import java.util.List;
  * <ul>
  *   <li>Transform inheritance (child follows parent)</li>
  *   <li>Hierarchical destruction (children destroyed with parent)</li>
- *   <li>Efficient batch updates</li>
+ *   <li>Depth-sorted propagation via {@link TransformHierarchy}: one linear pass per level,
+ *       unchanged subtrees skipped, wide levels in parallel</li>
  * </ul>
  * 
+ * <p>Per-archetype updates only sync Parent links into the hierarchy; propagation runs once
+ * per frame in {@link #onAfterUpdate(World, float)}. The scheduler may run archetypes on
+ * several threads, so updates only collect links; they are attached to the (single-threaded)
+ * hierarchy in {@link #onAfterUpdate(World, float)}. A child's Transform is captured as its
+ * local transform when first attached and afterwards holds its world transform - move a
+ * child with {@link #setLocalTransform(Entity, Transform)}.</p>
+ * 
  * @author Astralis ECS
  * @version 1.0.0
  */
 public class HierarchySystem extends SnowySystem {
     
-    private final List<Entity> entitiesToDestroy;
+    /** Parent link seen during update, attached after all archetypes are visited */
+    private record Link(Entity child, Entity parent, ByteBuffer childTransform) {}
+    
+    private final Queue<Entity> entitiesToDestroy;
+    private final Queue<List<Link>> pendingLinks;
+    private final TransformHierarchy hierarchy;
     
     /**
      * Create hierarchy system.
      */
     public HierarchySystem() {
         super("HierarchySystem");
-        this.entitiesToDestroy = new ArrayList<>();
+        this.entitiesToDestroy = new ConcurrentLinkedQueue<>();
+        this.pendingLinks = new ConcurrentLinkedQueue<>();
+        this.hierarchy = new TransformHierarchy();
         
         // Process entities with Parent component
         require(Parent.class);
@@ -51,6 +68,11 @@ public class HierarchySystem extends SnowySystem {
         world.getLogger().info("[HierarchySystem] Initialized");
     }
     
+    @Override
+    protected void onBeforeUpdate(World world, float deltaTime) {
+        hierarchy.beginSync();
+    }
+    
     @Override
     public void update(World world, Archetype archetype, float deltaTime) {
         ComponentArray parentArray = archetype.getArray(Parent.class);
@@ -61,8 +83,9 @@ public class HierarchySystem extends SnowySystem {
         }
         
         int entityCount = archetype.size();
+        List<Link> links = new ArrayList<>(entityCount);
         
-        // Update transforms based on parent
+        // Collect parent links; they are attached and propagated once all archetypes are seen
         for (int i = 0; i < entityCount; i++) {
             int entityIndex = archetype.getEntityIndex(i);
             
@@ -75,93 +98,67 @@ public class HierarchySystem extends SnowySystem {
             int parentGen = parentBuf.getInt(4);
             boolean inheritTransform = parentBuf.get(12) != 0;
             
-            // Skip if no parent or no transform inheritance
+            // Skip if no parent or no transform inheritance (unseen nodes detach in endSync)
             if (parentIdx == Parent.NO_PARENT || !inheritTransform) {
                 continue;
             }
             
             // Get parent entity
             Entity parentEntity = new Entity(parentIdx, parentGen);
+            Entity child = archetype.getEntity(i);
             
             // Validate parent still exists
             if (!world.isValid(parentEntity)) {
                 // Parent destroyed - mark child for destruction
-                Entity child = archetype.getEntity(i);
                 if (child != null) {
                     entitiesToDestroy.add(child);
                 }
                 continue;
             }
             
-            // Get parent transform
-            ByteBuffer parentTransform = world.getComponent(parentEntity, Transform.class);
-            if (parentTransform == null) {
-                continue;
+            if (child != null) {
+                links.add(new Link(child, parentEntity, transformArray.get(entityIndex)));
             }
-            parentTransform.order(ByteOrder.LITTLE_ENDIAN);
-            
-            // Read child's local transform
-            ByteBuffer childTransform = transformArray.get(entityIndex);
-            if (childTransform == null) continue;
-            childTransform.order(ByteOrder.LITTLE_ENDIAN);
-            
-            // Parent transform
-            float parentPosX = parentTransform.getFloat(0);
-            float parentPosY = parentTransform.getFloat(4);
-            float parentPosZ = parentTransform.getFloat(8);
-            float parentRotX = parentTransform.getFloat(12);
-            float parentRotY = parentTransform.getFloat(16);
-            float parentRotZ = parentTransform.getFloat(20);
-            float parentScaleX = parentTransform.getFloat(24);
-            float parentScaleY = parentTransform.getFloat(28);
-            float parentScaleZ = parentTransform.getFloat(32);
-            
-            // Child local transform
-            float localPosX = childTransform.getFloat(0);
-            float localPosY = childTransform.getFloat(4);
-            float localPosZ = childTransform.getFloat(8);
-            float localRotX = childTransform.getFloat(12);
-            float localRotY = childTransform.getFloat(16);
-            float localRotZ = childTransform.getFloat(20);
-            float localScaleX = childTransform.getFloat(24);
-            float localScaleY = childTransform.getFloat(28);
-            float localScaleZ = childTransform.getFloat(32);
-            
-            // Calculate world transform (simplified - no full matrix multiplication)
-            // In production, use proper matrix transform
-            float worldPosX = parentPosX + localPosX * parentScaleX;
-            float worldPosY = parentPosY + localPosY * parentScaleY;
-            float worldPosZ = parentPosZ + localPosZ * parentScaleZ;
-            float worldRotX = parentRotX + localRotX;
-            float worldRotY = parentRotY + localRotY;
-            float worldRotZ = parentRotZ + localRotZ;
-            float worldScaleX = parentScaleX * localScaleX;
-            float worldScaleY = parentScaleY * localScaleY;
-            float worldScaleZ = parentScaleZ * localScaleZ;
-            
-            // Write world transform
-            childTransform.rewind();
-            childTransform.putFloat(0, worldPosX);
-            childTransform.putFloat(4, worldPosY);
-            childTransform.putFloat(8, worldPosZ);
-            childTransform.putFloat(12, worldRotX);
-            childTransform.putFloat(16, worldRotY);
-            childTransform.putFloat(20, worldRotZ);
-            childTransform.putFloat(24, worldScaleX);
-            childTransform.putFloat(28, worldScaleY);
-            childTransform.putFloat(32, worldScaleZ);
-            childTransform.putInt(36, 1); // mark dirty
+        }
+        if (!links.isEmpty()) {
+            pendingLinks.add(links);
         }
     }
     
+    /**
+     * Set a child's transform relative to its parent.
+     */
+    public void setLocalTransform(Entity child, Transform local) {
+        hierarchy.setLocalTransform(child, local);
+    }
+    
+    /**
+     * Get the depth-sorted hierarchy.
+     */
+    public TransformHierarchy getHierarchy() {
+        return hierarchy;
+    }
+    
     @Override
     protected void onAfterUpdate(World world, float deltaTime) {
+        List<Link> links;
+        while ((links = pendingLinks.poll()) != null) {
+            for (Link link : links) {
+                if (!hierarchy.attach(link.child(), link.parent(), link.childTransform())) {
+                    world.getLogger().warn("[HierarchySystem] Ignoring cyclic parent link {} -> {}",
+                        link.child(), link.parent());
+                }
+            }
+        }
+        hierarchy.endSync();
+        hierarchy.propagate(world);
+        
         // Destroy orphaned children
         if (!entitiesToDestroy.isEmpty()) {
-            for (Entity entity : entitiesToDestroy) {
+            Entity entity;
+            while ((entity = entitiesToDestroy.poll()) != null) {
                 destroyRecursive(world, entity);
             }
-            entitiesToDestroy.clear();
         }
     }
     
@@ -5,10 +5,12 @@ import stellar.snow.astralis.engine.ecs.components.Velocity;
 import stellar.snow.astralis.engine.ecs.core.Archetype;
 import stellar.snow.astralis.engine.ecs.core.SnowySystem;
 import stellar.snow.astralis.engine.ecs.core.World;
-import stellar.snow.astralis.engine.ecs.storage.ComponentArray;
+import stellar.snow.astralis.engine.ecs.storage.CompiledQuery;
+import stellar.snow.astralis.engine.ecs.storage.CompiledQuery.FloatColumn;
+import stellar.snow.astralis.engine.ecs.storage.Query;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
 
 /**
  * PhysicsSystem - Integrate velocity into position.
@@ -23,17 +25,32 @@ import java.nio.ByteOrder;
  * </ul>
  * 
  * <h2>Performance</h2>
- * Processes entities in tight loops for maximum cache efficiency.
- * Uses SIMD-friendly data access patterns where possible.
+ * Works on whole component columns through {@link CompiledQuery#forEachBatch}:
+ * one fused scalar pass per archetype over the off-heap Transform/Velocity
+ * records. With a 40-byte Transform and 24-byte Velocity, per-field masked
+ * vector passes lose to it; see {@code PhysicsBenchmark}.
  * 
  * @author Astralis ECS
  * @version 1.0.0
  */
 public class PhysicsSystem extends SnowySystem {
     
+    // Record offsets (see Transform / Velocity memory layout)
+    private static final long VELOCITY_Y = 4;
+    private static final long TRANSFORM_DIRTY = 36;
+    
+    /** pos/rot in Transform line up with linear/angular in Velocity */
+    private static final int LINEAR_FIELDS = 3;
+    private static final int MOTION_FIELDS = 6;
+    
+    private static final float PI = (float) Math.PI;
+    private static final float TWO_PI = (float) (2 * Math.PI);
+    
     private final float gravityY;
     private final float airDrag;
     
+    private CompiledQuery kernel;
+    
     /**
      * Create physics system with default gravity and no drag.
      */
@@ -53,121 +70,73 @@ public class PhysicsSystem extends SnowySystem {
         this.airDrag = Math.max(0, Math.min(1, drag));
         
         // This system needs entities with both Transform and Velocity
-        require(Transform.class);
-        require(Velocity.class);
+        require(Transform.class, AccessMode.READ_WRITE);
+        require(Velocity.class, AccessMode.READ_WRITE);
     }
     
     @Override
     protected void onInitialize(World world) {
+        kernel = Query.create(world).writes(Transform.class, Velocity.class).compile();
         world.getLogger().info("[PhysicsSystem] Initialized with gravity={}, drag={}", 
             gravityY, airDrag);
     }
     
     @Override
     public void update(World world, Archetype archetype, float deltaTime) {
-        // Get component arrays
-        ComponentArray transformArray = archetype.getArray(Transform.class);
-        ComponentArray velocityArray = archetype.getArray(Velocity.class);
-        
-        if (transformArray == null || velocityArray == null) {
-            return; // Shouldn't happen due to require(), but be safe
-        }
-        
-        int entityCount = archetype.size();
+        float gravityStep = gravityY * deltaTime;
+        float dragFactor = airDrag > 0 ? (float) Math.pow(1.0 - airDrag, deltaTime) : 1.0f;
         
-        // Process all entities in this archetype
-        for (int i = 0; i < entityCount; i++) {
-            int entityIndex = archetype.getEntityIndex(i);
-            
-            // Read current transform
-            ByteBuffer transformBuf = transformArray.get(entityIndex);
-            if (transformBuf == null) continue;
-            transformBuf.order(ByteOrder.LITTLE_ENDIAN);
-            
-            float posX = transformBuf.getFloat(0);
-            float posY = transformBuf.getFloat(4);
-            float posZ = transformBuf.getFloat(8);
-            float rotX = transformBuf.getFloat(12);
-            float rotY = transformBuf.getFloat(16);
-            float rotZ = transformBuf.getFloat(20);
-            float scaleX = transformBuf.getFloat(24);
-            float scaleY = transformBuf.getFloat(28);
-            float scaleZ = transformBuf.getFloat(32);
-            
-            // Read current velocity
-            ByteBuffer velocityBuf = velocityArray.get(entityIndex);
-            if (velocityBuf == null) continue;
-            velocityBuf.order(ByteOrder.LITTLE_ENDIAN);
-            
-            float vx = velocityBuf.getFloat(0);
-            float vy = velocityBuf.getFloat(4);
-            float vz = velocityBuf.getFloat(8);
-            float angularX = velocityBuf.getFloat(12);
-            float angularY = velocityBuf.getFloat(16);
-            float angularZ = velocityBuf.getFloat(20);
+        // Velocities are permuted into transform order once, so both columns share row numbering
+        kernel.forEachBatch(archetype, FloatColumn.class, FloatColumn.class, (transforms, velocities, count) ->
+            integrate(transforms.segment(), velocities.segment(), count, deltaTime, gravityStep, dragFactor));
+    }
+    
+    /**
+     * Gravity, drag and integration of position and rotation, one record at a time.
+     */
+    private static void integrate(MemorySegment transforms, MemorySegment velocities, int count,
+                                  float deltaTime, float gravityStep, float dragFactor) {
+        for (int i = 0; i < count; i++) {
+            long transformBase = (long) i * Transform.SIZE;
+            long velocityBase = (long) i * Velocity.SIZE;
             
-            // Apply gravity
-            vy += gravityY * deltaTime;
+            // Apply gravity (vy)
+            velocities.set(ValueLayout.JAVA_FLOAT, velocityBase + VELOCITY_Y,
+                velocities.get(ValueLayout.JAVA_FLOAT, velocityBase + VELOCITY_Y) + gravityStep);
             
-            // Apply air drag
-            if (airDrag > 0) {
-                float dragFactor = (float) Math.pow(1.0 - airDrag, deltaTime);
-                vx *= dragFactor;
-                vy *= dragFactor;
-                vz *= dragFactor;
-                angularX *= dragFactor;
-                angularY *= dragFactor;
-                angularZ *= dragFactor;
+            // Apply air drag (linear + angular), then integrate position and rotation
+            for (int f = 0; f < MOTION_FIELDS; f++) {
+                long velocityOffset = velocityBase + (long) f * Float.BYTES;
+                float velocity = velocities.get(ValueLayout.JAVA_FLOAT, velocityOffset);
+                if (dragFactor != 1.0f) {
+                    velocity *= dragFactor;
+                    velocities.set(ValueLayout.JAVA_FLOAT, velocityOffset, velocity);
+                }
+                
+                long transformOffset = transformBase + (long) f * Float.BYTES;
+                float value = transforms.get(ValueLayout.JAVA_FLOAT, transformOffset) + velocity * deltaTime;
+                transforms.set(ValueLayout.JAVA_FLOAT, transformOffset,
+                    f < LINEAR_FIELDS ? value : normalizeAngle(value));
             }
             
-            // Integrate position
-            posX += vx * deltaTime;
-            posY += vy * deltaTime;
-            posZ += vz * deltaTime;
-            
-            // Integrate rotation
-            rotX += angularX * deltaTime;
-            rotY += angularY * deltaTime;
-            rotZ += angularZ * deltaTime;
-            
-            // Normalize angles to [-π, π]
-            rotX = normalizeAngle(rotX);
-            rotY = normalizeAngle(rotY);
-            rotZ = normalizeAngle(rotZ);
-            
-            // Write back transform (mark as dirty)
-            transformBuf.rewind();
-            transformBuf.putFloat(0, posX);
-            transformBuf.putFloat(4, posY);
-            transformBuf.putFloat(8, posZ);
-            transformBuf.putFloat(12, rotX);
-            transformBuf.putFloat(16, rotY);
-            transformBuf.putFloat(20, rotZ);
-            transformBuf.putFloat(24, scaleX);
-            transformBuf.putFloat(28, scaleY);
-            transformBuf.putFloat(32, scaleZ);
-            transformBuf.putInt(36, 1); // dirty = true
-            
-            // Write back velocity
-            velocityBuf.rewind();
-            velocityBuf.putFloat(0, vx);
-            velocityBuf.putFloat(4, vy);
-            velocityBuf.putFloat(8, vz);
-            velocityBuf.putFloat(12, angularX);
-            velocityBuf.putFloat(16, angularY);
-            velocityBuf.putFloat(20, angularZ);
+            // Mark dirty
+            transforms.set(ValueLayout.JAVA_INT, transformBase + TRANSFORM_DIRTY, 1);
         }
     }
     
     /**
      * Normalize angle to [-π, π] range.
      */
-    private float normalizeAngle(float angle) {
-        angle = angle % (float)(2 * Math.PI);
-        if (angle > Math.PI) {
-            angle -= 2 * Math.PI;
-        } else if (angle < -Math.PI) {
-            angle += 2 * Math.PI;
+    private static float normalizeAngle(float angle) {
+        // Angles are wrapped every tick, so most are already in range; skip the remainder
+        if (angle >= -PI && angle <= PI) {
+            return angle;
+        }
+        angle = angle % TWO_PI;
+        if (angle > PI) {
+            angle -= TWO_PI;
+        } else if (angle < -PI) {
+            angle += TWO_PI;
         }
         return angle;
     }
@@ -17,7 +17,12 @@ import java.util.stream.Collectors;
  * - Parallel execution group identification (2-3x speedup)
  * - Dynamic reordering based on profiling data
  * - DOT export for Graphviz visualization
+ *
+ * @deprecated {@code World.update} is driven by {@code core.SystemScheduler}, which now derives
+ * the same parallel waves from each system's declared read/write masks. Declare access with
+ * {@code require(type, mode)} / {@code @RequireComponents(mode = ...)} instead.
  */
+@Deprecated
 public class SystemExecutionGraph {
     
     /**
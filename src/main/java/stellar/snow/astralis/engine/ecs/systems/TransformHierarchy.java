@@ -0,0 +1,531 @@
+package stellar.snow.astralis.engine.ecs.systems;
+
+import stellar.snow.astralis.engine.ecs.components.Transform;
+import stellar.snow.astralis.engine.ecs.core.Archetype;
+import stellar.snow.astralis.engine.ecs.core.Entity;
+import stellar.snow.astralis.engine.ecs.core.World;
+import stellar.snow.astralis.engine.ecs.storage.ComponentArray;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TransformHierarchy - Depth-sorted transform tree used by {@link HierarchySystem}.
+ *
+ * <p>Nodes are kept in breadth-first order per depth level, so propagation is one linear
+ * pass per level with every parent finished before its children. Local transforms are kept
+ * here; the Transform component of a child only ever receives the composed world transform.
+ *
+ * <h2>Incremental Propagation</h2>
+ * <ul>
+ *   <li>A node is recomposed only if its local transform was marked dirty or its parent was
+ *       recomposed this pass; untouched subtrees cost one flag check per node</li>
+ *   <li>Roots are compared against their last seen world transform each pass</li>
+ *   <li>With no dirty roots, propagation starts at the shallowest dirty depth, and returns
+ *       immediately when nothing changed</li>
+ *   <li>Levels of {@link #PARALLEL_THRESHOLD} nodes or more are split across the common pool</li>
+ * </ul>
+ *
+ * <p>Structure edits (attach, detach) only flag the level order stale; it is rebuilt at the
+ * next {@link #propagate(World)}. Not thread-safe outside of propagation.</p>
+ *
+ * @author Astralis ECS
+ * @version 1.0.0
+ */
+public final class TransformHierarchy {
+
+    // ========================================================================
+    // CONSTANTS
+    // ========================================================================
+
+    /** Nodes per level before the level is processed in parallel */
+    public static final int PARALLEL_THRESHOLD = 2048;
+
+    /** Nodes per fork/join leaf */
+    private static final int PARALLEL_CHUNK = 512;
+
+    /** Floats per transform: pos, rot, scale */
+    private static final int STRIDE = 9;
+
+    private static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 256;
+
+    /** Transform record layout, as read through {@link ByteOrder#LITTLE_ENDIAN} buffers */
+    private static final ValueLayout.OfFloat FLOAT_LE =
+        ValueLayout.JAVA_FLOAT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfInt INT_LE =
+        ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final long DIRTY_OFFSET = 36;
+
+    // ========================================================================
+    // STATE
+    // ========================================================================
+
+    // Per-node columns, indexed by Entity.index()
+    private boolean[] present;
+    private int[] parents;
+    private int[] generations;
+    private int[] childCounts;
+    private int[] depths;
+    private float[] localTransforms;
+    private boolean[] hasLocal;
+    private float[] worldTransforms;
+    private boolean[] dirty;
+    private int[] changedPass;
+    private int[] seenSync;
+    private int highWater;
+
+    // Breadth-first order per depth
+    private int[][] levels = new int[0][];
+    private int[] levelSizes = new int[0];
+    private int levelCount;
+    private boolean structureDirty;
+
+    private int dirtyCount;
+    private int minDirtyDepth = Integer.MAX_VALUE;
+    private int pass;
+    private int syncEpoch;
+
+    public TransformHierarchy() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    // ========================================================================
+    // STRUCTURE
+    // ========================================================================
+
+    /**
+     * Attach {@code child} under {@code parent}. A child without a local transform yet (new,
+     * or so far only seen as a parent) takes its current Transform as its local transform.
+     * Re-attaching to the same parent is a no-op.
+     *
+     * @param childTransform the child's Transform component (read only while it has no local)
+     * @return false if the link would create a cycle
+     */
+    public boolean attach(Entity child, Entity parent, ByteBuffer childTransform) {
+        int c = child.index();
+        int p = parent.index();
+        ensureCapacity(Math.max(c, p) + 1);
+        seenSync[c] = syncEpoch;
+
+        if (present[c] && parents[c] == p) {
+            return true;
+        }
+        for (int a = p; a != NONE; a = present[a] ? parents[a] : NONE) {
+            if (a == c) return false;
+        }
+
+        if (!present[p]) {
+            addNode(p, parent.generation(), NONE);
+            markDirty(p);
+        }
+
+        if (present[c]) {
+            unlinkFromParent(c);
+            parents[c] = p;
+        } else {
+            addNode(c, child.generation(), p);
+        }
+        // A node first added as someone's parent has no local transform yet
+        if (!hasLocal[c] && childTransform != null) {
+            childTransform.order(ByteOrder.LITTLE_ENDIAN);
+            int base = c * STRIDE;
+            for (int f = 0; f < STRIDE; f++) {
+                localTransforms[base + f] = childTransform.getFloat(f << 2);
+            }
+            hasLocal[c] = true;
+        }
+        generations[c] = child.generation();
+        childCounts[p]++;
+        markDirty(c);
+        structureDirty = true;
+        return true;
+    }
+
+    /**
+     * Detach {@code child} from its parent. A node that still has children becomes a root.
+     */
+    public void detach(int child) {
+        if (child >= present.length || !present[child] || parents[child] == NONE) return;
+
+        unlinkFromParent(child);
+        parents[child] = NONE;
+        if (childCounts[child] == 0) {
+            present[child] = false;
+        } else {
+            markDirty(child);
+        }
+        structureDirty = true;
+    }
+
+    /**
+     * Start a sync sweep; children not re-attached before {@link #endSync()} are detached.
+     */
+    public void beginSync() {
+        syncEpoch++;
+    }
+
+    /**
+     * Detach every child not seen since {@link #beginSync()} (Parent removed or entity gone).
+     */
+    public void endSync() {
+        for (int i = 0; i < highWater; i++) {
+            if (present[i] && parents[i] != NONE && seenSync[i] != syncEpoch) {
+                detach(i);
+            }
+        }
+    }
+
+    private void addNode(int index, int generation, int parent) {
+        present[index] = true;
+        hasLocal[index] = false;
+        dirty[index] = false; // Stale flag from an earlier membership is not counted
+        parents[index] = parent;
+        generations[index] = generation;
+        childCounts[index] = 0;
+        highWater = Math.max(highWater, index + 1);
+        structureDirty = true;
+    }
+
+    private void unlinkFromParent(int child) {
+        int p = parents[child];
+        if (p == NONE) return;
+        // A root with no children left is dropped
+        if (--childCounts[p] == 0 && parents[p] == NONE) {
+            present[p] = false;
+        }
+    }
+
+    // ========================================================================
+    // LOCAL TRANSFORMS
+    // ========================================================================
+
+    /**
+     * Replace a child's local transform and mark it for recomposition.
+     */
+    public void setLocalTransform(Entity child, Transform local) {
+        int c = child.index();
+        if (c >= present.length || !present[c]) return;
+
+        int base = c * STRIDE;
+        localTransforms[base] = local.posX();
+        localTransforms[base + 1] = local.posY();
+        localTransforms[base + 2] = local.posZ();
+        localTransforms[base + 3] = local.rotX();
+        localTransforms[base + 4] = local.rotY();
+        localTransforms[base + 5] = local.rotZ();
+        localTransforms[base + 6] = local.scaleX();
+        localTransforms[base + 7] = local.scaleY();
+        localTransforms[base + 8] = local.scaleZ();
+        hasLocal[c] = true;
+        markDirty(c);
+    }
+
+    /**
+     * Force recomposition of {@code index} and its subtree on the next pass.
+     */
+    public void markDirty(int index) {
+        if (!dirty[index]) {
+            dirty[index] = true;
+            dirtyCount++;
+        }
+        // Depths are refreshed on rebuild; until then, start from the top
+        minDirtyDepth = structureDirty || depths[index] < 0 ? 0 : Math.min(minDirtyDepth, depths[index]);
+    }
+
+    // ========================================================================
+    // PROPAGATION
+    // ========================================================================
+
+    /**
+     * Recompose world transforms of changed subtrees and write them to their Transform
+     * components.
+     *
+     * @return number of nodes recomposed
+     */
+    public int propagate(World world) {
+        if (structureDirty) {
+            rebuildLevels();
+        }
+        if (levelCount < 2) return 0;
+
+        int current = ++pass;
+        boolean rootChanged = false;
+
+        // Roots: pick up externally moved parents
+        int[] roots = levels[0];
+        for (int i = 0, n = levelSizes[0]; i < n; i++) {
+            int root = roots[i];
+            if (readRoot(world, root) || dirty[root]) {
+                clearDirty(root);
+                changedPass[root] = current;
+                rootChanged = true;
+            }
+        }
+
+        if (!rootChanged && dirtyCount == 0) {
+            minDirtyDepth = Integer.MAX_VALUE;
+            return 0;
+        }
+
+        AtomicInteger recomposed = new AtomicInteger();
+        int start = rootChanged ? 1 : Math.max(1, minDirtyDepth);
+        for (int d = start; d < levelCount; d++) {
+            int size = levelSizes[d];
+            if (size >= PARALLEL_THRESHOLD) {
+                ForkJoinPool.commonPool().invoke(new LevelTask(world, levels[d], 0, size, current, recomposed));
+            } else {
+                recomposed.addAndGet(processRange(world, levels[d], 0, size, current));
+            }
+        }
+
+        dirtyCount = 0;
+        minDirtyDepth = Integer.MAX_VALUE;
+        return recomposed.get();
+    }
+
+    /**
+     * Recompose nodes {@code [from, to)} of one level. Each node only writes its own slots.
+     */
+    private int processRange(World world, int[] level, int from, int to, int current) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            int node = level[i];
+            int parent = parents[node];
+            if (!dirty[node] && changedPass[parent] != current) continue;
+
+            dirty[node] = false;
+            compose(parent * STRIDE, node * STRIDE);
+            changedPass[node] = current;
+            writeBack(world, node);
+            count++;
+        }
+        return count;
+    }
+
+    private final class LevelTask extends RecursiveAction {
+        private final World world;
+        private final int[] level;
+        private final int from;
+        private final int to;
+        private final int current;
+        private final AtomicInteger recomposed;
+
+        LevelTask(World world, int[] level, int from, int to, int current, AtomicInteger recomposed) {
+            this.world = world;
+            this.level = level;
+            this.from = from;
+            this.to = to;
+            this.current = current;
+            this.recomposed = recomposed;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_CHUNK) {
+                recomposed.addAndGet(processRange(world, level, from, to, current));
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(
+                    new LevelTask(world, level, from, mid, current, recomposed),
+                    new LevelTask(world, level, mid, to, current, recomposed)
+                );
+            }
+        }
+    }
+
+    /**
+     * Simplified composition (no full matrix multiplication), matching the original system.
+     */
+    private void compose(int parentBase, int nodeBase) {
+        float[] w = worldTransforms;
+        float[] l = localTransforms;
+        for (int axis = 0; axis < 3; axis++) {
+            w[nodeBase + axis] = w[parentBase + axis] + l[nodeBase + axis] * w[parentBase + 6 + axis];
+            w[nodeBase + 3 + axis] = w[parentBase + 3 + axis] + l[nodeBase + 3 + axis];
+            w[nodeBase + 6 + axis] = w[parentBase + 6 + axis] * l[nodeBase + 6 + axis];
+        }
+    }
+
+    /**
+     * Load a root's Transform into its world slot.
+     *
+     * @return true if it differs from the last pass
+     */
+    private boolean readRoot(World world, int root) {
+        ByteBuffer buf = world.getComponent(new Entity(root, generations[root]), Transform.class);
+        if (buf == null) return false;
+        buf.order(ByteOrder.LITTLE_ENDIAN);
+
+        boolean changed = false;
+        int base = root * STRIDE;
+        for (int f = 0; f < STRIDE; f++) {
+            float v = buf.getFloat(f << 2);
+            if (Float.floatToRawIntBits(v) != Float.floatToRawIntBits(worldTransforms[base + f])) {
+                worldTransforms[base + f] = v;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Write a node's world transform through its Transform column, so only that row is
+     * preserved for frozen views and stamped as changed.
+     */
+    private void writeBack(World world, int node) {
+        Archetype archetype = world.getArchetype(new Entity(node, generations[node]));
+        ComponentArray transforms = archetype != null ? archetype.getComponentArray(Transform.class) : null;
+        int row = transforms != null ? transforms.getDenseIndex(node) : NONE;
+        if (row < 0) return;
+
+        MemorySegment out = transforms.getMutableData(row, row + 1);
+        if (out.byteSize() == 0) return;
+        int base = node * STRIDE;
+        for (int f = 0; f < STRIDE; f++) {
+            out.set(FLOAT_LE, (long) f << 2, worldTransforms[base + f]);
+        }
+        out.set(INT_LE, DIRTY_OFFSET, 1); // mark dirty
+    }
+
+    private void clearDirty(int index) {
+        if (dirty[index]) {
+            dirty[index] = false;
+            dirtyCount--;
+        }
+    }
+
+    // ========================================================================
+    // LEVEL ORDER
+    // ========================================================================
+
+    /**
+     * Recompute depths and lay nodes out breadth-first: level 0 holds roots in index order,
+     * and each deeper level is a stable counting sort by the parent's position one level up.
+     */
+    private void rebuildLevels() {
+        Arrays.fill(depths, 0, highWater, NONE);
+        int maxDepth = 0;
+        for (int i = 0; i < highWater; i++) {
+            if (present[i]) {
+                maxDepth = Math.max(maxDepth, depthOf(i));
+            }
+        }
+
+        levelCount = maxDepth + 1;
+        levelSizes = new int[levelCount];
+        for (int i = 0; i < highWater; i++) {
+            if (present[i]) levelSizes[depths[i]]++;
+        }
+        if (levels.length < levelCount) {
+            levels = Arrays.copyOf(levels, levelCount);
+        }
+        for (int d = 0; d < levelCount; d++) {
+            if (levels[d] == null || levels[d].length < levelSizes[d]) {
+                levels[d] = new int[levelSizes[d]];
+            }
+        }
+
+        // Level 0 in index order, deeper levels bucketed under their parent's slot
+        int[] slotOf = new int[highWater];
+        int[] fill = new int[levelCount];
+        for (int i = 0; i < highWater; i++) {
+            if (present[i] && depths[i] == 0) {
+                slotOf[i] = fill[0];
+                levels[0][fill[0]++] = i;
+            }
+        }
+        for (int d = 1; d < levelCount; d++) {
+            int[] above = levels[d - 1];
+            int aboveSize = levelSizes[d - 1];
+            int[] starts = new int[aboveSize + 1];
+            for (int i = 0; i < highWater; i++) {
+                if (present[i] && depths[i] == d) starts[slotOf[parents[i]] + 1]++;
+            }
+            for (int s = 0; s < aboveSize; s++) {
+                starts[s + 1] += starts[s];
+            }
+            int[] level = levels[d];
+            for (int i = 0; i < highWater; i++) {
+                if (present[i] && depths[i] == d) {
+                    level[starts[slotOf[parents[i]]]++] = i;
+                }
+            }
+            for (int s = 0; s < levelSizes[d]; s++) {
+                slotOf[level[s]] = s;
+            }
+        }
+
+        structureDirty = false;
+        minDirtyDepth = 0;
+    }
+
+    /** Depth via the parent chain, memoized in {@code depths}. Chains are acyclic by attach(). */
+    private int depthOf(int node) {
+        int d = 0;
+        int n = node;
+        while (depths[n] == NONE && parents[n] != NONE) {
+            n = parents[n];
+            d++;
+        }
+        int total = d + (depths[n] == NONE ? 0 : depths[n]);
+        if (depths[n] == NONE) depths[n] = 0;
+
+        // Second walk fills the chain
+        for (int m = node, k = total; m != n; m = parents[m], k--) {
+            depths[m] = k;
+        }
+        return total;
+    }
+
+    // ========================================================================
+    // STORAGE
+    // ========================================================================
+
+    private void ensureCapacity(int needed) {
+        if (needed > present.length) {
+            allocate(Math.max(needed, present.length << 1));
+        }
+    }
+
+    private void allocate(int capacity) {
+        int old = present == null ? 0 : present.length;
+        present = present == null ? new boolean[capacity] : Arrays.copyOf(present, capacity);
+        parents = parents == null ? new int[capacity] : Arrays.copyOf(parents, capacity);
+        generations = generations == null ? new int[capacity] : Arrays.copyOf(generations, capacity);
+        childCounts = childCounts == null ? new int[capacity] : Arrays.copyOf(childCounts, capacity);
+        depths = depths == null ? new int[capacity] : Arrays.copyOf(depths, capacity);
+        localTransforms = localTransforms == null
+            ? new float[capacity * STRIDE] : Arrays.copyOf(localTransforms, capacity * STRIDE);
+        hasLocal = hasLocal == null ? new boolean[capacity] : Arrays.copyOf(hasLocal, capacity);
+        worldTransforms = worldTransforms == null
+            ? new float[capacity * STRIDE] : Arrays.copyOf(worldTransforms, capacity * STRIDE);
+        dirty = dirty == null ? new boolean[capacity] : Arrays.copyOf(dirty, capacity);
+        changedPass = changedPass == null ? new int[capacity] : Arrays.copyOf(changedPass, capacity);
+        seenSync = seenSync == null ? new int[capacity] : Arrays.copyOf(seenSync, capacity);
+        Arrays.fill(parents, old, capacity, NONE);
+        Arrays.fill(depths, old, capacity, NONE);
+    }
+
+    // ========================================================================
+    // STATISTICS
+    // ========================================================================
+
+    public int getDepthCount() {
+        return levelCount;
+    }
+
+    public int getLevelSize(int depth) {
+        return depth < levelCount ? levelSizes[depth] : 0;
+    }
+
+    public boolean contains(int index) {
+        return index < present.length && present[index];
+    }
+}
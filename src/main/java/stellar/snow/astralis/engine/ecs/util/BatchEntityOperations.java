@@ -226,12 +226,10 @@ public class BatchEntityOperations {
     }
     
     /**
-     * Remove component from multiple entities
+     * Remove component from multiple entities (one batched migration per archetype)
      */
     public <T> void removeComponentBatch(List<Entity> entities, Class<T> componentType) {
-        for (Entity entity : entities) {
-            world.removeComponent(entity, componentType);
-        }
+        world.removeComponent(entities.toArray(Entity[]::new), componentType);
     }
     
     /**
@@ -1,7 +1,11 @@
-package ecs.util;
+package stellar.snow.astralis.engine.ecs.util;
 
 import jdk.incubator.vector.*;
 
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+
 /**
  * Vectorized component operations using the Java Vector API.
  * 
@@ -12,6 +16,7 @@ import jdk.incubator.vector.*;
  * - Masked operations for conditional updates
  * - Cache-aware blocking for large datasets
  * - Parallel reductions (sum/min/max)
+ * - Off-heap MemorySegment variants for ComponentArray columns (contiguous and strided records)
  * 
  * Requires --add-modules jdk.incubator.vector
  */
@@ -33,6 +38,26 @@ public class SIMDComponentOps {
     private static final int CACHE_LINE_SIZE = 64;
     private static final int BLOCK_SIZE = 1024; // Fits in L1 cache
     
+    // Component data is written through JAVA_FLOAT/JAVA_DOUBLE layouts, i.e. native order
+    private static final ByteOrder ORDER = ByteOrder.nativeOrder();
+    private static final long FLOAT_BYTES = Float.BYTES;
+    private static final long DOUBLE_BYTES = Double.BYTES;
+    
+    // Lane numbers 0..FLOAT_LANES-1, for per-lane field tracking in strided kernels
+    private static final float[] LANE_INDICES = new float[FLOAT_LANES];
+    static {
+        for (int lane = 0; lane < FLOAT_LANES; lane++) {
+            LANE_INDICES[lane] = lane;
+        }
+    }
+    // Mask selecting the first byte of a float lane's bits in memory order
+    private static final int FIRST_BYTE_MASK = ORDER == ByteOrder.LITTLE_ENDIAN ? 0xFF : 0xFF000000;
+    
+    /**
+     * Result of a conditional strided update: entities touched and summed change.
+     */
+    public record StridedUpdate(int updated, float total) {}
+    
     /**
      * Fused multiply-add: dest[i] = src1[i] * src2[i] + scalar
      * 8-16x faster than scalar loop
@@ -424,6 +449,388 @@ public class SIMDComponentOps {
         }
     }
     
+    // ========================================================================
+    // MEMORY SEGMENT: CONTIGUOUS FLOAT COLUMNS
+    // ========================================================================
+    
+    /**
+     * Fused multiply-add over off-heap columns: dest[i] = src1[i] * src2[i] + scalar
+     */
+    public static void fmaFloatSegments(MemorySegment dest, MemorySegment src1, MemorySegment src2,
+                                        float scalar, int length) {
+        int i = 0;
+        int upperBound = FLOAT_SPECIES.loopBound(length);
+        FloatVector vs = FloatVector.broadcast(FLOAT_SPECIES, scalar);
+        
+        for (; i < upperBound; i += FLOAT_LANES) {
+            long off = i * FLOAT_BYTES;
+            FloatVector v1 = FloatVector.fromMemorySegment(FLOAT_SPECIES, src1, off, ORDER);
+            FloatVector v2 = FloatVector.fromMemorySegment(FLOAT_SPECIES, src2, off, ORDER);
+            v1.fma(v2, vs).intoMemorySegment(dest, off, ORDER);
+        }
+        
+        for (; i < length; i++) {
+            float a = src1.getAtIndex(ValueLayout.JAVA_FLOAT, i);
+            float b = src2.getAtIndex(ValueLayout.JAVA_FLOAT, i);
+            dest.setAtIndex(ValueLayout.JAVA_FLOAT, i, a * b + scalar);
+        }
+    }
+    
+    /**
+     * Scaled accumulate over off-heap columns: dest[i] += src[i] * scale
+     */
+    public static void axpyFloatSegments(MemorySegment dest, MemorySegment src, float scale, int length) {
+        int i = 0;
+        int upperBound = FLOAT_SPECIES.loopBound(length);
+        FloatVector vs = FloatVector.broadcast(FLOAT_SPECIES, scale);
+        
+        for (; i < upperBound; i += FLOAT_LANES) {
+            long off = i * FLOAT_BYTES;
+            FloatVector vsrc = FloatVector.fromMemorySegment(FLOAT_SPECIES, src, off, ORDER);
+            FloatVector vdst = FloatVector.fromMemorySegment(FLOAT_SPECIES, dest, off, ORDER);
+            vsrc.fma(vs, vdst).intoMemorySegment(dest, off, ORDER);
+        }
+        
+        for (; i < length; i++) {
+            float d = dest.getAtIndex(ValueLayout.JAVA_FLOAT, i);
+            dest.setAtIndex(ValueLayout.JAVA_FLOAT, i, d + src.getAtIndex(ValueLayout.JAVA_FLOAT, i) * scale);
+        }
+    }
+    
+    /**
+     * Linear interpolation over off-heap columns: dest[i] = src1[i] * (1 - t) + src2[i] * t
+     */
+    public static void lerpFloatSegments(MemorySegment dest, MemorySegment src1, MemorySegment src2,
+                                         float t, int length) {
+        int i = 0;
+        int upperBound = FLOAT_SPECIES.loopBound(length);
+        FloatVector vt = FloatVector.broadcast(FLOAT_SPECIES, t);
+        FloatVector oneMinusT = FloatVector.broadcast(FLOAT_SPECIES, 1.0f - t);
+        
+        for (; i < upperBound; i += FLOAT_LANES) {
+            long off = i * FLOAT_BYTES;
+            FloatVector v1 = FloatVector.fromMemorySegment(FLOAT_SPECIES, src1, off, ORDER);
+            FloatVector v2 = FloatVector.fromMemorySegment(FLOAT_SPECIES, src2, off, ORDER);
+            v1.mul(oneMinusT).add(v2.mul(vt)).intoMemorySegment(dest, off, ORDER);
+        }
+        
+        for (; i < length; i++) {
+            float a = src1.getAtIndex(ValueLayout.JAVA_FLOAT, i);
+            float b = src2.getAtIndex(ValueLayout.JAVA_FLOAT, i);
+            dest.setAtIndex(ValueLayout.JAVA_FLOAT, i, a * (1.0f - t) + b * t);
+        }
+    }
+    
+    /**
+     * Clamp an off-heap column to [min, max] in place
+     */
+    public static void clampFloatSegment(MemorySegment segment, float min, float max, int length) {
+        int i = 0;
+        int upperBound = FLOAT_SPECIES.loopBound(length);
+        FloatVector vmin = FloatVector.broadcast(FLOAT_SPECIES, min);
+        FloatVector vmax = FloatVector.broadcast(FLOAT_SPECIES, max);
+        
+        for (; i < upperBound; i += FLOAT_LANES) {
+            long off = i * FLOAT_BYTES;
+            FloatVector.fromMemorySegment(FLOAT_SPECIES, segment, off, ORDER)
+                .max(vmin).min(vmax)
+                .intoMemorySegment(segment, off, ORDER);
+        }
+        
+        for (; i < length; i++) {
+            float v = segment.getAtIndex(ValueLayout.JAVA_FLOAT, i);
+            segment.setAtIndex(ValueLayout.JAVA_FLOAT, i, Math.max(min, Math.min(max, v)));
+        }
+    }
+    
+    /**
+     * Sum reduction over an off-heap column
+     */
+    public static float sumFloatSegment(MemorySegment segment, int length) {
+        int i = 0;
+        int upperBound = FLOAT_SPECIES.loopBound(length);
+        FloatVector sum = FloatVector.zero(FLOAT_SPECIES);
+        
+        for (; i < upperBound; i += FLOAT_LANES) {
+            sum = sum.add(FloatVector.fromMemorySegment(FLOAT_SPECIES, segment, i * FLOAT_BYTES, ORDER));
+        }
+        
+        float result = sum.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            result += segment.getAtIndex(ValueLayout.JAVA_FLOAT, i);
+        }
+        return result;
+    }
+    
+    /**
+     * Min reduction over an off-heap column
+     */
+    public static float minFloatSegment(MemorySegment segment, int length) {
+        if (length == 0) return Float.MAX_VALUE;
+        
+        int i = 0;
+        int upperBound = FLOAT_SPECIES.loopBound(length);
+        FloatVector min = FloatVector.broadcast(FLOAT_SPECIES, Float.MAX_VALUE);
+        
+        for (; i < upperBound; i += FLOAT_LANES) {
+            min = min.min(FloatVector.fromMemorySegment(FLOAT_SPECIES, segment, i * FLOAT_BYTES, ORDER));
+        }
+        
+        float result = min.reduceLanes(VectorOperators.MIN);
+        for (; i < length; i++) {
+            result = Math.min(result, segment.getAtIndex(ValueLayout.JAVA_FLOAT, i));
+        }
+        return result;
+    }
+    
+    /**
+     * Max reduction over an off-heap column
+     */
+    public static float maxFloatSegment(MemorySegment segment, int length) {
+        if (length == 0) return -Float.MAX_VALUE;
+        
+        int i = 0;
+        int upperBound = FLOAT_SPECIES.loopBound(length);
+        FloatVector max = FloatVector.broadcast(FLOAT_SPECIES, -Float.MAX_VALUE);
+        
+        for (; i < upperBound; i += FLOAT_LANES) {
+            max = max.max(FloatVector.fromMemorySegment(FLOAT_SPECIES, segment, i * FLOAT_BYTES, ORDER));
+        }
+        
+        float result = max.reduceLanes(VectorOperators.MAX);
+        for (; i < length; i++) {
+            result = Math.max(result, segment.getAtIndex(ValueLayout.JAVA_FLOAT, i));
+        }
+        return result;
+    }
+    
+    // ========================================================================
+    // MEMORY SEGMENT: STRIDED RECORDS (ComponentArray AoS data)
+    // ========================================================================
+    
+    /**
+     * Strided accumulate: for each record r, the {@code fields} floats at
+     * {@code destOffset} in dest record r get {@code src fields * scale} added.
+     * One masked vector per record covers all fields.
+     */
+    public static void axpyFloatStrided(MemorySegment dest, long destStride, long destOffset,
+                                        MemorySegment src, long srcStride, long srcOffset,
+                                        int fields, float scale, int count) {
+        FloatVector vs = FloatVector.broadcast(FLOAT_SPECIES, scale);
+        for (int f = 0; f < fields; f += FLOAT_LANES) {
+            VectorMask<Float> mask = FLOAT_SPECIES.indexInRange(f, fields);
+            long d = destOffset + f * FLOAT_BYTES;
+            long s = srcOffset + f * FLOAT_BYTES;
+            for (int r = 0; r < count; r++, d += destStride, s += srcStride) {
+                FloatVector vsrc = FloatVector.fromMemorySegment(FLOAT_SPECIES, src, s, ORDER, mask);
+                FloatVector vdst = FloatVector.fromMemorySegment(FLOAT_SPECIES, dest, d, ORDER, mask);
+                vsrc.fma(vs, vdst).intoMemorySegment(dest, d, ORDER, mask);
+            }
+        }
+    }
+    
+    /**
+     * Strided scale: multiply {@code fields} floats at {@code offset} of every record by factor.
+     */
+    public static void scaleFloatStrided(MemorySegment segment, long stride, long offset,
+                                         int fields, float factor, int count) {
+        FloatVector vf = FloatVector.broadcast(FLOAT_SPECIES, factor);
+        for (int f = 0; f < fields; f += FLOAT_LANES) {
+            VectorMask<Float> mask = FLOAT_SPECIES.indexInRange(f, fields);
+            long o = offset + f * FLOAT_BYTES;
+            for (int r = 0; r < count; r++, o += stride) {
+                FloatVector.fromMemorySegment(FLOAT_SPECIES, segment, o, ORDER, mask)
+                    .mul(vf)
+                    .intoMemorySegment(segment, o, ORDER, mask);
+            }
+        }
+    }
+    
+    /**
+     * Strided add: add value to {@code fields} floats at {@code offset} of every record.
+     */
+    public static void addFloatStrided(MemorySegment segment, long stride, long offset,
+                                       int fields, float value, int count) {
+        FloatVector vv = FloatVector.broadcast(FLOAT_SPECIES, value);
+        for (int f = 0; f < fields; f += FLOAT_LANES) {
+            VectorMask<Float> mask = FLOAT_SPECIES.indexInRange(f, fields);
+            long o = offset + f * FLOAT_BYTES;
+            for (int r = 0; r < count; r++, o += stride) {
+                FloatVector.fromMemorySegment(FLOAT_SPECIES, segment, o, ORDER, mask)
+                    .add(vv)
+                    .intoMemorySegment(segment, o, ORDER, mask);
+            }
+        }
+    }
+    
+    /**
+     * Strided double lerp: out = from + (to - from) * t for {@code fields} doubles per record.
+     */
+    public static void lerpDoubleStrided(MemorySegment dest, long destStride, long destOffset,
+                                         MemorySegment from, long fromStride, long fromOffset,
+                                         MemorySegment to, long toStride, long toOffset,
+                                         int fields, double t, int count) {
+        DoubleVector vt = DoubleVector.broadcast(DOUBLE_SPECIES, t);
+        for (int f = 0; f < fields; f += DOUBLE_LANES) {
+            VectorMask<Double> mask = DOUBLE_SPECIES.indexInRange(f, fields);
+            long d = destOffset + f * DOUBLE_BYTES;
+            long a = fromOffset + f * DOUBLE_BYTES;
+            long b = toOffset + f * DOUBLE_BYTES;
+            for (int r = 0; r < count; r++, d += destStride, a += fromStride, b += toStride) {
+                DoubleVector va = DoubleVector.fromMemorySegment(DOUBLE_SPECIES, from, a, ORDER, mask);
+                DoubleVector vb = DoubleVector.fromMemorySegment(DOUBLE_SPECIES, to, b, ORDER, mask);
+                vb.sub(va).fma(vt, va).intoMemorySegment(dest, d, ORDER, mask);
+            }
+        }
+    }
+    
+    /**
+     * Writable rows handed to a strided kernel just before its first store into a block.
+     */
+    @FunctionalInterface
+    public interface BlockWriter {
+        /** Segment whose offset 0 is record {@code firstRecord}, covering {@code [firstRecord, endRecord)}. */
+        MemorySegment open(int firstRecord, int endRecord);
+    }
+    
+    /**
+     * Conditional rate accumulation over strided float records, in place on off-heap data:
+     * {@code value = min(max, value + rate * dt)} where {@code rate > 0}, {@code value < max}
+     * and the first byte of the optional flag field (a boolean) is zero.
+     * 
+     * <p>Vectors step through {@code data} contiguously; the rate, max and flag fields are read
+     * with loads offset by their distance from the value field, so each value lane sees its own
+     * record's fields. Work is done in blocks of {@code blockRecords}: a block is only opened
+     * through {@code writer} when one of its values rises by more than {@code epsilon}, and only
+     * those value lanes are stored. Falls back to a scalar loop when a field precedes the value
+     * field.</p>
+     *
+     * @param data all records, read only
+     * @param stride record size in floats
+     * @param flagField field whose first byte, when non-zero, disables the record, or -1
+     */
+    public static StridedUpdate accumulateClampedStrided(MemorySegment data, int stride,
+                                                         int valueField, int rateField, int maxField,
+                                                         int flagField, float dt, float epsilon,
+                                                         int count, int blockRecords, BlockWriter writer) {
+        int rateShift = rateField - valueField;
+        int maxShift = maxField - valueField;
+        int flagShift = flagField >= 0 ? flagField - valueField : 0;
+        if (Math.min(Math.min(rateShift, maxShift), flagShift) < 0) {
+            return accumulateClampedScalar(data, stride, valueField, rateField, maxField, flagField,
+                dt, epsilon, count, blockRecords, writer);
+        }
+        
+        // Field index of every lane, advanced per vector so value lanes need no division
+        float strideF = stride;
+        FloatVector firstFields = FloatVector.fromArray(FLOAT_SPECIES, LANE_INDICES, 0);
+        VectorMask<Float> wrapped;
+        while ((wrapped = firstFields.compare(VectorOperators.GE, strideF)).anyTrue()) {
+            firstFields = firstFields.sub(strideF, wrapped);
+        }
+        float fieldStep = FLOAT_LANES % stride;
+        float valueFieldF = valueField;
+        
+        FloatVector vdt = FloatVector.broadcast(FLOAT_SPECIES, dt);
+        FloatVector veps = FloatVector.broadcast(FLOAT_SPECIES, epsilon);
+        long totalFloats = (long) count * stride;
+        // Last vector start whose furthest offset load is still in bounds without a mask
+        long unmaskedEnd = totalFloats - FLOAT_LANES - Math.max(Math.max(rateShift, maxShift), flagShift);
+        int updated = 0;
+        float total = 0;
+        
+        for (int first = 0; first < count; first += blockRecords) {
+            int end = Math.min(count, first + blockRecords);
+            long blockStart = (long) first * stride;
+            long blockEnd = (long) end * stride;
+            FloatVector laneFields = firstFields;
+            MemorySegment out = null;
+            
+            for (long f = blockStart; f < blockEnd; f += FLOAT_LANES) {
+                VectorMask<Float> valueLanes = laneFields.compare(VectorOperators.EQ, valueFieldF);
+                laneFields = laneFields.add(fieldStep);
+                laneFields = laneFields.sub(strideF, laneFields.compare(VectorOperators.GE, strideF));
+                if (f + FLOAT_LANES > blockEnd) {
+                    valueLanes = valueLanes.and(FLOAT_SPECIES.indexInRange(f, blockEnd));
+                }
+                
+                FloatVector value, rate, max, flag;
+                if (f <= unmaskedEnd) {
+                    value = FloatVector.fromMemorySegment(FLOAT_SPECIES, data, f * FLOAT_BYTES, ORDER);
+                    rate = FloatVector.fromMemorySegment(FLOAT_SPECIES, data, (f + rateShift) * FLOAT_BYTES, ORDER);
+                    max = FloatVector.fromMemorySegment(FLOAT_SPECIES, data, (f + maxShift) * FLOAT_BYTES, ORDER);
+                    flag = FloatVector.fromMemorySegment(FLOAT_SPECIES, data, (f + flagShift) * FLOAT_BYTES, ORDER);
+                } else {
+                    value = loadTail(data, f, totalFloats);
+                    rate = loadTail(data, f + rateShift, totalFloats);
+                    max = loadTail(data, f + maxShift, totalFloats);
+                    flag = loadTail(data, f + flagShift, totalFloats);
+                }
+                
+                VectorMask<Float> active = valueLanes
+                    .and(rate.compare(VectorOperators.GT, 0f))
+                    .and(value.compare(VectorOperators.LT, max));
+                if (flagField >= 0) {
+                    active = active.and(flag.reinterpretAsInts().lanewise(VectorOperators.AND, FIRST_BYTE_MASK)
+                        .compare(VectorOperators.EQ, 0).cast(FLOAT_SPECIES));
+                }
+                if (!active.anyTrue()) continue;
+                
+                FloatVector next = rate.fma(vdt, value).min(max);
+                FloatVector delta = next.sub(value);
+                VectorMask<Float> changed = active.and(delta.compare(VectorOperators.GT, veps));
+                if (!changed.anyTrue()) continue;
+                
+                if (out == null) {
+                    out = writer.open(first, end);
+                }
+                next.intoMemorySegment(out, (f - blockStart) * FLOAT_BYTES, ORDER, changed);
+                updated += changed.trueCount();
+                total += delta.reduceLanes(VectorOperators.ADD, changed);
+            }
+        }
+        
+        return new StridedUpdate(updated, total);
+    }
+    
+    private static FloatVector loadTail(MemorySegment data, long f, long totalFloats) {
+        return FloatVector.fromMemorySegment(FLOAT_SPECIES, data, f * FLOAT_BYTES, ORDER,
+            FLOAT_SPECIES.indexInRange(f, totalFloats));
+    }
+    
+    private static StridedUpdate accumulateClampedScalar(MemorySegment data, int stride,
+                                                         int valueField, int rateField, int maxField,
+                                                         int flagField, float dt, float epsilon,
+                                                         int count, int blockRecords, BlockWriter writer) {
+        int updated = 0;
+        float total = 0;
+        for (int first = 0; first < count; first += blockRecords) {
+            int end = Math.min(count, first + blockRecords);
+            MemorySegment out = null;
+            for (int r = first; r < end; r++) {
+                long base = (long) r * stride;
+                float value = data.getAtIndex(ValueLayout.JAVA_FLOAT, base + valueField);
+                float rate = data.getAtIndex(ValueLayout.JAVA_FLOAT, base + rateField);
+                float max = data.getAtIndex(ValueLayout.JAVA_FLOAT, base + maxField);
+                boolean flagged = flagField >= 0
+                    && data.get(ValueLayout.JAVA_BYTE, (base + flagField) * FLOAT_BYTES) != 0;
+                if (flagged || rate <= 0 || value >= max) continue;
+                
+                float next = Math.min(max, value + rate * dt);
+                float delta = next - value;
+                if (delta > epsilon) {
+                    if (out == null) {
+                        out = writer.open(first, end);
+                    }
+                    out.setAtIndex(ValueLayout.JAVA_FLOAT, (long) (r - first) * stride + valueField, next);
+                    updated++;
+                    total += delta;
+                }
+            }
+        }
+        return new StridedUpdate(updated, total);
+    }
+    
     /**
      * Get number of lanes for float vectors
      */
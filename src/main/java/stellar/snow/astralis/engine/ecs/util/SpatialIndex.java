@@ -4,273 +4,855 @@ import stellar.snow.astralis.engine.ecs.components.Transform;
 import stellar.snow.astralis.engine.ecs.core.Entity;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntConsumer;
 
 /**
  * SpatialIndex - Fast spatial queries for entities with Transform.
- * 
+ *
  * <p>Divides 3D space into cells for efficient neighbor queries.
  * Essential for collision detection, AI perception, and rendering.
- * 
+ *
  * <h2>Performance</h2>
  * <pre>
  * Without spatial index:
  * - Range query: O(n) - check all entities
  * - 10,000 entities: ~10ms per query
- * 
+ *
  * With spatial index:
  * - Range query: O(k) - check only nearby cells
  * - 10,000 entities: ~0.1ms per query (100x faster)
  * </pre>
- * 
+ *
+ * <h2>Layout</h2>
+ * <ul>
+ *   <li>Loose hierarchical grid: level {@code L} has cells of {@code cellSize << L}; an entity
+ *       goes to the first level whose half-cell covers its radius, by its center</li>
+ *   <li>Cells are primitive {@code long} keys in an open-addressed table per level, each
+ *       holding the head of an intrusive list threaded through per-entity arrays</li>
+ *   <li>Per-entity state (position, radius, cell, links) lives in arrays indexed by
+ *       {@link Entity#index()}, so moves and cell changes never allocate</li>
+ * </ul>
+ *
+ * <p>{@link IntConsumer} / {@code int[]} query overloads report entity indices and are
+ * allocation-free; the {@code List} overloads remain for convenience. Queries share a read
+ * lock, so a query callback must not update or remove entities.</p>
+ *
  * <h2>Usage</h2>
  * <pre>
  * SpatialIndex index = new SpatialIndex(10.0f); // 10 unit cells
- * 
- * // Update entity position
+ *
+ * // Update entity position (optionally with a bounding radius)
  * index.update(entity, transform);
- * 
+ * index.update(entity, x, y, z, radius);
+ *
  * // Query nearby entities
  * List&lt;Entity&gt; nearby = index.queryRadius(x, y, z, radius);
- * 
- * // Query region
- * List&lt;Entity&gt; inBox = index.queryBox(minX, minY, minZ, maxX, maxY, maxZ);
+ * int hits = index.queryRadius(x, y, z, radius, buffer);
+ *
+ * // k nearest neighbours, sorted by distance
+ * int found = index.findKNearest(x, y, z, 8, maxDistance, ids, distancesSq);
+ *
+ * // Batch perception queries: results for query i are results[offsets[i]..offsets[i + 1])
+ * index.queryRadius(centers, count, radius, results, offsets);
  * </pre>
- * 
+ *
  * @author Astralis ECS
- * @version 1.0.0
+ * @version 2.0.0
  */
 public class SpatialIndex {
-    
+
+    // ========================================================================
+    // CONSTANTS
+    // ========================================================================
+
+    /** Grid levels; level L cells are {@code cellSize << L} wide */
+    public static final int LEVELS = 8;
+
+    private static final int INITIAL_ENTITIES = 1024;
+
+    /** Bits per packed cell coordinate */
+    private static final int COORD_BITS = 21;
+    private static final long COORD_MASK = (1L << COORD_BITS) - 1;
+    /** Cells per axis before pack() wraps; a scan wider than this would visit keys twice */
+    private static final int KEY_SPAN = 1 << COORD_BITS;
+
+    private static final int NONE = -1;
+
+    private static final ThreadLocal<int[]> NEAREST_ID = ThreadLocal.withInitial(() -> new int[1]);
+    private static final ThreadLocal<float[]> NEAREST_DIST = ThreadLocal.withInitial(() -> new float[1]);
+
+    // ========================================================================
+    // STATE
+    // ========================================================================
+
     private final float cellSize;
-    private final Map<CellKey, Set<Entity>> grid;
-    private final Map<Entity, CellKey> entityCells;
-    
+    private final float[] levelCellSize = new float[LEVELS];
+    private final float[] levelInvCellSize = new float[LEVELS];
+    private final StampedLock lock = new StampedLock();
+
+    // Per-level cell tables and occupancy
+    private final CellTable[] tables = new CellTable[LEVELS];
+    private final int[] levelCounts = new int[LEVELS];
+    /** Largest radius ever stored per level; widens queries at that level */
+    private final float[] levelMaxRadius = new float[LEVELS];
+    /** Occupied cell extents per level: [minX, minY, minZ, maxX, maxY, maxZ] */
+    private final int[][] levelExtents = new int[LEVELS][6];
+
+    // Per-entity columns, indexed by Entity.index()
+    private int[] levels;
+    private int[] generations;
+    private float[] xs;
+    private float[] ys;
+    private float[] zs;
+    private float[] radii;
+    private long[] cells;
+    private int[] next;
+    private int[] prev;
+    private int entityCount;
+
     /**
      * Create spatial index with cell size.
-     * 
-     * @param cellSize Size of each grid cell (larger = fewer cells but less precise)
+     *
+     * @param cellSize Size of each level-0 grid cell (larger = fewer cells but less precise)
      */
     public SpatialIndex(float cellSize) {
         if (cellSize <= 0) {
             throw new IllegalArgumentException("Cell size must be positive");
         }
         this.cellSize = cellSize;
-        this.grid = new ConcurrentHashMap<>();
-        this.entityCells = new ConcurrentHashMap<>();
+        for (int level = 0; level < LEVELS; level++) {
+            levelCellSize[level] = cellSize * (1 << level);
+            levelInvCellSize[level] = 1.0f / levelCellSize[level];
+            tables[level] = new CellTable();
+            resetExtents(level);
+        }
+        allocateEntities(INITIAL_ENTITIES);
     }
-    
+
     // ========================================================================
     // UPDATE
     // ========================================================================
-    
+
     /**
      * Update entity position in spatial index.
      */
     public void update(Entity entity, Transform transform) {
-        update(entity, transform.posX(), transform.posY(), transform.posZ());
+        update(entity, transform.posX(), transform.posY(), transform.posZ(), 0.0f);
     }
-    
+
     /**
      * Update entity position in spatial index.
      */
     public void update(Entity entity, float x, float y, float z) {
-        CellKey newCell = getCellKey(x, y, z);
-        CellKey oldCell = entityCells.get(entity);
-        
-        // No change in cell
-        if (newCell.equals(oldCell)) {
-            return;
-        }
-        
-        // Remove from old cell
-        if (oldCell != null) {
-            Set<Entity> oldSet = grid.get(oldCell);
-            if (oldSet != null) {
-                oldSet.remove(entity);
-                if (oldSet.isEmpty()) {
-                    grid.remove(oldCell);
+        update(entity, x, y, z, 0.0f);
+    }
+
+    /**
+     * Update entity position and bounding radius in spatial index.
+     */
+    public void update(Entity entity, float x, float y, float z, float radius) {
+        int id = entity.index();
+        int level = levelFor(radius);
+
+        long stamp = lock.writeLock();
+        try {
+            if (id >= levels.length) {
+                allocateEntities(Math.max(id + 1, levels.length << 1));
+            }
+
+            int cx = cellCoord(level, x);
+            int cy = cellCoord(level, y);
+            int cz = cellCoord(level, z);
+            long cell = pack(cx, cy, cz);
+
+            int oldLevel = levels[id];
+            boolean relink;
+            if (oldLevel == NONE) {
+                entityCount++;
+                relink = true;
+            } else {
+                relink = oldLevel != level || cells[id] != cell;
+                if (relink) {
+                    unlink(id);
                 }
             }
+
+            levels[id] = level;
+            generations[id] = entity.generation();
+            xs[id] = x;
+            ys[id] = y;
+            zs[id] = z;
+            radii[id] = radius;
+            if (relink) {
+                cells[id] = cell;
+                link(id, level, cell);
+                growExtents(level, cx, cy, cz);
+            }
+            if (radius > levelMaxRadius[level]) {
+                levelMaxRadius[level] = radius;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
         }
-        
-        // Add to new cell
-        grid.computeIfAbsent(newCell, k -> ConcurrentHashMap.newKeySet()).add(entity);
-        entityCells.put(entity, newCell);
     }
-    
+
     /**
      * Remove entity from spatial index.
      */
     public void remove(Entity entity) {
-        CellKey cell = entityCells.remove(entity);
-        if (cell != null) {
-            Set<Entity> cellSet = grid.get(cell);
-            if (cellSet != null) {
-                cellSet.remove(entity);
-                if (cellSet.isEmpty()) {
-                    grid.remove(cell);
-                }
+        int id = entity.index();
+        long stamp = lock.writeLock();
+        try {
+            if (id < levels.length && levels[id] != NONE) {
+                unlink(id);
+                levels[id] = NONE;
+                entityCount--;
             }
+        } finally {
+            lock.unlockWrite(stamp);
         }
     }
-    
+
     /**
      * Clear all entities from index.
      */
     public void clear() {
-        grid.clear();
-        entityCells.clear();
+        long stamp = lock.writeLock();
+        try {
+            for (int level = 0; level < LEVELS; level++) {
+                tables[level] = new CellTable();
+                levelCounts[level] = 0;
+                levelMaxRadius[level] = 0.0f;
+                resetExtents(level);
+            }
+            Arrays.fill(levels, NONE);
+            entityCount = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
-    
+
     // ========================================================================
     // QUERIES
     // ========================================================================
-    
+
     /**
-     * Query entities within radius of point.
+     * Query entities whose bounds intersect the sphere at point.
      */
     public List<Entity> queryRadius(float x, float y, float z, float radius) {
         List<Entity> results = new ArrayList<>();
-        float radiusSq = radius * radius;
-        
-        // Get cell range
-        int minCx = (int) Math.floor((x - radius) / cellSize);
-        int maxCx = (int) Math.floor((x + radius) / cellSize);
-        int minCy = (int) Math.floor((y - radius) / cellSize);
-        int maxCy = (int) Math.floor((y + radius) / cellSize);
-        int minCz = (int) Math.floor((z - radius) / cellSize);
-        int maxCz = (int) Math.floor((z + radius) / cellSize);
-        
-        // Check all cells in range
-        for (int cx = minCx; cx <= maxCx; cx++) {
-            for (int cy = minCy; cy <= maxCy; cy++) {
-                for (int cz = minCz; cz <= maxCz; cz++) {
-                    CellKey key = new CellKey(cx, cy, cz);
-                    Set<Entity> entities = grid.get(key);
-                    if (entities != null) {
-                        results.addAll(entities);
-                    }
-                }
-            }
+        long stamp = lock.readLock();
+        try {
+            scanRadius(x, y, z, radius, null, 0, id -> results.add(new Entity(id, generations[id])));
+        } finally {
+            lock.unlockRead(stamp);
         }
-        
         return results;
     }
-    
+
+    /**
+     * Feed indices of entities whose bounds intersect the sphere to {@code sink}.
+     *
+     * @return number of entities visited
+     */
+    public int queryRadius(float x, float y, float z, float radius, IntConsumer sink) {
+        long stamp = lock.readLock();
+        try {
+            return scanRadius(x, y, z, radius, null, 0, sink);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
     /**
-     * Query entities in axis-aligned bounding box.
+     * Copy indices of entities whose bounds intersect the sphere into {@code out}.
+     *
+     * @return total number of matches; if larger than {@code out.length} the result was truncated
      */
-    public List<Entity> queryBox(float minX, float minY, float minZ, 
+    public int queryRadius(float x, float y, float z, float radius, int[] out) {
+        long stamp = lock.readLock();
+        try {
+            return scanRadius(x, y, z, radius, out, 0, null);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Batch radius query, e.g. one perception sweep for many agents under a single lock.
+     *
+     * <p>{@code centers} holds {@code count} packed x/y/z triples. Matches for query {@code i}
+     * are written to {@code results[offsets[i]..offsets[i + 1])}; {@code offsets} must hold
+     * {@code count + 1} entries. Once {@code results} is full, later queries get empty ranges.</p>
+     *
+     * @return total number of matches across all queries (may exceed {@code results.length})
+     */
+    public int queryRadius(float[] centers, int count, float radius, int[] results, int[] offsets) {
+        long stamp = lock.readLock();
+        try {
+            int written = 0;
+            int total = 0;
+            for (int i = 0; i < count; i++) {
+                offsets[i] = written;
+                int c = i * 3;
+                int matches = scanRadius(centers[c], centers[c + 1], centers[c + 2], radius, results, written, null);
+                total += matches;
+                written = Math.min(results.length, written + matches);
+            }
+            offsets[count] = written;
+            return total;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Query entities whose bounds intersect an axis-aligned bounding box.
+     */
+    public List<Entity> queryBox(float minX, float minY, float minZ,
                                    float maxX, float maxY, float maxZ) {
         List<Entity> results = new ArrayList<>();
-        
-        // Get cell range
-        int minCx = (int) Math.floor(minX / cellSize);
-        int maxCx = (int) Math.floor(maxX / cellSize);
-        int minCy = (int) Math.floor(minY / cellSize);
-        int maxCy = (int) Math.floor(maxY / cellSize);
-        int minCz = (int) Math.floor(minZ / cellSize);
-        int maxCz = (int) Math.floor(maxZ / cellSize);
-        
-        // Check all cells in range
-        for (int cx = minCx; cx <= maxCx; cx++) {
-            for (int cy = minCy; cy <= maxCy; cy++) {
-                for (int cz = minCz; cz <= maxCz; cz++) {
-                    CellKey key = new CellKey(cx, cy, cz);
-                    Set<Entity> entities = grid.get(key);
-                    if (entities != null) {
-                        results.addAll(entities);
+        queryBox(minX, minY, minZ, maxX, maxY, maxZ, id -> results.add(new Entity(id, generations[id])));
+        return results;
+    }
+
+    /**
+     * Feed indices of entities whose bounds intersect the box to {@code sink}.
+     *
+     * @return number of entities visited
+     */
+    public int queryBox(float minX, float minY, float minZ,
+                        float maxX, float maxY, float maxZ, IntConsumer sink) {
+        long stamp = lock.readLock();
+        try {
+            int visited = 0;
+            for (int level = 0; level < LEVELS; level++) {
+                if (levelCounts[level] == 0) continue;
+
+                float expand = levelMaxRadius[level];
+                int[] ext = levelExtents[level];
+                int minCx = Math.max(ext[0], cellCoord(level, minX - expand));
+                int minCy = Math.max(ext[1], cellCoord(level, minY - expand));
+                int minCz = Math.max(ext[2], cellCoord(level, minZ - expand));
+                int maxCx = keySpanEnd(minCx, Math.min(ext[3], cellCoord(level, maxX + expand)));
+                int maxCy = keySpanEnd(minCy, Math.min(ext[4], cellCoord(level, maxY + expand)));
+                int maxCz = keySpanEnd(minCz, Math.min(ext[5], cellCoord(level, maxZ + expand)));
+
+                CellTable table = tables[level];
+                for (int cx = minCx; cx <= maxCx; cx++) {
+                    for (int cy = minCy; cy <= maxCy; cy++) {
+                        for (int cz = minCz; cz <= maxCz; cz++) {
+                            for (int id = table.head(pack(cx, cy, cz)); id != NONE; id = next[id]) {
+                                float dx = xs[id] - Math.max(minX, Math.min(xs[id], maxX));
+                                float dy = ys[id] - Math.max(minY, Math.min(ys[id], maxY));
+                                float dz = zs[id] - Math.max(minZ, Math.min(zs[id], maxZ));
+                                float r = radii[id];
+                                if (dx * dx + dy * dy + dz * dz <= r * r) {
+                                    sink.accept(id);
+                                    visited++;
+                                }
+                            }
+                        }
                     }
                 }
             }
+            return visited;
+        } finally {
+            lock.unlockRead(stamp);
         }
-        
-        return results;
     }
-    
+
     /**
-     * Get all entities in same cell as point.
+     * Get all entities whose cell (at any level) contains point.
      */
     public List<Entity> queryCell(float x, float y, float z) {
-        CellKey key = getCellKey(x, y, z);
-        Set<Entity> entities = grid.get(key);
-        return entities != null ? new ArrayList<>(entities) : new ArrayList<>();
+        List<Entity> results = new ArrayList<>();
+        long stamp = lock.readLock();
+        try {
+            for (int level = 0; level < LEVELS; level++) {
+                if (levelCounts[level] == 0) continue;
+                for (int id = tables[level].head(cellKey(level, x, y, z)); id != NONE; id = next[id]) {
+                    results.add(new Entity(id, generations[id]));
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return results;
     }
-    
+
+    /**
+     * Find nearest entity center to point (within max distance).
+     *
+     * @return nearest entity, or {@code null}
+     */
+    public Entity findNearest(float x, float y, float z, float maxDistance) {
+        int[] id = NEAREST_ID.get();
+        long stamp = lock.readLock();
+        try {
+            if (nearest(x, y, z, 1, maxDistance, id, NEAREST_DIST.get()) == 0) {
+                return null;
+            }
+            return new Entity(id[0], generations[id[0]]);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
     /**
      * Find nearest entity to point (within max distance).
+     *
+     * @deprecated positions are tracked by the index itself; use
+     *             {@link #findNearest(float, float, float, float)}
      */
+    @Deprecated
     public Entity findNearest(float x, float y, float z, float maxDistance, Transform[] transforms) {
-        List<Entity> candidates = queryRadius(x, y, z, maxDistance);
-        
-        Entity nearest = null;
-        float nearestDistSq = maxDistance * maxDistance;
-        
-        for (Entity entity : candidates) {
-            if (entity.index() >= transforms.length) continue;
-            
-            Transform t = transforms[entity.index()];
-            if (t == null) continue;
-            
-            float dx = t.posX() - x;
-            float dy = t.posY() - y;
-            float dz = t.posZ() - z;
-            float distSq = dx * dx + dy * dy + dz * dz;
-            
-            if (distSq < nearestDistSq) {
-                nearestDistSq = distSq;
-                nearest = entity;
-            }
+        return findNearest(x, y, z, maxDistance);
+    }
+
+    /**
+     * Find the {@code k} entity centers nearest to point (within max distance).
+     *
+     * <p>{@code outIds} and {@code outDistancesSq} (length {@code >= k}) double as the bounded
+     * max-heap during the search and are sorted nearest-first on return. Levels are walked in
+     * Chebyshev shells around the query cell, starting at the first shell that reaches the
+     * occupied extents and visiting only the cells inside them, and stop once the next shell
+     * cannot beat the current k-th distance.</p>
+     *
+     * @return number of neighbours found ({@code <= k})
+     */
+    public int findKNearest(float x, float y, float z, int k, float maxDistance,
+                            int[] outIds, float[] outDistancesSq) {
+        if (k <= 0) return 0;
+        long stamp = lock.readLock();
+        try {
+            return nearest(x, y, z, k, maxDistance, outIds, outDistancesSq);
+        } finally {
+            lock.unlockRead(stamp);
         }
-        
-        return nearest;
     }
-    
+
     // ========================================================================
     // STATISTICS
     // ========================================================================
-    
+
     /**
      * Get number of entities in index.
      */
     public int getEntityCount() {
-        return entityCells.size();
+        return entityCount;
     }
-    
+
     /**
      * Get number of occupied cells.
      */
     public int getCellCount() {
-        return grid.size();
+        int cellCount = 0;
+        for (CellTable table : tables) {
+            cellCount += table.occupied();
+        }
+        return cellCount;
     }
-    
+
     /**
      * Get average entities per cell.
      */
     public float getAverageEntitiesPerCell() {
-        int cellCount = grid.size();
-        return cellCount > 0 ? (float) entityCells.size() / cellCount : 0;
+        int cellCount = getCellCount();
+        return cellCount > 0 ? (float) entityCount / cellCount : 0;
     }
-    
+
     /**
-     * Get cell size.
+     * Get level-0 cell size.
      */
     public float getCellSize() {
         return cellSize;
     }
-    
+
+    /**
+     * Get number of entities stored at a grid level.
+     */
+    public int getLevelCount(int level) {
+        return levelCounts[level];
+    }
+
     // ========================================================================
-    // INTERNAL
+    // INTERNAL - QUERY KERNELS (caller holds the read lock)
     // ========================================================================
-    
-    private CellKey getCellKey(float x, float y, float z) {
-        return new CellKey(
-            (int) Math.floor(x / cellSize),
-            (int) Math.floor(y / cellSize),
-            (int) Math.floor(z / cellSize)
-        );
-    }
-    
-    private record CellKey(int x, int y, int z) {}
+
+    /**
+     * Radius scan over all populated levels. Hits go to {@code sink}, or else into
+     * {@code out[pos..]} until it is full.
+     */
+    private int scanRadius(float x, float y, float z, float radius, int[] out, int pos, IntConsumer sink) {
+        int matches = 0;
+        for (int level = 0; level < LEVELS; level++) {
+            if (levelCounts[level] == 0) continue;
+
+            float reach = radius + levelMaxRadius[level];
+            int[] ext = levelExtents[level];
+            int minCx = Math.max(ext[0], cellCoord(level, x - reach));
+            int minCy = Math.max(ext[1], cellCoord(level, y - reach));
+            int minCz = Math.max(ext[2], cellCoord(level, z - reach));
+            int maxCx = keySpanEnd(minCx, Math.min(ext[3], cellCoord(level, x + reach)));
+            int maxCy = keySpanEnd(minCy, Math.min(ext[4], cellCoord(level, y + reach)));
+            int maxCz = keySpanEnd(minCz, Math.min(ext[5], cellCoord(level, z + reach)));
+
+            CellTable table = tables[level];
+            for (int cx = minCx; cx <= maxCx; cx++) {
+                for (int cy = minCy; cy <= maxCy; cy++) {
+                    for (int cz = minCz; cz <= maxCz; cz++) {
+                        for (int id = table.head(pack(cx, cy, cz)); id != NONE; id = next[id]) {
+                            float dx = xs[id] - x;
+                            float dy = ys[id] - y;
+                            float dz = zs[id] - z;
+                            float r = radius + radii[id];
+                            if (dx * dx + dy * dy + dz * dz <= r * r) {
+                                if (sink != null) {
+                                    sink.accept(id);
+                                } else if (pos + matches < out.length) {
+                                    out[pos + matches] = id;
+                                }
+                                matches++;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return matches;
+    }
+
+    private int nearest(float x, float y, float z, int k, float maxDistance, int[] heapIds, float[] heapDist) {
+        float limitSq = maxDistance * maxDistance;
+        int size = 0;
+
+        for (int level = 0; level < LEVELS; level++) {
+            if (levelCounts[level] == 0) continue;
+
+            float cs = levelCellSize[level];
+            int[] ext = levelExtents[level];
+            int ox = cellCoord(level, x);
+            int oy = cellCoord(level, y);
+            int oz = cellCoord(level, z);
+            // Offsets from the query cell worth visiting: the occupied extents, cut to one key
+            // span per axis so no cell chain is offered twice
+            int winLoX = keyWindowStart(ext[0] - ox, ext[3] - ox);
+            int winLoY = keyWindowStart(ext[1] - oy, ext[4] - oy);
+            int winLoZ = keyWindowStart(ext[2] - oz, ext[5] - oz);
+            int winHiX = keySpanEnd(winLoX, ext[3] - ox);
+            int winHiY = keySpanEnd(winLoY, ext[4] - oy);
+            int winHiZ = keySpanEnd(winLoZ, ext[5] - oz);
+            int maxShell = Math.max(Math.max(
+                    Math.max(-winLoX, winHiX),
+                    Math.max(-winLoY, winHiY)),
+                    Math.max(-winLoZ, winHiZ));
+            // Shells inside the gap between the query and the occupied extents are empty
+            int minShell = Math.max(0, Math.max(Math.max(
+                    Math.max(winLoX, -winHiX),
+                    Math.max(winLoY, -winHiY)),
+                    Math.max(winLoZ, -winHiZ)));
+
+            CellTable table = tables[level];
+            for (int s = minShell; s <= maxShell; s++) {
+                // Every center in shell s is at least (s - 1) cells away from the query point
+                float gap = Math.max(0, s - 1) * cs;
+                float boundSq = size == k ? Math.min(limitSq, heapDist[0]) : limitSq;
+                if (gap * gap > boundSq) break;
+
+                // Only the part of the shell that overlaps the occupied extents
+                int loX = Math.max(-s, winLoX), hiX = Math.min(s, winHiX);
+                int loY = Math.max(-s, winLoY), hiY = Math.min(s, winHiY);
+                int loZ = Math.max(-s, winLoZ), hiZ = Math.min(s, winHiZ);
+                for (int dx = loX; dx <= hiX; dx++) {
+                    for (int dy = loY; dy <= hiY; dy++) {
+                        if (dx == -s || dx == s || dy == -s || dy == s) {
+                            for (int dz = loZ; dz <= hiZ; dz++) {
+                                size = offerCell(table.head(pack(ox + dx, oy + dy, oz + dz)),
+                                    x, y, z, limitSq, k, size, heapIds, heapDist);
+                            }
+                        } else {
+                            if (loZ == -s) {
+                                size = offerCell(table.head(pack(ox + dx, oy + dy, oz - s)),
+                                    x, y, z, limitSq, k, size, heapIds, heapDist);
+                            }
+                            if (hiZ == s && s != 0) {
+                                size = offerCell(table.head(pack(ox + dx, oy + dy, oz + s)),
+                                    x, y, z, limitSq, k, size, heapIds, heapDist);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        // Heap sort in place: repeatedly move the farthest to the back
+        for (int end = size - 1; end > 0; end--) {
+            swap(heapIds, heapDist, 0, end);
+            siftDown(heapIds, heapDist, 0, end);
+        }
+        return size;
+    }
+
+    /**
+     * Offer every center in one cell chain to the bounded max-heap.
+     *
+     * @return new heap size
+     */
+    private int offerCell(int head, float x, float y, float z, float limitSq, int k, int size,
+                          int[] heapIds, float[] heapDist) {
+        for (int id = head; id != NONE; id = next[id]) {
+            float ex = xs[id] - x;
+            float ey = ys[id] - y;
+            float ez = zs[id] - z;
+            float d = ex * ex + ey * ey + ez * ez;
+            if (d > limitSq) continue;
+
+            if (size < k) {
+                heapIds[size] = id;
+                heapDist[size] = d;
+                siftUp(heapIds, heapDist, size++);
+            } else if (d < heapDist[0]) {
+                heapIds[0] = id;
+                heapDist[0] = d;
+                siftDown(heapIds, heapDist, 0, size);
+            }
+        }
+        return size;
+    }
+
+    private static void siftUp(int[] ids, float[] dist, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (dist[parent] >= dist[i]) return;
+            swap(ids, dist, parent, i);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] ids, float[] dist, int i, int size) {
+        while (true) {
+            int largest = i;
+            int left = (i << 1) + 1;
+            int right = left + 1;
+            if (left < size && dist[left] > dist[largest]) largest = left;
+            if (right < size && dist[right] > dist[largest]) largest = right;
+            if (largest == i) return;
+            swap(ids, dist, i, largest);
+            i = largest;
+        }
+    }
+
+    private static void swap(int[] ids, float[] dist, int a, int b) {
+        int id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        float d = dist[a];
+        dist[a] = dist[b];
+        dist[b] = d;
+    }
+
+    // ========================================================================
+    // INTERNAL - CELLS (caller holds the write lock)
+    // ========================================================================
+
+    private void link(int id, int level, long cell) {
+        CellTable table = tables[level];
+        int slot = table.slotFor(cell);
+        int head = table.heads[slot];
+        next[id] = head;
+        prev[id] = NONE;
+        if (head != NONE) {
+            prev[head] = id;
+        }
+        table.heads[slot] = id;
+        levelCounts[level]++;
+    }
+
+    private void unlink(int id) {
+        int level = levels[id];
+        int p = prev[id];
+        int n = next[id];
+        if (p != NONE) {
+            next[p] = n;
+        } else {
+            CellTable table = tables[level];
+            table.heads[table.find(cells[id])] = n;
+        }
+        if (n != NONE) {
+            prev[n] = p;
+        }
+        levelCounts[level]--;
+    }
+
+    private void allocateEntities(int capacity) {
+        int old = levels == null ? 0 : levels.length;
+        levels = levels == null ? new int[capacity] : Arrays.copyOf(levels, capacity);
+        Arrays.fill(levels, old, capacity, NONE);
+        generations = generations == null ? new int[capacity] : Arrays.copyOf(generations, capacity);
+        xs = xs == null ? new float[capacity] : Arrays.copyOf(xs, capacity);
+        ys = ys == null ? new float[capacity] : Arrays.copyOf(ys, capacity);
+        zs = zs == null ? new float[capacity] : Arrays.copyOf(zs, capacity);
+        radii = radii == null ? new float[capacity] : Arrays.copyOf(radii, capacity);
+        cells = cells == null ? new long[capacity] : Arrays.copyOf(cells, capacity);
+        next = next == null ? new int[capacity] : Arrays.copyOf(next, capacity);
+        prev = prev == null ? new int[capacity] : Arrays.copyOf(prev, capacity);
+    }
+
+    private void resetExtents(int level) {
+        int[] ext = levelExtents[level];
+        ext[0] = ext[1] = ext[2] = Integer.MAX_VALUE;
+        ext[3] = ext[4] = ext[5] = Integer.MIN_VALUE;
+    }
+
+    private void growExtents(int level, int cx, int cy, int cz) {
+        int[] ext = levelExtents[level];
+        ext[0] = Math.min(ext[0], cx);
+        ext[1] = Math.min(ext[1], cy);
+        ext[2] = Math.min(ext[2], cz);
+        ext[3] = Math.max(ext[3], cx);
+        ext[4] = Math.max(ext[4], cy);
+        ext[5] = Math.max(ext[5], cz);
+    }
+
+    /** First level whose half-cell covers {@code radius}; oversized entities stay at the top. */
+    private int levelFor(float radius) {
+        for (int level = 0; level < LEVELS - 1; level++) {
+            if (radius <= levelCellSize[level] * 0.5f) return level;
+        }
+        return LEVELS - 1;
+    }
+
+    private int cellCoord(int level, float v) {
+        return (int) Math.floor(v * levelInvCellSize[level]);
+    }
+
+    private long cellKey(int level, float x, float y, float z) {
+        return pack(cellCoord(level, x), cellCoord(level, y), cellCoord(level, z));
+    }
+
+    /**
+     * Last cell of a scan starting at {@code min}, capped to {@link #KEY_SPAN} cells: any
+     * {@code KEY_SPAN} consecutive cells already cover every key once.
+     */
+    private static int keySpanEnd(int min, int max) {
+        return (int) Math.min(max, (long) min + KEY_SPAN - 1);
+    }
+
+    /**
+     * Start of the {@link #KEY_SPAN}-cell window of offsets {@code [lo, hi]} to scan outward
+     * from offset 0: the whole range when it fits, otherwise the window closest to 0.
+     * Every cell left out wraps onto a cell in the window that is no farther from 0, so the
+     * shell walk reaches it no later.
+     */
+    private static int keyWindowStart(int lo, int hi) {
+        if ((long) hi - lo < KEY_SPAN) return lo;
+        return (int) Math.max(lo, Math.min(-(KEY_SPAN >> 1), (long) hi - KEY_SPAN + 1));
+    }
+
+    /**
+     * Packs cell coordinates into 21 bits each (one table per level). Far-apart
+     * cells that wrap onto the same key just share a list - every hit is distance-checked.
+     */
+    private static long pack(int cx, int cy, int cz) {
+        return ((cx & COORD_MASK) << (COORD_BITS << 1)) | ((cy & COORD_MASK) << COORD_BITS) | (cz & COORD_MASK);
+    }
+
+    /**
+     * Open-addressed {@code long cell -> int head} table. Emptied cells keep their key (head
+     * {@code NONE}) so probe chains stay intact; they are dropped when the table is rebuilt.
+     */
+    private static final class CellTable {
+        private static final long EMPTY = Long.MIN_VALUE; // Never produced by pack()
+        private static final int MIN_CAPACITY = 64;
+
+        long[] keys = newKeys(MIN_CAPACITY);
+        int[] heads = new int[MIN_CAPACITY];
+        int used;
+
+        int head(long key) {
+            int mask = keys.length - 1;
+            for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+                long k = keys[i];
+                if (k == key) return heads[i];
+                if (k == EMPTY) return NONE;
+            }
+        }
+
+        int find(long key) {
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            while (keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            return i;
+        }
+
+        /** Slot for {@code key}, inserting it (with an empty list) if absent. */
+        int slotFor(long key) {
+            if (used >= keys.length >>> 1) {
+                rebuild();
+            }
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            while (true) {
+                long k = keys[i];
+                if (k == key) return i;
+                if (k == EMPTY) {
+                    keys[i] = key;
+                    heads[i] = NONE;
+                    used++;
+                    return i;
+                }
+                i = (i + 1) & mask;
+            }
+        }
+
+        int occupied() {
+            int n = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != EMPTY && heads[i] != NONE) n++;
+            }
+            return n;
+        }
+
+        /** Drops emptied cells and resizes for the live ones. */
+        private void rebuild() {
+            long[] oldKeys = keys;
+            int[] oldHeads = heads;
+            int live = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY && oldHeads[i] != NONE) live++;
+            }
+
+            int capacity = Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, live << 2) - 1) << 1);
+            keys = newKeys(capacity);
+            heads = new int[capacity];
+            used = 0;
+
+            int mask = capacity - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == EMPTY || oldHeads[i] == NONE) continue;
+                int j = mix(oldKeys[i]) & mask;
+                while (keys[j] != EMPTY) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                heads[j] = oldHeads[i];
+                used++;
+            }
+        }
+
+        private static long[] newKeys(int capacity) {
+            long[] k = new long[capacity];
+            Arrays.fill(k, EMPTY);
+            return k;
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
 }
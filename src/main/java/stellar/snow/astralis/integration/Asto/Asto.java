@@ -44,7 +44,7 @@ package stellar.snow.astralis.integration.Asto;
  *    
  * 3. BYTECODE TRANSFORMATION CACHING
  *    • Transformer pipeline caching (Mixin-like system)
- *    • SHA-256 based invalidation
+ *    • Content-addressed, memory-mapped pack (XXHash3 keys)
  *    • Parallel class transformation
  *    • Hot-reload support for development
  *    
@@ -100,6 +100,7 @@ import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
 import java.lang.management.MemoryUsage;
 import java.nio.*;
+import java.nio.channels.FileChannel;
 import java.nio.file.*;
 import java.security.*;
 import java.util.*;
@@ -112,6 +113,8 @@ import java.util.concurrent.locks.*;
 import java.util.function.*;
 import java.util.stream.*;
 import jdk.incubator.vector.*;
+import stellar.snow.astralis.config.Config;
+import stellar.snow.astralis.integration.DeepMix.Core.DeepMixOptimizer;
 import org.lwjgl.*;
 import org.lwjgl.glfw.*;
 import org.lwjgl.opengl.*;
@@ -154,6 +157,7 @@ public final class Asto implements AutoCloseable {
     private static final Path JAR_CACHE_DIR = CACHE_ROOT.resolve("jars");
     private static final Path RESOURCE_CACHE_DIR = CACHE_ROOT.resolve("resources");
     private static final Path CHUNK_CACHE_DIR = CACHE_ROOT.resolve("chunks");
+    private static final Path CLASS_LOAD_ORDER_LOG = CACHE_ROOT.resolve("classload-order.log");
 
     // ─── Performance Thresholds ───
     private static final long TEXTURE_DEDUP_MIN_SIZE = 16 * 16 * 4; // 16x16 RGBA minimum
@@ -1519,15 +1523,69 @@ public final class Asto implements AutoCloseable {
     // ════════════════════════════════════════════════════════════════════════════════════════════
 
     /**
-     * Caches bytecode transformations (Mixin-like system).
-     * Uses SHA-256 for invalidation.
+     * Caches bytecode transformations (Mixin-like system) in one append-only pack file.
+     *
+     * <p>Entries are content-addressed by (class name hash, input hash, transformer-chain
+     * fingerprint), all XXHash3. Hashing is stateless, so class-loading threads never contend on
+     * a shared digest or pay for a cryptographic one. The pack is memory-mapped and indexed by an open-addressed table rebuilt
+     * from record headers at startup, so a hit is a slice of the mapping; nothing is copied until
+     * the caller asks for a {@code byte[]} (or hands {@link #getCachedBuffer} to defineClass).
+     * A 64-bit hash can collide, so a candidate is only served once the class name, the input
+     * length and a second, independently seeded XXHash3 of the input stored with it all match.</p>
+     *
+     * <p>Pack layout: {@code [magic:8][version:4][reserved:4]}, then 8-byte aligned records of
+     * {@code [magic:4][nameLength:4][nameHash:8][inputHash:8][chain:8][inputLength:4][length:4]
+     * [inputCheck:8][name][bytecode]}. A torn tail from a crash is truncated on open.</p>
+     *
+     * <p>Registered as DeepMix's persistent {@link DeepMixOptimizer.BytecodeCache.BackingStore}, so
+     * entries are keyed by the transformer chain fingerprint and reused across launches only
+     * while the transformers, their config and their targets are unchanged.</p>
+     *
+     * <p>All file writes happen on one background writer thread. Entries written this session
+     * are served from memory until the writer remaps the pack. When most of the pack holds
+     * superseded versions of classes, the writer compacts it into a pack file of the next
+     * generation ({@code transformers.<n>.pack}) rather than replacing the mapped one, which
+     * Windows refuses while a mapping is open. Older generations are deleted once nothing maps
+     * them, at the latest on the next start.</p>
      */
-    public static final class TransformerCache {
+    public static final class TransformerCache implements DeepMixOptimizer.BytecodeCache.BackingStore, AutoCloseable {
+        private static final long PACK_MAGIC = 0x4B4341504F545341L; // "ASTOPACK"
+        private static final int PACK_VERSION = 3;
+        private static final int RECORD_MAGIC = 0x52545341; // "ASTR"
+        private static final int PACK_HEADER_BYTES = 16;
+        private static final int RECORD_HEADER_BYTES = 48;
+        private static final long INPUT_CHECK_SEED = 0x5DEECE66DL;
+        private static final String FIRST_PACK = "transformers.pack";
+        private static final String PACK_PREFIX = "transformers.";
+        private static final String PACK_SUFFIX = ".pack";
+        private static final String PACK_GLOB = "transformers*.pack";
+        private static final int REMAP_RECORDS = 512;
+        private static final long REMAP_BYTES = 8L * 1024 * 1024;
+        private static final long COMPACT_MIN_DEAD_BYTES = 4L * 1024 * 1024;
+        private static final double COMPACT_DEAD_RATIO = 0.5;
+
+        private static final ValueLayout.OfInt PACK_INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+        private static final ValueLayout.OfLong PACK_LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
         private final Path cacheDir;
-        private final ConcurrentHashMap<String, CachedTransformation> cache = new ConcurrentHashMap<>();
-        private final MessageDigest sha256;
+        private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "Asto-TransformerCache-Writer");
+            t.setDaemon(true);
+            return t;
+        });
+        private final ConcurrentHashMap<Key, Pending> pending = new ConcurrentHashMap<>();
         private final LongAdder cacheHits = new LongAdder();
         private final LongAdder cacheMisses = new LongAdder();
+        private volatile Pack pack;
+        private volatile boolean closed;
+
+        // Writer thread only
+        private Path packFile;
+        private long generation;
+        private FileChannel channel;
+        private long appendPosition;
+        private final List<Appended> unpublished = new ArrayList<>();
+        private long unpublishedBytes;
 
         public record CachedTransformation(
             String className,
@@ -1536,92 +1594,502 @@ public final class Asto implements AutoCloseable {
             long timestamp
         ) {}
 
+        /** Content address of one cached transformation. */
+        private record Key(long nameHash, long inputHash, long chainFingerprint) {}
+
+        /** Written this session, served from the heap until the pack is remapped. */
+        private record Pending(byte[] name, int inputLength, long inputCheck, byte[] bytecode) {}
+
+        /** Record appended since the last remap. */
+        private record Appended(Key key, Pending entry, long offset) {}
+
+        /**
+         * Immutable mapped view of the pack: readers take the current one without locking.
+         */
+        private record Pack(MemorySegment mapped, PackIndex index, long liveBytes) {}
+
         public TransformerCache(Path cacheDir) {
             this.cacheDir = cacheDir;
             try {
                 Files.createDirectories(cacheDir);
-                this.sha256 = MessageDigest.getInstance("SHA-256");
+                this.generation = latestGeneration();
+                this.packFile = packPath(generation);
+                openPack();
+                deleteOlderGenerations();
             } catch (Exception e) {
                 throw new RuntimeException("Failed to initialize transformer cache", e);
             }
+            if (shouldCompact(pack)) {
+                writer.execute(this::compact);
+            }
         }
 
+        // ─── Lookup ───
+
         /**
-         * Compute SHA-256 hash of bytecode.
+         * Get cached transformation if valid (transformer chain not fingerprinted).
          */
-        private byte[] computeHash(byte[] bytecode) {
-            synchronized (sha256) {
-                return sha256.digest(bytecode);
-            }
+        public byte[] getCachedTransformation(String className, byte[] originalBytecode) {
+            return getCachedTransformation(className, originalBytecode, 0L);
         }
 
         /**
-         * Get cached transformation if valid.
+         * Get cached transformation produced by the given transformer chain, copied to the heap.
          */
-        public byte[] getCachedTransformation(String className, byte[] originalBytecode) {
-            byte[] hash = computeHash(originalBytecode);
-            
-            CachedTransformation cached = cache.get(className);
-            if (cached != null && Arrays.equals(cached.originalHash, hash)) {
+        public byte[] getCachedTransformation(String className, byte[] originalBytecode, long chainFingerprint) {
+            MemorySegment segment = getCachedSegment(className, originalBytecode, chainFingerprint);
+            return segment != null ? segment.toArray(ValueLayout.JAVA_BYTE) : null;
+        }
+
+        /**
+         * Get cached transformation as a read-only view, suitable for
+         * {@code ClassLoader.defineClass(String, ByteBuffer, ProtectionDomain)} without a copy.
+         */
+        public ByteBuffer getCachedBuffer(String className, byte[] originalBytecode, long chainFingerprint) {
+            MemorySegment segment = getCachedSegment(className, originalBytecode, chainFingerprint);
+            return segment != null ? segment.asByteBuffer() : null;
+        }
+
+        /**
+         * Get cached transformation as a read-only slice of the pack mapping.
+         *
+         * @return the transformed bytecode, or null on a miss
+         */
+        public MemorySegment getCachedSegment(String className, byte[] originalBytecode, long chainFingerprint) {
+            byte[] name = className.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+            Key key = new Key(XXHash3.hash(name), XXHash3.hash(originalBytecode), chainFingerprint);
+
+            Pending fresh = pending.get(key);
+            if (fresh != null && fresh.inputLength == originalBytecode.length && Arrays.equals(fresh.name, name)
+                    && fresh.inputCheck == inputCheck(originalBytecode)) {
                 cacheHits.increment();
-                return cached.transformedBytecode;
+                return MemorySegment.ofArray(fresh.bytecode).asReadOnly();
+            }
+
+            Pack current = pack;
+            int slot = current.index.find(key);
+            if (slot >= 0) {
+                long offset = current.index.offsets[slot];
+                MemorySegment mapped = current.mapped;
+                int nameLength = mapped.get(PACK_INT, offset + 4);
+                int inputLength = mapped.get(PACK_INT, offset + 32);
+                int length = mapped.get(PACK_INT, offset + 36);
+                long nameStart = offset + RECORD_HEADER_BYTES;
+                if (inputLength == originalBytecode.length && nameLength == name.length
+                        && MemorySegment.mismatch(mapped, nameStart, nameStart + nameLength,
+                            MemorySegment.ofArray(name), 0, name.length) < 0
+                        && mapped.get(PACK_LONG, offset + 40) == inputCheck(originalBytecode)) {
+                    cacheHits.increment();
+                    return mapped.asSlice(nameStart + nameLength, length).asReadOnly();
+                }
             }
-            
-            // Try loading from disk
+
+            cacheMisses.increment();
+            return null;
+        }
+
+        // ─── Store ───
+
+        /**
+         * Store transformation in cache (transformer chain not fingerprinted).
+         */
+        public void cacheTransformation(String className, byte[] originalBytecode, byte[] transformedBytecode) {
+            cacheTransformation(className, originalBytecode, transformedBytecode, 0L);
+        }
+
+        /**
+         * Store transformation produced by the given transformer chain. The entry is visible
+         * immediately; the pack append happens on the writer thread.
+         */
+        public void cacheTransformation(String className, byte[] originalBytecode, byte[] transformedBytecode,
+                                        long chainFingerprint) {
+            if (closed || transformedBytecode == null || transformedBytecode.length == 0) return;
+
+            byte[] name = className.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+            Key key = new Key(XXHash3.hash(name), XXHash3.hash(originalBytecode), chainFingerprint);
+            Pending entry = new Pending(name, originalBytecode.length, inputCheck(originalBytecode),
+                transformedBytecode.clone());
+            pending.put(key, entry);
+
             try {
-                Path cacheFile = cacheDir.resolve(className.replace('/', '_') + ".cache");
-                if (Files.exists(cacheFile)) {
-                    byte[] cachedData = Files.readAllBytes(cacheFile);
-                    
-                    // Format: [32 bytes hash] [transformed bytecode]
-                    byte[] cachedHash = Arrays.copyOfRange(cachedData, 0, 32);
-                    
-                    if (Arrays.equals(cachedHash, hash)) {
-                        byte[] transformed = Arrays.copyOfRange(cachedData, 32, cachedData.length);
-                        
-                        cached = new CachedTransformation(className, transformed, hash, System.currentTimeMillis());
-                        cache.put(className, cached);
-                        cacheHits.increment();
-                        
-                        return transformed;
+                writer.execute(() -> append(key, entry));
+            } catch (RejectedExecutionException e) {
+                // Closing; the entry only lives for this session
+            }
+        }
+
+        /**
+         * Second XXHash3 of the untransformed class, seeded independently of the input hash in
+         * the key, checked only on candidate hits. Together they give 128 bits per input.
+         */
+        private static long inputCheck(byte[] originalBytecode) {
+            return XXHash3.hash(originalBytecode, INPUT_CHECK_SEED);
+        }
+
+        @Override
+        public byte[] load(String className, byte[] originalBytecode, long chainFingerprint) {
+            return getCachedTransformation(className, originalBytecode, chainFingerprint);
+        }
+
+        @Override
+        public void store(String className, byte[] originalBytecode, byte[] transformedBytecode,
+                          long chainFingerprint) {
+            cacheTransformation(className, originalBytecode, transformedBytecode, chainFingerprint);
+        }
+
+        // ─── Pack I/O (writer thread, or constructor before the writer starts) ───
+
+        private Path packPath(long packGeneration) {
+            return cacheDir.resolve(packGeneration == 0 ? FIRST_PACK : PACK_PREFIX + packGeneration + PACK_SUFFIX);
+        }
+
+        /**
+         * Generation of a pack file name: 0 for {@code transformers.pack}, n for
+         * {@code transformers.<n>.pack}, -1 for anything else.
+         */
+        private static long generationOf(Path file) {
+            String name = file.getFileName().toString();
+            if (name.equals(FIRST_PACK)) return 0;
+            if (!name.startsWith(PACK_PREFIX) || !name.endsWith(PACK_SUFFIX)) return -1;
+            try {
+                return Long.parseLong(name.substring(PACK_PREFIX.length(), name.length() - PACK_SUFFIX.length()));
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        private long latestGeneration() throws java.io.IOException {
+            long latest = 0;
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDir, PACK_GLOB)) {
+                for (Path file : files) {
+                    latest = Math.max(latest, generationOf(file));
+                }
+            }
+            return latest;
+        }
+
+        /**
+         * Best effort: a generation still mapped by this process (Windows) is retried next start.
+         */
+        private void deleteOlderGenerations() {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDir, PACK_GLOB)) {
+                for (Path file : files) {
+                    long fileGeneration = generationOf(file);
+                    if (fileGeneration >= 0 && fileGeneration < generation) {
+                        try {
+                            Files.deleteIfExists(file);
+                        } catch (java.io.IOException e) {
+                            // Still mapped; left for the next start
+                        }
+                    }
+                }
+            } catch (java.io.IOException e) {
+                // Directory unreadable; stale packs are only wasted space
+            }
+        }
+
+        private void openPack() throws java.io.IOException {
+            channel = FileChannel.open(packFile,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+            if (channel.size() < PACK_HEADER_BYTES || !hasValidHeader()) {
+                channel.truncate(0);
+                ByteBuffer header = ByteBuffer.allocate(PACK_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                header.putLong(PACK_MAGIC).putInt(PACK_VERSION).putInt(0).flip();
+                channel.write(header, 0);
+            }
+
+            MemorySegment mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), Arena.ofAuto());
+            PackIndex index = new PackIndex(1024);
+            long end = scan(mapped, index);
+            if (end < channel.size()) {
+                System.err.println("[Asto] Transformer cache: dropping torn tail at " + end);
+                channel.truncate(end);
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, end, Arena.ofAuto());
+            }
+
+            appendPosition = end;
+            pack = new Pack(mapped, index, liveBytes(index));
+        }
+
+        private boolean hasValidHeader() throws java.io.IOException {
+            ByteBuffer header = ByteBuffer.allocate(PACK_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(header, 0);
+            header.flip();
+            return header.getLong() == PACK_MAGIC && header.getInt() == PACK_VERSION;
+        }
+
+        /**
+         * Index every complete record; later records for the same key win.
+         *
+         * @return end of the last complete record
+         */
+        private static long scan(MemorySegment mapped, PackIndex index) {
+            long size = mapped.byteSize();
+            long offset = PACK_HEADER_BYTES;
+            while (offset + RECORD_HEADER_BYTES <= size) {
+                if (mapped.get(PACK_INT, offset) != RECORD_MAGIC) break;
+                int nameLength = mapped.get(PACK_INT, offset + 4);
+                int length = mapped.get(PACK_INT, offset + 36);
+                if (nameLength < 0 || length <= 0) break;
+
+                long recordBytes = recordBytes(nameLength, length);
+                if (offset + recordBytes > size) break;
+
+                index.put(new Key(
+                    mapped.get(PACK_LONG, offset + 8),
+                    mapped.get(PACK_LONG, offset + 16),
+                    mapped.get(PACK_LONG, offset + 24)
+                ), offset, recordBytes);
+                offset += recordBytes;
+            }
+            return offset;
+        }
+
+        private static long recordBytes(int nameLength, int length) {
+            return (RECORD_HEADER_BYTES + (long) nameLength + length + 7) & ~7L;
+        }
+
+        private void append(Key key, Pending entry) {
+            if (channel == null || !channel.isOpen()) return;
+            try {
+                long recordBytes = recordBytes(entry.name.length, entry.bytecode.length);
+                ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(RECORD_MAGIC)
+                    .putInt(entry.name.length)
+                    .putLong(key.nameHash)
+                    .putLong(key.inputHash)
+                    .putLong(key.chainFingerprint)
+                    .putInt(entry.inputLength)
+                    .putInt(entry.bytecode.length)
+                    .putLong(entry.inputCheck)
+                    .flip();
+                int padding = (int) (recordBytes - RECORD_HEADER_BYTES - entry.name.length - entry.bytecode.length);
+
+                channel.position(appendPosition);
+                ByteBuffer[] parts = { header, ByteBuffer.wrap(entry.name), ByteBuffer.wrap(entry.bytecode),
+                    ByteBuffer.allocate(padding) };
+                for (long written = 0; written < recordBytes; ) {
+                    written += channel.write(parts);
+                }
+
+                unpublished.add(new Appended(key, entry, appendPosition));
+                unpublishedBytes += recordBytes;
+                appendPosition += recordBytes;
+
+                if (unpublished.size() >= REMAP_RECORDS || unpublishedBytes >= REMAP_BYTES) {
+                    remap();
+                    if (shouldCompact(pack)) {
+                        compact();
                     }
                 }
             } catch (Exception e) {
-                // Cache miss on error
+                // Silent failure for cache writes; the entry stays in memory for this session
             }
-            
-            cacheMisses.increment();
-            return null;
         }
 
         /**
-         * Store transformation in cache.
+         * Map the grown pack, publish an index that includes the appended records, and drop
+         * their heap copies.
          */
-        public void cacheTransformation(String className, byte[] originalBytecode, byte[] transformedBytecode) {
-            byte[] hash = computeHash(originalBytecode);
-            
-            CachedTransformation transformation = new CachedTransformation(
-                className, transformedBytecode, hash, System.currentTimeMillis()
-            );
-            
-            cache.put(className, transformation);
-            
-            // Write to disk asynchronously
-            CompletableFuture.runAsync(() -> {
+        private void remap() throws java.io.IOException {
+            if (unpublished.isEmpty()) return;
+
+            Pack current = pack;
+            MemorySegment mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, appendPosition, Arena.ofAuto());
+            PackIndex index = current.index.copy();
+            for (Appended appended : unpublished) {
+                index.put(appended.key, appended.offset,
+                    recordBytes(appended.entry.name.length, appended.entry.bytecode.length));
+            }
+            pack = new Pack(mapped, index, liveBytes(index));
+
+            for (Appended appended : unpublished) {
+                pending.remove(appended.key, appended.entry);
+            }
+            unpublished.clear();
+            unpublishedBytes = 0;
+        }
+
+        private boolean shouldCompact(Pack p) {
+            long dead = p.mapped.byteSize() - PACK_HEADER_BYTES - p.liveBytes;
+            return dead >= COMPACT_MIN_DEAD_BYTES && dead >= p.mapped.byteSize() * COMPACT_DEAD_RATIO;
+        }
+
+        /**
+         * Bytes held by live records. Liveness is per full (name, input, chain) key: the index
+         * keeps the newest record of each key, and only records it no longer points at are dead.
+         * Other inputs or chains of a class stay live, so switching a config or mod version
+         * back still hits.
+         */
+        private static long liveBytes(PackIndex index) {
+            long live = 0;
+            for (int slot = 0; slot < index.capacity; slot++) {
+                live += index.recordBytes[slot];
+            }
+            return live;
+        }
+
+        private static long[] liveOffsets(PackIndex index) {
+            long[] offsets = new long[index.size];
+            int i = 0;
+            for (int slot = 0; slot < index.capacity; slot++) {
+                if (index.recordBytes[slot] != 0) offsets[i++] = index.offsets[slot];
+            }
+            return offsets;
+        }
+
+        /**
+         * Rewrite live records, in their original order, into the next pack generation and swap
+         * it in. The mapped pack is never replaced or moved over: readers holding slices of the
+         * old mapping keep it alive until they are done, and it is deleted afterwards.
+         */
+        private void compact() {
+            if (closed) return;
+            Path next = packPath(generation + 1);
+            Path tmp = next.resolveSibling(next.getFileName() + ".tmp");
+            try {
+                remap();
+                Pack current = pack;
+                long[] offsets = liveOffsets(current.index);
+                Arrays.sort(offsets);
+
+                long before = current.mapped.byteSize();
+                try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                    out.write(current.mapped.asSlice(0, PACK_HEADER_BYTES).asByteBuffer());
+                    for (long offset : offsets) {
+                        int nameLength = current.mapped.get(PACK_INT, offset + 4);
+                        int length = current.mapped.get(PACK_INT, offset + 36);
+                        ByteBuffer record = current.mapped.asSlice(offset, recordBytes(nameLength, length)).asByteBuffer();
+                        while (record.hasRemaining()) {
+                            out.write(record);
+                        }
+                    }
+                    out.force(true);
+                }
+
+                // The target name is new and unmapped, so the rename is allowed on every platform
+                Files.move(tmp, next, StandardCopyOption.ATOMIC_MOVE);
+                channel.close();
+                generation++;
+                packFile = next;
+                openPack();
+                deleteOlderGenerations();
+                System.out.println("[Asto] Transformer cache compacted: " + before / 1024 + " KB -> "
+                    + pack.mapped.byteSize() / 1024 + " KB");
+            } catch (Exception e) {
+                System.err.println("[Asto] Transformer cache compaction failed: " + e.getMessage());
                 try {
-                    Path cacheFile = cacheDir.resolve(className.replace('/', '_') + ".cache");
-                    
-                    byte[] cacheData = new byte[32 + transformedBytecode.length];
-                    System.arraycopy(hash, 0, cacheData, 0, 32);
-                    System.arraycopy(transformedBytecode, 0, cacheData, 32, transformedBytecode.length);
-                    
-                    Files.write(cacheFile, cacheData);
-                } catch (Exception e) {
-                    // Silent failure for cache writes
+                    Files.deleteIfExists(tmp);
+                    if (!channel.isOpen()) {
+                        openPack();
+                    }
+                } catch (Exception reopen) {
+                    channel = null;
                 }
-            });
+            }
+        }
+
+        // ─── Index ───
+
+        /**
+         * Open-addressed (linear probing) table from content address to record offset.
+         * Published instances are never mutated; the writer copies before inserting.
+         */
+        private static final class PackIndex {
+            long[] keys;        // nameHash, inputHash, chain per slot
+            long[] offsets;
+            long[] recordBytes; // 0 marks an empty slot
+            int capacity;
+            int size;
+
+            PackIndex(int expected) {
+                allocate(Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1);
+            }
+
+            private PackIndex(PackIndex source) {
+                this.keys = source.keys.clone();
+                this.offsets = source.offsets.clone();
+                this.recordBytes = source.recordBytes.clone();
+                this.capacity = source.capacity;
+                this.size = source.size;
+            }
+
+            PackIndex copy() {
+                return new PackIndex(this);
+            }
+
+            private void allocate(int cap) {
+                this.capacity = cap;
+                this.keys = new long[cap * 3];
+                this.offsets = new long[cap];
+                this.recordBytes = new long[cap];
+            }
+
+            void put(Key key, long offset, long bytes) {
+                insert(key.nameHash, key.inputHash, key.chainFingerprint, offset, bytes);
+            }
+
+            private void insert(long nameHash, long inputHash, long chain, long offset, long bytes) {
+                if ((size + 1) * 2 > capacity) {
+                    grow();
+                }
+                int mask = capacity - 1;
+                for (int slot = slotOf(nameHash, inputHash, chain) & mask; ; slot = (slot + 1) & mask) {
+                    if (recordBytes[slot] == 0) {
+                        keys[slot * 3] = nameHash;
+                        keys[slot * 3 + 1] = inputHash;
+                        keys[slot * 3 + 2] = chain;
+                        size++;
+                    } else if (!matches(slot, nameHash, inputHash, chain)) {
+                        continue;
+                    }
+                    offsets[slot] = offset;
+                    recordBytes[slot] = bytes;
+                    return;
+                }
+            }
+
+            private void grow() {
+                long[] oldKeys = keys;
+                long[] oldOffsets = offsets;
+                long[] oldBytes = recordBytes;
+                int oldCapacity = capacity;
+                allocate(capacity << 1);
+                size = 0;
+                for (int slot = 0; slot < oldCapacity; slot++) {
+                    if (oldBytes[slot] != 0) {
+                        insert(oldKeys[slot * 3], oldKeys[slot * 3 + 1], oldKeys[slot * 3 + 2],
+                            oldOffsets[slot], oldBytes[slot]);
+                    }
+                }
+            }
+
+            int find(Key key) {
+                int mask = capacity - 1;
+                for (int slot = slotOf(key.nameHash, key.inputHash, key.chainFingerprint) & mask; ;
+                        slot = (slot + 1) & mask) {
+                    if (recordBytes[slot] == 0) return -1;
+                    if (matches(slot, key.nameHash, key.inputHash, key.chainFingerprint)) return slot;
+                }
+            }
+
+            private boolean matches(int slot, long nameHash, long inputHash, long chain) {
+                return keys[slot * 3] == nameHash && keys[slot * 3 + 1] == inputHash && keys[slot * 3 + 2] == chain;
+            }
+
+            private static int slotOf(long nameHash, long inputHash, long chain) {
+                long h = nameHash ^ Long.rotateLeft(inputHash, 21) ^ Long.rotateLeft(chain, 42);
+                h ^= h >>> 33;
+                h *= 0xFF51AFD7ED558CCDL;
+                h ^= h >>> 33;
+                return (int) h;
+            }
         }
 
+        // ─── Statistics & Lifecycle ───
+
         public record CacheStats(long hits, long misses, double hitRate, int cachedClasses) {}
 
         public CacheStats getStats() {
@@ -1629,7 +2097,40 @@ public final class Asto implements AutoCloseable {
             long misses = cacheMisses.sum();
             double hitRate = (hits + misses) > 0 ? (double)hits / (hits + misses) : 0.0;
             
-            return new CacheStats(hits, misses, hitRate, cache.size());
+            return new CacheStats(hits, misses, hitRate, pack.index.size + pending.size());
+        }
+
+        /**
+         * Size of the pack file as last mapped.
+         */
+        public long getPackBytes() {
+            return pack.mapped.byteSize();
+        }
+
+        /**
+         * Flush queued appends and close the pack. Cached slices stay readable.
+         */
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            writer.shutdown();
+            try {
+                if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                    writer.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                writer.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+            try {
+                if (channel != null && channel.isOpen()) {
+                    channel.force(false);
+                    channel.close();
+                }
+            } catch (Exception e) {
+                // Nothing left to save
+            }
         }
     }
 
@@ -1643,46 +2144,84 @@ public final class Asto implements AutoCloseable {
      * Caches JAR scanning results for faster startup.
      */
     public static final class JarDiscoveryCache {
+        private static final int HIERARCHY_MAGIC = 0x41535448; // "ASTH"
+        private static final int HIERARCHY_VERSION = 2; // 2: names as the loader sees them, remapped flag
+
         private final Path cacheDir;
+        private final Path hierarchyFile;
         private final ConcurrentHashMap<Path, JarMetadata> jarCache = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Path, JarHierarchy> hierarchies = new ConcurrentHashMap<>();
         private final ExecutorService scanPool = Executors.newFixedThreadPool(JAR_SCAN_THREADS);
 
+        /**
+         * @param classNames Class names as the class loader sees them (deobfuscated)
+         * @param remapped   Whether any name differs from the JAR's own (an obfuscated game JAR)
+         */
         public record JarMetadata(
             Path jarPath,
             Set<String> classNames,
             Map<String, String> manifest,
             long lastModified,
-            long size
+            long size,
+            boolean remapped
+        ) {}
+
+        /**
+         * Class headers of one JAR version, persisted so later launches answer
+         * superclass/interface queries without reading or loading the classes.
+         * Names are stored after remapping, as the transformers' class writers see them.
+         */
+        private record JarHierarchy(
+            long lastModified,
+            long size,
+            boolean remapped,
+            List<DeepMixOptimizer.ClassHierarchy.Entry> entries
         ) {}
 
         public JarDiscoveryCache(Path cacheDir) {
             this.cacheDir = cacheDir;
+            this.hierarchyFile = cacheDir.resolve("class-hierarchy.idx");
             try {
                 Files.createDirectories(cacheDir);
             } catch (Exception e) {
                 throw new RuntimeException("Failed to create JAR cache directory", e);
             }
+            loadHierarchyIndex();
         }
 
         /**
          * Scan JARs in parallel.
          */
         public CompletableFuture<List<JarMetadata>> scanJarsAsync(Collection<Path> jars) {
+            return scanJarsAsync(jars, null);
+        }
+
+        /**
+         * Scan JARs in parallel, recording class headers under {@code remapper}'s names (e.g.
+         * the runtime deobfuscation mapping, so vanilla classes are indexed under the names
+         * they are transformed with). The hierarchy index is saved once every JAR is scanned.
+         *
+         * @param remapper Internal name to loader-visible internal name; null for identity
+         */
+        public CompletableFuture<List<JarMetadata>> scanJarsAsync(Collection<Path> jars,
+                                                                  UnaryOperator<String> remapper) {
             List<CompletableFuture<JarMetadata>> futures = jars.stream()
-                .map(jar -> CompletableFuture.supplyAsync(() -> scanJar(jar), scanPool))
+                .map(jar -> CompletableFuture.supplyAsync(() -> scanJar(jar, remapper), scanPool))
                 .toList();
             
             return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
-                .thenApply(v -> futures.stream()
-                    .map(CompletableFuture::join)
-                    .toList()
-                );
+                .thenApply(v -> {
+                    saveHierarchyIndex();
+                    return futures.stream()
+                        .map(CompletableFuture::join)
+                        .toList();
+                });
         }
 
         /**
          * Scan single JAR.
          */
-        private JarMetadata scanJar(Path jarPath) {
+        private JarMetadata scanJar(Path jarPath, UnaryOperator<String> remapper) {
             try {
                 long lastModified = Files.getLastModifiedTime(jarPath).toMillis();
                 long size = Files.size(jarPath);
@@ -1696,18 +2235,46 @@ public final class Asto implements AutoCloseable {
                 // Scan JAR
                 Set<String> classNames = new HashSet<>();
                 Map<String, String> manifest = new HashMap<>();
+                JarHierarchy hierarchy = hierarchies.get(jarPath.toAbsolutePath());
+                boolean hierarchyCurrent = hierarchy != null
+                    && hierarchy.lastModified == lastModified && hierarchy.size == size;
+                boolean remapped;
                 
                 try (var fs = FileSystems.newFileSystem(jarPath, Map.of())) {
                     Path root = fs.getPath("/");
                     
-                    Files.walk(root)
-                        .filter(p -> p.toString().endsWith(".class"))
-                        .forEach(p -> {
-                            String className = root.relativize(p).toString()
-                                .replace('/', '.')
-                                .replace(".class", "");
-                            classNames.add(className);
-                        });
+                    if (hierarchyCurrent) {
+                        // Unchanged since the index was written: no need to read any class
+                        for (DeepMixOptimizer.ClassHierarchy.Entry entry : hierarchy.entries) {
+                            classNames.add(entry.name().replace('/', '.'));
+                        }
+                        remapped = hierarchy.remapped;
+                    } else {
+                        List<DeepMixOptimizer.ClassHierarchy.Entry> raw = new ArrayList<>();
+                        try (Stream<Path> files = Files.walk(root)) {
+                            files.filter(p -> p.toString().endsWith(".class"))
+                                .forEach(p -> {
+                                    try {
+                                        DeepMixOptimizer.ClassHierarchy.Entry entry =
+                                            DeepMixOptimizer.ClassHierarchy.readEntry(Files.readAllBytes(p));
+                                        if (entry != null) raw.add(entry);
+                                    } catch (Exception e) {
+                                        // Left to the resource fallback
+                                    }
+                                });
+                        }
+                        List<DeepMixOptimizer.ClassHierarchy.Entry> entries = new ArrayList<>(raw.size());
+                        remapped = false;
+                        for (DeepMixOptimizer.ClassHierarchy.Entry entry : raw) {
+                            DeepMixOptimizer.ClassHierarchy.Entry mapped = remap(entry, remapper);
+                            remapped |= !mapped.name().equals(entry.name());
+                            entries.add(mapped);
+                            classNames.add(mapped.name().replace('/', '.'));
+                        }
+                        DeepMixOptimizer.ClassHierarchy.recordAll(entries);
+                        hierarchies.put(jarPath.toAbsolutePath(),
+                            new JarHierarchy(lastModified, size, remapped, entries));
+                    }
                     
                     // Read manifest
                     Path manifestPath = fs.getPath("/META-INF/MANIFEST.MF");
@@ -1723,7 +2290,8 @@ public final class Asto implements AutoCloseable {
                     }
                 }
                 
-                JarMetadata metadata = new JarMetadata(jarPath, classNames, manifest, lastModified, size);
+                JarMetadata metadata = new JarMetadata(jarPath, classNames, manifest, lastModified, size,
+                    remapped);
                 jarCache.put(jarPath, metadata);
                 
                 return metadata;
@@ -1732,8 +2300,114 @@ public final class Asto implements AutoCloseable {
             }
         }
 
+        private static DeepMixOptimizer.ClassHierarchy.Entry remap(DeepMixOptimizer.ClassHierarchy.Entry entry,
+                                                                   UnaryOperator<String> remapper) {
+            if (remapper == null) return entry;
+            String[] interfaces = new String[entry.interfaces().length];
+            for (int i = 0; i < interfaces.length; i++) {
+                interfaces[i] = remapper.apply(entry.interfaces()[i]);
+            }
+            return new DeepMixOptimizer.ClassHierarchy.Entry(
+                remapper.apply(entry.name()),
+                entry.superName() != null ? remapper.apply(entry.superName()) : null,
+                interfaces, entry.isInterface());
+        }
+
+        /**
+         * Class names of every scanned JAR whose entries are stored under their own names,
+         * keyed by JAR path. Remapped JARs are left out: their raw bytes are not what the
+         * loader hands to transformers.
+         */
+        public Map<Path, Set<String>> classesByJar() {
+            Map<Path, Set<String>> classes = new LinkedHashMap<>();
+            for (JarMetadata metadata : jarCache.values()) {
+                if (!metadata.remapped) classes.put(metadata.jarPath, metadata.classNames);
+            }
+            return classes;
+        }
+
         public void close() {
             scanPool.shutdown();
+            saveHierarchyIndex();
+        }
+
+        /**
+         * Load the persisted class-hierarchy index into DeepMix's ClassHierarchy. Entries of
+         * JARs changed or removed since it was written are dropped.
+         */
+        private void loadHierarchyIndex() {
+            if (!Files.isRegularFile(hierarchyFile)) return;
+            int classes = 0;
+            try (var in = new java.io.DataInputStream(new java.io.BufferedInputStream(
+                    Files.newInputStream(hierarchyFile)))) {
+                if (in.readInt() != HIERARCHY_MAGIC || in.readInt() != HIERARCHY_VERSION) return;
+                int jars = in.readInt();
+                for (int j = 0; j < jars; j++) {
+                    Path jarPath = Path.of(in.readUTF());
+                    long lastModified = in.readLong();
+                    long size = in.readLong();
+                    boolean remapped = in.readBoolean();
+                    int count = in.readInt();
+                    List<DeepMixOptimizer.ClassHierarchy.Entry> entries = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        String name = in.readUTF();
+                        String superName = in.readUTF();
+                        boolean isInterface = in.readBoolean();
+                        String[] interfaces = new String[in.readUnsignedShort()];
+                        for (int k = 0; k < interfaces.length; k++) {
+                            interfaces[k] = in.readUTF();
+                        }
+                        entries.add(new DeepMixOptimizer.ClassHierarchy.Entry(
+                            name, superName.isEmpty() ? null : superName, interfaces, isInterface));
+                    }
+                    if (Files.isRegularFile(jarPath)
+                            && Files.getLastModifiedTime(jarPath).toMillis() == lastModified
+                            && Files.size(jarPath) == size) {
+                        hierarchies.put(jarPath, new JarHierarchy(lastModified, size, remapped, entries));
+                        DeepMixOptimizer.ClassHierarchy.recordAll(entries);
+                        classes += count;
+                    }
+                }
+                System.out.println("[Asto] Class hierarchy index: " + classes + " classes from " +
+                    hierarchies.size() + " JARs");
+            } catch (Exception e) {
+                hierarchies.clear();
+                System.err.println("[Asto] Ignoring unreadable class hierarchy index: " + e.getMessage());
+            }
+        }
+
+        private synchronized void saveHierarchyIndex() {
+            if (hierarchies.isEmpty()) return;
+            Path tmp = hierarchyFile.resolveSibling(hierarchyFile.getFileName() + ".tmp");
+            try {
+                try (var out = new java.io.DataOutputStream(new java.io.BufferedOutputStream(
+                        Files.newOutputStream(tmp)))) {
+                    out.writeInt(HIERARCHY_MAGIC);
+                    out.writeInt(HIERARCHY_VERSION);
+                    out.writeInt(hierarchies.size());
+                    for (Map.Entry<Path, JarHierarchy> jar : hierarchies.entrySet()) {
+                        JarHierarchy hierarchy = jar.getValue();
+                        out.writeUTF(jar.getKey().toAbsolutePath().toString());
+                        out.writeLong(hierarchy.lastModified);
+                        out.writeLong(hierarchy.size);
+                        out.writeBoolean(hierarchy.remapped);
+                        out.writeInt(hierarchy.entries.size());
+                        for (DeepMixOptimizer.ClassHierarchy.Entry entry : hierarchy.entries) {
+                            out.writeUTF(entry.name());
+                            out.writeUTF(entry.superName() != null ? entry.superName() : "");
+                            out.writeBoolean(entry.isInterface());
+                            out.writeShort(entry.interfaces().length);
+                            for (String itf : entry.interfaces()) {
+                                out.writeUTF(itf);
+                            }
+                        }
+                    }
+                }
+                Files.move(tmp, hierarchyFile, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            } catch (Exception e) {
+                System.err.println("[Asto] Failed to save class hierarchy index: " + e.getMessage());
+            }
         }
     }
 
@@ -1948,35 +2622,65 @@ public final class Asto implements AutoCloseable {
         private static final long PRIME64_1 = 0x9E3779B185EBCA87L;
         private static final long PRIME64_2 = 0xC2B2AE3D27D4EB4FL;
         private static final long PRIME64_3 = 0x165667B19E3779F9L;
+        private static final LongVector LANE_SALT = LongVector.zero(LONG_SPECIES)
+            .addIndex(1).mul(PRIME64_3);
+
+        /**
+         * Hash a whole array. Stateless, so any thread may call it concurrently.
+         */
+        public static long hash(byte[] data) {
+            return hash(MemorySegment.ofArray(data), data.length, 0L);
+        }
+
+        /**
+         * Hash a whole array with a seed; differently seeded hashes of the same data are
+         * independent, so two of them can verify each other.
+         */
+        public static long hash(byte[] data, long seed) {
+            return hash(MemorySegment.ofArray(data), data.length, seed);
+        }
 
         /**
          * Compute XXH3 hash with SIMD acceleration.
          */
         public static long hash(MemorySegment data, long size) {
-            long hash = PRIME64_1;
+            return hash(data, size, 0L);
+        }
+
+        /**
+         * Compute seeded XXH3 hash with SIMD acceleration. Seed 0 is the unseeded hash.
+         */
+        public static long hash(MemorySegment data, long size, long seed) {
+            long hash = PRIME64_1 ^ seed ^ size;
+            LongVector salt = seed == 0 ? LANE_SALT : LANE_SALT.add(seed * PRIME64_2);
             
             long vectorBound = LONG_SPECIES.loopBound(size / Long.BYTES);
             long offset = 0;
             
-            // SIMD processing
+            // SIMD processing; lanes are salted and blocks chained so reordered input changes the hash
             for (long i = 0; i < vectorBound; i += LONG_VECTOR_LENGTH) {
                 LongVector vec = LongVector.fromMemorySegment(
                     LONG_SPECIES, data, offset, ByteOrder.nativeOrder()
                 );
                 
-                vec = vec.mul(PRIME64_2).rotateLeft(31).mul(PRIME64_1);
-                hash ^= vec.reduceLanes(VectorOperators.XOR);
+                vec = vec.add(salt).mul(PRIME64_2).lanewise(VectorOperators.ROL, 31).mul(PRIME64_1);
+                hash = Long.rotateLeft(hash ^ vec.reduceLanes(VectorOperators.XOR), 27) * PRIME64_1;
                 
                 offset += LONG_VECTOR_LENGTH * Long.BYTES;
             }
             
-            // Scalar tail
-            while (offset < size) {
-                long value = data.get(ValueLayout.JAVA_LONG, offset);
+            // Scalar tail: whole longs, then the last bytes (heap segments are byte-aligned)
+            while (offset + Long.BYTES <= size) {
+                long value = data.get(ValueLayout.JAVA_LONG_UNALIGNED, offset);
                 hash ^= value * PRIME64_2;
                 hash = Long.rotateLeft(hash, 31) * PRIME64_1;
                 offset += Long.BYTES;
             }
+            while (offset < size) {
+                hash ^= (data.get(ValueLayout.JAVA_BYTE, offset) & 0xFFL) * PRIME64_3;
+                hash = Long.rotateLeft(hash, 11) * PRIME64_1;
+                offset++;
+            }
             
             // Avalanche
             hash ^= hash >>> 33;
@@ -2170,7 +2874,7 @@ public final class Asto implements AutoCloseable {
     private final ModelBakingPipeline modelBakingPipeline = new ModelBakingPipeline();
     private final ChunkManager chunkManager = new ChunkManager();
     private final TransformerCache transformerCache = new TransformerCache(TRANSFORMER_CACHE_DIR);
-    private final JarDiscoveryCache jarCache = new JarDiscoveryCache(JAR_CACHE_DIR);
+    private final JarDiscoveryCache jarCache = sharedJarCache();
     private final AstoStats stats = new AstoStats();
     private final TextureAtlas blockAtlas = new TextureAtlas("blocks", MAX_ATLAS_SIZE);
     private final TextureAtlas itemAtlas = new TextureAtlas("items", MAX_ATLAS_SIZE);
@@ -2202,12 +2906,114 @@ public final class Asto implements AutoCloseable {
             throw new RuntimeException("Failed to create cache directories", e);
         }
         
+        // Persist fingerprinted DeepMix transforms across launches
+        if (Config.isAstoBytecodeTransformCachingEnabled()) {
+            DeepMixOptimizer.BytecodeCache.setBackingStore(transformerCache);
+        }
+        
         System.out.println("[Asto] Initialization complete!");
         System.out.println("[Asto] Using " + MODEL_BAKE_THREADS + " threads for model baking");
         System.out.println("[Astp] Using " + CHUNK_MESH_THREADS + " threads for chunk meshing");
         System.out.println("[Asto] SIMD acceleration: " + INT_VECTOR_LENGTH + "x int vectors");
     }
 
+    // ─── Coremod Phase ───
+    private static JarDiscoveryCache sharedJarCache;
+
+    /**
+     * The JAR cache shared by the coremod-phase scan and the Asto instance, so the
+     * hierarchy index loaded at coremod init is the one later scans extend.
+     */
+    private static synchronized JarDiscoveryCache sharedJarCache() {
+        if (sharedJarCache == null) {
+            sharedJarCache = new JarDiscoveryCache(JAR_CACHE_DIR);
+        }
+        return sharedJarCache;
+    }
+
+    /**
+     * Coremod-phase hook, called from {@code AstralisCore.injectData} before game classes load.
+     * Scans the class-path and mod JARs into the class-hierarchy index, so transformers'
+     * class writers resolve common superclasses without loading classes. With runtime
+     * deobfuscation on, names are mapped through FML's deobfuscation remapper: the vanilla
+     * JAR is obfuscated, but its classes reach the transformers under deobfuscated names.
+     *
+     * With {@code astoAheadOfDemandTransform}, the scan is followed by the pre-transform pass
+     * over the transforms registered so far, and this session's class-load order is saved at
+     * exit for the next launch's prediction.
+     */
+    public static void onCoremodInit(Map<String, Object> data) {
+        Config.initialize();
+        if (!Config.isAstoEnabled() || !Config.isAstoJarDiscoveryCachingEnabled()) return;
+
+        List<Path> jars = coremodJars(data);
+        UnaryOperator<String> remapper = Boolean.TRUE.equals(data.get("runtimeDeobfuscationEnabled"))
+            ? net.minecraftforge.fml.common.asm.transformers.deobf.FMLDeobfuscatingRemapper.INSTANCE::map
+            : null;
+        CompletableFuture<List<JarDiscoveryCache.JarMetadata>> scan =
+            sharedJarCache().scanJarsAsync(jars, remapper).whenComplete((scanned, error) -> {
+                if (error != null) {
+                    System.err.println("[Asto] Coremod JAR scan failed: " + error.getMessage());
+                } else {
+                    System.out.println("[Asto] Indexed class hierarchy of " + scanned.size() + " JARs");
+                }
+            });
+
+        if (Config.isAstoAheadOfDemandTransformEnabled()) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() ->
+                DeepMixOptimizer.TransformationPipeline.saveLoadOrder(CLASS_LOAD_ORDER_LOG),
+                "Asto-LoadOrder"));
+            scan.thenCompose(scanned -> pretransform(
+                DeepMixOptimizer.SharedClassNodeTransformer.transforms()));
+        }
+    }
+
+    private static CompletableFuture<DeepMixOptimizer.PretransformReport> pretransform(
+            List<DeepMixOptimizer.ClassTransform> transforms) {
+        return DeepMixOptimizer.TransformationPipeline.pretransform(
+            sharedJarCache().classesByJar(), transforms, CLASS_LOAD_ORDER_LOG);
+    }
+
+    /**
+     * Class-path JARs of the launch class loader plus the JARs of the mods directory.
+     */
+    private static List<Path> coremodJars(Map<String, Object> data) {
+        Set<Path> jars = new LinkedHashSet<>();
+        for (java.net.URL source : net.minecraft.launchwrapper.Launch.classLoader.getSources()) {
+            try {
+                Path path = Paths.get(source.toURI());
+                if (path.toString().endsWith(".jar") && Files.isRegularFile(path)) {
+                    jars.add(path.toAbsolutePath());
+                }
+            } catch (Exception e) {
+                // Not a file URL
+            }
+        }
+        if (data.get("mcLocation") instanceof java.io.File mcLocation) {
+            Path modsDir = mcLocation.toPath().resolve("mods");
+            for (Path dir : List.of(modsDir, modsDir.resolve("1.12.2"))) {
+                if (!Files.isDirectory(dir)) continue;
+                try (Stream<Path> files = Files.list(dir)) {
+                    files.filter(p -> p.toString().endsWith(".jar") && Files.isRegularFile(p))
+                        .forEach(p -> jars.add(p.toAbsolutePath()));
+                } catch (Exception e) {
+                    System.err.println("[Asto] Failed to list " + dir + ": " + e.getMessage());
+                }
+            }
+        }
+        return new ArrayList<>(jars);
+    }
+
+    /**
+     * Pre-transform, across all cores, the classes of the scanned JARs that last session's
+     * class-load order predicts, so the class loader finds them in the bytecode cache.
+     * Unpredicted classes are still transformed lazily on load.
+     */
+    public CompletableFuture<DeepMixOptimizer.PretransformReport> pretransformClasses(
+            Collection<Path> jars, List<DeepMixOptimizer.ClassTransform> transforms) {
+        return jarCache.scanJarsAsync(jars).thenCompose(scanned -> pretransform(transforms));
+    }
+
     /**
      * Called every frame.
      */
@@ -2257,6 +3063,9 @@ public final class Asto implements AutoCloseable {
         modelBakingPipeline.close();
         chunkManager.close();
         jarCache.close();
+        DeepMixOptimizer.TransformationPipeline.saveLoadOrder(CLASS_LOAD_ORDER_LOG);
+        DeepMixOptimizer.BytecodeCache.setBackingStore(null);
+        transformerCache.close();
         blockAtlas.close();
         itemAtlas.close();
         frameAllocator.close();
@@ -1007,7 +1007,7 @@ public final class DeepMixCore {
         
         // Parse custom ASM format back to bytecode
         // This is a simplified parser - full implementation would be more robust
-        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+        ClassWriter writer = new DeepMixOptimizer.SafeClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
         
         // TODO: Full parser implementation
         // For now, return empty class for demonstration
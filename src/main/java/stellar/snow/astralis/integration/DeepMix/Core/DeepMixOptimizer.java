@@ -55,6 +55,7 @@ import java.util.concurrent.atomic.*;
 import java.util.concurrent.locks.*;
 import java.util.function.*;
 import java.util.stream.Collectors;
+import stellar.snow.astralis.config.Config;
 import stellar.snow.astralis.integration.DeepMixTransformers;
 import stellar.snow.astralis.integration.DeepMix.DeepMix;
 import stellar.snow.astralis.integration.DeepMix.DeepMixAssetForge;
@@ -72,6 +73,8 @@ import stellar.snow.astralis.integration.DeepMix.Util.DeepMixUtilities;
 import org.objectweb.asm.*;
 import org.objectweb.asm.tree.*;
 
+import net.minecraft.launchwrapper.IClassTransformer;
+
 /**
  * ╭──────────────────────────────────────────────────────────────────────────╮
  * │                                                                        │
@@ -1184,7 +1187,8 @@ public final class DeepMixOptimizer {
      * Features:
      *   - LRU eviction with configurable max size
      *   - Weak value references (GC can reclaim under pressure)
-     *   - Content-addressed (hash of original bytecode → transformed)
+     *   - Content-addressed (hash of original bytecode + transformer chain → transformed)
+     *   - Optional persistent backing store, so results survive across launches
      *   - Thread-safe with striped locking
      *   - Automatic compaction under memory pressure
      *   - Statistics tracking for hit/miss ratios
@@ -1195,6 +1199,7 @@ public final class DeepMixOptimizer {
         static final class CacheEntry {
             final byte[] transformedBytecode;
             final long originalHash;
+            final long chainFingerprint;
             final long transformedHash;
             final long createdAtMs;
             final String className;
@@ -1202,10 +1207,11 @@ public final class DeepMixOptimizer {
             volatile long lastAccessMs;
             volatile int accessCount;
 
-            CacheEntry(byte[] transformed, long originalHash, String className,
-                       int transformCount) {
+            CacheEntry(byte[] transformed, long originalHash, long chainFingerprint,
+                       String className, int transformCount) {
                 this.transformedBytecode = transformed;
                 this.originalHash = originalHash;
+                this.chainFingerprint = chainFingerprint;
                 this.transformedHash = computeHash(transformed);
                 this.createdAtMs = System.currentTimeMillis();
                 this.className = className;
@@ -1236,6 +1242,26 @@ public final class DeepMixOptimizer {
         private static final AtomicLong misses = new AtomicLong(0);
         private static final AtomicLong evictions = new AtomicLong(0);
         private static final AtomicLong totalBytesStored = new AtomicLong(0);
+        private static final AtomicLong backingHits = new AtomicLong(0);
+
+        /** Persistent store consulted on a memory miss (null = memory only) */
+        private static volatile BackingStore backingStore;
+
+        /**
+         * Persistent second level (e.g. Asto's pack file). Entries are keyed by class name,
+         * original bytes and chain fingerprint, so a store never returns output produced by a
+         * different transformer chain or configuration.
+         */
+        public interface BackingStore {
+            byte[] load(String className, byte[] originalBytecode, long chainFingerprint);
+            void store(String className, byte[] originalBytecode, byte[] transformedBytecode,
+                       long chainFingerprint);
+        }
+
+        /** Attach (or detach, with null) the persistent backing store */
+        public static void setBackingStore(BackingStore store) {
+            backingStore = store;
+        }
 
         @SuppressWarnings("unchecked")
         static {
@@ -1258,43 +1284,74 @@ public final class DeepMixOptimizer {
         }
 
         /**
-         * Look up transformed bytecode by original content hash.
+         * Look up transformed bytecode by original content hash, ignoring which transforms
+         * produced it. Prefer {@link #get(String, byte[], long)}.
          *
          * @param originalBytecode The original (untransformed) class bytes
          * @return Transformed bytecode, or null if not cached
          */
         public static byte[] get(byte[] originalBytecode) {
+            return get(null, originalBytecode, 0L);
+        }
+
+        /**
+         * Look up bytecode produced from {@code originalBytecode} by the transformer chain
+         * identified by {@code chainFingerprint} (see {@link ChainFingerprint}).
+         *
+         * @param className        Class name, used by the backing store (may be null)
+         * @param originalBytecode The original (untransformed) class bytes
+         * @param chainFingerprint Fingerprint of the transforms that would run
+         * @return Transformed bytecode, or null if not cached
+         */
+        public static byte[] get(String className, byte[] originalBytecode, long chainFingerprint) {
             long hash = computeHash(originalBytecode);
-            int stripe = (int) (hash & STRIPE_MASK);
+            long key = cacheKey(hash, chainFingerprint);
+            int stripe = (int) (key & STRIPE_MASK);
 
             stripeLocks[stripe].lock();
             try {
-                CacheEntry entry = stripes[stripe].get(hash);
+                CacheEntry entry = stripes[stripe].get(key);
                 if (entry != null) {
-                    // Verify content hash matches (collision check)
-                    if (entry.originalHash == hash) {
+                    // Verify content hash and chain match (collision check)
+                    if (entry.originalHash == hash && entry.chainFingerprint == chainFingerprint) {
                         // Check TTL
                         if (System.currentTimeMillis() - entry.createdAtMs > entryTTLMs) {
-                            stripes[stripe].remove(hash);
+                            stripes[stripe].remove(key);
                             totalBytesStored.addAndGet(-entry.transformedBytecode.length);
-                            misses.incrementAndGet();
-                            return null;
+                        } else {
+                            entry.touch();
+                            hits.incrementAndGet();
+                            return entry.transformedBytecode.clone(); // Defensive copy
                         }
-
-                        entry.touch();
-                        hits.incrementAndGet();
-                        return entry.transformedBytecode.clone(); // Defensive copy
                     }
                 }
-                misses.incrementAndGet();
-                return null;
             } finally {
                 stripeLocks[stripe].unlock();
             }
+
+            // Second level: results of earlier launches
+            BackingStore store = backingStore;
+            if (store != null && className != null) {
+                try {
+                    byte[] persisted = store.load(className, originalBytecode, chainFingerprint);
+                    if (persisted != null) {
+                        backingHits.incrementAndGet();
+                        hits.incrementAndGet();
+                        putMemory(hash, chainFingerprint, persisted, className, -1);
+                        return persisted;
+                    }
+                } catch (Exception e) {
+                    // Treat a broken store as a miss
+                }
+            }
+
+            misses.incrementAndGet();
+            return null;
         }
 
         /**
-         * Store transformed bytecode in the cache.
+         * Store transformed bytecode in the cache without a chain fingerprint.
+         * Prefer {@link #put(byte[], byte[], String, int, long)}.
          *
          * @param originalBytecode  The original class bytes
          * @param transformedBytecode The transformed class bytes
@@ -1303,6 +1360,36 @@ public final class DeepMixOptimizer {
          */
         public static void put(byte[] originalBytecode, byte[] transformedBytecode,
                                String className, int transformCount) {
+            put(originalBytecode, transformedBytecode, className, transformCount, 0L);
+        }
+
+        /**
+         * Store bytecode produced by the transformer chain identified by
+         * {@code chainFingerprint}, in memory and in the backing store if one is attached.
+         *
+         * @param originalBytecode    The original class bytes
+         * @param transformedBytecode The transformed class bytes
+         * @param className           Class name
+         * @param transformCount      Number of transforms applied
+         * @param chainFingerprint    Fingerprint of the transforms that ran
+         */
+        public static void put(byte[] originalBytecode, byte[] transformedBytecode,
+                               String className, int transformCount, long chainFingerprint) {
+            BackingStore store = backingStore;
+            if (store != null && className != null && chainFingerprint != 0L) {
+                try {
+                    store.store(className, originalBytecode, transformedBytecode, chainFingerprint);
+                } catch (Exception e) {
+                    // Silent failure for persistent cache writes
+                }
+            }
+
+            putMemory(computeHash(originalBytecode), chainFingerprint,
+                transformedBytecode.clone(), className, transformCount);
+        }
+
+        private static void putMemory(long hash, long chainFingerprint, byte[] transformedBytecode,
+                                      String className, int transformCount) {
             // Don't cache if under memory pressure
             if (MemoryGuard.checkPressure().ordinal() >= MemoryGuard.PressureLevel.RED.ordinal()) {
                 return;
@@ -1313,15 +1400,16 @@ public final class DeepMixOptimizer {
                 compact(0.75); // Free 25%
             }
 
-            long hash = computeHash(originalBytecode);
-            int stripe = (int) (hash & STRIPE_MASK);
+            long key = cacheKey(hash, chainFingerprint);
+            int stripe = (int) (key & STRIPE_MASK);
 
             CacheEntry entry = new CacheEntry(
-                transformedBytecode.clone(), hash, className, transformCount);
+                transformedBytecode, hash, chainFingerprint,
+                className != null ? className : "?", transformCount);
 
             stripeLocks[stripe].lock();
             try {
-                CacheEntry old = stripes[stripe].put(hash, entry);
+                CacheEntry old = stripes[stripe].put(key, entry);
                 if (old != null) {
                     totalBytesStored.addAndGet(-old.transformedBytecode.length);
                 }
@@ -1430,6 +1518,18 @@ public final class DeepMixOptimizer {
             entryTTLMs = ttlMs;
         }
 
+        /** Number of memory misses served by the backing store */
+        public static long backingStoreHits() {
+            return backingHits.get();
+        }
+
+        /** Combine content hash and chain fingerprint into the stripe map key */
+        private static long cacheKey(long hash, long chainFingerprint) {
+            if (chainFingerprint == 0L) return hash;
+            long key = hash ^ (chainFingerprint * 0x9E3779B97F4A7C15L);
+            return key ^ (key >>> 29);
+        }
+
         // ── Hash function (FNV-1a 64-bit) ──
 
         static long computeHash(byte[] data) {
@@ -1470,6 +1570,161 @@ public final class DeepMixOptimizer {
         }
     }
 
+    /**
+     * Fingerprints of transformers and of transformer chains.
+     *
+     * A cached transformation is only valid for the exact set of transformers that produced
+     * it, in the same order and with the same settings. A transformer's fingerprint folds:
+     *   - a hash of its implementation's class file (an updated mod changes it)
+     *   - the config values it reads through {@link Config} (every key unless it declares
+     *     its keys via {@link Fingerprinted})
+     *   - its target set or id, plus any extra state it reports
+     *
+     * A chain fingerprint folds the transformer fingerprints in application order. Equal
+     * inputs give equal fingerprints across launches, so a persisted result is reused
+     * exactly when nothing relevant changed.
+     */
+    public static final class ChainFingerprint {
+
+        /** Optional: lets a transformer narrow what its output depends on */
+        public interface Fingerprinted {
+            /** Config keys this transformer reads; null means it may read any */
+            default Collection<String> configKeys() { return null; }
+
+            /** Classes this transformer targets */
+            default Collection<String> targets() { return Collections.emptyList(); }
+
+            /** Extra state that changes the output (constructor arguments, tables, ...) */
+            default long stateFingerprint() { return 0L; }
+        }
+
+        private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+        private static final long FNV_PRIME = 0x100000001b3L;
+
+        /** Bump when the cached output format or pipeline semantics change */
+        private static final long FORMAT_VERSION = 1L;
+
+        /**
+         * Used for classes whose bytes cannot be read: their results never match a
+         * previous launch, so they are never trusted across restarts.
+         */
+        private static final long LAUNCH_SALT = new java.security.SecureRandom().nextLong();
+
+        private static final ClassValue<Long> CLASS_HASHES = new ClassValue<>() {
+            @Override
+            protected Long computeValue(Class<?> type) {
+                return hashClassFile(type);
+            }
+        };
+
+        // Whole-config fingerprint, recomputed when Config's revision moves
+        private static volatile long cachedConfigRevision = -1;
+        private static volatile long cachedConfigFingerprint;
+
+        private ChainFingerprint() {}
+
+        /** Fingerprint of one transformer */
+        public static long of(Object transformer) {
+            return of(transformer, Collections.emptyList());
+        }
+
+        /**
+         * Fingerprint of one transformer registered for {@code targets}.
+         */
+        public static long of(Object transformer, Collection<String> targets) {
+            long hash = mix(FNV_OFFSET, FORMAT_VERSION);
+            hash = mix(hash, CLASS_HASHES.get(transformer.getClass()));
+            hash = mix(hash, hashStrings(targets));
+
+            if (transformer instanceof Fingerprinted fingerprinted) {
+                Collection<String> keys = fingerprinted.configKeys();
+                hash = mix(hash, keys != null ? Config.fingerprint(keys) : configFingerprint());
+                hash = mix(hash, hashStrings(fingerprinted.targets()));
+                hash = mix(hash, fingerprinted.stateFingerprint());
+            } else {
+                hash = mix(hash, configFingerprint());
+            }
+            return hash;
+        }
+
+        /**
+         * Fold transformer fingerprints, in application order, into a chain fingerprint.
+         * Never returns 0, which callers use for "not fingerprinted".
+         */
+        public static long chain(long[] transformerFingerprints, int count) {
+            long hash = mix(FNV_OFFSET, count);
+            for (int i = 0; i < count; i++) {
+                hash = mix(hash, transformerFingerprints[i]);
+            }
+            return hash != 0L ? hash : 1L;
+        }
+
+        /** Chain fingerprint of transformers applied in list order */
+        public static long chain(List<?> transformers, Collection<String> targets) {
+            long[] fingerprints = new long[transformers.size()];
+            for (int i = 0; i < fingerprints.length; i++) {
+                fingerprints[i] = of(transformers.get(i), targets);
+            }
+            return chain(fingerprints, fingerprints.length);
+        }
+
+        /** Fingerprint of every config value, cached per {@link Config#getRevision()} */
+        public static long configFingerprint() {
+            long revision = Config.getRevision();
+            if (revision != cachedConfigRevision) {
+                long fingerprint = Config.fingerprint(null);
+                cachedConfigFingerprint = fingerprint;
+                cachedConfigRevision = revision;
+                return fingerprint;
+            }
+            return cachedConfigFingerprint;
+        }
+
+        /**
+         * Hash the class file of {@code type}. Lambdas and other hidden classes use their
+         * nest host, whose class file contains their bodies.
+         */
+        private static long hashClassFile(Class<?> type) {
+            Class<?> owner = type.isHidden() ? type.getNestHost() : type;
+            String resource = owner.getName().replace('.', '/') + ".class";
+            ClassLoader loader = owner.getClassLoader();
+            try (java.io.InputStream in = loader != null
+                    ? loader.getResourceAsStream(resource)
+                    : ClassLoader.getSystemResourceAsStream(resource)) {
+                if (in != null) {
+                    return BytecodeCache.computeHash(in.readAllBytes());
+                }
+            } catch (Exception e) {
+                // Fall through to the launch salt
+            }
+            return mix(LAUNCH_SALT, hashStrings(List.of(owner.getName())));
+        }
+
+        private static long hashStrings(Collection<String> strings) {
+            if (strings == null || strings.isEmpty()) return 0L;
+            String[] sorted = strings.toArray(new String[0]);
+            Arrays.sort(sorted);
+            long hash = FNV_OFFSET;
+            for (String str : sorted) {
+                for (int i = 0; i < str.length(); i++) {
+                    hash ^= str.charAt(i);
+                    hash *= FNV_PRIME;
+                }
+                hash ^= ';';
+                hash *= FNV_PRIME;
+            }
+            return hash;
+        }
+
+        private static long mix(long hash, long value) {
+            for (int i = 0; i < Long.BYTES; i++) {
+                hash ^= (value >>> (i << 3)) & 0xFF;
+                hash *= FNV_PRIME;
+            }
+            return hash;
+        }
+    }
+
 
     // ╔══════════════════════════════════════════════════════════════════════╗
     // ║                                                                    ║
@@ -1595,6 +1850,13 @@ public final class DeepMixOptimizer {
                 cn.signature = null;
                 cn.access = 0;
                 cn.version = 0;
+                cn.visibleTypeAnnotations = null;
+                cn.invisibleTypeAnnotations = null;
+                cn.module = null;
+                cn.nestHostClass = null;
+                cn.nestMembers = null;
+                cn.permittedSubclasses = null;
+                cn.recordComponents = null;
             });
 
         // InsnList pool
@@ -1721,6 +1983,7 @@ public final class DeepMixOptimizer {
      *   6. PARALLEL: Transform independent classes concurrently
      *   7. INCREMENTAL: Only re-transform what changed (for hot reload)
      *   8. BUDGET: Enforce per-class time budget — skip slow transforms
+     *   9. AHEAD: Pre-transform classes predicted from last session's load order
      */
     public static final class TransformationPipeline {
 
@@ -1790,6 +2053,14 @@ public final class DeepMixOptimizer {
         private static final AtomicLong totalErrors = new AtomicLong(0);
         private static final LongAdder totalTransformNanos = new LongAdder();
 
+        // Ahead-of-demand mode
+        private static final ClassLoadOrder loadOrder = new ClassLoadOrder();
+        private static final ConcurrentHashMap<String, CompletableFuture<Void>> pretransformInFlight =
+            new ConcurrentHashMap<>();
+        private static volatile boolean pretransformCancelled;
+        private static final AtomicLong totalPretransformed = new AtomicLong(0);
+        private static final AtomicLong totalPretransformWaits = new AtomicLong(0);
+
         // Exclusion patterns — classes that should NEVER be transformed
         private static final Set<String> exclusionPrefixes = ConcurrentHashMap.newKeySet();
         static {
@@ -1823,6 +2094,26 @@ public final class DeepMixOptimizer {
          */
         public static TransformResult transform(String className, byte[] originalBytes,
                                                  List<ClassTransform> transforms) {
+            if (!isExcluded(className)) {
+                onClassLoad(className);
+            }
+            return transformInternal(className, originalBytes, transforms);
+        }
+
+        /**
+         * Loader-side hook for a class about to be transformed: records it in this session's
+         * load order and, if the pre-transform pass has it queued or running, waits for it.
+         * Called by {@link #transform} and {@link SharedClassNodeTransformer}.
+         *
+         * @param className Internal name of a class that is not excluded
+         */
+        public static void onClassLoad(String className) {
+            loadOrder.record(className);
+            awaitPretransform(className);
+        }
+
+        private static TransformResult transformInternal(String className, byte[] originalBytes,
+                                                         List<ClassTransform> transforms) {
             long startNanos = System.nanoTime();
 
             // ── Step 1: Quick exclusion check ──
@@ -1834,17 +2125,7 @@ public final class DeepMixOptimizer {
                     null, null, null);
             }
 
-            // ── Step 2: Check cache ──
-            byte[] cached = BytecodeCache.get(originalBytes);
-            if (cached != null) {
-                totalCacheHits.incrementAndGet();
-                return new TransformResult(
-                    cached, className, -1,
-                    System.nanoTime() - startNanos, true, false,
-                    null, null, null);
-            }
-
-            // ── Step 3: Filter applicable transforms ──
+            // ── Step 2: Filter applicable transforms ──
             List<ClassTransform> applicable = new ArrayList<>();
             List<String> skippedIds = new ArrayList<>();
             for (ClassTransform tx : transforms) {
@@ -1863,19 +2144,37 @@ public final class DeepMixOptimizer {
                     Collections.emptyList(), skippedIds, null);
             }
 
-            // ── Step 4: Sort transforms by priority ──
+            // ── Step 3: Sort transforms by priority ──
             applicable.sort(Comparator.comparingInt(ClassTransform::priority));
 
+            // ── Step 4: Check cache, keyed by exactly the chain that would run ──
+            long[] fingerprints = new long[applicable.size()];
+            for (int i = 0; i < fingerprints.length; i++) {
+                fingerprints[i] = applicable.get(i).fingerprint();
+            }
+            long chainFingerprint = ChainFingerprint.chain(fingerprints, fingerprints.length);
+
+            byte[] cached = BytecodeCache.get(className, originalBytes, chainFingerprint);
+            if (cached != null) {
+                totalCacheHits.incrementAndGet();
+                return new TransformResult(
+                    cached, className, -1,
+                    System.nanoTime() - startNanos, true, false,
+                    null, skippedIds, null);
+            }
+
             // ── Step 5: Apply transforms sequentially with budget enforcement ──
             byte[] currentBytes = originalBytes;
             List<String> appliedIds = new ArrayList<>();
             Throwable lastError = null;
+            boolean truncated = false; // Output no longer matches chainFingerprint
 
             // Parse once with pooled ClassNode
             ClassNode classNode = ObjectPool.borrowClassNode();
             try {
                 ClassReader cr = new ClassReader(currentBytes);
                 cr.accept(classNode, ClassReader.EXPAND_FRAMES);
+                LazyFrames.Snapshot before = LazyFrames.snapshot(classNode);
 
                 for (ClassTransform tx : applicable) {
                     long txStart = System.nanoTime();
@@ -1903,6 +2202,7 @@ public final class DeepMixOptimizer {
                         // Check total class budget
                         if (System.nanoTime() - startNanos > perClassBudgetNanos) {
                             totalBudgetExceeded.incrementAndGet();
+                            truncated = true;
                             // Skip remaining transforms
                             for (int i = applicable.indexOf(tx) + 1; i < applicable.size(); i++) {
                                 skippedIds.add(applicable.get(i).id());
@@ -1924,10 +2224,7 @@ public final class DeepMixOptimizer {
 
                 // ── Step 6: Write back to bytecode ──
                 if (!appliedIds.isEmpty()) {
-                    ClassWriter cw = new SafeClassWriter(
-                        cr, ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
-                    classNode.accept(cw);
-                    currentBytes = cw.toByteArray();
+                    currentBytes = LazyFrames.write(classNode, before, cr);
                 }
 
             } catch (Exception e) {
@@ -1944,8 +2241,9 @@ public final class DeepMixOptimizer {
             totalTransformNanos.add(totalNanos);
 
             // ── Step 7: Cache the result ──
-            if (!appliedIds.isEmpty() && lastError == null) {
-                BytecodeCache.put(originalBytes, currentBytes, className, appliedIds.size());
+            if (!appliedIds.isEmpty() && lastError == null && !truncated) {
+                BytecodeCache.put(originalBytes, currentBytes, className, appliedIds.size(),
+                    chainFingerprint);
             }
 
             return new TransformResult(
@@ -2000,11 +2298,239 @@ public final class DeepMixOptimizer {
             return results;
         }
 
+        // ── Ahead-of-demand pre-transformation ──
+
+        /**
+         * Pre-transform, in parallel, the classes this launch is expected to load, so that
+         * {@link #transform} finds most results already in the {@link BytecodeCache}.
+         *
+         * Candidates are the classes of {@code classesByJar} (e.g. from Asto's
+         * JarDiscoveryCache) that at least one transform applies to. With a load-order log
+         * from the last session, only classes it saw are predicted, and they are processed in
+         * the order they were loaded: the JVM loads supertypes and dependencies first, and
+         * workers take classes from one shared cursor, so the earliest-needed classes are
+         * ready first. Without a log, every candidate is processed.
+         *
+         * Results are content-addressed, so if the class loader later hands the pipeline
+         * different bytes (e.g. another transformer ran first), the cache simply misses and
+         * the lazy path runs. A loader asking for a class that is still being
+         * pre-transformed waits briefly for it instead of transforming it twice.
+         *
+         * @param classesByJar  Class names (binary or internal) per jar
+         * @param transforms    Transforms the lazy path will run
+         * @param loadOrderLog  Last session's log (see {@link #saveLoadOrder}), may be null
+         * @return Completes when every predicted class has been processed or the run stopped
+         */
+        public static CompletableFuture<PretransformReport> pretransform(
+                Map<java.nio.file.Path, ? extends Collection<String>> classesByJar,
+                List<ClassTransform> transforms,
+                java.nio.file.Path loadOrderLog) {
+
+            long startNanos = System.nanoTime();
+            pretransformCancelled = false;
+
+            Map<String, Integer> lastOrder = ClassLoadOrder.load(loadOrderLog);
+            List<PretransformTask> tasks = new ArrayList<>();
+            Set<String> seen = new HashSet<>();
+            for (Map.Entry<java.nio.file.Path, ? extends Collection<String>> jar : classesByJar.entrySet()) {
+                for (String name : jar.getValue()) {
+                    String internal = name.replace('.', '/');
+                    if (isExcluded(internal) || !seen.add(internal)) continue;
+                    Integer position = lastOrder.get(internal);
+                    if (!lastOrder.isEmpty() && position == null) continue; // Not predicted
+                    for (ClassTransform tx : transforms) {
+                        if (tx.appliesTo(internal)) {
+                            tasks.add(new PretransformTask(internal, jar.getKey(),
+                                position != null ? position : Integer.MAX_VALUE));
+                            break;
+                        }
+                    }
+                }
+            }
+            tasks.sort(Comparator.comparingInt(PretransformTask::position));
+
+            for (PretransformTask task : tasks) {
+                pretransformInFlight.putIfAbsent(task.className, new CompletableFuture<>());
+            }
+
+            int workers = Math.max(1, Math.min(maxParallelism, tasks.size()));
+            AtomicInteger cursor = new AtomicInteger();
+            AtomicInteger transformed = new AtomicInteger();
+            AtomicInteger cached = new AtomicInteger();
+            AtomicInteger failed = new AtomicInteger();
+            ConcurrentHashMap<java.nio.file.Path, java.util.zip.ZipFile> jars = new ConcurrentHashMap<>();
+            CompletableFuture<PretransformReport> done = new CompletableFuture<>();
+            AtomicInteger running = new AtomicInteger(workers);
+
+            Runnable worker = () -> {
+                try {
+                    int i;
+                    while ((i = cursor.getAndIncrement()) < tasks.size()) {
+                        PretransformTask task = tasks.get(i);
+                        if (pretransformCancelled) {
+                            releasePretransform(task.className);
+                            continue;
+                        }
+                        try {
+                            byte[] bytes = readClass(jars, task.jar, task.className);
+                            if (bytes == null) continue;
+                            TransformResult result = transformInternal(task.className, bytes, transforms);
+                            if (result.fromCache) {
+                                cached.incrementAndGet();
+                            } else if (result.hasError()) {
+                                failed.incrementAndGet();
+                            } else {
+                                transformed.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            failed.incrementAndGet();
+                        } finally {
+                            releasePretransform(task.className);
+                        }
+                    }
+                } finally {
+                    if (running.decrementAndGet() == 0) {
+                        for (java.util.zip.ZipFile zip : jars.values()) {
+                            try { zip.close(); } catch (Exception e) { /* Read-only */ }
+                        }
+                        totalPretransformed.addAndGet(transformed.get());
+                        PretransformReport report = new PretransformReport(
+                            tasks.size(), transformed.get(), cached.get(), failed.get(),
+                            pretransformCancelled, System.nanoTime() - startNanos);
+                        System.out.println("[DeepMix:Pipeline] " + report);
+                        done.complete(report);
+                    }
+                }
+            };
+
+            if (tasks.isEmpty()) {
+                running.set(1);
+                worker.run();
+                return done;
+            }
+
+            AtomicInteger threadIds = new AtomicInteger();
+            for (int w = 0; w < workers; w++) {
+                Thread t = new Thread(worker, "DeepMix-Pretransform-" + threadIds.getAndIncrement());
+                t.setDaemon(true);
+                t.setPriority(Thread.NORM_PRIORITY - 1); // Demand transforms come first
+                t.start();
+            }
+            return done;
+        }
+
+        /** One predicted class */
+        private record PretransformTask(String className, java.nio.file.Path jar, int position) {}
+
+        private static byte[] readClass(Map<java.nio.file.Path, java.util.zip.ZipFile> jars,
+                                        java.nio.file.Path jar, String className) throws java.io.IOException {
+            java.util.zip.ZipFile zip = jars.computeIfAbsent(jar, path -> {
+                try {
+                    return new java.util.zip.ZipFile(path.toFile());
+                } catch (java.io.IOException e) {
+                    throw new java.io.UncheckedIOException(e);
+                }
+            });
+            java.util.zip.ZipEntry entry = zip.getEntry(className + ".class");
+            if (entry == null) return null;
+            try (java.io.InputStream in = zip.getInputStream(entry)) {
+                return in.readAllBytes();
+            }
+        }
+
+        private static void releasePretransform(String className) {
+            CompletableFuture<Void> pending = pretransformInFlight.remove(className);
+            if (pending != null) {
+                pending.complete(null);
+            }
+        }
+
+        /**
+         * If {@code className} is queued or running in the pre-transform pass, wait (bounded by
+         * twice the class budget) so the lazy path finds its result in the cache.
+         */
+        private static void awaitPretransform(String className) {
+            CompletableFuture<Void> pending = pretransformInFlight.get(className);
+            if (pending == null || pending.isDone()) return;
+            totalPretransformWaits.incrementAndGet();
+            try {
+                pending.get(perClassBudgetNanos * 2, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // Not reached yet: transform it here
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+            }
+        }
+
+        /** Stop the pre-transform pass; queued classes fall back to the lazy path */
+        public static void cancelPretransform() {
+            pretransformCancelled = true;
+            for (String className : new ArrayList<>(pretransformInFlight.keySet())) {
+                releasePretransform(className);
+            }
+        }
+
+        /**
+         * Write this session's class-load order, for the next launch's {@link #pretransform}.
+         */
+        public static void saveLoadOrder(java.nio.file.Path loadOrderLog) {
+            loadOrder.save(loadOrderLog);
+        }
+
+        /**
+         * First-load order of classes passing through the pipeline this session.
+         */
+        static final class ClassLoadOrder {
+            private final ConcurrentHashMap<String, Integer> positions = new ConcurrentHashMap<>(4096);
+            private final AtomicInteger sequence = new AtomicInteger();
+
+            void record(String className) {
+                if (!positions.containsKey(className)) {
+                    positions.putIfAbsent(className, sequence.getAndIncrement());
+                }
+            }
+
+            void save(java.nio.file.Path file) {
+                if (file == null || positions.isEmpty()) return;
+                List<Map.Entry<String, Integer>> entries = new ArrayList<>(positions.entrySet());
+                entries.sort(Map.Entry.comparingByValue());
+                StringBuilder sb = new StringBuilder(entries.size() * 48);
+                for (Map.Entry<String, Integer> entry : entries) {
+                    sb.append(entry.getKey()).append('\n');
+                }
+                try {
+                    java.nio.file.Files.createDirectories(file.toAbsolutePath().getParent());
+                    java.nio.file.Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+                    java.nio.file.Files.writeString(tmp, sb);
+                    java.nio.file.Files.move(tmp, file, java.nio.file.StandardCopyOption.REPLACE_EXISTING,
+                        java.nio.file.StandardCopyOption.ATOMIC_MOVE);
+                } catch (Exception e) {
+                    System.err.println("[DeepMix:Pipeline] Failed to save class-load order: " + e.getMessage());
+                }
+            }
+
+            static Map<String, Integer> load(java.nio.file.Path file) {
+                Map<String, Integer> order = new HashMap<>();
+                if (file == null || !java.nio.file.Files.isRegularFile(file)) return order;
+                try {
+                    for (String line : java.nio.file.Files.readAllLines(file)) {
+                        if (!line.isEmpty()) {
+                            order.putIfAbsent(line, order.size());
+                        }
+                    }
+                } catch (Exception e) {
+                    order.clear(); // Unreadable log: predict nothing rather than guess
+                }
+                return order;
+            }
+        }
+
         /** Cancel all non-critical pending transforms */
         static void cancelNonCritical() {
             if (transformExecutor instanceof ThreadPoolExecutor) {
                 ((ThreadPoolExecutor) transformExecutor).getQueue().clear();
             }
+            cancelPretransform();
         }
 
         /** Check if a class is excluded from transformation */
@@ -2043,12 +2569,14 @@ public final class DeepMixOptimizer {
                 transformExecutor instanceof ThreadPoolExecutor ?
                     ((ThreadPoolExecutor) transformExecutor).getActiveCount() : 0,
                 transformExecutor instanceof ThreadPoolExecutor ?
-                    ((ThreadPoolExecutor) transformExecutor).getQueue().size() : 0
+                    ((ThreadPoolExecutor) transformExecutor).getQueue().size() : 0,
+                totalPretransformed.get(), totalPretransformWaits.get()
             );
         }
 
         /** Shutdown the transform executor gracefully */
         public static void shutdown() {
+            cancelPretransform();
             transformExecutor.shutdown();
             try {
                 if (!transformExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
@@ -2068,6 +2596,14 @@ public final class DeepMixOptimizer {
         boolean critical();
         boolean appliesTo(String className);
         boolean apply(ClassNode classNode) throws Exception;
+
+        /**
+         * Fingerprint of this transform's code, config and identity; part of the cache key.
+         * Override (or implement {@link ChainFingerprint.Fingerprinted}) to narrow it.
+         */
+        default long fingerprint() {
+            return ChainFingerprint.of(this, List.of(id()));
+        }
     }
 
     /** Pipeline statistics */
@@ -2080,10 +2616,13 @@ public final class DeepMixOptimizer {
         public final long totalNanos;
         public final int activeThreads;
         public final int queuedTasks;
+        public final long totalPretransformed;
+        public final long pretransformWaits;
 
         PipelineStats(long totalTransforms, long totalSkipped, long totalCacheHits,
                      long totalBudgetExceeded, long totalErrors, long totalNanos,
-                     int activeThreads, int queuedTasks) {
+                     int activeThreads, int queuedTasks,
+                     long totalPretransformed, long pretransformWaits) {
             this.totalTransforms = totalTransforms;
             this.totalSkipped = totalSkipped;
             this.totalCacheHits = totalCacheHits;
@@ -2092,6 +2631,8 @@ public final class DeepMixOptimizer {
             this.totalNanos = totalNanos;
             this.activeThreads = activeThreads;
             this.queuedTasks = queuedTasks;
+            this.totalPretransformed = totalPretransformed;
+            this.pretransformWaits = pretransformWaits;
         }
 
         public double averageTransformMs() {
@@ -2104,26 +2645,421 @@ public final class DeepMixOptimizer {
             return String.format(
                 "PipelineStats[transforms=%d, skipped=%d, cached=%d, " +
                     "budgetExceeded=%d, errors=%d, avgTime=%.2fms, " +
-                    "threads=%d, queued=%d]",
+                    "threads=%d, queued=%d, pretransformed=%d, waits=%d]",
                 totalTransforms, totalSkipped, totalCacheHits,
                 totalBudgetExceeded, totalErrors, averageTransformMs(),
-                activeThreads, queuedTasks);
+                activeThreads, queuedTasks, totalPretransformed, pretransformWaits);
+        }
+    }
+
+    /** Outcome of one ahead-of-demand pre-transform pass */
+    public static final class PretransformReport {
+        public final int predicted;
+        public final int transformed;
+        public final int alreadyCached;
+        public final int failed;
+        public final boolean cancelled;
+        public final long durationNanos;
+
+        PretransformReport(int predicted, int transformed, int alreadyCached, int failed,
+                           boolean cancelled, long durationNanos) {
+            this.predicted = predicted;
+            this.transformed = transformed;
+            this.alreadyCached = alreadyCached;
+            this.failed = failed;
+            this.cancelled = cancelled;
+            this.durationNanos = durationNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "PretransformReport[predicted=%d, transformed=%d, cached=%d, failed=%d, " +
+                    "cancelled=%b, time=%dms]",
+                predicted, transformed, alreadyCached, failed, cancelled,
+                durationNanos / 1_000_000);
+        }
+    }
+
+    /**
+     * One IClassTransformer that runs every registered node-level transform on a shared
+     * ClassNode: parse once, apply in priority order, write once with {@link SafeClassWriter}.
+     *
+     * Lumen, DeepMixTransformers (and the LegacyFix strategies routed through it),
+     * DeepMixTransformEngine and Mini_DirtyRoom register their transforms here and step
+     * aside once {@link #isInstalled()}, so a hot class is no longer parsed and
+     * re-serialized with COMPUTE_FRAMES by each of them in turn.
+     *
+     * Unlike {@link TransformationPipeline} there is no time budget: these transforms
+     * are functional, so skipping one would change behaviour rather than just speed.
+     */
+    public static final class SharedClassNodeTransformer implements IClassTransformer {
+
+        // Registered transforms by id, and the same set in application order
+        private static final ConcurrentHashMap<String, ClassTransform> registry = new ConcurrentHashMap<>();
+        private static volatile List<ClassTransform> ordered = Collections.emptyList();
+        private static volatile boolean installed;
+
+        // Statistics
+        private static final ConcurrentHashMap<String, Timing> timings = new ConcurrentHashMap<>();
+        private static final AtomicLong classesTransformed = new AtomicLong(0);
+        private static final AtomicLong classesUnchanged = new AtomicLong(0);
+        private static final AtomicLong cacheHits = new AtomicLong(0);
+        private static final AtomicLong errors = new AtomicLong(0);
+        private static final LongAdder parseNanos = new LongAdder();
+        private static final LongAdder writeNanos = new LongAdder();
+
+        /** Instantiated by LaunchClassLoader; from then on the standalone transformers defer */
+        public SharedClassNodeTransformer() {
+            installed = true;
+            System.out.println("[DeepMix:Shared] Shared ClassNode transformer installed with " +
+                registry.size() + " transforms");
+        }
+
+        /** True once this transformer is registered with the class loader */
+        public static boolean isInstalled() {
+            return installed;
+        }
+
+        /** Register (or replace, by id) a node-level transform */
+        public static void register(ClassTransform transform) {
+            registry.put(transform.id(), transform);
+            reorder();
+        }
+
+        public static void unregister(String id) {
+            if (registry.remove(id) != null) {
+                reorder();
+            }
+        }
+
+        private static synchronized void reorder() {
+            List<ClassTransform> list = new ArrayList<>(registry.values());
+            list.sort(Comparator.comparingInt(ClassTransform::priority)
+                .thenComparing(ClassTransform::id));
+            ordered = Collections.unmodifiableList(list);
+        }
+
+        /** Registered transforms in application order */
+        public static List<ClassTransform> transforms() {
+            return ordered;
+        }
+
+        @Override
+        public byte[] transform(String name, String transformedName, byte[] basicClass) {
+            if (basicClass == null) return null;
+            String className = transformedName.replace('.', '/');
+            if (TransformationPipeline.isExcluded(className)) return basicClass;
+            TransformationPipeline.onClassLoad(className);
+
+            List<ClassTransform> transforms = ordered;
+            if (transforms.isEmpty()) return basicClass;
+
+            // ── Pick the transforms for this class; most classes have none and are never parsed ──
+            List<ClassTransform> applicable = null;
+            for (ClassTransform tx : transforms) {
+                if (tx.appliesTo(className)) {
+                    if (applicable == null) applicable = new ArrayList<>(4);
+                    applicable.add(tx);
+                }
+            }
+            if (applicable == null) return basicClass;
+
+            long[] fingerprints = new long[applicable.size()];
+            for (int i = 0; i < fingerprints.length; i++) {
+                fingerprints[i] = applicable.get(i).fingerprint();
+            }
+            long chainFingerprint = ChainFingerprint.chain(fingerprints, fingerprints.length);
+
+            byte[] cached = BytecodeCache.get(className, basicClass, chainFingerprint);
+            if (cached != null) {
+                cacheHits.incrementAndGet();
+                return cached;
+            }
+
+            // ── Parse once; re-parse only to re-run the chain without a transform that threw ──
+            List<ClassTransform> chain = applicable;
+            boolean failed = false;
+            while (true) {
+                ClassNode classNode = ObjectPool.borrowClassNode();
+                try {
+                    long parseStart = System.nanoTime();
+                    ClassReader cr = new ClassReader(basicClass);
+                    cr.accept(classNode, ClassReader.EXPAND_FRAMES);
+                    LazyFrames.Snapshot before = LazyFrames.snapshot(classNode);
+                    parseNanos.add(System.nanoTime() - parseStart);
+
+                    // ── Apply every transform to the same node ──
+                    int modified = 0;
+                    ClassTransform thrown = null;
+                    for (ClassTransform tx : chain) {
+                        long txStart = System.nanoTime();
+                        try {
+                            boolean changed = tx.apply(classNode);
+                            timing(tx.id()).record(System.nanoTime() - txStart, changed, false);
+                            if (changed) modified++;
+                        } catch (Exception e) {
+                            timing(tx.id()).record(System.nanoTime() - txStart, false, true);
+                            errors.incrementAndGet();
+                            System.err.println("[DeepMix:Shared] " + tx.id() + " failed on " +
+                                className + ": " + e);
+                            if (tx.critical()) {
+                                return basicClass;
+                            }
+                            thrown = tx;
+                            break;
+                        }
+                    }
+
+                    if (thrown != null) {
+                        // The node may be half-mutated: drop it, as a throwing visitor's output
+                        // is dropped, and run the rest of the chain on a fresh parse.
+                        // The output no longer matches chainFingerprint, so it isn't cached
+                        failed = true;
+                        chain = new ArrayList<>(chain);
+                        chain.remove(thrown);
+                        continue;
+                    }
+
+                    if (modified == 0) {
+                        classesUnchanged.incrementAndGet();
+                        return basicClass;
+                    }
+
+                    // ── Write once, recomputing frames only where a transform touched the code ──
+                    long writeStart = System.nanoTime();
+                    byte[] result = LazyFrames.write(classNode, before, cr);
+                    writeNanos.add(System.nanoTime() - writeStart);
+
+                    classesTransformed.incrementAndGet();
+                    if (!failed) {
+                        BytecodeCache.put(basicClass, result, className, modified, chainFingerprint);
+                    }
+                    return result;
+
+                } catch (Exception e) {
+                    errors.incrementAndGet();
+                    System.err.println("[DeepMix:Shared] Failed to transform " + className + ": " + e);
+                    return basicClass;
+                } finally {
+                    ObjectPool.returnClassNode(classNode);
+                }
+            }
+        }
+
+        private static Timing timing(String id) {
+            return timings.computeIfAbsent(id, k -> new Timing());
+        }
+
+        // ── Adapters for transformers that don't implement ClassTransform ──
+
+        /** Node-level action, e.g. a strategy's {@code transform(ClassNode)} */
+        @FunctionalInterface
+        public interface NodeAction {
+            /** @return whether the node was modified */
+            boolean apply(ClassNode classNode) throws Exception;
+        }
+
+        /**
+         * Transform backed by a node-level action. The action's own class is part of the
+         * fingerprint, so editing it invalidates cached output.
+         */
+        public static ClassTransform of(String id, int priority, boolean critical,
+                                        Predicate<String> appliesTo, NodeAction action) {
+            return new ActionTransform(id, priority, critical, appliesTo, action);
+        }
+
+        /** Transform backed by a node-level action for a fixed set of internal class names */
+        public static ClassTransform of(String id, int priority, Collection<String> targets,
+                                        NodeAction action) {
+            Set<String> names = Set.copyOf(targets);
+            return of(id, priority, false, names::contains, action);
+        }
+
+        /**
+         * Transform backed by a ClassVisitor chain (e.g. {@code WorldClassVisitor::new}).
+         * The shared node is replayed through the visitor into a fresh node, which then
+         * replaces the shared node's contents; a visitor that throws leaves it untouched.
+         */
+        public static ClassTransform visitor(String id, int priority, Collection<String> targets,
+                                             UnaryOperator<ClassVisitor> factory) {
+            return of(id, priority, targets, classNode -> {
+                ClassNode out = new ClassNode();
+                classNode.accept(factory.apply(out));
+                replace(classNode, out);
+                return true;
+            });
+        }
+
+        /** Move every member of {@code source} into {@code target} */
+        private static void replace(ClassNode target, ClassNode source) {
+            target.version = source.version;
+            target.access = source.access;
+            target.name = source.name;
+            target.signature = source.signature;
+            target.superName = source.superName;
+            target.interfaces = source.interfaces;
+            target.sourceFile = source.sourceFile;
+            target.sourceDebug = source.sourceDebug;
+            target.module = source.module;
+            target.outerClass = source.outerClass;
+            target.outerMethod = source.outerMethod;
+            target.outerMethodDesc = source.outerMethodDesc;
+            target.visibleAnnotations = source.visibleAnnotations;
+            target.invisibleAnnotations = source.invisibleAnnotations;
+            target.visibleTypeAnnotations = source.visibleTypeAnnotations;
+            target.invisibleTypeAnnotations = source.invisibleTypeAnnotations;
+            target.attrs = source.attrs;
+            target.innerClasses = source.innerClasses;
+            target.nestHostClass = source.nestHostClass;
+            target.nestMembers = source.nestMembers;
+            target.permittedSubclasses = source.permittedSubclasses;
+            target.recordComponents = source.recordComponents;
+            target.fields = source.fields;
+            target.methods = source.methods;
+        }
+
+        private record ActionTransform(String id, int priority, boolean critical,
+                                       Predicate<String> targets, NodeAction action)
+                implements ClassTransform {
+            @Override
+            public boolean appliesTo(String className) {
+                return targets.test(className);
+            }
+
+            @Override
+            public boolean apply(ClassNode classNode) throws Exception {
+                return action.apply(classNode);
+            }
+
+            @Override
+            public long fingerprint() {
+                return ChainFingerprint.of(action, List.of(id));
+            }
+        }
+
+        // ── Statistics ──
+
+        /** Per-transform timing accumulator */
+        private static final class Timing {
+            final LongAdder invocations = new LongAdder();
+            final LongAdder modified = new LongAdder();
+            final LongAdder failures = new LongAdder();
+            final LongAdder nanos = new LongAdder();
+
+            void record(long duration, boolean changed, boolean failed) {
+                invocations.increment();
+                nanos.add(duration);
+                if (changed) modified.increment();
+                if (failed) failures.increment();
+            }
+        }
+
+        /** Timings for every transform that has run, slowest (by total time) first */
+        public static List<TransformerTiming> timings() {
+            List<TransformerTiming> result = new ArrayList<>(timings.size());
+            timings.forEach((id, t) -> result.add(new TransformerTiming(
+                id, t.invocations.sum(), t.modified.sum(), t.failures.sum(), t.nanos.sum())));
+            result.sort(Comparator.comparingLong((TransformerTiming t) -> t.totalNanos).reversed());
+            return result;
+        }
+
+        public static SharedTransformStats stats() {
+            return new SharedTransformStats(
+                registry.size(), classesTransformed.get(), classesUnchanged.get(),
+                cacheHits.get(), errors.get(), parseNanos.sum(), writeNanos.sum(),
+                LazyFrames.methodsKept(), LazyFrames.methodsRecomputed(), timings());
+        }
+    }
+
+    /** Accumulated timing of one transform in the shared ClassNode transformer */
+    public static final class TransformerTiming {
+        public final String id;
+        public final long invocations;
+        public final long modified;
+        public final long failures;
+        public final long totalNanos;
+
+        TransformerTiming(String id, long invocations, long modified, long failures, long totalNanos) {
+            this.id = id;
+            this.invocations = invocations;
+            this.modified = modified;
+            this.failures = failures;
+            this.totalNanos = totalNanos;
+        }
+
+        public double averageMicros() {
+            return invocations > 0 ? (double) totalNanos / invocations / 1_000.0 : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "%s[calls=%d, modified=%d, failed=%d, total=%.2fms, avg=%.1fus]",
+                id, invocations, modified, failures, totalNanos / 1_000_000.0, averageMicros());
+        }
+    }
+
+    /** Shared ClassNode transformer statistics */
+    public static final class SharedTransformStats {
+        public final int registeredTransforms;
+        public final long classesTransformed;
+        public final long classesUnchanged;
+        public final long cacheHits;
+        public final long errors;
+        public final long parseNanos;
+        public final long writeNanos;
+        public final long methodsFramesKept;
+        public final long methodsFramesRecomputed;
+        public final List<TransformerTiming> timings;
+
+        SharedTransformStats(int registeredTransforms, long classesTransformed, long classesUnchanged,
+                             long cacheHits, long errors, long parseNanos, long writeNanos,
+                             long methodsFramesKept, long methodsFramesRecomputed,
+                             List<TransformerTiming> timings) {
+            this.registeredTransforms = registeredTransforms;
+            this.classesTransformed = classesTransformed;
+            this.classesUnchanged = classesUnchanged;
+            this.cacheHits = cacheHits;
+            this.errors = errors;
+            this.parseNanos = parseNanos;
+            this.writeNanos = writeNanos;
+            this.methodsFramesKept = methodsFramesKept;
+            this.methodsFramesRecomputed = methodsFramesRecomputed;
+            this.timings = timings;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "SharedTransformStats[registered=%d, transformed=%d, unchanged=%d, cached=%d, " +
+                    "errors=%d, parse=%.2fms, write=%.2fms, framesKept=%d, framesRecomputed=%d, " +
+                    "timings=%s]",
+                registeredTransforms, classesTransformed, classesUnchanged, cacheHits,
+                errors, parseNanos / 1_000_000.0, writeNanos / 1_000_000.0,
+                methodsFramesKept, methodsFramesRecomputed, timings);
         }
     }
 
     /**
      * Safe ClassWriter that handles missing classes gracefully.
-     * Falls back to Object for unknown common superclass computation.
+     * Answers common-superclass queries from {@link ClassHierarchy} without loading
+     * classes; falls back to Object for unknown common superclass computation.
      */
-    static final class SafeClassWriter extends ClassWriter {
+    public static final class SafeClassWriter extends ClassWriter {
 
         private final ClassReader classReader;
 
-        SafeClassWriter(ClassReader classReader, int flags) {
+        public SafeClassWriter(ClassReader classReader, int flags) {
             super(classReader, flags);
             this.classReader = classReader;
         }
 
+        public SafeClassWriter(int flags) {
+            super(flags);
+            this.classReader = null;
+        }
+
         @Override
         protected String getCommonSuperClass(String type1, String type2) {
             // Fast path for common cases
@@ -2134,10 +3070,16 @@ public final class DeepMixOptimizer {
                 return type1;
             }
 
+            // Hierarchy index: no class loading during transformation
+            String common = ClassHierarchy.commonSuperClass(type1, type2);
+            if (common != null) {
+                return common;
+            }
+
             // Try the standard approach, but catch ClassNotFoundException
             try {
                 return super.getCommonSuperClass(type1, type2);
-            } catch (TypeNotPresentException | RuntimeException e) {
+            } catch (RuntimeException e) { // Includes TypeNotPresentException
                 // Fallback: return Object (safe but may require frame recomputation)
                 return "java/lang/Object";
             }
@@ -2145,6 +3087,427 @@ public final class DeepMixOptimizer {
     }
 
 
+    /**
+     * Class-hierarchy index: superclass and interfaces by internal name, without loading
+     * classes. Fed from JAR scans (Asto's JarDiscoveryCache persists it across launches)
+     * and, for classes outside the scanned JARs, from class-file headers read as resources.
+     */
+    public static final class ClassHierarchy {
+
+        /** Header of one class: enough to answer assignability questions */
+        public record Entry(String name, String superName, String[] interfaces, boolean isInterface) {}
+
+        private static final String OBJECT = "java/lang/Object";
+        private static final String[] NO_INTERFACES = new String[0];
+
+        /** Deeper than any real hierarchy; stops malformed (cyclic) ones */
+        private static final int MAX_DEPTH = 64;
+
+        private static final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>(16384);
+        // Every supertype of a class, itself included; dropped when an entry changes shape
+        private static final ConcurrentHashMap<String, Set<String>> supertypes = new ConcurrentHashMap<>(4096);
+        private static final Set<String> unresolvable = ConcurrentHashMap.newKeySet();
+
+        private static final AtomicLong indexHits = new AtomicLong(0);
+        private static final AtomicLong resourceReads = new AtomicLong(0);
+        private static final AtomicLong misses = new AtomicLong(0);
+
+        private ClassHierarchy() {}
+
+        /** Header of a class file, or null if the bytes are not one */
+        public static Entry readEntry(byte[] classBytes) {
+            try {
+                ClassReader cr = new ClassReader(classBytes);
+                String[] interfaces = cr.getInterfaces();
+                return new Entry(cr.getClassName(), cr.getSuperName(),
+                    interfaces.length == 0 ? NO_INTERFACES : interfaces,
+                    (cr.getAccess() & Opcodes.ACC_INTERFACE) != 0);
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+
+        public static void record(Entry entry) {
+            Entry previous = entries.put(entry.name(), entry);
+            if (previous != null && !sameShape(previous, entry)) {
+                supertypes.clear(); // Rare: answers derived from the old shape are stale
+            }
+            unresolvable.remove(entry.name());
+        }
+
+        public static void recordAll(Collection<Entry> batch) {
+            for (Entry entry : batch) {
+                record(entry);
+            }
+        }
+
+        /** Record a class as it is about to be written, so frames can refer to it */
+        public static void record(ClassNode classNode) {
+            record(new Entry(classNode.name, classNode.superName,
+                classNode.interfaces.isEmpty() ? NO_INTERFACES : classNode.interfaces.toArray(new String[0]),
+                (classNode.access & Opcodes.ACC_INTERFACE) != 0));
+        }
+
+        /** Header of {@code internalName} from the index or its class file; null if unknown */
+        public static Entry lookup(String internalName) {
+            Entry entry = entries.get(internalName);
+            if (entry != null) {
+                indexHits.incrementAndGet();
+                return entry;
+            }
+            if (unresolvable.contains(internalName)) {
+                misses.incrementAndGet();
+                return null;
+            }
+            entry = readResource(internalName);
+            if (entry == null) {
+                unresolvable.add(internalName);
+                misses.incrementAndGet();
+                return null;
+            }
+            resourceReads.incrementAndGet();
+            Entry existing = entries.putIfAbsent(internalName, entry);
+            return existing != null ? existing : entry;
+        }
+
+        /**
+         * Common superclass with {@link ClassWriter#getCommonSuperClass} semantics, or null
+         * if part of either hierarchy is unknown.
+         */
+        public static String commonSuperClass(String type1, String type2) {
+            Set<String> supers1 = supertypes(type1, 0);
+            Set<String> supers2 = supertypes(type2, 0);
+            if (supers1 == null || supers2 == null) return null;
+
+            if (supers2.contains(type1)) return type1;
+            if (supers1.contains(type2)) return type2;
+            if (lookup(type1).isInterface() || lookup(type2).isInterface()) return OBJECT;
+
+            // Walk type1's superclasses until one is a supertype of type2
+            String current = lookup(type1).superName();
+            while (current != null) {
+                if (supers2.contains(current)) return current;
+                current = lookup(current).superName();
+            }
+            return OBJECT;
+        }
+
+        public static int size() {
+            return entries.size();
+        }
+
+        public static HierarchyStats stats() {
+            return new HierarchyStats(entries.size(), indexHits.get(), resourceReads.get(), misses.get());
+        }
+
+        private static Set<String> supertypes(String type, int depth) {
+            Set<String> cached = supertypes.get(type);
+            if (cached != null) return cached;
+            if (depth > MAX_DEPTH) return null;
+
+            Entry entry = lookup(type);
+            if (entry == null) return null;
+
+            Set<String> result = new HashSet<>();
+            result.add(type);
+            if (entry.superName() != null) {
+                Set<String> parent = supertypes(entry.superName(), depth + 1);
+                if (parent == null) return null;
+                result.addAll(parent);
+            }
+            for (String itf : entry.interfaces()) {
+                Set<String> parent = supertypes(itf, depth + 1);
+                if (parent == null) return null;
+                result.addAll(parent);
+            }
+            Set<String> frozen = Collections.unmodifiableSet(result);
+            supertypes.put(type, frozen);
+            return frozen;
+        }
+
+        /** Read only the class-file header, through class loaders' resources (no loading) */
+        private static Entry readResource(String internalName) {
+            String resource = internalName + ".class";
+            ClassLoader[] loaders = {
+                Thread.currentThread().getContextClassLoader(),
+                ClassHierarchy.class.getClassLoader()
+            };
+            for (ClassLoader loader : loaders) {
+                if (loader == null) continue;
+                try (java.io.InputStream in = loader.getResourceAsStream(resource)) {
+                    if (in != null) return readEntry(in.readAllBytes());
+                } catch (Exception e) {
+                    // Try the next loader
+                }
+            }
+            try (java.io.InputStream in = ClassLoader.getSystemResourceAsStream(resource)) {
+                if (in != null) return readEntry(in.readAllBytes());
+            } catch (Exception e) {
+                // Unknown
+            }
+            return null;
+        }
+
+        private static boolean sameShape(Entry a, Entry b) {
+            return Objects.equals(a.superName(), b.superName())
+                && Arrays.equals(a.interfaces(), b.interfaces())
+                && a.isInterface() == b.isInterface();
+        }
+    }
+
+    /** Class hierarchy index statistics */
+    public static final class HierarchyStats {
+        public final int entries;
+        public final long indexHits;
+        public final long resourceReads;
+        public final long misses;
+
+        HierarchyStats(int entries, long indexHits, long resourceReads, long misses) {
+            this.entries = entries;
+            this.indexHits = indexHits;
+            this.resourceReads = resourceReads;
+            this.misses = misses;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("HierarchyStats[entries=%d, hits=%d, resourceReads=%d, misses=%d]",
+                entries, indexHits, resourceReads, misses);
+        }
+    }
+
+    /**
+     * Lazy frame computation: only methods whose instructions a transform touched get new
+     * stack map frames. Everything else is written with the frames it was read with, using
+     * COMPUTE_MAXS only; on large Minecraft classes frame computation dominates writing.
+     *
+     * Usage: {@link #snapshot(ClassNode)} right after parsing, transform, then
+     * {@link #write(ClassNode, Snapshot, ClassReader)}.
+     */
+    public static final class LazyFrames {
+
+        /** Instruction fingerprints of a class's methods before transformation */
+        public static final class Snapshot {
+            final String name;
+            final String superName;
+            final Map<String, Long> methods;
+
+            Snapshot(String name, String superName, Map<String, Long> methods) {
+                this.name = name;
+                this.superName = superName;
+                this.methods = methods;
+            }
+        }
+
+        private static final long FNV_PRIME = 0x100000001b3L;
+
+        private static final AtomicLong methodsKept = new AtomicLong(0);
+        private static final AtomicLong methodsRecomputed = new AtomicLong(0);
+
+        private LazyFrames() {}
+
+        public static Snapshot snapshot(ClassNode classNode) {
+            Map<String, Long> methods = new HashMap<>(classNode.methods.size() * 2);
+            for (MethodNode method : classNode.methods) {
+                methods.put(method.name + method.desc, fingerprint(method));
+            }
+            return new Snapshot(classNode.name, classNode.superName, methods);
+        }
+
+        /** Snapshot of the untransformed class, from its original bytes; null if unreadable */
+        public static Snapshot snapshot(byte[] originalBytes) {
+            if (originalBytes == null) return null;
+            try {
+                ClassNode original = new ClassNode();
+                new ClassReader(originalBytes).accept(original, ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG);
+                return snapshot(original);
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+
+        /**
+         * Write {@code classNode}, recomputing frames only for methods that differ from
+         * {@code before}. With no snapshot every method is recomputed.
+         *
+         * @param reader Reader of the original class, for constant-pool reuse; may be null
+         */
+        public static byte[] write(ClassNode classNode, Snapshot before, ClassReader reader) {
+            ClassHierarchy.record(classNode);
+
+            if (before == null) {
+                ClassWriter cw = newWriter(reader, ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+                classNode.accept(cw);
+                return cw.toByteArray();
+            }
+
+            // Before Java 6 there are no stack map frames to compute
+            if ((classNode.version & 0xFFFF) >= Opcodes.V1_6) {
+                // Frames of untouched methods may depend on the class's own place in the hierarchy
+                boolean hierarchyMoved = !Objects.equals(before.name, classNode.name)
+                    || !Objects.equals(before.superName, classNode.superName);
+
+                List<Integer> stale = new ArrayList<>();
+                int kept = 0;
+                for (int i = 0; i < classNode.methods.size(); i++) {
+                    MethodNode method = classNode.methods.get(i);
+                    if (method.instructions.size() == 0) continue; // abstract / native
+
+                    Long original = before.methods.get(method.name + method.desc);
+                    if (hierarchyMoved || original == null || original != fingerprint(method)
+                            || missingFrames(method)) {
+                        stale.add(i);
+                    } else {
+                        kept++;
+                    }
+                }
+                if (!stale.isEmpty()) {
+                    recomputeFrames(classNode, stale);
+                }
+                methodsKept.addAndGet(kept);
+                methodsRecomputed.addAndGet(stale.size());
+            }
+
+            ClassWriter cw = newWriter(reader, ClassWriter.COMPUTE_MAXS);
+            classNode.accept(cw);
+            return cw.toByteArray();
+        }
+
+        /** Parse, apply a ClassVisitor chain, and write with lazy frames */
+        public static byte[] rewrite(byte[] classBytes, UnaryOperator<ClassVisitor> visitor) {
+            ClassReader reader = new ClassReader(classBytes);
+            ClassNode original = new ClassNode();
+            reader.accept(original, ClassReader.EXPAND_FRAMES);
+            Snapshot before = snapshot(original);
+
+            ClassNode transformed = new ClassNode();
+            original.accept(visitor.apply(transformed));
+            return write(transformed, before, reader);
+        }
+
+        public static long methodsKept() {
+            return methodsKept.get();
+        }
+
+        public static long methodsRecomputed() {
+            return methodsRecomputed.get();
+        }
+
+        private static ClassWriter newWriter(ClassReader reader, int flags) {
+            return reader != null ? new SafeClassWriter(reader, flags) : new SafeClassWriter(flags);
+        }
+
+        /**
+         * Compute frames for the stale methods alone, in a class holding only them, and
+         * swap the results back in.
+         */
+        private static void recomputeFrames(ClassNode classNode, List<Integer> stale) {
+            ClassNode shell = new ClassNode();
+            shell.version = classNode.version;
+            shell.access = classNode.access;
+            shell.name = classNode.name;
+            shell.superName = classNode.superName;
+            shell.interfaces = new ArrayList<>(classNode.interfaces);
+            for (int index : stale) {
+                shell.methods.add(classNode.methods.get(index));
+            }
+
+            ClassWriter cw = new SafeClassWriter(ClassWriter.COMPUTE_FRAMES);
+            shell.accept(cw);
+
+            ClassNode computed = new ClassNode();
+            new ClassReader(cw.toByteArray()).accept(computed, 0);
+            for (int i = 0; i < stale.size(); i++) {
+                classNode.methods.set(stale.get(i), computed.methods.get(i));
+            }
+        }
+
+        /** A method that branches or catches needs frames; one read without them can't keep them */
+        private static boolean missingFrames(MethodNode method) {
+            boolean branches = !method.tryCatchBlocks.isEmpty();
+            for (AbstractInsnNode insn = method.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+                if (insn instanceof FrameNode) return false;
+                if (insn instanceof JumpInsnNode || insn instanceof TableSwitchInsnNode
+                        || insn instanceof LookupSwitchInsnNode) {
+                    branches = true;
+                }
+            }
+            return branches;
+        }
+
+        /**
+         * Hash of a method's instructions and handlers. Frames, line numbers and local
+         * variable names are ignored, and labels hash as the position of the instruction they
+         * mark, so the same code read with or without debug info or frames hashes equal.
+         */
+        static long fingerprint(MethodNode method) {
+            Map<LabelNode, Integer> positions = new IdentityHashMap<>();
+            int position = 0;
+            for (AbstractInsnNode insn = method.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+                if (insn instanceof LabelNode label) {
+                    positions.put(label, position);
+                } else if (insn.getOpcode() >= 0) {
+                    position++;
+                }
+            }
+
+            long hash = mix(0xcbf29ce484222325L, method.access);
+            for (AbstractInsnNode insn = method.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+                int opcode = insn.getOpcode();
+                if (opcode < 0) continue; // Labels, frames, line numbers
+
+                hash = mix(hash, opcode);
+                if (insn instanceof VarInsnNode v) {
+                    hash = mix(hash, v.var);
+                } else if (insn instanceof IntInsnNode i) {
+                    hash = mix(hash, i.operand);
+                } else if (insn instanceof LdcInsnNode l) {
+                    hash = mix(hash, l.cst.hashCode());
+                } else if (insn instanceof TypeInsnNode t) {
+                    hash = mix(hash, t.desc.hashCode());
+                } else if (insn instanceof FieldInsnNode f) {
+                    hash = mix(mix(mix(hash, f.owner.hashCode()), f.name.hashCode()), f.desc.hashCode());
+                } else if (insn instanceof MethodInsnNode m) {
+                    hash = mix(mix(mix(hash, m.owner.hashCode()), m.name.hashCode()), m.desc.hashCode());
+                    hash = mix(hash, m.itf ? 1 : 0);
+                } else if (insn instanceof InvokeDynamicInsnNode d) {
+                    hash = mix(mix(hash, d.name.hashCode()), d.desc.hashCode());
+                    hash = mix(mix(hash, d.bsm.hashCode()), Arrays.hashCode(d.bsmArgs));
+                } else if (insn instanceof JumpInsnNode j) {
+                    hash = mix(hash, positions.getOrDefault(j.label, -1));
+                } else if (insn instanceof IincInsnNode i) {
+                    hash = mix(mix(hash, i.var), i.incr);
+                } else if (insn instanceof TableSwitchInsnNode t) {
+                    hash = mix(mix(hash, t.min), t.max);
+                    hash = mix(hash, positions.getOrDefault(t.dflt, -1));
+                    for (LabelNode label : t.labels) {
+                        hash = mix(hash, positions.getOrDefault(label, -1));
+                    }
+                } else if (insn instanceof LookupSwitchInsnNode l) {
+                    hash = mix(hash, positions.getOrDefault(l.dflt, -1));
+                    for (int i = 0; i < l.keys.size(); i++) {
+                        hash = mix(mix(hash, l.keys.get(i)), positions.getOrDefault(l.labels.get(i), -1));
+                    }
+                } else if (insn instanceof MultiANewArrayInsnNode a) {
+                    hash = mix(mix(hash, a.desc.hashCode()), a.dims);
+                }
+            }
+
+            for (TryCatchBlockNode block : method.tryCatchBlocks) {
+                hash = mix(hash, positions.getOrDefault(block.start, -1));
+                hash = mix(hash, positions.getOrDefault(block.end, -1));
+                hash = mix(hash, positions.getOrDefault(block.handler, -1));
+                hash = mix(hash, block.type != null ? block.type.hashCode() : 0);
+            }
+            return hash;
+        }
+
+        private static long mix(long hash, long value) {
+            return (hash ^ value) * FNV_PRIME;
+        }
+    }
+
+
     // ╔══════════════════════════════════════════════════════════════════════╗
     // ║                                                                    ║
     // ║  SECTION 6: BYTECODE OPTIMIZATION PASSES                           ║
@@ -4826,6 +6189,10 @@ public final class DeepMixOptimizer {
         sb.append(String.format("║   %d transforms, avg %.2fms, %d errors%s║\n",
             pipeStats.totalTransforms, pipeStats.averageTransformMs(), pipeStats.totalErrors,
             " ".repeat(Math.max(1, 15))));
+        SharedTransformStats sharedStats = SharedClassNodeTransformer.stats();
+        sb.append(String.format("║   Shared: %d classes, parse %.1fms, write %.1fms%s║\n",
+            sharedStats.classesTransformed, sharedStats.parseNanos / 1_000_000.0,
+            sharedStats.writeNanos / 1_000_000.0, " ".repeat(Math.max(1, 10))));
 
         // Circuit Breakers
         List<String> openBreakers = CircuitBreakerRegistry.openBreakers();
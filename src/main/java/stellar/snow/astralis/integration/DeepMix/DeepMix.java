@@ -38,6 +38,7 @@ import org.spongepowered.asm.service.MixinService;
 import org.spongepowered.asm.service.mojang.MixinServiceLaunchWrapper;
 import org.spongepowered.asm.util.PrettyPrinter;
 import org.spongepowered.asm.util.asm.ASM;
+import stellar.snow.astralis.integration.DeepMix.Core.DeepMixOptimizer;
 import sun.misc.Unsafe; // will be replaced with FFM~ UwU
 
 import java.io.InputStreamReader;
@@ -207,7 +208,10 @@ public final class DeepMix implements IFMLLoadingPlugin {
     
     @Override
     public String[] getASMTransformerClass() {
-        return new String[0];
+        // Parses each class once for every registered node-level transform (Lumen, DeepMix, ...)
+        return new String[] {
+            "stellar.snow.astralis.integration.DeepMix.Core.DeepMixOptimizer$SharedClassNodeTransformer"
+        };
     }
     
     @Override
@@ -807,6 +811,7 @@ public final class DeepMix implements IFMLLoadingPlugin {
             ClassNode node = new ClassNode();
             ClassReader reader = new ClassReader(classBytes);
             reader.accept(node, 0);
+            DeepMixOptimizer.LazyFrames.Snapshot before = DeepMixOptimizer.LazyFrames.snapshot(node);
             
             // Add missing trace/log methods for backward compatibility
             addTraceMethod(node, "(Lorg/apache/logging/log4j/Level;)Lorg/spongepowered/asm/util/PrettyPrinter;");
@@ -819,9 +824,7 @@ public final class DeepMix implements IFMLLoadingPlugin {
             addTraceMethodFull(node);
             addLogMethods(node);
             
-            ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
-            node.accept(writer);
-            return writer.toByteArray();
+            return DeepMixOptimizer.LazyFrames.write(node, before, reader);
         }
         
         private void addTraceMethod(ClassNode node, String descriptor) {
@@ -898,6 +901,7 @@ public final class DeepMix implements IFMLLoadingPlugin {
             ClassNode node = new ClassNode();
             ClassReader reader = new ClassReader(classBytes);
             reader.accept(node, 0);
+            DeepMixOptimizer.LazyFrames.Snapshot before = DeepMixOptimizer.LazyFrames.snapshot(node);
             
             for (MethodNode method : node.methods) {
                 if (!"<init>".equals(method.name)) continue;
@@ -920,9 +924,7 @@ public final class DeepMix implements IFMLLoadingPlugin {
                 }
             }
             
-            ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
-            node.accept(writer);
-            return writer.toByteArray();
+            return DeepMixOptimizer.LazyFrames.write(node, before, reader);
         }
     }
     
@@ -300,9 +300,8 @@ public final class DeepMixStabilizer {
             }
             
             // Write class
-            ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
-            classNode.accept(writer);
-            byte[] transformedBytes = writer.toByteArray();
+            byte[] transformedBytes = DeepMixOptimizer.LazyFrames.write(
+                classNode, DeepMixOptimizer.LazyFrames.snapshot(originalBytes), reader);
             
             // Check performance impact
             long elapsed = (System.nanoTime() - startTime) / 1_000_000;
@@ -20,6 +20,7 @@ import org.spongepowered.asm.mixin.injection.callback.*;
 import org.spongepowered.asm.mixin.injection.struct.InjectionPointData;
 import org.spongepowered.asm.mixin.injection.points.*;
 import org.spongepowered.asm.mixin.transformer.ClassInfo;
+import stellar.snow.astralis.integration.DeepMix.Core.DeepMixOptimizer;
 
 import java.lang.annotation.*;
 import java.lang.invoke.MethodHandle;
@@ -407,7 +408,7 @@ public final class DeepMixMixins implements IMixinConfigPlugin {
     private static byte[] generateMixinClass(MixinDescriptor descriptor) {
         long startTime = System.nanoTime();
         
-        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+        ClassWriter cw = new DeepMixOptimizer.SafeClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
         
         // Class definition
         String internalName = descriptor.mixinClassName.replace('.', '/');
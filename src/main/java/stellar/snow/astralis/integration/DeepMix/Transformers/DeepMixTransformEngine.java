@@ -27,6 +27,8 @@ import javax.xml.xpath.*;
 import org.w3c.dom.*;
 import org.xml.sax.InputSource;
 
+import stellar.snow.astralis.integration.DeepMix.Core.DeepMixOptimizer;
+
 /**
  * DeepMix Phase 1 & Phase 2 — Full Implementation
  *
@@ -4760,6 +4762,10 @@ public class DeepMixTransformEngine {
         // Deferred transforms for classes not yet loaded
         private static final Map<String, List<Consumer<ClassNode>>> deferredTransforms = new ConcurrentHashMap<>();
 
+        // Position in the shared ClassNode transformer (after DeepMixTransformers)
+        private static final int ORDER_SHARED = 600;
+        private static volatile boolean sharedTransformRegistered;
+
         // Transform ordering
         private static final int ORDER_INHERIT = 100;
         private static final int ORDER_INTERFACE = 200;
@@ -4781,6 +4787,25 @@ public class DeepMixTransformEngine {
         public static void registerDeferredTransform(String className, Consumer<ClassNode> transform) {
             deferredTransforms.computeIfAbsent(className, k -> new CopyOnWriteArrayList<>()).add(transform);
             log("Deferred transform registered for: %s", className);
+            registerSharedTransform();
+        }
+
+        public static boolean hasDeferredTransforms(String className) {
+            return deferredTransforms.containsKey(className);
+        }
+
+        /**
+         * Hand classes with pending transforms to the shared ClassNode transformer, so
+         * they are processed on its node instead of being parsed and written again here.
+         */
+        private static void registerSharedTransform() {
+            if (sharedTransformRegistered) return;
+            sharedTransformRegistered = true;
+            DeepMixOptimizer.SharedClassNodeTransformer.register(
+                DeepMixOptimizer.SharedClassNodeTransformer.of(
+                    "deepmix:transform-engine", ORDER_SHARED, false,
+                    ProcessorRegistry::hasDeferredTransforms,
+                    DeepMixTransformEngine::transformNode));
         }
 
         public static void processClass(ClassNode classNode) {
@@ -5080,7 +5105,8 @@ public class DeepMixTransformEngine {
         public static boolean validate(ClassNode classNode) {
             try {
                 // Write and re-read to verify structural integrity
-                ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+                ClassWriter cw = new DeepMixOptimizer.SafeClassWriter(
+                    ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
                 classNode.accept(cw);
                 byte[] bytecode = cw.toByteArray();
 
@@ -6205,21 +6231,13 @@ public class DeepMixTransformEngine {
             ClassReader cr = new ClassReader(classBytes);
             ClassNode classNode = new ClassNode();
             cr.accept(classNode, ClassReader.EXPAND_FRAMES);
+            DeepMixOptimizer.LazyFrames.Snapshot before = DeepMixOptimizer.LazyFrames.snapshot(classNode);
 
-            int countBefore = transformationCount.get();
-
-            // Run the full processing pipeline
-            ProcessorRegistry.processClass(classNode);
-
-            int countAfter = transformationCount.get();
-
-            if (countAfter > countBefore) {
+            if (transformNode(classNode)) {
                 // Transforms were applied — generate new bytecode
-                ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
-                classNode.accept(cw);
-                byte[] result = cw.toByteArray();
-                log("Transformed %s (%d bytes → %d bytes, %d transforms)",
-                    className, classBytes.length, result.length, countAfter - countBefore);
+                byte[] result = DeepMixOptimizer.LazyFrames.write(classNode, before, cr);
+                log("Transformed %s (%d bytes → %d bytes)",
+                    className, classBytes.length, result.length);
                 return result;
             }
 
@@ -6234,6 +6252,17 @@ public class DeepMixTransformEngine {
         }
     }
 
+    /**
+     * Run the full processing pipeline on an already-parsed class.
+     *
+     * @return true if any transform was applied
+     */
+    public static boolean transformNode(ClassNode classNode) {
+        int countBefore = transformationCount.get();
+        ProcessorRegistry.processClass(classNode);
+        return transformationCount.get() > countBefore;
+    }
+
     /**
      * Transform a class with explicit debug control.
      */
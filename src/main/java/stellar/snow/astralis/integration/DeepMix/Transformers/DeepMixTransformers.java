@@ -6,6 +6,8 @@ import org.objectweb.asm.commons.*;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import net.minecraft.launchwrapper.IClassTransformer;
+import stellar.snow.astralis.config.Config;
+import stellar.snow.astralis.integration.DeepMix.Core.DeepMixOptimizer;
 
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
@@ -53,18 +55,33 @@ public final class DeepMixTransformers implements IClassTransformer {
     
     // Transformer registry (concurrent for parallel access)
     private static final ConcurrentHashMap<String, List<TransformStrategy>> CLASS_TRANSFORMS = new ConcurrentHashMap<>(512);
-    private static final ConcurrentHashMap<String, TransformerCache> CACHE = new ConcurrentHashMap<>(2048);
+    private static final ConcurrentHashMap<String, ChainEntry> CHAINS = new ConcurrentHashMap<>(512);
     
     // Performance metrics
     private static final AtomicLong TRANSFORMS_APPLIED = new AtomicLong(0);
     private static final AtomicLong TOTAL_TRANSFORM_TIME = new AtomicLong(0);
+    private static final AtomicLong TRANSFORMS_FROM_CACHE = new AtomicLong(0);
     
     // Thread-local for zero-allocation transform contexts
     private static final ThreadLocal<TransformContext> CONTEXT = ThreadLocal.withInitial(TransformContext::new);
     
+    // Bumped on every registration change; keys the shared-transform fingerprint
+    private static final AtomicLong REGISTRATIONS = new AtomicLong(0);
+    private static volatile long fingerprintedRegistrations = -1;
+    private static volatile long fingerprintedConfigRevision = -1;
+    private static volatile long registryFingerprint;
+    
+    // Strategies run on the shared ClassNode once the coordinating transformer is installed
+    private static final int SHARED_PRIORITY = 500;
+    
+    static {
+        DeepMixOptimizer.SharedClassNodeTransformer.register(new SharedTransform());
+    }
+    
     @Override
     public byte[] transform(String name, String transformedName, byte[] basicClass) {
         if (basicClass == null) return null;
+        if (DeepMixOptimizer.SharedClassNodeTransformer.isInstalled()) return basicClass;
         
         List<TransformStrategy> strategies = CLASS_TRANSFORMS.get(transformedName);
         if (strategies == null || strategies.isEmpty()) return basicClass;
@@ -72,8 +89,23 @@ public final class DeepMixTransformers implements IClassTransformer {
         long startTime = System.nanoTime();
         
         try {
+            // Reuse output of the same strategies, code and config (this or an earlier launch)
+            long chainFingerprint = chainFingerprint(transformedName, strategies);
+            byte[] cached = DeepMixOptimizer.BytecodeCache.get(transformedName, basicClass, chainFingerprint);
+            if (cached != null) {
+                // Still an applied transform: count it, and its lookup time, so averages stay honest
+                TOTAL_TRANSFORM_TIME.addAndGet(System.nanoTime() - startTime);
+                TRANSFORMS_APPLIED.incrementAndGet();
+                TRANSFORMS_FROM_CACHE.incrementAndGet();
+                return cached;
+            }
+            
             // Apply all registered transforms
             byte[] result = applyTransforms(transformedName, basicClass, strategies);
+            if (!CONTEXT.get().failed) {
+                DeepMixOptimizer.BytecodeCache.put(basicClass, result, transformedName,
+                    strategies.size(), chainFingerprint);
+            }
             
             long elapsed = System.nanoTime() - startTime;
             TOTAL_TRANSFORM_TIME.addAndGet(elapsed);
@@ -98,7 +130,19 @@ public final class DeepMixTransformers implements IClassTransformer {
         ClassReader reader = new ClassReader(classBytes);
         ClassNode classNode = new ClassNode();
         reader.accept(classNode, 0);
+        DeepMixOptimizer.LazyFrames.Snapshot before = DeepMixOptimizer.LazyFrames.snapshot(classNode);
+        
+        applyStrategies(className, classNode, strategies);
         
+        // Write transformed class; frames only for methods the strategies touched
+        return DeepMixOptimizer.LazyFrames.write(classNode, before, reader);
+    }
+    
+    /**
+     * Apply strategies (higher priority first) to a parsed class
+     */
+    private static TransformContext applyStrategies(String className, ClassNode classNode,
+                                                    List<TransformStrategy> strategies) {
         TransformContext ctx = CONTEXT.get();
         ctx.reset(className, classNode);
         
@@ -110,14 +154,11 @@ public final class DeepMixTransformers implements IClassTransformer {
             try {
                 strategy.apply(ctx);
             } catch (Exception e) {
+                ctx.failed = true;
                 LOGGER.error("Strategy {} failed for {}", strategy.getClass().getSimpleName(), className, e);
             }
         }
-        
-        // Write transformed class
-        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
-        classNode.accept(writer);
-        return writer.toByteArray();
+        return ctx;
     }
     
     /**
@@ -125,6 +166,8 @@ public final class DeepMixTransformers implements IClassTransformer {
      */
     public static void registerTransform(String className, TransformStrategy strategy) {
         CLASS_TRANSFORMS.computeIfAbsent(className, k -> new CopyOnWriteArrayList<>()).add(strategy);
+        CHAINS.remove(className);
+        REGISTRATIONS.incrementAndGet();
         LOGGER.debug("Registered {} for {}", strategy.getClass().getSimpleName(), className);
     }
     
@@ -133,7 +176,104 @@ public final class DeepMixTransformers implements IClassTransformer {
      */
     public static void clearTransforms() {
         CLASS_TRANSFORMS.clear();
-        CACHE.clear();
+        CHAINS.clear();
+        REGISTRATIONS.incrementAndGet();
+    }
+    
+    /**
+     * Fingerprint of the strategies registered for a class, in the order they run.
+     * Memoized until the class's registrations or any config value change.
+     */
+    private static long chainFingerprint(String className, List<TransformStrategy> strategies) {
+        long revision = Config.getRevision();
+        ChainEntry chain = CHAINS.get(className);
+        if (chain == null || chain.configRevision != revision || chain.strategyCount != strategies.size()) {
+            List<TransformStrategy> ordered = new ArrayList<>(strategies);
+            ordered.sort(Comparator.comparingInt(TransformStrategy::priority).reversed());
+            chain = new ChainEntry(
+                revision, ordered.size(),
+                DeepMixOptimizer.ChainFingerprint.chain(ordered, List.of(className)));
+            CHAINS.put(className, chain);
+        }
+        return chain.fingerprint;
+    }
+    
+    /**
+     * Fingerprint of every registered chain. The shared transform's fingerprint cannot see
+     * which class it is applied to, so it covers all of them.
+     */
+    private static long registryFingerprint() {
+        long registrations = REGISTRATIONS.get();
+        long revision = Config.getRevision();
+        if (registrations != fingerprintedRegistrations || revision != fingerprintedConfigRevision) {
+            List<String> classNames = new ArrayList<>(CLASS_TRANSFORMS.keySet());
+            Collections.sort(classNames);
+            long[] fingerprints = new long[classNames.size()];
+            int count = 0;
+            for (String className : classNames) {
+                List<TransformStrategy> strategies = CLASS_TRANSFORMS.get(className);
+                if (strategies != null && !strategies.isEmpty()) {
+                    fingerprints[count++] = chainFingerprint(className, strategies);
+                }
+            }
+            registryFingerprint = DeepMixOptimizer.ChainFingerprint.chain(fingerprints, count);
+            fingerprintedRegistrations = registrations;
+            fingerprintedConfigRevision = revision;
+        }
+        return registryFingerprint;
+    }
+    
+    // ========================================
+    // Shared ClassNode Transform
+    // ========================================
+    
+    /**
+     * Runs the strategies registered for a class on the shared ClassNode
+     */
+    private static final class SharedTransform implements DeepMixOptimizer.ClassTransform {
+        @Override
+        public String id() {
+            return "deepmix:transformers";
+        }
+        
+        @Override
+        public int priority() {
+            return SHARED_PRIORITY;
+        }
+        
+        @Override
+        public boolean critical() {
+            return false;
+        }
+        
+        @Override
+        public boolean appliesTo(String className) {
+            List<TransformStrategy> strategies = CLASS_TRANSFORMS.get(className.replace('/', '.'));
+            return strategies != null && !strategies.isEmpty();
+        }
+        
+        @Override
+        public boolean apply(ClassNode classNode) {
+            String className = classNode.name.replace('/', '.');
+            List<TransformStrategy> strategies = CLASS_TRANSFORMS.get(className);
+            if (strategies == null || strategies.isEmpty()) return false;
+            
+            long startTime = System.nanoTime();
+            TransformContext ctx = applyStrategies(className, classNode, strategies);
+            TOTAL_TRANSFORM_TIME.addAndGet(System.nanoTime() - startTime);
+            TRANSFORMS_APPLIED.incrementAndGet();
+            
+            if (ctx.failed) {
+                // Keep the partial result out of the bytecode cache
+                throw new IllegalStateException("One or more strategies failed for " + className);
+            }
+            return true;
+        }
+        
+        @Override
+        public long fingerprint() {
+            return registryFingerprint();
+        }
     }
     
     // ========================================
@@ -152,6 +292,7 @@ public final class DeepMixTransformers implements IClassTransformer {
         Set<String> addedMethods;
         Set<String> addedFields;
         boolean modified;
+        boolean failed;
         
         TransformContext() {
             this.methodMap = new HashMap<>();
@@ -168,6 +309,7 @@ public final class DeepMixTransformers implements IClassTransformer {
             this.addedMethods.clear();
             this.addedFields.clear();
             this.modified = false;
+            this.failed = false;
             
             // Build lookup maps
             for (MethodNode method : classNode.methods) {
@@ -207,21 +349,13 @@ public final class DeepMixTransformers implements IClassTransformer {
     }
     
     // ========================================
-    // Transformer Cache
+    // Chain Fingerprint
     // ========================================
     
-    private static final class TransformerCache {
-        final String className;
-        final byte[] originalBytecode;
-        final long timestamp;
-        volatile byte[] transformedBytecode;
-        
-        TransformerCache(String className, byte[] originalBytecode) {
-            this.className = className;
-            this.originalBytecode = originalBytecode;
-            this.timestamp = System.nanoTime();
-        }
-    }
+    /**
+     * Memoized chain fingerprint for one target class
+     */
+    private record ChainEntry(long configRevision, int strategyCount, long fingerprint) {}
     
     // ========================================
     // Method Injection Transformer
@@ -982,10 +1116,12 @@ public final class DeepMixTransformers implements IClassTransformer {
             
         return Map.of(
             "transforms_applied", TRANSFORMS_APPLIED.get(),
+            "transforms_from_cache", TRANSFORMS_FROM_CACHE.get(),
             "total_time_ms", TOTAL_TRANSFORM_TIME.get() / 1_000_000,
             "average_time_ms", avgTime,
             "registered_classes", CLASS_TRANSFORMS.size(),
-            "cache_size", CACHE.size()
+            "cache_size", DeepMixOptimizer.BytecodeCache.stats().entries,
+            "cache_hit_ratio", DeepMixOptimizer.BytecodeCache.hitRatio()
         );
     }
     
@@ -995,5 +1131,6 @@ public final class DeepMixTransformers implements IClassTransformer {
     public static void clearStatistics() {
         TRANSFORMS_APPLIED.set(0);
         TOTAL_TRANSFORM_TIME.set(0);
+        TRANSFORMS_FROM_CACHE.set(0);
     }
 }
@@ -56,6 +56,7 @@ import jdk.incubator.vector.*;
 
 // DeepMix Integration
 import stellar.snow.astralis.integration.DeepMix.Core.DeepMixCore.*;
+import stellar.snow.astralis.integration.DeepMix.Core.DeepMixOptimizer;
 import stellar.snow.astralis.integration.DeepMix.Core.DeepMixStabilizer.*;
 import stellar.snow.astralis.integration.DeepMix.Core.DeepMixDataFormats.*;
 import stellar.snow.astralis.integration.DeepMixTransformers.*;
@@ -12596,10 +12597,12 @@ public static final class BytecodeStabilizer {
         transformsValidated.incrementAndGet();
 
         try {
-            // Phase 1: Write the ClassNode to bytes
-            ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
-            transformedNode.accept(writer);
-            byte[] transformedBytes = writer.toByteArray();
+            // Phase 1: Write the ClassNode to bytes, recomputing frames only for changed methods
+            byte[] transformedBytes = DeepMixOptimizer.LazyFrames.write(
+                transformedNode,
+                DeepMixOptimizer.LazyFrames.snapshot(originalBytes),
+                null
+            );
 
             // Phase 2: Verify the bytecode using ASM's CheckClassAdapter
             boolean valid = verifyBytecode(transformedBytes, targetClass);
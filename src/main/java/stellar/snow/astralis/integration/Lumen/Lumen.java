@@ -53,6 +53,7 @@ import net.minecraft.world.chunk.Chunk;
 import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
 import net.minecraftforge.fml.common.Loader;
 import net.minecraftforge.fml.relauncher.IFMLLoadingPlugin;
+import stellar.snow.astralis.integration.DeepMix.Core.DeepMixOptimizer;
 
 import java.lang.foreign.*;
 import java.lang.invoke.*;
@@ -1619,11 +1620,32 @@ public final class LumenClassTransformer implements IClassTransformer {
     private static final String CHECK_LIGHT_FOR = "func_180500_c"; // checkLightFor
     private static final String GET_LIGHT_FOR = "func_175642_b";   // getLightFor
     
+    // Position in the shared ClassNode transformer (before DeepMix strategies)
+    private static final int SHARED_PRIORITY = 400;
+    
+    public LumenClassTransformer() {
+        // Same visitors, run on the shared ClassNode when the coordinating transformer is installed
+        DeepMixOptimizer.SharedClassNodeTransformer.register(DeepMixOptimizer.SharedClassNodeTransformer.visitor(
+            "lumen:world", SHARED_PRIORITY, List.of(internalName(WORLD_CLASS)), WorldClassVisitor::new));
+        DeepMixOptimizer.SharedClassNodeTransformer.register(DeepMixOptimizer.SharedClassNodeTransformer.visitor(
+            "lumen:chunk", SHARED_PRIORITY, List.of(internalName(CHUNK_CLASS)), ChunkClassVisitor::new));
+        DeepMixOptimizer.SharedClassNodeTransformer.register(DeepMixOptimizer.SharedClassNodeTransformer.visitor(
+            "lumen:chunk-provider-server", SHARED_PRIORITY, List.of(internalName(CHUNK_PROVIDER_SERVER_CLASS)),
+            ChunkProviderServerClassVisitor::new));
+    }
+    
+    private static String internalName(String className) {
+        return className.replace('.', '/');
+    }
+    
     @Override
     public byte[] transform(String name, String transformedName, byte[] basicClass) {
         if (basicClass == null) {
             return null;
         }
+        if (DeepMixOptimizer.SharedClassNodeTransformer.isInstalled()) {
+            return basicClass;
+        }
         
         return switch (transformedName) {
             case WORLD_CLASS -> transformWorld(basicClass);
@@ -1639,13 +1661,8 @@ public final class LumenClassTransformer implements IClassTransformer {
     private byte[] transformWorld(byte[] basicClass) {
         LOGGER.info("Transforming World class for Lumen lighting engine");
         
-        ClassReader reader = new ClassReader(basicClass);
-        ClassWriter writer = new ClassWriter(reader, ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
-        ClassVisitor visitor = new WorldClassVisitor(writer);
-        
         try {
-            reader.accept(visitor, 0);
-            return writer.toByteArray();
+            return DeepMixOptimizer.LazyFrames.rewrite(basicClass, WorldClassVisitor::new);
         } catch (Exception e) {
             LOGGER.error("Failed to transform World class", e);
             return basicClass;
@@ -1658,13 +1675,8 @@ public final class LumenClassTransformer implements IClassTransformer {
     private byte[] transformChunk(byte[] basicClass) {
         LOGGER.info("Transforming Chunk class for Lumen lighting data");
         
-        ClassReader reader = new ClassReader(basicClass);
-        ClassWriter writer = new ClassWriter(reader, ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
-        ClassVisitor visitor = new ChunkClassVisitor(writer);
-        
         try {
-            reader.accept(visitor, 0);
-            return writer.toByteArray();
+            return DeepMixOptimizer.LazyFrames.rewrite(basicClass, ChunkClassVisitor::new);
         } catch (Exception e) {
             LOGGER.error("Failed to transform Chunk class", e);
             return basicClass;
@@ -1677,13 +1689,8 @@ public final class LumenClassTransformer implements IClassTransformer {
     private byte[] transformChunkProviderServer(byte[] basicClass) {
         LOGGER.info("Transforming ChunkProviderServer for Lumen processing hooks");
         
-        ClassReader reader = new ClassReader(basicClass);
-        ClassWriter writer = new ClassWriter(reader, ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
-        ClassVisitor visitor = new ChunkProviderServerClassVisitor(writer);
-        
         try {
-            reader.accept(visitor, 0);
-            return writer.toByteArray();
+            return DeepMixOptimizer.LazyFrames.rewrite(basicClass, ChunkProviderServerClassVisitor::new);
         } catch (Exception e) {
             LOGGER.error("Failed to transform ChunkProviderServer class", e);
             return basicClass;
@@ -4422,11 +4429,48 @@ public final class CompatibilityFirstTransformer implements IClassTransformer {
     // Initialization
     // ─────────────────────────────────────────────────────────────────────────────────────
     
+    /**
+     * Position in the shared ClassNode transformer (just after LumenClassTransformer).
+     */
+    private static final int SHARED_PRIORITY = 410;
+    
     public CompatibilityFirstTransformer() {
         LOGGER.info("Compatibility-First ASM Transformer initialized");
         
         // Register Lumen's own transformations
         registerLumenTransformations();
+        registerSharedTransforms();
+    }
+    
+    /**
+     * Registers the same conflict-gated transformations with the shared ClassNode transformer.
+     */
+    private void registerSharedTransforms() {
+        registerSharedTransform("lumen-compat:world", "net.minecraft.world.World", WorldTransformer::new);
+        registerSharedTransform("lumen-compat:chunk", "net.minecraft.world.chunk.Chunk", ChunkTransformer::new);
+        registerSharedTransform("lumen-compat:chunk-provider", "net.minecraft.world.gen.ChunkProviderServer",
+            ChunkProviderTransformer::new);
+    }
+    
+    private void registerSharedTransform(String id, String className, UnaryOperator<ClassVisitor> visitor) {
+        String internalName = className.replace('.', '/');
+        DeepMixOptimizer.ClassTransform transform =
+            DeepMixOptimizer.SharedClassNodeTransformer.visitor(id, SHARED_PRIORITY, List.of(internalName), visitor);
+        
+        DeepMixOptimizer.SharedClassNodeTransformer.register(DeepMixOptimizer.SharedClassNodeTransformer.of(
+            id, SHARED_PRIORITY, false,
+            name -> name.equals(internalName) && !hasConflict(className) && !safeMode.get(),
+            classNode -> {
+                try {
+                    transform.apply(classNode);
+                    LOGGER.debug("Applied Lumen transformation to {}", className);
+                    return true;
+                } catch (Exception e) {
+                    LOGGER.error("Failed to transform {}. Entering safe mode.", className, e);
+                    safeMode.set(true);
+                    throw e;
+                }
+            }));
     }
     
     /**
@@ -4471,8 +4515,9 @@ public final class CompatibilityFirstTransformer implements IClassTransformer {
             detectAndRegisterTransformer(name, basicClass);
         }
         
-        // Check if we should transform this class
-        if (shouldTransformClass(transformedName)) {
+        // Check if we should transform this class (on the shared ClassNode, if installed)
+        if (shouldTransformClass(transformedName)
+                && !DeepMixOptimizer.SharedClassNodeTransformer.isInstalled()) {
             // Check for conflicts first
             if (hasConflict(transformedName)) {
                 LOGGER.warn("Conflict detected for class {}. Skipping Lumen transformation.", transformedName);
@@ -4595,21 +4640,21 @@ public final class CompatibilityFirstTransformer implements IClassTransformer {
      * Applies Lumen's ASM transformation.
      */
     private byte[] applyLumenTransformation(String className, byte[] bytecode) {
-        ClassReader reader = new ClassReader(bytecode);
-        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
-        
-        ClassVisitor visitor = switch (className) {
-            case "net.minecraft.world.World" -> new WorldTransformer(writer);
-            case "net.minecraft.world.chunk.Chunk" -> new ChunkTransformer(writer);
-            case "net.minecraft.world.gen.ChunkProviderServer" -> new ChunkProviderTransformer(writer);
-            default -> writer;
+        UnaryOperator<ClassVisitor> visitor = switch (className) {
+            case "net.minecraft.world.World" -> WorldTransformer::new;
+            case "net.minecraft.world.chunk.Chunk" -> ChunkTransformer::new;
+            case "net.minecraft.world.gen.ChunkProviderServer" -> ChunkProviderTransformer::new;
+            default -> null;
         };
+        if (visitor == null) {
+            return bytecode;
+        }
         
-        reader.accept(visitor, 0);
+        byte[] transformed = DeepMixOptimizer.LazyFrames.rewrite(bytecode, visitor);
         
         LOGGER.debug("Applied Lumen transformation to {}", className);
         
-        return writer.toByteArray();
+        return transformed;
     }
     
     /**
@@ -111,6 +111,29 @@ public final class DeepBytecodeJVMOptimizer {
         private static final ConcurrentHashMap<String, byte[]> OPTIMIZED_BYTECODE_CACHE = 
             new ConcurrentHashMap<>(8192, 0.75f, Runtime.getRuntime().availableProcessors());
 
+        // Classes already optimized on the shared ClassNode, to skip at defineClass. The hook
+        // removes each entry; capped in case it never fires (classes past the cap are just
+        // optimized again there)
+        private static final Set<String> SHARED_OPTIMIZED = ConcurrentHashMap.newKeySet();
+        private static final int SHARED_OPTIMIZED_MAX = 4096;
+
+        // Runs last in the shared ClassNode transformer, after every functional transform
+        private static final int SHARED_PRIORITY = 900;
+
+        static {
+            DeepMixOptimizer.SharedClassNodeTransformer.register(
+                DeepMixOptimizer.SharedClassNodeTransformer.of(
+                    "mini_dirtyroom:jvm-optimizer", SHARED_PRIORITY, false,
+                    className -> true,
+                    classNode -> {
+                        optimizeNode(classNode);
+                        if (SHARED_OPTIMIZED.size() < SHARED_OPTIMIZED_MAX) {
+                            SHARED_OPTIMIZED.add(classNode.name.replace('/', '.'));
+                        }
+                        return true;
+                    }));
+        }
+
         /**
          * Core bytecode transformation pipeline with 15+ optimization passes
          */
@@ -121,6 +144,11 @@ public final class DeepBytecodeJVMOptimizer {
         )
         public static byte[] transformBytecode(byte[] originalBytecode, String className, 
                                                ClassLoader loader) {
+            // Already optimized by the shared ClassNode transformer
+            if (SHARED_OPTIMIZED.remove(className)) {
+                return originalBytecode;
+            }
+
             // Fast-path: Check cache first
             byte[] cached = OPTIMIZED_BYTECODE_CACHE.get(className);
             if (cached != null && !isClassModified(className, originalBytecode)) {
@@ -131,85 +159,91 @@ public final class DeepBytecodeJVMOptimizer {
                 ClassReader reader = new ClassReader(originalBytecode);
                 ClassNode classNode = new ClassNode(ASM9);
                 reader.accept(classNode, ClassReader.EXPAND_FRAMES);
+                DeepMixOptimizer.LazyFrames.Snapshot before = DeepMixOptimizer.LazyFrames.snapshot(classNode);
 
-                // ═══ OPTIMIZATION PASS 1: Dead Code Elimination ═══
-                eliminateDeadCode(classNode);
+                optimizeNode(classNode);
 
-                // ═══ OPTIMIZATION PASS 2: Constant Folding & Propagation ═══
-                performConstantFolding(classNode);
-                propagateConstants(classNode);
+                // Write optimized bytecode; frames only for the methods the passes touched
+                byte[] optimized = DeepMixOptimizer.LazyFrames.write(classNode, before, reader);
 
-                // ═══ OPTIMIZATION PASS 3: Method Inlining ═══
-                inlineSmallMethods(classNode);
-                inlineGettersSetters(classNode);
+                // Verify bytecode integrity
+                if (verifyBytecode(optimized)) {
+                    OPTIMIZED_BYTECODE_CACHE.put(className, optimized);
+                    return optimized;
+                }
 
-                // ═══ OPTIMIZATION PASS 4: Loop Optimization ═══
-                optimizeLoops(classNode);
-                unrollSmallLoops(classNode);
-                hoistInvariantCode(classNode);
+                // Fallback to original if verification fails
+                return originalBytecode;
 
-                // ═══ OPTIMIZATION PASS 5: Devirtualization ═══
-                devirtualizeMethodCalls(classNode);
-                optimizeInterfaceCalls(classNode);
+            } catch (Throwable t) {
+                logOptimizationFailure(className, t);
+                return originalBytecode;  // Safety first
+            }
+        }
 
-                // ═══ OPTIMIZATION PASS 6: Escape Analysis & Allocation Removal ═══
-                performEscapeAnalysis(classNode);
-                eliminateAllocations(classNode);
+        /**
+         * Run every optimization pass on a parsed class, in order
+         */
+        public static void optimizeNode(ClassNode classNode) {
+            // ═══ OPTIMIZATION PASS 1: Dead Code Elimination ═══
+            eliminateDeadCode(classNode);
 
-                // ═══ OPTIMIZATION PASS 7: Synchronization Optimization ═══
-                optimizeSynchronization(classNode);
-                elideLocks(classNode);
+            // ═══ OPTIMIZATION PASS 2: Constant Folding & Propagation ═══
+            performConstantFolding(classNode);
+            propagateConstants(classNode);
 
-                // ═══ OPTIMIZATION PASS 8: Branch Prediction Hints ═══
-                optimizeBranches(classNode);
-                reorderBasicBlocks(classNode);
+            // ═══ OPTIMIZATION PASS 3: Method Inlining ═══
+            inlineSmallMethods(classNode);
+            inlineGettersSetters(classNode);
 
-                // ═══ OPTIMIZATION PASS 9: Arithmetic Optimization ═══
-                optimizeArithmetic(classNode);
-                strengthReduceOperations(classNode);
+            // ═══ OPTIMIZATION PASS 4: Loop Optimization ═══
+            optimizeLoops(classNode);
+            unrollSmallLoops(classNode);
+            hoistInvariantCode(classNode);
 
-                // ═══ OPTIMIZATION PASS 10: Array Access Optimization ═══
-                optimizeArrayAccess(classNode);
-                eliminateBoundsChecks(classNode);
+            // ═══ OPTIMIZATION PASS 5: Devirtualization ═══
+            devirtualizeMethodCalls(classNode);
+            optimizeInterfaceCalls(classNode);
 
-                // ═══ OPTIMIZATION PASS 11: String Optimization ═══
-                optimizeStringOperations(classNode);
-                internStringConstants(classNode);
+            // ═══ OPTIMIZATION PASS 6: Escape Analysis & Allocation Removal ═══
+            performEscapeAnalysis(classNode);
+            eliminateAllocations(classNode);
 
-                // ═══ OPTIMIZATION PASS 12: Exception Handling Optimization ═══
-                optimizeExceptionHandling(classNode);
-                minimizeTryCatchBlocks(classNode);
+            // ═══ OPTIMIZATION PASS 7: Synchronization Optimization ═══
+            optimizeSynchronization(classNode);
+            elideLocks(classNode);
 
-                // ═══ OPTIMIZATION PASS 13: Field Access Optimization ═══
-                optimizeFieldAccess(classNode);
-                promoteFieldsToRegisters(classNode);
+            // ═══ OPTIMIZATION PASS 8: Branch Prediction Hints ═══
+            optimizeBranches(classNode);
+            reorderBasicBlocks(classNode);
 
-                // ═══ OPTIMIZATION PASS 14: Type Analysis & Narrowing ═══
-                performTypeAnalysis(classNode);
-                narrowTypes(classNode);
+            // ═══ OPTIMIZATION PASS 9: Arithmetic Optimization ═══
+            optimizeArithmetic(classNode);
+            strengthReduceOperations(classNode);
 
-                // ═══ OPTIMIZATION PASS 15: CPU Cache Optimization ═══
-                optimizeForCacheLocality(classNode);
-                alignHotPaths(classNode);
+            // ═══ OPTIMIZATION PASS 10: Array Access Optimization ═══
+            optimizeArrayAccess(classNode);
+            eliminateBoundsChecks(classNode);
 
-                // Write optimized bytecode
-                ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
-                classNode.accept(writer);
-                byte[] optimized = writer.toByteArray();
+            // ═══ OPTIMIZATION PASS 11: String Optimization ═══
+            optimizeStringOperations(classNode);
+            internStringConstants(classNode);
 
-                // Verify bytecode integrity
-                if (verifyBytecode(optimized)) {
-                    OPTIMIZED_BYTECODE_CACHE.put(className, optimized);
-                    return optimized;
-                }
+            // ═══ OPTIMIZATION PASS 12: Exception Handling Optimization ═══
+            optimizeExceptionHandling(classNode);
+            minimizeTryCatchBlocks(classNode);
 
-                // Fallback to original if verification fails
-                return originalBytecode;
+            // ═══ OPTIMIZATION PASS 13: Field Access Optimization ═══
+            optimizeFieldAccess(classNode);
+            promoteFieldsToRegisters(classNode);
 
-            } catch (Throwable t) {
-                logOptimizationFailure(className, t);
-                return originalBytecode;  // Safety first
-            }
+            // ═══ OPTIMIZATION PASS 14: Type Analysis & Narrowing ═══
+            performTypeAnalysis(classNode);
+            narrowTypes(classNode);
+
+            // ═══ OPTIMIZATION PASS 15: CPU Cache Optimization ═══
+            optimizeForCacheLocality(classNode);
+            alignHotPaths(classNode);
         }
 
         /**
@@ -2607,6 +2641,7 @@ public final class DeepBytecodeJVMOptimizer {
                 ClassReader reader = new ClassReader(originalBytecode);
                 ClassNode classNode = new ClassNode(ASM9);
                 reader.accept(classNode, ClassReader.EXPAND_FRAMES);
+                DeepMixOptimizer.LazyFrames.Snapshot before = DeepMixOptimizer.LazyFrames.snapshot(classNode);
 
                 BytecodeAnalyzer analyzer = BytecodeTransformationEngine.ANALYZER_CACHE.get();
                 analyzer.reset(classNode);
@@ -2665,11 +2700,8 @@ public final class DeepBytecodeJVMOptimizer {
                     return originalBytecode;
                 }
 
-                // Write optimized bytecode
-                ClassWriter writer = new SmartClassWriter(
-                    ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES, loader);
-                classNode.accept(writer);
-                byte[] optimized = writer.toByteArray();
+                // Write optimized bytecode; frames only for the methods the passes touched
+                byte[] optimized = DeepMixOptimizer.LazyFrames.write(classNode, before, reader);
 
                 // S4: Post-transform verification
                 if (!SafetyGuarantees.verifyBytecode(optimized)) {
@@ -3908,7 +3940,7 @@ public final class DeepBytecodeJVMOptimizer {
          */
         private static byte[] generateConstFoldCanary() {
             try {
-                ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+                ClassWriter cw = new DeepMixOptimizer.SafeClassWriter(ClassWriter.COMPUTE_FRAMES);
                 cw.visit(V17, ACC_PUBLIC, "astralis/canary/CanaryConstFold", null,
                     "java/lang/Object", null);
 
@@ -3945,7 +3977,7 @@ public final class DeepBytecodeJVMOptimizer {
          */
         private static byte[] generateDeadCodeCanary() {
             try {
-                ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+                ClassWriter cw = new DeepMixOptimizer.SafeClassWriter(ClassWriter.COMPUTE_FRAMES);
                 cw.visit(V17, ACC_PUBLIC, "astralis/canary/CanaryDeadCode", null,
                     "java/lang/Object", null);
 
@@ -3980,7 +4012,7 @@ public final class DeepBytecodeJVMOptimizer {
          */
         private static byte[] generatePassthroughCanary() {
             try {
-                ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+                ClassWriter cw = new DeepMixOptimizer.SafeClassWriter(ClassWriter.COMPUTE_FRAMES);
                 cw.visit(V17, ACC_PUBLIC, "astralis/canary/CanaryPassthrough", null,
                     "java/lang/Object", null);
 
@@ -4012,7 +4044,7 @@ public final class DeepBytecodeJVMOptimizer {
          */
         private static byte[] generateLoopCanary() {
             try {
-                ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+                ClassWriter cw = new DeepMixOptimizer.SafeClassWriter(ClassWriter.COMPUTE_FRAMES);
                 cw.visit(V17, ACC_PUBLIC, "astralis/canary/CanaryLoop", null,
                     "java/lang/Object", null);
 
@@ -1213,7 +1213,8 @@ public final class LWJGLTransformEngine implements ClassFileTransformer {
     /**
      * A ClassWriter that overrides getCommonSuperClass to handle cases
      * where LWJGL 2 classes may no longer exist on the classpath.
-     * This prevents ClassNotFoundException during frame computation.
+     * Answers come from DeepMix's class-hierarchy index first, so frame
+     * computation does not load classes mid-transform.
      */
     static final class SmartClassWriter extends ClassWriter {
 
@@ -1232,6 +1233,11 @@ public final class LWJGLTransformEngine implements ClassFileTransformer {
             if (rt1 == null) rt1 = type1;
             if (rt2 == null) rt2 = type2;
 
+            String common = DeepMixOptimizer.ClassHierarchy.commonSuperClass(rt1, rt2);
+            if (common != null) {
+                return common;
+            }
+
             try {
                 return super.getCommonSuperClass(rt1, rt2);
             } catch (Throwable t) {
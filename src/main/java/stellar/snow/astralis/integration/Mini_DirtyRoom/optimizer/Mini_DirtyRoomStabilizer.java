@@ -1655,7 +1655,7 @@ public final class Mini_DirtyRoomStabilizer {
      * Convert ClassNode to byte array.
      */
     private static byte[] classNodeToBytes(ClassNode classNode) {
-        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+        ClassWriter writer = new DeepMixOptimizer.SafeClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
         classNode.accept(writer);
         return writer.toByteArray();
     }
@@ -1,5 +1,7 @@
 package stellar.snow.astralis.mixins;
 
+import stellar.snow.astralis.bridge.EntitySlabStore;
+import stellar.snow.astralis.bridge.MinecraftECSBridge;
 import stellar.snow.astralis.engine.ecs.core.Entity;
 
 import java.lang.foreign.MemorySegment;
@@ -147,13 +149,16 @@ public interface BridgeMixinInterface {
     }
 
     /**
-     * Gets direct access to this entity's component memory offset.
+     * Gets direct access to this entity's component memory offset, relative to
+     * {@code MinecraftECSBridge.getComponentMemory(slot)}.
      *
      * @return memory offset, or -1 if not registered
      */
     default long astralis$getComponentMemoryOffset() {
         int slot = astralis$getBridgeSlot();
-        return slot >= 0 ? (long) slot * MinecraftECSBridge.ENTITY_BLOCK_SIZE : -1L;
+        return slot >= 0
+                ? (long) (slot & EntitySlabStore.SLAB_MASK) * MinecraftECSBridge.ENTITY_BLOCK_SIZE
+                : -1L;
     }
 
     /**
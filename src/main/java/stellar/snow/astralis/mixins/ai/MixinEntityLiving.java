@@ -170,7 +170,7 @@ public abstract class MixinEntityLiving extends EntityLivingBase implements Brid
         if (bridge == null) return;
 
         try {
-            MemorySegment memory = bridge.getComponentMemory();
+            MemorySegment memory = bridge.getComponentMemory(slot);
             long base = bridge.getEntityMemoryOffset(slot);
 
             long flags = memory.get(ValueLayout.JAVA_LONG, base + BridgeComponents.META_FLAGS);
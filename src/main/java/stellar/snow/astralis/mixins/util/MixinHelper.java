@@ -197,7 +197,7 @@ public final class MixinHelper {
         if (bridge == null) return 0L;
 
         try {
-            MemorySegment memory = bridge.getComponentMemory();
+            MemorySegment memory = bridge.getComponentMemory(slot);
             long base = bridge.getEntityMemoryOffset(slot);
             return memory.get(ValueLayout.JAVA_LONG, base + BridgeComponents.META_FLAGS);
         } catch (Exception e) {
@@ -218,7 +218,7 @@ public final class MixinHelper {
         if (bridge == null) return;
 
         try {
-            MemorySegment memory = bridge.getComponentMemory();
+            MemorySegment memory = bridge.getComponentMemory(slot);
             long base = bridge.getEntityMemoryOffset(slot);
             long current = memory.get(ValueLayout.JAVA_LONG, base + BridgeComponents.META_FLAGS);
             memory.set(ValueLayout.JAVA_LONG, base + BridgeComponents.META_FLAGS, current | flags);
@@ -240,7 +240,7 @@ public final class MixinHelper {
         if (bridge == null) return;
 
         try {
-            MemorySegment memory = bridge.getComponentMemory();
+            MemorySegment memory = bridge.getComponentMemory(slot);
             long base = bridge.getEntityMemoryOffset(slot);
             long current = memory.get(ValueLayout.JAVA_LONG, base + BridgeComponents.META_FLAGS);
             memory.set(ValueLayout.JAVA_LONG, base + BridgeComponents.META_FLAGS, current & ~flags);